@@ -53,6 +53,9 @@ private:
     // Validate a TRADE_CREATED event
     void validateTradeCreated(const Event& event);
 
+    // Validate a v2 binary TRADE_CREATED payload; returns the trade_id or "" if malformed
+    std::string validateBinaryTradeCreated(const Event& event) const;
+
     // Extract trade_id from JSON payload (simple parsing)
     std::string extractTradeId(const std::string& json_payload) const;
 };
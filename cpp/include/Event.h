@@ -13,6 +13,12 @@ enum class EventType : uint8_t {
     POSITION_UPDATED = 3            // Future
 };
 
+// Payload encoding, stored in header byte 17 (v2; always 0 = JSON in v1 logs)
+enum class PayloadEncoding : uint8_t {
+    JSON = 0,
+    BINARY = 1  // Fixed layout, see DoubleEntryValidator::validateBinaryTradeCreated
+};
+
 // Event record structure matching Java binary format
 // Layout (little-endian):
 //   Offset | Size | Field
@@ -20,15 +26,17 @@ enum class EventType : uint8_t {
 //   0      | 8    | sequence_num
 //   8      | 8    | timestamp_ns
 //   16     | 1    | event_type
-//   17     | 3    | reserved (padding)
+//   17     | 1    | payload_encoding (v2; reserved in v1)
+//   18     | 2    | reserved (padding)
 //   20     | 4    | payload_length
-//   24     | N    | payload (JSON)
+//   24     | N    | payload (JSON or binary)
 //   24+N   | 4    | crc32
 struct Event {
     uint64_t sequence_num;
-    uint64_t timestamp_ns;
+    uint64_t timestamp_ns;  // append time, ns since the Unix epoch (compare with system_clock)
     EventType event_type;
-    std::string payload;  // JSON-encoded
+    PayloadEncoding payload_encoding = PayloadEncoding::JSON;
+    std::string payload;  // JSON text or binary bytes, see payload_encoding
     uint32_t crc32;
 
     // Calculate total record size in bytes (header + payload + CRC)
@@ -40,15 +48,16 @@ struct Event {
 // File header structure (16 bytes, written once at start of log)
 struct FileHeader {
     uint32_t magic;      // 0x54524144 ("TRAD")
-    uint32_t version;    // 1
+    uint32_t version;    // 1 (JSON payloads) or 2 (per-record payload encoding)
     uint64_t reserved;   // 0x0000000000000000
 
     static constexpr uint32_t EXPECTED_MAGIC = 0x54524144;
-    static constexpr uint32_t EXPECTED_VERSION = 1;
+    static constexpr uint32_t MIN_VERSION = 1;
+    static constexpr uint32_t MAX_VERSION = 2;
     static constexpr size_t SIZE = 16;
 
     bool isValid() const {
-        return magic == EXPECTED_MAGIC && version == EXPECTED_VERSION;
+        return magic == EXPECTED_MAGIC && version >= MIN_VERSION && version <= MAX_VERSION;
     }
 };
 
@@ -31,7 +31,8 @@ public:
     /**
      * Read next event from log
      * @param event Output parameter to store event
-     * @return true if event read, false if EOF
+     * @return true if event read, false if EOF (including a zero-filled,
+     *         preallocated tail left by the Java mapped writer)
      * @throws ParseException on corrupted data
      */
     bool readNext(Event& event);
@@ -33,6 +33,20 @@ void DoubleEntryValidator::validateTradeCreated(const Event& event) {
     // 2. Calculate expected debit/credit amounts
     // 3. Validate that they sum to zero
 
+    if (event.payload_encoding == PayloadEncoding::BINARY) {
+        if (validateBinaryTradeCreated(event).empty()) {
+            stats_.validation_errors++;
+            std::cerr << "Validation error: Malformed binary trade event at sequence "
+                      << event.sequence_num << std::endl;
+            return;
+        }
+        stats_.trades_validated++;
+        if (stats_.trades_validated % 1000 == 0) {
+            std::cout << "Validated " << stats_.trades_validated << " trades" << std::endl;
+        }
+        return;
+    }
+
     // Extract trade_id for logging
     std::string trade_id = extractTradeId(event.payload);
 
@@ -82,6 +96,38 @@ std::string DoubleEntryValidator::extractTradeId(const std::string& json_payload
     return json_payload.substr(pos, end_pos - pos);
 }
 
+std::string DoubleEntryValidator::validateBinaryTradeCreated(const Event& event) const {
+    // Layout (little-endian), see Java TradeCreatedPayload:
+    //   trade_id 16 | account u16+N | symbol u16+N | quantity i64+i8 | price i64+i8 | side u8 | timestamp_ns i64
+    const auto* data = reinterpret_cast<const uint8_t*>(event.payload.data());
+    size_t size = event.payload.size();
+    size_t pos = 16;
+    for (int i = 0; i < 2; ++i) {  // account_id, symbol
+        if (pos + 2 > size) {
+            return "";
+        }
+        size_t length = static_cast<size_t>(data[pos]) | (static_cast<size_t>(data[pos + 1]) << 8);
+        if (length == 0) {
+            return "";
+        }
+        pos += 2 + length;
+    }
+    pos += 9 + 9;  // quantity, price
+    if (pos + 1 + 8 != size || data[pos] > 1) {  // side must be BUY (0) or SELL (1)
+        return "";
+    }
+
+    std::ostringstream trade_id;
+    trade_id << std::hex << std::setfill('0');
+    for (int i = 0; i < 16; ++i) {
+        if (i == 4 || i == 6 || i == 8 || i == 10) {
+            trade_id << '-';
+        }
+        trade_id << std::setw(2) << static_cast<int>(data[i]);
+    }
+    return trade_id.str();
+}
+
 void DoubleEntryValidator::printSummary(std::ostream& out) const {
     out << "\n=== Validation Summary ===" << std::endl;
     out << "Events processed:   " << stats_.events_processed << std::endl;
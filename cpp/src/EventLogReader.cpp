@@ -1,4 +1,5 @@
 #include "EventLogReader.h"
+#include <atomic>
 #include <fcntl.h>
 #include <unistd.h>
 #include <sys/mman.h>
@@ -85,6 +86,16 @@ bool EventLogReader::readNext(Event& event) {
 
     // Read 24-byte fixed header
     const uint8_t* header_ptr = mapped_data_ + offset_;
+
+    // Sequence numbers start at 1; a zero sequence is space preallocated by the
+    // Java MappedEventLogWriter that has not been written yet. Treat it as EOF and
+    // re-read the same offset on the next call.
+    if (EventParser::readUint64LE(header_ptr) == 0) {
+        return false;
+    }
+    // The writer stores the sequence last with release semantics; read the rest after it
+    std::atomic_thread_fence(std::memory_order_acquire);
+
     uint32_t payload_length = EventParser::readUint32LE(header_ptr + 20);
 
     // Calculate total event size
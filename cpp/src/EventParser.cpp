@@ -65,7 +65,8 @@ Event EventParser::parse(const uint8_t* data, size_t length) {
     event.sequence_num = readUint64LE(data);
     event.timestamp_ns = readUint64LE(data + 8);
     event.event_type = static_cast<EventType>(data[16]);
-    // Skip reserved bytes [17-19]
+    event.payload_encoding = static_cast<PayloadEncoding>(data[17]);
+    // Skip reserved bytes [18-19]
     uint32_t payload_length = readUint32LE(data + 20);
 
     // Validate total length
@@ -128,6 +128,28 @@ TEST_F(EventLogReaderTest, RemapIfGrown) {
     EXPECT_EQ(event.sequence_num, 4);
 }
 
+TEST_F(EventLogReaderTest, PreallocatedZeroTailIsEof) {
+    createTestLogFile();
+
+    // Simulate a region preallocated by the Java mapped writer
+    std::ofstream file(test_file_path, std::ios::binary | std::ios::app);
+    std::vector<char> zeros(4096, 0);
+    file.write(zeros.data(), zeros.size());
+    file.close();
+
+    EventLogReader reader(test_file_path);
+    reader.open();
+
+    Event event;
+    for (int i = 1; i <= 3; ++i) {
+        ASSERT_TRUE(reader.readNext(event));
+    }
+
+    // Zero-filled space is not an event (and not corruption)
+    EXPECT_FALSE(reader.readNext(event));
+    EXPECT_FALSE(reader.eof());
+}
+
 TEST_F(EventLogReaderTest, OpenNonExistentFile) {
     EventLogReader reader("/nonexistent/path/file.bin");
     EXPECT_THROW(reader.open(), std::runtime_error);
@@ -237,3 +259,33 @@ TEST(DoubleEntryValidatorTest, HandlesEmptyPayload) {
     auto stats = validator.getStats();
     EXPECT_EQ(stats.validation_errors, 1);
 }
+
+TEST(DoubleEntryValidatorTest, ProcessBinaryTradeEvent) {
+    DoubleEntryValidator validator;
+
+    // v2 payload: uuid, "ACC-1", "AAPL", 100 (scale 0), 150.25 (15025, scale 2), SELL, timestamp
+    std::string payload(16, '\x11');
+    payload += std::string("\x05\x00", 2) + "ACC-1";
+    payload += std::string("\x04\x00", 2) + "AAPL";
+    payload += std::string("\x64\x00\x00\x00\x00\x00\x00\x00\x00", 9);
+    payload += std::string("\xb1\x3a\x00\x00\x00\x00\x00\x00\x02", 9);
+    payload += std::string("\x01", 1);
+    payload += std::string(8, '\x00');
+
+    Event event;
+    event.sequence_num = 1;
+    event.timestamp_ns = 1000000;
+    event.event_type = EventType::TRADE_CREATED;
+    event.payload_encoding = PayloadEncoding::BINARY;
+    event.payload = payload;
+    validator.processEvent(event);
+
+    event.sequence_num = 2;
+    event.payload = payload.substr(0, payload.size() - 1);  // Truncated
+    validator.processEvent(event);
+
+    auto stats = validator.getStats();
+    EXPECT_EQ(stats.events_processed, 2);
+    EXPECT_EQ(stats.trades_validated, 1);
+    EXPECT_EQ(stats.validation_errors, 1);
+}
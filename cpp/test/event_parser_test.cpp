@@ -131,6 +131,36 @@ TEST_F(EventParserTest, ParseFileHeader_Valid) {
     EXPECT_TRUE(fh.isValid());
 }
 
+TEST_F(EventParserTest, ParseFileHeader_Version2) {
+    std::vector<uint8_t> header = {0x44, 0x41, 0x52, 0x54, 0x02, 0x00, 0x00, 0x00,
+                                   0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00};
+
+    FileHeader fh = EventParser::parseFileHeader(header.data(), header.size());
+    EXPECT_EQ(fh.version, 2);
+
+    header[4] = 0x03;  // Unknown future version
+    EXPECT_THROW({
+        EventParser::parseFileHeader(header.data(), header.size());
+    }, ParseException);
+}
+
+TEST_F(EventParserTest, ParseEvent_PayloadEncoding) {
+    std::string payload("\x01\x02\x00\x03", 4);
+    auto data = createTestEvent(7, 1000, EventType::TRADE_CREATED, payload);
+    EXPECT_EQ(EventParser::parse(data.data(), data.size()).payload_encoding, PayloadEncoding::JSON);
+
+    // Mark as binary (byte 17) and fix up the CRC
+    data[17] = static_cast<uint8_t>(PayloadEncoding::BINARY);
+    uint32_t crc = EventParser::calculateCRC32(data.data(), data.size() - 4);
+    for (int i = 0; i < 4; ++i) {
+        data[data.size() - 4 + i] = static_cast<uint8_t>((crc >> (i * 8)) & 0xFF);
+    }
+
+    Event event = EventParser::parse(data.data(), data.size());
+    EXPECT_EQ(event.payload_encoding, PayloadEncoding::BINARY);
+    EXPECT_EQ(event.payload, payload);
+}
+
 TEST_F(EventParserTest, ParseFileHeader_InvalidMagic) {
     std::vector<uint8_t> header(16, 0);
     header[0] = 0xFF;  // Wrong magic
@@ -0,0 +1,76 @@
+package com.trading.ledger.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trading.ledger.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request DTO work around POST /api/v1/trades: reading the CreateTradeRequest
+ * body, converting the stored Trade with TradeResponse.from and writing the response.
+ * The ObjectMapper is configured like Spring Boot's (Java time module, ISO dates).
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="TradeDtoBenchmark"
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class TradeDtoBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter requestWriter;
+    private ObjectWriter responseWriter;
+    private CreateTradeRequest request;
+    private byte[] requestJson;
+    private Trade trade;
+    private TradeResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        requestReader = objectMapper.readerFor(CreateTradeRequest.class);
+        requestWriter = objectMapper.writerFor(CreateTradeRequest.class);
+        responseWriter = objectMapper.writerFor(TradeResponse.class);
+
+        request = new CreateTradeRequest("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", "ACCT-000042", "AAPL",
+                new BigDecimal("100"), new BigDecimal("150.25"), "BUY");
+        requestJson = requestWriter.writeValueAsBytes(request);
+        trade = new Trade(request.getTradeId(), request.getAccountId(), request.getSymbol(),
+                request.getQuantity(), request.getPrice(), Trade.Side.BUY, 1_700_000_000_000_000_000L);
+        trade.setId(42L);
+        trade.setCreatedAt(Instant.parse("2024-01-02T03:04:05.123456Z"));
+        response = TradeResponse.from(trade);
+    }
+
+    @Benchmark
+    public CreateTradeRequest readRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws IOException {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public TradeResponse responseFromTrade() {
+        return TradeResponse.from(trade);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,73 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-log replay throughput of EventLogReader (events/s; each invocation reads the whole log):
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="EventLogReaderBenchmark"
+ *
+ * forEach/nextRecord hand out a zero-copy view; next() copies each record into an Event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventLogReaderBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+
+    private Path dir;
+    private Path logPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("eventlog-reader-bench");
+        logPath = dir.resolve("event_log.bin");
+        Trade trade = new Trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", "ACCT-000042", "AAPL",
+                new BigDecimal("100"), new BigDecimal("150.25"), Trade.Side.BUY, 1_700_000_000_000_000_000L);
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath)) {
+            for (int i = 0; i < EVENTS; i++) {
+                writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long forEach(Blackhole blackhole) throws IOException {
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            return reader.forEach(record -> blackhole.consume(record.payload().get()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long nextEvent(Blackhole blackhole) throws IOException {
+        long count = 0;
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            Event event;
+            while ((event = reader.next()) != null) {
+                blackhole.consume(event);
+                count++;
+            }
+        }
+        return count;
+    }
+}
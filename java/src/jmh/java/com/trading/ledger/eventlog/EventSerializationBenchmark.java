@@ -0,0 +1,88 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building one TRADE_CREATED record, before (HashMap + Jackson + Event.serialize)
+ * and after (TradeCreatedPayload through the per-thread EventEncoder). Compare
+ * gc.alloc.rate.norm from the GC profiler (bytes allocated per event):
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="EventSerializationBenchmark"
+ *
+ * Each invocation encodes the next trade from a pool of distinct ids, accounts, symbols
+ * and amounts, with quantity and price as fresh BigDecimals, as they arrive from request
+ * parsing. Reusing one trade would let BigDecimal.toString() answer from its cache and
+ * hide that allocation. {@link #freshTrade()} measures building the trade alone; subtract
+ * it from the other two.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+
+    private static final int POOL_SIZE = 1024;
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "BRK.B", "JPM", "V"};
+
+    private final String[] tradeIds = new String[POOL_SIZE];
+    private final String[] accountIds = new String[POOL_SIZE];
+    private final long[] quantities = new long[POOL_SIZE];
+    private final long[] priceCents = new long[POOL_SIZE];
+    private int next;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < POOL_SIZE; i++) {
+            tradeIds[i] = UUID.randomUUID().toString();
+            accountIds[i] = String.format("ACCT-%06d", i * 7919 % 100_000);
+            // Quantities above 10 and prices with a scale: BigDecimal.valueOf has no cached instance for them
+            quantities[i] = 11 + (i * 37L) % 5_000;
+            priceCents[i] = 1_000 + (i * 104_729L) % 99_000_000;
+        }
+    }
+
+    @Benchmark
+    public Trade freshTrade() {
+        return nextTrade();
+    }
+
+    @Benchmark
+    public byte[] hashMapJackson() {
+        Trade trade = nextTrade();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("trade_id", trade.getTradeId());
+        payload.put("account_id", trade.getAccountId());
+        payload.put("symbol", trade.getSymbol());
+        payload.put("quantity", trade.getQuantity());
+        payload.put("price", trade.getPrice());
+        payload.put("side", trade.getSide().name());
+        payload.put("timestamp_ns", trade.getTimestampNs());
+        return new Event(++sequence, System.nanoTime(), Event.EventType.TRADE_CREATED, payload).serialize();
+    }
+
+    @Benchmark
+    public ByteBuffer payloadEncoder() {
+        Trade trade = nextTrade();
+        EventEncoder encoder = EventEncoder.local();
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        return encoder.seal(++sequence, System.nanoTime());
+    }
+
+    private Trade nextTrade() {
+        int i = next;
+        next = (i + 1) & (POOL_SIZE - 1);
+        return new Trade(tradeIds[i], accountIds[i], SYMBOLS[i & (SYMBOLS.length - 1)],
+                BigDecimal.valueOf(quantities[i]), BigDecimal.valueOf(priceCents[i], 2),
+                (i & 1) == 0 ? Trade.Side.BUY : Trade.Side.SELL, 1_700_000_000_000_000_000L + i);
+    }
+}
@@ -0,0 +1,78 @@
+package com.trading.ledger.eventlog;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append throughput of the event log under each durability mode, from one thread and
+ * from eight sharing the writer (appendContended). Override the thread count with -t, e.g.:
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="FileEventLogWriterBenchmark -t 16"
+ *
+ * FSYNC is bounded by device fsync latency (one per event); GROUP_COMMIT should
+ * scale with thread count until the batch size or disk bandwidth is reached.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileEventLogWriterBenchmark {
+
+    @Param({"NONE", "FSYNC", "GROUP_COMMIT"})
+    public DurabilityMode durability;
+
+    @Param({"256"})
+    public int maxBatchSize;
+
+    @Param({"0"})
+    public long maxLingerMicros;
+
+    private Path dir;
+    private FileEventLogWriter writer;
+    private Map<String, Object> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("eventlog-bench");
+        writer = new FileEventLogWriter(dir.resolve("event_log.bin"), EventLogOptions.builder()
+                .durability(durability)
+                .groupCommitMaxBatchSize(maxBatchSize)
+                .groupCommitMaxLingerMicros(maxLingerMicros)
+                .build());
+
+        payload = new HashMap<>();
+        payload.put("trade_id", "6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a");
+        payload.put("account_id", "ACCT-000042");
+        payload.put("symbol", "AAPL");
+        payload.put("quantity", "100");
+        payload.put("price", "150.25");
+        payload.put("side", "BUY");
+        payload.put("timestamp_ns", 1_700_000_000_000_000_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() throws IOException {
+        writer.append(Event.EventType.TRADE_CREATED, payload);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void appendContended() throws IOException {
+        writer.append(Event.EventType.TRADE_CREATED, payload);
+    }
+}
@@ -0,0 +1,62 @@
+package com.trading.ledger.eventlog;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded append latency of the FileChannel writer vs the mapped writer (durability NONE),
+ * i.e. the cost of the write() syscall per event:
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="MappedEventLogWriterBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappedEventLogWriterBenchmark {
+
+    @Param({"file", "mapped"})
+    public String writerType;
+
+    private Path dir;
+    private EventLogWriter writer;
+    private Map<String, Object> payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("eventlog-bench");
+        Path logPath = dir.resolve("event_log.bin");
+        writer = "mapped".equals(writerType)
+                ? new MappedEventLogWriter(logPath, EventLogOptions.defaults())
+                : new FileEventLogWriter(logPath, EventLogOptions.defaults());
+
+        payload = new HashMap<>();
+        payload.put("trade_id", "6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a");
+        payload.put("account_id", "ACCT-000042");
+        payload.put("symbol", "AAPL");
+        payload.put("quantity", "100");
+        payload.put("price", "150.25");
+        payload.put("side", "BUY");
+        payload.put("timestamp_ns", 1_700_000_000_000_000_000L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        try (var files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void append() throws IOException {
+        writer.append(Event.EventType.TRADE_CREATED, payload);
+    }
+}
@@ -0,0 +1,60 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TRADE_CREATED record size and encode/decode cost in the v1 (JSON) and v2 (binary) formats.
+ * Bytes per event are printed at setup; the GC profiler adds allocation per event:
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="PayloadFormatBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class PayloadFormatBenchmark {
+
+    @Param({"V1", "V2"})
+    public EventLogFormat format;
+
+    private Trade trade;
+    private EventEncoder encoder;
+    private ByteBuffer payload;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        trade = new Trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", "ACCT-000042", "AAPL",
+                new BigDecimal("100"), new BigDecimal("150.25"), Trade.Side.BUY, 1_700_000_000_000_000_000L);
+        encoder = new EventEncoder();
+
+        // Keep a copy of the payload for the decode benchmark
+        ByteBuffer record = encode();
+        int payloadLength = record.getInt(Event.PAYLOAD_LENGTH_OFFSET);
+        payload = ByteBuffer.allocate(payloadLength);
+        payload.put(record.duplicate().position(Event.RECORD_HEADER_SIZE).limit(Event.RECORD_HEADER_SIZE + payloadLength));
+        payload.flip();
+        System.out.printf("%n%s: payload %d bytes, record %d bytes per event%n",
+                format, payloadLength, record.remaining());
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        encoder.encode(format, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        return encoder.seal(++sequence, System.nanoTime());
+    }
+
+    @Benchmark
+    public Trade decode() {
+        ByteBuffer in = payload.duplicate();
+        return format == EventLogFormat.V2
+                ? TradeCreatedPayload.decodeBinary(in)
+                : TradeCreatedPayload.decodeJson(in);
+    }
+}
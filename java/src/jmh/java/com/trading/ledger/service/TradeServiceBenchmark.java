@@ -0,0 +1,92 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.config.EventLogConfig.PublishMode;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.TradeResponse;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.idempotency.TradeIdempotencyCache;
+import com.trading.ledger.mapper.EventOutboxMapper;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.position.PositionEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU and allocation cost of TradeService.createTrade outside the database: the real
+ * ledger and position services run against mappers and an event log writer that do
+ * nothing, so what is left is request-to-trade conversion, entry building, the invariant
+ * check, position deltas, metrics and logging.
+ *   mvn -Pbenchmarks test-compile exec:exec -Djmh.args="TradeServiceBenchmark"
+ *
+ * The stubs are plain proxies rather than Mockito mocks: Mockito walks the stack on every
+ * call to record where it came from, which would be most of what this measures.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Thread)
+public class TradeServiceBenchmark {
+
+    @Param({"READ_FIRST", "INSERT_FIRST"})
+    public TradeService.IdempotencyMode idempotencyMode;
+
+    private TradeService tradeService;
+    private CreateTradeRequest request;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TradeMapper tradeMapper = stub(TradeMapper.class);
+        PositionMapper positionMapper = stub(PositionMapper.class);
+
+        LedgerService ledgerService = new LedgerService(stub(LedgerEntryMapper.class),
+                new InMemoryLedgerInvariantValidator(), meterRegistry);
+        PositionEngine positionEngine = new PositionEngine(positionMapper, null, meterRegistry, false, 1,
+                PositionEngine.RebuildSource.DATABASE, "unused");
+        PositionService positionService = new PositionService(positionMapper, positionEngine);
+        TradeIdempotencyCache idempotencyCache = new TradeIdempotencyCache(tradeMapper, meterRegistry, false, 1, 0.01, 1);
+
+        tradeService = new TradeService(tradeMapper, ledgerService, positionService, stub(EventLogWriter.class),
+                stub(EventOutboxMapper.class), meterRegistry, PublishMode.SYNC,
+                Validation.buildDefaultValidatorFactory().getValidator(), idempotencyCache, idempotencyMode);
+        request = new CreateTradeRequest(UUID.randomUUID().toString(), "ACCT-000042", "AAPL",
+                new BigDecimal("100"), new BigDecimal("150.25"), "BUY");
+    }
+
+    @Benchmark
+    public TradeResponse createTrade() {
+        return tradeService.createTrade(request);
+    }
+
+    /**
+     * Every lookup finds nothing and every write reports one row, so each call takes the
+     * new-trade path.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            } else if (returnType == int.class) {
+                return 1;
+            } else if (returnType == long.class) {
+                return 0L;
+            } else if (returnType == boolean.class) {
+                return false;
+            }
+            return null;
+        });
+    }
+}
@@ -1,182 +1,484 @@
 package com.trading.ledger;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.trading.ledger.dto.CreateTradeRequest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
- * Load generator for performance testing.
- * Generates trades at a specified rate and duration.
+ * Open-model load generator for POST /api/v1/trades.
+ *
+ * Requests are released on a fixed schedule (one every 1/rate seconds) whether or not
+ * earlier ones have completed, as independent clients would send them. A single pacer
+ * thread computes each request's intended send time as it goes (nothing is scheduled
+ * ahead), waits for it and dispatches the request according to --mode:
+ * - blocking: HttpClient.send on a fixed pool of --threads platform threads
+ * - async: HttpClient.sendAsync, completions handled on the client's executor
+ * - virtual: HttpClient.send on a new virtual thread per request
+ *
+ * At most --max-in-flight requests are outstanding; past that the pacer waits for one to
+ * complete. Requests are spread round-robin over --connections HttpClient instances: over
+ * HTTP/2 each client multiplexes on one connection, so that is the connection count; over
+ * HTTP/1.1 a client opens a connection per concurrent request, bounded by --max-in-flight.
+ *
+ * Latency is measured from the intended send time, not from when a sender got to it:
+ * when the server (or the generator) falls behind, the time requests spend waiting counts,
+ * instead of being silently omitted (coordinated omission). Latencies go into an
+ * HdrHistogram {@link Recorder}; p50..p99.99 and max are printed per interval and for
+ * the whole run, and written as CSV or JSON with --output.
+ *
+ * To tell a slow server from a saturated client, every interval also reports the achieved
+ * send rate against the target, how far behind schedule the pacer dispatched (dispatch lag)
+ * and this process's CPU use.
+ *
+ * Usage: --rate=10000 --duration=60 [--mode=blocking|async|virtual] [--threads=200]
+ *        [--max-in-flight=10000] [--connections=1] [--http=1.1|2] [--url=...] [--interval=1]
+ *        [--output=results.csv|.json]
  */
 public class LoadGenerator {
 
-    private static final String API_BASE_URL = "http://localhost:8080/api/v1/trades";
+    private static final String DEFAULT_URL = "http://localhost:8080/api/v1/trades";
     private static final String[] SYMBOLS = {"AAPL", "GOOGL", "MSFT", "AMZN", "TSLA", "META", "NVDA", "AMD"};
     private static final String[] SIDES = {"BUY", "SELL"};
-    private static final int THREAD_COUNT = 10;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+    // Below this the pacer spins instead of parking, which can oversleep by ~50-100 us
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+    private static final long REQUEST_TIMEOUT_SECONDS = 5;
+    // Below this fraction of the target send rate, or above this dispatch lag, the client is the bottleneck
+    private static final double MIN_RATE_FRACTION = 0.99;
+    private static final double MAX_DISPATCH_LAG_MS = 10.0;
 
-    private final HttpClient httpClient;
+    /**
+     * How requests are sent; see the class comment.
+     */
+    public enum Mode {
+        BLOCKING, ASYNC, VIRTUAL
+    }
+
+    /**
+     * Command-line options; see the class comment.
+     */
+    public record Options(int rate, int durationSeconds, Mode mode, int threads, int maxInFlight, int connections,
+                          HttpClient.Version httpVersion, URI url, int reportIntervalSeconds, Path output) {
+
+        static Options parse(String[] args) {
+            int rate = 10_000;
+            int duration = 60;
+            Mode mode = Mode.BLOCKING;
+            int threads = 200;
+            int maxInFlight = 10_000;
+            int connections = 1;
+            HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+            URI url = URI.create(DEFAULT_URL);
+            int interval = 1;
+            Path output = null;
+            for (String arg : args) {
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (arg.startsWith("--rate=")) {
+                    rate = Integer.parseInt(value);
+                } else if (arg.startsWith("--duration=")) {
+                    duration = Integer.parseInt(value);
+                } else if (arg.startsWith("--mode=")) {
+                    mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(value);
+                } else if (arg.startsWith("--max-in-flight=")) {
+                    maxInFlight = Integer.parseInt(value);
+                } else if (arg.startsWith("--connections=")) {
+                    connections = Integer.parseInt(value);
+                } else if (arg.startsWith("--http=")) {
+                    httpVersion = switch (value) {
+                        case "1.1" -> HttpClient.Version.HTTP_1_1;
+                        case "2" -> HttpClient.Version.HTTP_2;
+                        default -> throw new IllegalArgumentException("Unknown HTTP version: " + value);
+                    };
+                } else if (arg.startsWith("--url=")) {
+                    url = URI.create(value);
+                } else if (arg.startsWith("--interval=")) {
+                    interval = Integer.parseInt(value);
+                } else if (arg.startsWith("--output=")) {
+                    output = Paths.get(value);
+                } else {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (rate <= 0 || duration <= 0 || threads <= 0 || maxInFlight <= 0 || connections <= 0 || interval <= 0) {
+                throw new IllegalArgumentException(
+                        "rate, duration, threads, max-in-flight, connections and interval must be positive");
+            }
+            return new Options(rate, duration, mode, threads, maxInFlight, connections, httpVersion, url,
+                    interval, output);
+        }
+    }
+
+    /**
+     * Latency percentiles (milliseconds, from intended send time), counts, rates and client
+     * CPU for one reporting interval, or for the whole run. clientCpuPercent is this
+     * process's CPU time over the interval as a share of all cores, or -1 if unavailable.
+     */
+    public record IntervalStats(double elapsedSeconds, long sent, long completed, long errors,
+                                double targetRatePerSecond, double sendRatePerSecond, double ratePerSecond,
+                                double maxDispatchLagMs, double clientCpuPercent,
+                                double p50, double p90, double p99, double p999, double p9999, double max) {
+
+        static IntervalStats of(double elapsedSeconds, double lengthSeconds, long sent, long errors,
+                                Histogram histogram, int targetRate, long maxDispatchLagNanos,
+                                double clientCpuPercent) {
+            double[] values = new double[PERCENTILES.length];
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                values[i] = histogram.getValueAtPercentile(PERCENTILES[i]) / 1e6;
+            }
+            long completed = histogram.getTotalCount();
+            return new IntervalStats(elapsedSeconds, sent, completed, errors, targetRate,
+                    lengthSeconds > 0 ? sent / lengthSeconds : 0,
+                    lengthSeconds > 0 ? completed / lengthSeconds : 0,
+                    maxDispatchLagNanos / 1e6, clientCpuPercent,
+                    values[0], values[1], values[2], values[3], values[4], histogram.getMaxValue() / 1e6);
+        }
+    }
+
+    /**
+     * Per-interval stats plus the whole-run total.
+     */
+    public record Result(Options options, List<IntervalStats> intervals, IntervalStats total) {
+    }
+
+    private final Options options;
+    private final HttpClient[] httpClients;
     private final ObjectMapper objectMapper;
-    private final Random random;
-    private final AtomicLong successCount;
-    private final AtomicLong errorCount;
+    private final Semaphore inFlight;
+    // Null when the JVM does not expose process CPU time
+    private final com.sun.management.OperatingSystemMXBean osBean;
+    // Nanoseconds from intended send time to response
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAccumulator maxDispatchLag = new LongAccumulator(Long::max, 0);
+    private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
 
-    public LoadGenerator() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(5))
-                .build();
+    // Written by the reporter thread, read by run() once it has stopped
+    private final List<IntervalStats> intervals = new ArrayList<>();
+    private final Histogram total = new Histogram(3);
+    private long startNanos;
+    private long lastReportNanos;
+    private long lastCpuNanos;
+    private long totalMaxDispatchLag;
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.httpClients = new HttpClient[options.connections()];
+        for (int i = 0; i < httpClients.length; i++) {
+            httpClients[i] = HttpClient.newBuilder()
+                    .version(options.httpVersion())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+        }
         this.objectMapper = new ObjectMapper();
-        this.random = new Random();
-        this.successCount = new AtomicLong(0);
-        this.errorCount = new AtomicLong(0);
+        this.inFlight = new Semaphore(options.maxInFlight());
+        this.osBean = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+                ? os : null;
     }
 
     /**
      * Generate a random trade request
      */
-    private CreateTradeRequest generateRandomTrade() {
+    private static CreateTradeRequest generateRandomTrade() {
+        // ThreadLocalRandom rather than UUID.randomUUID(), whose SecureRandom is shared by all senders
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         CreateTradeRequest request = new CreateTradeRequest();
-        request.setTradeId(UUID.randomUUID().toString());
+        request.setTradeId(new UUID((random.nextLong() & ~0xF000L) | 0x4000L,
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L).toString());
         request.setAccountId("ACCT-" + String.format("%06d", random.nextInt(1000)));
         request.setSymbol(SYMBOLS[random.nextInt(SYMBOLS.length)]);
         request.setQuantity(BigDecimal.valueOf(random.nextInt(1000) + 1));
-        request.setPrice(BigDecimal.valueOf(100.0 + random.nextDouble() * 900.0));
+        // Cents: the API rejects prices with more than 8 decimal places
+        request.setPrice(BigDecimal.valueOf(10_000 + random.nextInt(90_000), 2));
         request.setSide(SIDES[random.nextInt(SIDES.length)]);
         return request;
     }
 
+    private HttpRequest newRequest() throws JsonProcessingException {
+        return HttpRequest.newBuilder()
+                .uri(options.url())
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(generateRandomTrade())))
+                .build();
+    }
+
     /**
-     * Submit a single trade to the API
+     * Submit a single trade and wait for the response; latency counts from when it should
+     * have been sent.
      */
-    private void submitTrade() {
+    private void submitTrade(HttpClient client, long intendedNanos) {
         try {
-            CreateTradeRequest trade = generateRandomTrade();
-            String jsonBody = objectMapper.writeValueAsString(trade);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_BASE_URL))
-                    .header("Content-Type", "application/json")
-                    .timeout(Duration.ofSeconds(5))
-                    .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<Void> response = client.send(newRequest(), HttpResponse.BodyHandlers.discarding());
+            recordResponse(intendedNanos, response.statusCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recordFailure(intendedNanos, e);
+        } catch (Exception e) {
+            recordFailure(intendedNanos, e);
+        } finally {
+            inFlight.release();
+        }
+    }
 
-            if (response.statusCode() == 201 || response.statusCode() == 200) {
-                successCount.incrementAndGet();
-            } else {
-                errorCount.incrementAndGet();
-                System.err.println("Error response: " + response.statusCode() + " - " + response.body());
+    /**
+     * Submit a single trade without waiting; the response is recorded on the client's executor.
+     */
+    private void submitTradeAsync(HttpClient client, long intendedNanos) {
+        HttpRequest request;
+        try {
+            request = newRequest();
+        } catch (JsonProcessingException e) {
+            recordFailure(intendedNanos, e);
+            inFlight.release();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            try {
+                if (failure != null) {
+                    recordFailure(intendedNanos,
+                            failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+                } else {
+                    recordResponse(intendedNanos, response.statusCode());
+                }
+            } finally {
+                inFlight.release();
             }
-        } catch (Exception e) {
-            errorCount.incrementAndGet();
-            System.err.println("Exception submitting trade: " + e.getMessage());
+        });
+    }
+
+    private void recordResponse(long intendedNanos, int statusCode) {
+        recorder.recordValue(System.nanoTime() - intendedNanos);
+        if (statusCode != 201 && statusCode != 200) {
+            recordError("HTTP " + statusCode);
         }
     }
 
+    private void recordFailure(long intendedNanos, Throwable failure) {
+        // A failed request took at least this long from the client's point of view
+        recorder.recordValue(System.nanoTime() - intendedNanos);
+        recordError(failure.getClass().getSimpleName());
+    }
+
+    // Counted rather than printed: at tens of thousands of requests/s printing would be the bottleneck
+    private void recordError(String cause) {
+        errors.increment();
+        errorsByCause.computeIfAbsent(cause, c -> new LongAdder()).increment();
+    }
+
     /**
      * Run the load test
      */
-    public void run(int targetRate, int durationSeconds) throws InterruptedException {
+    public Result run() throws InterruptedException {
         System.out.println("=== Load Generator Starting ===");
-        System.out.println("Target Rate: " + targetRate + " trades/sec");
-        System.out.println("Duration: " + durationSeconds + " seconds");
-        System.out.println("Threads: " + THREAD_COUNT);
-        System.out.println("API: " + API_BASE_URL);
+        System.out.println("Target Rate: " + options.rate() + " trades/sec (open model)");
+        System.out.println("Duration: " + options.durationSeconds() + " seconds");
+        System.out.println("Mode: " + options.mode().name().toLowerCase(Locale.ROOT)
+                + (options.mode() == Mode.BLOCKING ? " (" + options.threads() + " threads)" : ""));
+        System.out.println("Max in flight: " + options.maxInFlight() + ", clients: " + options.connections()
+                + ", HTTP: " + options.httpVersion());
+        System.out.println("API: " + options.url());
         System.out.println();
 
-        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-
-        // Calculate interval between submissions (in microseconds)
-        long intervalMicros = 1_000_000L / targetRate;
+        ExecutorService senders = switch (options.mode()) {
+            case BLOCKING -> Executors.newFixedThreadPool(options.threads());
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case ASYNC -> null;
+        };
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
 
-        // Track start time
-        long startTime = System.currentTimeMillis();
-        long targetSubmissions = (long) targetRate * durationSeconds;
+        long start = System.nanoTime();
+        startNanos = start;
+        lastReportNanos = start;
+        lastCpuNanos = processCpuNanos();
+        long startCpuNanos = lastCpuNanos;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(options.reportIntervalSeconds());
+        ScheduledFuture<?> progressTask = reporter.scheduleAtFixedRate(
+                this::report, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
 
-        // Progress reporting task (every 10 seconds)
-        ScheduledFuture<?> progressTask = scheduler.scheduleAtFixedRate(() -> {
-            long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-            long current = successCount.get();
-            long errors = errorCount.get();
-            long actualRate = elapsed > 0 ? current / elapsed : 0;
-            System.out.printf("Progress: %d seconds | Submitted: %d | Errors: %d | Rate: %d trades/sec%n",
-                    elapsed, current, errors, actualRate);
-        }, 10, 10, TimeUnit.SECONDS);
-
-        // Submit trades at target rate
+        // Pace by intended send time: request i is due at start + i / rate
         System.out.println("Starting submission...");
-        for (long i = 0; i < targetSubmissions; i++) {
-            final long submissionNumber = i;
-
-            // Schedule submission at precise interval
-            long delayMicros = submissionNumber * intervalMicros;
-            long delayMillis = delayMicros / 1000;
-            long delayNanos = (delayMicros % 1000) * 1000;
+        long end = start + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        for (long i = 0; ; i++) {
+            long intended = start + i * 1_000_000_000L / options.rate();
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                if (wait > SPIN_THRESHOLD_NANOS) {
+                    LockSupport.parkNanos(wait - SPIN_THRESHOLD_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            // Waiting here delays dispatch but not the schedule: the latency still counts from intended
+            inFlight.acquire();
+            maxDispatchLag.accumulate(System.nanoTime() - intended);
+            sent.increment();
+            HttpClient client = httpClients[(int) (i % httpClients.length)];
+            if (senders == null) {
+                submitTradeAsync(client, intended);
+            } else {
+                senders.execute(() -> submitTrade(client, intended));
+            }
+        }
+        double pacingSeconds = (System.nanoTime() - start) / 1e9;
 
-            scheduler.schedule(() -> executor.execute(this::submitTrade),
-                    delayMillis, TimeUnit.MILLISECONDS);
+        // Let requests still queued or in flight finish
+        if (!inFlight.tryAcquire(options.maxInFlight(), REQUEST_TIMEOUT_SECONDS * 2 + 30, TimeUnit.SECONDS)) {
+            System.err.println("Requests still in flight after the grace period; abandoning them");
         }
+        if (senders != null) {
+            senders.shutdownNow();
+        }
+        for (HttpClient client : httpClients) {
+            client.shutdownNow();
+        }
+        progressTask.cancel(false);
+        reporter.shutdown();
+        reporter.awaitTermination(5, TimeUnit.SECONDS);
+        report();
 
-        // Wait for duration + grace period for all requests to complete
-        Thread.sleep(durationSeconds * 1000L + 5000L);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long totalSent = intervals.stream().mapToLong(IntervalStats::sent).sum();
+        long totalErrors = intervals.stream().mapToLong(IntervalStats::errors).sum();
+        // Rates over the sending phase, not the drain after it
+        IntervalStats summary = IntervalStats.of(elapsedSeconds, pacingSeconds, totalSent, totalErrors,
+                total, options.rate(), totalMaxDispatchLag,
+                cpuPercent(processCpuNanos() - startCpuNanos, System.nanoTime() - start));
 
-        // Stop progress reporting
-        progressTask.cancel(true);
+        System.out.println();
+        System.out.println("=== Load Generator Complete ===");
+        System.out.println("Total: " + summary.completed() + " trades in " + String.format("%.1f", elapsedSeconds) + "s");
+        System.out.printf("Achieved send rate: %.0f/s of %d/s target (%.1f%%), max dispatch lag %.3f ms%n",
+                summary.sendRatePerSecond(), options.rate(), 100.0 * summary.sendRatePerSecond() / options.rate(),
+                summary.maxDispatchLagMs());
+        System.out.println("Errors: " + totalErrors + (errorsByCause.isEmpty() ? "" : " " + errorsByCause));
+        System.out.printf("Client CPU: %.1f%% of %d cores%n", summary.clientCpuPercent(),
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("Latency from intended send (ms): p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f p99.99=%.3f max=%.3f%n",
+                summary.p50(), summary.p90(), summary.p99(), summary.p999(), summary.p9999(), summary.max());
+        if (summary.sendRatePerSecond() < MIN_RATE_FRACTION * options.rate()
+                || summary.maxDispatchLagMs() > MAX_DISPATCH_LAG_MS) {
+            System.out.println("WARNING: the generator fell behind its schedule (max in flight reached or client "
+                    + "CPU saturated); these latencies include time spent waiting in the client");
+        }
+        return new Result(options, intervals, summary);
+    }
 
-        // Shutdown executors
-        scheduler.shutdown();
-        executor.shutdown();
-        executor.awaitTermination(30, TimeUnit.SECONDS);
-        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+    /**
+     * Close the current interval: print it, keep it, and fold it into the total.
+     * Only called from the reporter thread, or after it has stopped.
+     */
+    private void report() {
+        long now = System.nanoTime();
+        long cpuNanos = processCpuNanos();
+        long dispatchLag = maxDispatchLag.getThenReset();
+        Histogram interval = recorder.getIntervalHistogram();
+        IntervalStats stats = IntervalStats.of((now - startNanos) / 1e9, (now - lastReportNanos) / 1e9,
+                sent.sumThenReset(), errors.sumThenReset(), interval, options.rate(), dispatchLag,
+                cpuPercent(cpuNanos - lastCpuNanos, now - lastReportNanos));
+        lastReportNanos = now;
+        lastCpuNanos = cpuNanos;
+        totalMaxDispatchLag = Math.max(totalMaxDispatchLag, dispatchLag);
+        total.add(interval);
+        intervals.add(stats);
+        System.out.printf("[%6.1fs] sent=%d (%.0f/s) done=%d (%.0f/s) errors=%d lag=%.3fms cpu=%.0f%% "
+                        + "| ms p50=%.3f p99=%.3f p99.9=%.3f p99.99=%.3f max=%.3f%n",
+                stats.elapsedSeconds(), stats.sent(), stats.sendRatePerSecond(), stats.completed(),
+                stats.ratePerSecond(), stats.errors(), stats.maxDispatchLagMs(), stats.clientCpuPercent(),
+                stats.p50(), stats.p99(), stats.p999(), stats.p9999(), stats.max());
+    }
 
-        // Print final statistics
-        long endTime = System.currentTimeMillis();
-        double actualDuration = (endTime - startTime) / 1000.0;
-        long totalSubmitted = successCount.get();
-        long totalErrors = errorCount.get();
-        double actualRate = totalSubmitted / actualDuration;
+    private long processCpuNanos() {
+        return osBean != null ? osBean.getProcessCpuTime() : -1;
+    }
 
-        System.out.println();
-        System.out.println("=== Load Generator Complete ===");
-        System.out.println("Total: " + totalSubmitted + " trades in " + String.format("%.1f", actualDuration) + "s");
-        System.out.println("Actual Rate: " + String.format("%.0f", actualRate) + " trades/sec");
-        System.out.println("Success: " + totalSubmitted);
-        System.out.println("Errors: " + totalErrors);
-        System.out.println("Success Rate: " + String.format("%.2f%%", (totalSubmitted * 100.0 / (totalSubmitted + totalErrors))));
+    private double cpuPercent(long cpuNanos, long wallNanos) {
+        if (osBean == null || cpuNanos < 0 || wallNanos <= 0) {
+            return -1;
+        }
+        return 100.0 * cpuNanos / wallNanos / Runtime.getRuntime().availableProcessors();
     }
 
     /**
-     * Main method for command-line execution
+     * Write the intervals and total as JSON (for a .json path) or CSV.
      */
-    public static void main(String[] args) {
-        int rate = 10000;  // Default: 10K trades/sec
-        int duration = 60;  // Default: 60 seconds
-
-        // Parse command line arguments
-        for (String arg : args) {
-            if (arg.startsWith("--rate=")) {
-                rate = Integer.parseInt(arg.substring(7));
-            } else if (arg.startsWith("--duration=")) {
-                duration = Integer.parseInt(arg.substring(11));
+    public static void writeResult(Result result, Path output) throws IOException {
+        if (output.getFileName().toString().endsWith(".json")) {
+            Options options = result.options();
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("options", Map.of("rate", options.rate(),
+                    "durationSeconds", options.durationSeconds(),
+                    "mode", options.mode().name().toLowerCase(Locale.ROOT),
+                    "threads", options.threads(),
+                    "maxInFlight", options.maxInFlight(),
+                    "connections", options.connections(),
+                    "httpVersion", options.httpVersion().name(),
+                    "url", options.url().toString()));
+            json.put("latencyUnit", "ms");
+            json.put("intervals", result.intervals());
+            json.put("total", result.total());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), json);
+            return;
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output))) {
+            out.println("interval,elapsed_s,sent,completed,errors,target_rate_per_s,send_rate_per_s,rate_per_s,"
+                    + "dispatch_lag_max_ms,client_cpu_pct,p50_ms,p90_ms,p99_ms,p99_9_ms,p99_99_ms,max_ms");
+            for (int i = 0; i < result.intervals().size(); i++) {
+                writeCsvRow(out, Integer.toString(i + 1), result.intervals().get(i));
             }
+            writeCsvRow(out, "total", result.total());
         }
+    }
 
+    private static void writeCsvRow(PrintWriter out, String label, IntervalStats s) {
+        out.printf(Locale.ROOT, "%s,%.3f,%d,%d,%d,%.1f,%.1f,%.1f,%.3f,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n", label,
+                s.elapsedSeconds(), s.sent(), s.completed(), s.errors(), s.targetRatePerSecond(),
+                s.sendRatePerSecond(), s.ratePerSecond(), s.maxDispatchLagMs(), s.clientCpuPercent(),
+                s.p50(), s.p90(), s.p99(), s.p999(), s.p9999(), s.max());
+    }
+
+    /**
+     * Main method for command-line execution
+     */
+    public static void main(String[] args) {
         try {
-            LoadGenerator generator = new LoadGenerator();
-            generator.run(rate, duration);
+            Options options = Options.parse(args);
+            Result result = new LoadGenerator(options).run();
+            if (options.output() != null) {
+                writeResult(result, options.output());
+                System.out.println("Results written to " + options.output());
+            }
         } catch (Exception e) {
             System.err.println("Load generator failed: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,53 @@
+package com.trading.ledger.config;
+
+import com.trading.ledger.jdbc.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    /**
+     * Puts the DataSource behind a {@link ConcurrencyLimitedDataSource} when
+     * jdbc.limiter.enabled, which defaults to on when requests run on virtual threads
+     * (spring.threads.virtual.enabled). Platform request threads are already bounded by
+     * the server's thread pool.
+     */
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(
+            @Value("${jdbc.limiter.enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+            @Value("${jdbc.limiter.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${jdbc.limiter.max-waiting:200}") int maxWaiting,
+            @Value("${jdbc.limiter.acquire-timeout-ms:1000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                logger.info("JDBC concurrency limiter on {}: maxConcurrent={}, maxWaiting={}, acquireTimeoutMs={}",
+                        beanName, maxConcurrent, maxWaiting, acquireTimeoutMs);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, maxWaiting, acquireTimeoutMs);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder jdbcConcurrencyLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limited) {
+                limited.bindTo(registry);
+            }
+        };
+    }
+}
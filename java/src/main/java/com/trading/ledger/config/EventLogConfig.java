@@ -1,6 +1,19 @@
 package com.trading.ledger.config;
 
+import com.trading.ledger.eventlog.AsyncEventLogWriter;
+import com.trading.ledger.eventlog.DurabilityMode;
+import com.trading.ledger.eventlog.EventLogFormat;
+import com.trading.ledger.eventlog.EventLogOptions;
+import com.trading.ledger.eventlog.EventLogWriter;
 import com.trading.ledger.eventlog.FileEventLogWriter;
+import com.trading.ledger.eventlog.MappedEventLogWriter;
+import com.trading.ledger.eventlog.OverflowPolicy;
+import com.trading.ledger.eventlog.RetentionAction;
+import com.trading.ledger.eventlog.SegmentedEventLogWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,13 +21,57 @@ import org.springframework.context.annotation.Configuration;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class EventLogConfig {
 
+    /**
+     * file: FileChannel writes (supports group commit)
+     * mapped: writes into a memory-mapped, preallocated region (no syscall per event)
+     */
+    public enum WriterType {
+        FILE,
+        MAPPED
+    }
+
+    /**
+     * sync: TradeService appends inside its transaction, on the request thread
+     * async: the event is queued after commit and written by a background thread
+     * outbox: an event_outbox row is inserted in the transaction; OutboxRelay appends it
+     */
+    public enum PublishMode {
+        SYNC,
+        ASYNC,
+        OUTBOX
+    }
+
     @Bean
-    public FileEventLogWriter fileEventLogWriter(
-            @Value("${eventlog.file-path}") String filePath) throws IOException {
+    public EventLogWriter eventLogWriter(
+            @Value("${eventlog.file-path}") String filePath,
+            @Value("${eventlog.writer:file}") WriterType writerType,
+            @Value("${eventlog.format:v1}") EventLogFormat format,
+            @Value("${eventlog.durability:none}") DurabilityMode durability,
+            @Value("${eventlog.group-commit.max-batch-size:256}") int maxBatchSize,
+            @Value("${eventlog.group-commit.max-linger-micros:0}") long maxLingerMicros,
+            @Value("${eventlog.checkpoint-interval:4096}") int checkpointInterval,
+            @Value("${eventlog.recovery.repair:false}") boolean recoveryRepair,
+            @Value("${eventlog.mapped.region-size-mb:64}") long regionSizeMb,
+            @Value("${eventlog.index.interval-events:1024}") int indexIntervalEvents,
+            @Value("${eventlog.index.interval-kb:256}") long indexIntervalKb,
+            @Value("${eventlog.segment.max-size-mb:0}") long segmentMaxSizeMb,
+            @Value("${eventlog.segment.max-age-minutes:0}") long segmentMaxAgeMinutes,
+            @Value("${eventlog.segment.retention.max-segments:0}") int retentionMaxSegments,
+            @Value("${eventlog.segment.retention.max-age-hours:0}") long retentionMaxAgeHours,
+            @Value("${eventlog.segment.retention.action:delete}") RetentionAction retentionAction,
+            @Value("${eventlog.segment.retention.archive-dir:./data/archive}") String archiveDir,
+            @Value("${eventlog.publish.mode:sync}") PublishMode publishMode,
+            @Value("${eventlog.publish.queue-capacity:65536}") int queueCapacity,
+            @Value("${eventlog.publish.batch-size:256}") int publishBatchSize,
+            @Value("${eventlog.publish.overflow:block}") OverflowPolicy overflowPolicy,
+            @Value("${eventlog.publish.block-timeout-ms:1000}") long blockTimeoutMs,
+            MeterRegistry meterRegistry) throws IOException {
 
         Path logPath = Paths.get(filePath);
 
@@ -23,6 +80,61 @@ public class EventLogConfig {
             logPath.getParent().toFile().mkdirs();
         }
 
-        return new FileEventLogWriter(logPath);
+        EventLogOptions options = EventLogOptions.builder()
+                .format(format)
+                .durability(durability)
+                .groupCommitMaxBatchSize(maxBatchSize)
+                .groupCommitMaxLingerMicros(maxLingerMicros)
+                .checkpointInterval(checkpointInterval)
+                .recoveryRepair(recoveryRepair)
+                .mappedRegionSize(regionSizeMb * 1024 * 1024)
+                .indexIntervalEvents(indexIntervalEvents)
+                .indexIntervalBytes(indexIntervalKb * 1024)
+                .segmentMaxBytes(segmentMaxSizeMb * 1024 * 1024)
+                .segmentMaxAge(Duration.ofMinutes(segmentMaxAgeMinutes))
+                .retentionMaxSegments(retentionMaxSegments)
+                .retentionMaxAge(Duration.ofHours(retentionMaxAgeHours))
+                .retentionAction(retentionAction)
+                .archiveDirectory(Paths.get(archiveDir))
+                .asyncQueueCapacity(queueCapacity)
+                .asyncBatchSize(publishBatchSize)
+                .asyncOverflowPolicy(overflowPolicy)
+                .asyncBlockTimeout(Duration.ofMillis(blockTimeoutMs))
+                .build();
+
+        SegmentedEventLogWriter.SegmentOpener opener = switch (writerType) {
+            case FILE -> FileEventLogWriter::new;
+            case MAPPED -> MappedEventLogWriter::new;
+        };
+        EventLogWriter writer = options.isSegmented()
+                ? new SegmentedEventLogWriter(logPath, options, opener)
+                : opener.open(logPath, options);
+        if (publishMode == PublishMode.ASYNC) {
+            AsyncEventLogWriter asyncWriter = new AsyncEventLogWriter(writer, options);
+            registerAsyncMetrics(asyncWriter, meterRegistry);
+            return asyncWriter;
+        }
+        return writer;
+    }
+
+    private static void registerAsyncMetrics(AsyncEventLogWriter writer, MeterRegistry meterRegistry) {
+        Gauge.builder("eventlog.async.queue.depth", writer, AsyncEventLogWriter::getQueueDepth)
+                .description("Events queued but not yet written to the event log")
+                .register(meterRegistry);
+        Gauge.builder("eventlog.async.queue.capacity", writer, AsyncEventLogWriter::getCapacity)
+                .description("Maximum number of queued events")
+                .register(meterRegistry);
+        TimeGauge.builder("eventlog.async.drain.lag", writer, TimeUnit.NANOSECONDS, AsyncEventLogWriter::getDrainLagNanos)
+                .description("Age of the oldest event not yet written to the event log")
+                .register(meterRegistry);
+        FunctionCounter.builder("eventlog.async.spilled", writer, AsyncEventLogWriter::getSpilledCount)
+                .description("Events written on the request thread because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("eventlog.async.rejected", writer, AsyncEventLogWriter::getRejectedCount)
+                .description("Events refused because the queue was full")
+                .register(meterRegistry);
+        FunctionCounter.builder("eventlog.async.failed", writer, AsyncEventLogWriter::getFailedCount)
+                .description("Queued events that could not be written to the event log")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,34 @@
+package com.trading.ledger.config;
+
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.service.DatabaseLedgerInvariantValidator;
+import com.trading.ledger.service.InMemoryLedgerInvariantValidator;
+import com.trading.ledger.service.LedgerInvariantValidator;
+import com.trading.ledger.service.SampledLedgerInvariantValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LedgerConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerConfig.class);
+
+    @Bean
+    public LedgerInvariantValidator ledgerInvariantValidator(
+            LedgerEntryMapper ledgerEntryMapper,
+            @Value("${ledger.invariant.validator:in-memory}") LedgerInvariantValidator.Mode mode,
+            @Value("${ledger.invariant.sample-every:100}") int sampleEvery) {
+
+        logger.info("Ledger invariant validator: {}{}", mode,
+                mode == LedgerInvariantValidator.Mode.SAMPLED ? " (every " + sampleEvery + " trades)" : "");
+        return switch (mode) {
+            case IN_MEMORY -> new InMemoryLedgerInvariantValidator();
+            case DATABASE -> new DatabaseLedgerInvariantValidator(ledgerEntryMapper);
+            case SAMPLED -> new SampledLedgerInvariantValidator(
+                    new DatabaseLedgerInvariantValidator(ledgerEntryMapper), sampleEvery);
+        };
+    }
+}
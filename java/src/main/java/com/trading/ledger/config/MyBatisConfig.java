@@ -0,0 +1,27 @@
+package com.trading.ledger.config;
+
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+@Configuration
+public class MyBatisConfig {
+
+    /**
+     * Lets mapper XML provide per-database variants of a statement (databaseId="postgresql"
+     * or "h2") where the dialects differ, e.g. INSERT ... ON CONFLICT. Statements without a
+     * databaseId are shared.
+     */
+    @Bean
+    public DatabaseIdProvider databaseIdProvider() {
+        Properties vendors = new Properties();
+        vendors.setProperty("PostgreSQL", "postgresql");
+        vendors.setProperty("H2", "h2");
+        VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+        provider.setProperties(vendors);
+        return provider;
+    }
+}
@@ -3,15 +3,23 @@ package com.trading.ledger.controller;
 import com.trading.ledger.domain.LedgerEntry;
 import com.trading.ledger.domain.Trade;
 import com.trading.ledger.dto.LedgerEntryResponse;
+import com.trading.ledger.dto.LedgerVerificationReport;
+import com.trading.ledger.dto.PageCursor;
 import com.trading.ledger.dto.TradeResponse;
 import com.trading.ledger.mapper.LedgerEntryMapper;
 import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.LedgerVerifier;
+import com.trading.ledger.service.TradeExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,48 +28,143 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LedgerController {
 
+    /**
+     * Set on a full page of account history; pass it back as {@code cursor} for the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final LedgerEntryMapper ledgerEntryMapper;
     private final TradeMapper tradeMapper;
+    private final LedgerVerifier ledgerVerifier;
+    private final TradeExportService tradeExportService;
 
+    /**
+     * Entries of a trade, or a page of an account's entries newest first. Account pages are
+     * read by cursor (see {@link #NEXT_CURSOR_HEADER}); offset is still accepted but gets
+     * slower the deeper the page.
+     */
     @GetMapping("/ledger/entries")
     public ResponseEntity<List<LedgerEntryResponse>> getLedgerEntries(
             @RequestParam(required = false) String tradeId,
             @RequestParam(required = false) String accountId,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(defaultValue = "0") int offset) {
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor) {
 
-        log.info("GET /api/v1/ledger/entries?tradeId={}&accountId={}&limit={}&offset={}",
-                tradeId, accountId, limit, offset);
+        log.info("GET /api/v1/ledger/entries?tradeId={}&accountId={}&limit={}&offset={}&cursor={}",
+                tradeId, accountId, limit, offset, cursor);
 
-        List<LedgerEntry> entries;
         if (tradeId != null) {
-            entries = ledgerEntryMapper.findByTradeId(tradeId);
-        } else if (accountId != null) {
-            entries = ledgerEntryMapper.findByAccountId(accountId, limit, offset);
-        } else {
+            List<LedgerEntryResponse> responses = ledgerEntryMapper.findByTradeId(tradeId).stream()
+                    .map(LedgerEntryResponse::from)
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(responses);
+        }
+        if (accountId == null || (cursor != null && offset != 0)) {
             return ResponseEntity.badRequest().build();
         }
 
+        PageCursor after;
+        try {
+            after = cursor != null ? PageCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected malformed page cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<LedgerEntry> entries = offset != 0
+                ? ledgerEntryMapper.findByAccountId(accountId, limit, offset)
+                : ledgerEntryMapper.findPageByAccountId(accountId, after, limit);
+
         List<LedgerEntryResponse> responses = entries.stream()
                 .map(LedgerEntryResponse::from)
                 .collect(Collectors.toList());
+        if (entries.isEmpty() || entries.size() < limit) {
+            return ResponseEntity.ok(responses);
+        }
+        LedgerEntry last = entries.get(entries.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new PageCursor(last.getCreatedAt(), last.getId()).encode())
+                .body(responses);
+    }
+
+    /**
+     * Verify the double-entry invariant for all trades created in [from, to) (ISO-8601 instants).
+     */
+    @GetMapping("/ledger/verify")
+    public ResponseEntity<LedgerVerificationReport> verifyLedger(
+            @RequestParam Instant from,
+            @RequestParam Instant to) {
+
+        log.info("GET /api/v1/ledger/verify?from={}&to={}", from, to);
 
-        return ResponseEntity.ok(responses);
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ledgerVerifier.verify(from, to));
     }
 
+    /**
+     * A page of an account's trades newest first, by cursor (see {@link #NEXT_CURSOR_HEADER})
+     * or, for existing clients, by offset.
+     */
     @GetMapping("/trades")
     public ResponseEntity<List<TradeResponse>> getTrades(
             @RequestParam String accountId,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(defaultValue = "0") int offset) {
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor) {
+
+        log.info("GET /api/v1/trades?accountId={}&limit={}&offset={}&cursor={}", accountId, limit, offset, cursor);
 
-        log.info("GET /api/v1/trades?accountId={}&limit={}&offset={}", accountId, limit, offset);
+        if (cursor != null && offset != 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        PageCursor after;
+        try {
+            after = cursor != null ? PageCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected malformed page cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+
+        List<Trade> trades = offset != 0
+                ? tradeMapper.findByAccountId(accountId, limit, offset)
+                : tradeMapper.findPageByAccountId(accountId, after, limit);
 
-        List<Trade> trades = tradeMapper.findByAccountId(accountId, limit, offset);
         List<TradeResponse> responses = trades.stream()
                 .map(TradeResponse::from)
                 .collect(Collectors.toList());
+        if (trades.isEmpty() || trades.size() < limit) {
+            return ResponseEntity.ok(responses);
+        }
+        Trade last = trades.get(trades.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new PageCursor(last.getCreatedAt(), last.getId()).encode())
+                .body(responses);
+    }
+
+    /**
+     * An account's full trade history as NDJSON (default) or CSV, newest first, streamed
+     * while it is read from the database instead of paged.
+     */
+    @GetMapping("/trades/export")
+    public ResponseEntity<StreamingResponseBody> exportTrades(
+            @RequestParam String accountId,
+            @RequestParam(defaultValue = "ndjson") String format) {
 
-        return ResponseEntity.ok(responses);
+        log.info("GET /api/v1/trades/export?accountId={}&format={}", accountId, format);
+
+        TradeExportService.Format exportFormat;
+        try {
+            exportFormat = TradeExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> tradeExportService.export(accountId, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
     }
 }
@@ -1,6 +1,8 @@
 package com.trading.ledger.controller;
 
+import com.trading.ledger.dto.PositionConsistencyReport;
 import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.position.PositionEngine;
 import com.trading.ledger.service.PositionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,11 +18,22 @@ import java.util.List;
 public class PositionController {
 
     private final PositionService positionService;
+    private final PositionEngine positionEngine;
 
     @GetMapping("/{accountId}")
     public ResponseEntity<List<PositionResponse>> getPositions(@PathVariable String accountId) {
         log.info("GET /api/v1/positions/{}", accountId);
-        List<PositionResponse> positions = positionService.calculatePositions(accountId);
+        List<PositionResponse> positions = positionEngine.getPositions(accountId)
+                .orElseGet(() -> positionService.calculatePositions(accountId));
         return ResponseEntity.ok(positions);
     }
+
+    /**
+     * Compare the in-memory engine's positions for an account with its trades.
+     */
+    @GetMapping("/{accountId}/consistency")
+    public ResponseEntity<PositionConsistencyReport> checkConsistency(@PathVariable String accountId) {
+        log.info("GET /api/v1/positions/{}/consistency", accountId);
+        return ResponseEntity.ok(positionEngine.checkConsistency(accountId));
+    }
 }
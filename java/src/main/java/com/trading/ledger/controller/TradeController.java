@@ -1,24 +1,51 @@
 package com.trading.ledger.controller;
 
+import com.trading.ledger.dto.BatchCreateTradeRequest;
+import com.trading.ledger.dto.BatchTradeResponse;
 import com.trading.ledger.dto.CreateTradeRequest;
 import com.trading.ledger.dto.TradeResponse;
+import com.trading.ledger.eventlog.EpochNanoClock;
+import com.trading.ledger.exception.ConflictException;
 import com.trading.ledger.service.TradeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/v1/trades")
 public class TradeController {
 
     private static final Logger logger = LoggerFactory.getLogger(TradeController.class);
     private final TradeService tradeService;
+    private final Timer createdTimer;
+    private final Timer idempotentTimer;
+    private final Timer conflictTimer;
+    private final Timer errorTimer;
 
-    public TradeController(TradeService tradeService) {
+    public TradeController(TradeService tradeService, MeterRegistry meterRegistry) {
         this.tradeService = tradeService;
+        this.createdTimer = writeTimer(meterRegistry, "created");
+        this.idempotentTimer = writeTimer(meterRegistry, "idempotent");
+        this.conflictTimer = writeTimer(meterRegistry, "conflict");
+        this.errorTimer = writeTimer(meterRegistry, "error");
+    }
+
+    /**
+     * Whole createTrade call including the commit, which the service's stage timers cannot see.
+     */
+    private static Timer writeTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("trades.write")
+                .tag("outcome", outcome)
+                .description("Time to create a trade, through commit, by outcome")
+                .register(meterRegistry);
     }
 
     /**
@@ -28,15 +55,53 @@ public class TradeController {
      * - First request: 201 Created
      * - Retry (same payload): 200 OK (returns existing)
      * - Retry (different payload): 409 Conflict
+     * - Concurrent duplicate insert: resolved like a retry (200 or 409)
+     *
+     * The trade's timestamp_ns is when the request got here (epoch nanoseconds), so event
+     * log consumers can measure ingest-to-append latency.
      */
     @PostMapping
     public ResponseEntity<TradeResponse> createTrade(@Valid @RequestBody CreateTradeRequest request) {
+        long receivedAtNs = EpochNanoClock.nowNanos();
         logger.info("Received trade creation request: tradeId={}", request.getTradeId());
-        TradeResponse response = tradeService.createTrade(request);
+        TradeResponse response;
+        Timer outcome = errorTimer;
+        long start = System.nanoTime();
+        try {
+            try {
+                response = tradeService.createTrade(request, receivedAtNs);
+            } catch (DuplicateKeyException e) {
+                // Another request inserted this trade id first: answer like a retry (200 or 409)
+                throw tradeService.resolveDuplicate(request, e);
+            }
+            outcome = createdTimer;
+        } catch (TradeService.IdempotentTradeException e) {
+            outcome = idempotentTimer;
+            throw e;
+        } catch (ConflictException e) {
+            outcome = conflictTimer;
+            throw e;
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
         logger.info("Trade processed successfully: tradeId={}", response.getTradeId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create up to 1000 trades in one call.
+     *
+     * Always 200 OK with one result per item (CREATED / IDEMPOTENT / CONFLICT / INVALID),
+     * in request order; 400 only if the batch itself is empty or too large.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchTradeResponse> createTrades(@Valid @RequestBody BatchCreateTradeRequest request) {
+        long receivedAtNs = EpochNanoClock.nowNanos();
+        logger.info("Received trade batch request: size={}", request.getTrades().size());
+        BatchTradeResponse response = tradeService.createTrades(request.getTrades(), receivedAtNs);
+        return ResponseEntity.ok(response);
+    }
+
     @ExceptionHandler(TradeService.IdempotentTradeException.class)
     public ResponseEntity<TradeResponse> handleIdempotentTrade(TradeService.IdempotentTradeException ex) {
         return ResponseEntity.ok(ex.getExistingTrade());
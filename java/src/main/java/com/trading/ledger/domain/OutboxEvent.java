@@ -0,0 +1,20 @@
+package com.trading.ledger.domain;
+
+import lombok.*;
+
+/**
+ * A committed event waiting in the outbox to be relayed to the event log, together with
+ * the trade it refers to.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class OutboxEvent {
+
+    private Long id;
+    private Byte eventType;
+    private Long createdAtMs;
+    private Trade trade;
+}
@@ -0,0 +1,34 @@
+package com.trading.ledger.domain;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * A row of the positions table, or a change to one: quantity is the signed net quantity
+ * (BUY positive) and notional the signed sum of quantity * price.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Position {
+
+    private String accountId;
+    private String symbol;
+    private BigDecimal quantity;
+    private BigDecimal notional;
+
+    /**
+     * The change a single trade makes to its account's position in the symbol.
+     */
+    public static Position delta(Trade trade) {
+        BigDecimal quantity = trade.getSide() == Trade.Side.BUY ? trade.getQuantity() : trade.getQuantity().negate();
+        return new Position(trade.getAccountId(), trade.getSymbol(), quantity, quantity.multiply(trade.getPrice()));
+    }
+
+    public Position add(Position other) {
+        return new Position(accountId, symbol, quantity.add(other.quantity), notional.add(other.notional));
+    }
+}
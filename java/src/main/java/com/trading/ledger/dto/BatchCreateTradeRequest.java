@@ -0,0 +1,27 @@
+package com.trading.ledger.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/v1/trades/batch.
+ *
+ * Items are deliberately not annotated with @Valid: an invalid item is reported in its
+ * own result instead of failing the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateTradeRequest {
+
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @NotEmpty(message = "At least one trade is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch must not exceed " + MAX_BATCH_SIZE + " trades")
+    private List<CreateTradeRequest> trades;
+}
@@ -0,0 +1,33 @@
+package com.trading.ledger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTradeResponse {
+
+    private int created;
+    private int idempotent;
+    private int conflict;
+    private int invalid;
+    private List<BatchTradeResult> results;
+
+    public static BatchTradeResponse from(List<BatchTradeResult> results) {
+        int[] counts = new int[BatchTradeResult.Status.values().length];
+        for (BatchTradeResult result : results) {
+            counts[result.getStatus().ordinal()]++;
+        }
+        return new BatchTradeResponse(
+                counts[BatchTradeResult.Status.CREATED.ordinal()],
+                counts[BatchTradeResult.Status.IDEMPOTENT.ordinal()],
+                counts[BatchTradeResult.Status.CONFLICT.ordinal()],
+                counts[BatchTradeResult.Status.INVALID.ordinal()],
+                results
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package com.trading.ledger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a batch submission, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTradeResult {
+
+    public enum Status {
+        /** New trade, ledger entries and event written */
+        CREATED,
+        /** Trade already existed with the same payload; trade is the stored one */
+        IDEMPOTENT,
+        /** Trade already existed with a different payload */
+        CONFLICT,
+        /** Item failed validation; nothing written */
+        INVALID
+    }
+
+    private int index;
+    private String tradeId;
+    private Status status;
+    private TradeResponse trade;
+    private List<String> errors;
+
+    public static BatchTradeResult of(int index, String tradeId, Status status, TradeResponse trade) {
+        return new BatchTradeResult(index, tradeId, status, trade, null);
+    }
+
+    public static BatchTradeResult failed(int index, String tradeId, Status status, List<String> errors) {
+        return new BatchTradeResult(index, tradeId, status, null, errors);
+    }
+}
@@ -0,0 +1,22 @@
+package com.trading.ledger.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerVerificationReport {
+    private Instant from;
+    private Instant to;
+    private long tradesChecked;
+    private List<LedgerViolation> violations;
+
+    public boolean isBalanced() {
+        return violations.isEmpty();
+    }
+}
@@ -0,0 +1,20 @@
+package com.trading.ledger.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * A trade whose ledger entries break the double-entry invariant: not exactly two entries,
+ * or entries that do not balance to zero.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LedgerViolation {
+    private String tradeId;
+    private int entryCount;
+    private BigDecimal balance;
+}
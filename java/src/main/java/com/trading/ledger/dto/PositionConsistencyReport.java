@@ -0,0 +1,26 @@
+package com.trading.ledger.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * An account's positions as served by the in-memory PositionEngine next to the same
+ * positions aggregated from its trades, with the symbols on which they disagree.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PositionConsistencyReport {
+    private String accountId;
+    private boolean engineAvailable;
+    private List<PositionResponse> engine;
+    private List<PositionResponse> database;
+    private List<String> mismatchedSymbols;
+
+    public boolean isConsistent() {
+        return engineAvailable && mismatchedSymbols.isEmpty();
+    }
+}
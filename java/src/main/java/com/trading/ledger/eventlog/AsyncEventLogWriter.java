@@ -0,0 +1,334 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event log writer that takes appends off the caller's thread.
+ *
+ * Appended events go into a bounded lock-free queue and a single writer thread drains
+ * them in batches of up to {@code asyncBatchSize} into the delegate writer, which assigns
+ * sequence numbers in drain order. {@link #append} returns once the event is queued,
+ * before it is in the log.
+ *
+ * The bound is a semaphore of {@code asyncQueueCapacity} permits. {@link #reserve()}
+ * takes a permit up front, so a caller can apply the {@link OverflowPolicy} before it
+ * commits to the event (e.g. inside a DB transaction) and publish or cancel it later;
+ * the permit is returned when the event has been written.
+ *
+ * Consecutive drained events of the same type and payload encoder go to the delegate
+ * as one {@link EventLogWriter#appendAll} call, so with FSYNC or GROUP_COMMIT a batch
+ * costs one force per run of such events rather than one per event.
+ *
+ * Write failures on the writer thread cannot be reported to the caller; they are
+ * logged and counted ({@link #getFailedCount()}). A failed appendAll counts every event
+ * of its run as failed, since the delegate does not say how many reached the log.
+ *
+ * {@link #close()} stops accepting events, drains what is queued and closes the delegate.
+ */
+public class AsyncEventLogWriter implements EventLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncEventLogWriter.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final EventLogWriter delegate;
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final ConcurrentLinkedQueue<Pending<?>> queue = new ConcurrentLinkedQueue<>();
+    private final Semaphore permits;
+    private final Thread thread;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile long written;
+    private volatile long failed;
+    // Enqueue time of the oldest event of the batch being written (0 when idle)
+    private volatile long drainingSinceNanos;
+    private volatile boolean parked;
+    private volatile boolean closed;
+
+    private record Pending<T>(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value,
+                              long enqueuedNanos) {
+    }
+
+    public AsyncEventLogWriter(EventLogWriter delegate, EventLogOptions options) {
+        if (options.getAsyncQueueCapacity() <= 0 || options.getAsyncBatchSize() <= 0) {
+            throw new IllegalArgumentException("Async queue capacity and batch size must be positive: "
+                    + options.getAsyncQueueCapacity() + ", " + options.getAsyncBatchSize());
+        }
+        this.delegate = delegate;
+        this.capacity = options.getAsyncQueueCapacity();
+        this.batchSize = options.getAsyncBatchSize();
+        this.overflowPolicy = options.getAsyncOverflowPolicy();
+        this.blockTimeoutNanos = options.getAsyncBlockTimeout().toNanos();
+        this.permits = new Semaphore(capacity);
+        this.thread = new Thread(this::drain, "eventlog-async-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        logger.info("Async event log publishing enabled: capacity={}, batchSize={}, overflow={}",
+                capacity, batchSize, overflowPolicy);
+    }
+
+    /**
+     * A claimed queue slot (or, under SPILL with a full queue, a claim to write on the
+     * calling thread). Exactly one of publish() or cancel() must be called.
+     */
+    public final class Reservation {
+
+        private final boolean queued;
+        private boolean done;
+
+        private Reservation(boolean queued) {
+            this.queued = queued;
+        }
+
+        /**
+         * Hand the event to the writer thread (or append it directly if spilled).
+         */
+        public <T> void publish(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value)
+                throws IOException {
+            complete();
+            if (!queued) {
+                delegate.append(eventType, payloadEncoder, value);
+                return;
+            }
+            if (closed) {
+                permits.release();
+                throw new IOException("Event log is closed");
+            }
+            queue.offer(new Pending<>(eventType, payloadEncoder, value, System.nanoTime()));
+            enqueued.incrementAndGet();
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        /**
+         * Give the slot back without publishing, e.g. when the transaction rolled back.
+         */
+        public void cancel() {
+            complete();
+            if (queued) {
+                permits.release();
+            }
+        }
+
+        private void complete() {
+            if (done) {
+                throw new IllegalStateException("Reservation already used");
+            }
+            done = true;
+        }
+    }
+
+    /**
+     * Claim room for one event, applying the overflow policy if the queue is full.
+     *
+     * @throws EventLogOverflowException if the queue is full under FAIL, or stays full
+     *                                   for the block timeout under BLOCK
+     */
+    public Reservation reserve() {
+        if (closed) {
+            throw new IllegalStateException("Event log is closed");
+        }
+        if (permits.tryAcquire()) {
+            return new Reservation(true);
+        }
+        switch (overflowPolicy) {
+            case SPILL -> {
+                spilled.incrementAndGet();
+                return new Reservation(false);
+            }
+            case BLOCK -> {
+                try {
+                    if (permits.tryAcquire(blockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                        return new Reservation(true);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            case FAIL -> {
+                // fall through to reject
+            }
+        }
+        rejected.incrementAndGet();
+        throw new EventLogOverflowException("Event log queue full (" + capacity + " events)");
+    }
+
+    @Override
+    public void append(Event.EventType eventType, Object payload) throws IOException {
+        append(eventType, Event.JACKSON_PAYLOAD, payload);
+    }
+
+    @Override
+    public <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Event log is closed");
+        }
+        reserve().publish(eventType, payloadEncoder, value);
+    }
+
+    private void drain() {
+        List<Pending<?>> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Pending<?> pending;
+            while (batch.size() < batchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                parked = true;
+                if (queue.isEmpty() && !closed) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                parked = false;
+                continue;
+            }
+
+            drainingSinceNanos = batch.get(0).enqueuedNanos();
+            writeBatch(batch);
+            written += batch.size();
+            permits.release(batch.size());
+            drainingSinceNanos = 0;
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending<?>> batch) {
+        int start = 0;
+        while (start < batch.size()) {
+            Pending<?> first = batch.get(start);
+            int end = start + 1;
+            while (end < batch.size()
+                    && batch.get(end).eventType() == first.eventType()
+                    && batch.get(end).payloadEncoder() == first.payloadEncoder()) {
+                end++;
+            }
+            write(first, batch.subList(start, end));
+            start = end;
+        }
+    }
+
+    // Every entry of run has first's event type and payload encoder, hence its value type
+    @SuppressWarnings("unchecked")
+    private <T> void write(Pending<T> first, List<Pending<?>> run) {
+        try {
+            if (run.size() == 1) {
+                delegate.append(first.eventType(), first.payloadEncoder(), first.value());
+                return;
+            }
+            List<T> values = new ArrayList<>(run.size());
+            for (Pending<?> pending : run) {
+                values.add((T) pending.value());
+            }
+            delegate.appendAll(first.eventType(), first.payloadEncoder(), values);
+        } catch (IOException | RuntimeException e) {
+            failed += run.size();
+            logger.error("Failed to write {} queued {} event(s) to the event log", run.size(), first.eventType(), e);
+        }
+    }
+
+    /**
+     * Events queued but not yet written (including the batch being written).
+     */
+    public long getQueueDepth() {
+        return Math.max(0, enqueued.get() - written);
+    }
+
+    /**
+     * How long the oldest event not yet written has been waiting, in nanoseconds (0 if none).
+     */
+    public long getDrainLagNanos() {
+        long oldest = drainingSinceNanos;
+        if (oldest == 0) {
+            Pending<?> head = queue.peek();
+            if (head == null) {
+                return 0;
+            }
+            oldest = head.enqueuedNanos();
+        }
+        return Math.max(0, System.nanoTime() - oldest);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /** Events written on the caller's thread because the queue was full (SPILL) */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /** Events refused because the queue was full (FAIL, or BLOCK timing out) */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** Queued events the writer thread failed to append */
+    public long getFailedCount() {
+        return failed;
+    }
+
+    /**
+     * Sequence number of the last event written to the log (queued events have none yet).
+     */
+    @Override
+    public long getCurrentSequence() {
+        return delegate.getCurrentSequence();
+    }
+
+    @Override
+    public long getSize() {
+        return delegate.getSize();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while draining the async event log queue ({} events left)", getQueueDepth());
+        }
+        // Anything published concurrently with close after the writer thread exited
+        List<Pending<?>> rest = new ArrayList<>();
+        Pending<?> pending;
+        while ((pending = queue.poll()) != null) {
+            rest.add(pending);
+        }
+        if (!rest.isEmpty()) {
+            writeBatch(rest);
+            written += rest.size();
+        }
+        delegate.close();
+        logger.info("Closed async event log writer: written={}, spilled={}, rejected={}, failed={}",
+                written, spilled.get(), rejected.get(), failed);
+    }
+}
@@ -0,0 +1,120 @@
+package com.trading.ledger.eventlog;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes fixed-layout binary (v2) payload fields directly into the record buffer.
+ *
+ * Multi-byte integers are little-endian like the rest of the record; UUIDs are stored as
+ * their 16 bytes in RFC 4122 (big-endian) order. Strings are a u16 byte length followed by
+ * UTF-8, decimals an int64 unscaled value followed by an int8 scale.
+ *
+ * Throws BufferOverflowException when the payload does not fit; {@link EventEncoder}
+ * grows its buffer and encodes again.
+ */
+public final class BinaryPayloadWriter {
+
+    private ByteBuffer buffer;
+
+    BinaryPayloadWriter() {
+    }
+
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public BinaryPayloadWriter putByte(int value) {
+        buffer.put((byte) value);
+        return this;
+    }
+
+    public BinaryPayloadWriter putLong(long value) {
+        buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Write a canonical UUID string (8-4-4-4-12 hex digits, either case) as 16 bytes.
+     *
+     * @throws IllegalArgumentException if the value is not a canonical UUID
+     */
+    public BinaryPayloadWriter putUuid(CharSequence uuid) {
+        if (uuid.length() != 36 || uuid.charAt(8) != '-' || uuid.charAt(13) != '-'
+                || uuid.charAt(18) != '-' || uuid.charAt(23) != '-') {
+            throw new IllegalArgumentException("Not a canonical UUID: " + uuid);
+        }
+        for (int i = 0; i < 36; ) {
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                i++;
+                continue;
+            }
+            buffer.put((byte) (hexDigit(uuid, i) << 4 | hexDigit(uuid, i + 1)));
+            i += 2;
+        }
+        return this;
+    }
+
+    /**
+     * Write a string as u16 byte length + UTF-8 (lone surrogates become '?', like String.getBytes).
+     */
+    public BinaryPayloadWriter putString(CharSequence value) {
+        int lengthPosition = buffer.position();
+        buffer.putShort((short) 0);
+        int start = buffer.position();
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (cp >> 18)));
+                    buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        int bytes = buffer.position() - start;
+        if (bytes > 0xFFFF) {
+            throw new IllegalArgumentException("String too long for binary payload: " + bytes + " bytes");
+        }
+        buffer.putShort(lengthPosition, (short) bytes);
+        return this;
+    }
+
+    /**
+     * Write a decimal as int64 unscaled value + int8 scale.
+     *
+     * @throws IllegalArgumentException if the unscaled value does not fit in 64 bits or the
+     *                                  scale in 8
+     */
+    public BinaryPayloadWriter putDecimal(BigDecimal value) {
+        int scale = value.scale();
+        if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE || value.precision() > 18) {
+            throw new IllegalArgumentException("Decimal out of range for binary payload: " + value);
+        }
+        buffer.putLong(value.unscaledValue().longValue());
+        buffer.put((byte) scale);
+        return this;
+    }
+
+    private static int hexDigit(CharSequence value, int index) {
+        int digit = Character.digit(value.charAt(index), 16);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Not a canonical UUID: " + value);
+        }
+        return digit;
+    }
+}
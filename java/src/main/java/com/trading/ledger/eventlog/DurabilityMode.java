@@ -0,0 +1,15 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * How the event log writer makes appended events durable.
+ *
+ * - NONE: write to the page cache only, never force (fastest, lost on power failure)
+ * - FSYNC: force the file after every event (one fsync per trade)
+ * - GROUP_COMMIT: coalesce concurrent appends into one write + one force per batch;
+ *   each caller returns once its batch is on disk
+ */
+public enum DurabilityMode {
+    NONE,
+    FSYNC,
+    GROUP_COMMIT
+}
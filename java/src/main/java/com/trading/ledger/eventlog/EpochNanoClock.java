@@ -0,0 +1,52 @@
+package com.trading.ledger.eventlog;
+
+import java.time.Instant;
+
+/**
+ * Wall-clock time in nanoseconds since the Unix epoch, for timestamps that another
+ * process (the C++ processor, {@link EventLogLatencyTail}) can compare with its own clock.
+ *
+ * System.nanoTime() has an arbitrary origin per JVM and System.currentTimeMillis() is too
+ * coarse, so the clock reads the wall clock once as an anchor and advances it with
+ * nanoTime. The anchor is refreshed every second to follow NTP adjustments; a refresh
+ * never steps time backwards (a backward step of the wall clock is absorbed until the
+ * wall clock catches up).
+ *
+ * A read is one nanoTime call plus a volatile read, instead of Instant.now()'s object.
+ */
+public final class EpochNanoClock {
+
+    private static final long RESYNC_INTERVAL_NANOS = 1_000_000_000L;
+
+    private record Anchor(long epochNanos, long nanoTime) {
+    }
+
+    private static volatile Anchor anchor = wallClockAnchor();
+
+    private EpochNanoClock() {
+    }
+
+    public static long nowNanos() {
+        long nanoTime = System.nanoTime();
+        Anchor current = anchor;
+        if (nanoTime - current.nanoTime >= RESYNC_INTERVAL_NANOS) {
+            current = resync(current);
+        }
+        return current.epochNanos + (nanoTime - current.nanoTime);
+    }
+
+    private static Anchor resync(Anchor previous) {
+        Anchor wall = wallClockAnchor();
+        long extrapolated = previous.epochNanos + (wall.nanoTime - previous.nanoTime);
+        Anchor next = wall.epochNanos >= extrapolated ? wall : new Anchor(extrapolated, wall.nanoTime);
+        // Racing resyncs may each install an anchor; any of them is valid
+        anchor = next;
+        return next;
+    }
+
+    private static Anchor wallClockAnchor() {
+        Instant now = Instant.now();
+        long nanoTime = System.nanoTime();
+        return new Anchor(now.getEpochSecond() * 1_000_000_000L + now.getNano(), nanoTime);
+    }
+}
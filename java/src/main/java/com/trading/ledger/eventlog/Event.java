@@ -8,17 +8,23 @@ import lombok.ToString;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.zip.CRC32;
 
 /**
  * Immutable event data class representing a single event in the binary event log.
  *
  * Events are serialized to binary format:
- * - 28-byte header (sequence, timestamp, type, reserved, payload length)
+ * - 24-byte header (sequence, timestamp, type, reserved, payload length)
  * - Variable-length JSON payload (UTF-8)
  * - 4-byte CRC32 checksum
  *
  * Thread-safe due to immutability.
+ *
+ * This class is the general (allocating) form of a record; the writers' hot path builds
+ * the same bytes without intermediate objects through {@link EventPayloadEncoder}.
+ * The payload here is always JSON: records read from a v2 log with a binary payload are
+ * transcoded to their v1 JSON form (see {@link EventRecord#payloadAsString()}).
  */
 @Getter
 @AllArgsConstructor
@@ -28,6 +34,9 @@ public class Event {
     public enum EventType {
         TRADE_CREATED((byte) 1);
 
+        // values() clones the array on every call; readers decode a type per record
+        private static final EventType[] VALUES = values();
+
         private final byte value;
 
         EventType(byte value) {
@@ -37,8 +46,52 @@ public class Event {
         public byte getValue() {
             return value;
         }
+
+        public static EventType fromValue(byte value) {
+            for (EventType type : VALUES) {
+                if (type.value == value) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown event type: " + value);
+        }
     }
 
+    /**
+     * How a record's payload is encoded, stored in the first reserved header byte.
+     * v1 logs only contain JSON (the byte is zero); v2 logs may mix both.
+     */
+    public enum PayloadEncoding {
+        JSON((byte) 0),
+        BINARY((byte) 1);
+
+        private final byte value;
+
+        PayloadEncoding(byte value) {
+            this.value = value;
+        }
+
+        public byte getValue() {
+            return value;
+        }
+
+        public static PayloadEncoding fromValue(byte value) {
+            return switch (value) {
+                case 0 -> JSON;
+                case 1 -> BINARY;
+                default -> throw new IllegalArgumentException("Unknown payload encoding: " + value);
+            };
+        }
+    }
+
+    /** Fixed record header: sequence (8) + timestamp (8) + type (1) + encoding/reserved (3) + payload length (4) */
+    public static final int RECORD_HEADER_SIZE = 24;
+    public static final int CRC_SIZE = 4;
+    /** Offset of the payload encoding byte (v2; reserved and zero in v1) */
+    static final int PAYLOAD_ENCODING_OFFSET = 17;
+    /** Offset of the payload length field within the record header */
+    static final int PAYLOAD_LENGTH_OFFSET = 20;
+
     private final long sequenceNum;
     private final long timestampNs;
     private final EventType eventType;
@@ -46,11 +99,18 @@ public class Event {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Payload encoder for arbitrary objects, serialized with Jackson exactly like the
+     * constructor does. Used by the {@code Object} overloads of the writers.
+     */
+    static final EventPayloadEncoder<Object> JACKSON_PAYLOAD = (value, out) ->
+            out.rawValue(serializePayload(value).getBytes(StandardCharsets.UTF_8));
+
     /**
      * Create event with automatic payload serialization.
      *
      * @param sequenceNum Monotonically increasing sequence number
-     * @param timestampNs Nanosecond timestamp (System.nanoTime())
+     * @param timestampNs Append time, epoch nanoseconds ({@link EpochNanoClock})
      * @param eventType Type of event (e.g., TRADE_CREATED)
      * @param payloadObject Object to serialize as JSON payload
      */
@@ -61,7 +121,7 @@ public class Event {
         this.payload = serializePayload(payloadObject);
     }
 
-    private String serializePayload(Object payloadObject) {
+    private static String serializePayload(Object payloadObject) {
         try {
             return objectMapper.writeValueAsString(payloadObject);
         } catch (JsonProcessingException e) {
@@ -84,14 +144,14 @@ public class Event {
      * @return Binary representation of event
      */
     public byte[] serialize() {
-        byte[] payloadBytes = payload.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
         int payloadLength = payloadBytes.length;
-        int totalSize = 28 + payloadLength + 4;  // 28 (header) + payload + 4 (CRC)
+        int totalSize = RECORD_HEADER_SIZE + payloadLength + CRC_SIZE;
 
         ByteBuffer buffer = ByteBuffer.allocate(totalSize);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
 
-        // Write event header (28 bytes)
+        // Write event header (24 bytes)
         buffer.putLong(sequenceNum);
         buffer.putLong(timestampNs);
         buffer.put(eventType.getValue());
@@ -105,7 +165,7 @@ public class Event {
 
         // Calculate and write CRC32 checksum
         CRC32 crc = new CRC32();
-        crc.update(buffer.array(), 0, totalSize - 4);  // Exclude CRC field itself
+        crc.update(buffer.array(), 0, totalSize - CRC_SIZE);  // Exclude CRC field itself
         long crcValue = crc.getValue();
         buffer.putInt((int) crcValue);
 
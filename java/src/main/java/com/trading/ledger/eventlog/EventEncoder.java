@@ -0,0 +1,116 @@
+package com.trading.ledger.eventlog;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+/**
+ * Per-thread encoder that builds records in a reusable direct buffer.
+ *
+ * Encoding is split in two so the expensive part runs outside the writer lock:
+ * {@link #encode} writes the event type and payload (by far most of the work), then
+ * {@link #seal}, called under the lock once the sequence number is known, stamps
+ * sequence and timestamp and computes the CRC32 in place. The sealed buffer is valid
+ * until the owning thread encodes its next event.
+ */
+final class EventEncoder {
+
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_CAPACITY =
+            Event.RECORD_HEADER_SIZE + EventLogRecovery.MAX_PAYLOAD_SIZE + Event.CRC_SIZE;
+
+    private static final ThreadLocal<EventEncoder> LOCAL = ThreadLocal.withInitial(EventEncoder::new);
+
+    private final JsonPayloadWriter json = new JsonPayloadWriter();
+    private final BinaryPayloadWriter binary = new BinaryPayloadWriter();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer buffer;
+    private int payloadLength;
+
+    EventEncoder() {
+        this(INITIAL_CAPACITY);
+    }
+
+    EventEncoder(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static EventEncoder local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Drop the calling thread's encoder, e.g. when its buffer may still be referenced
+     * by a write that did not complete.
+     */
+    static void discardLocal() {
+        LOCAL.remove();
+    }
+
+    /**
+     * Encode the payload in the given log format: binary when the format is V2 and the
+     * encoder has a binary form, JSON otherwise.
+     */
+    <T> void encode(EventLogFormat format, Event.EventType eventType,
+                    EventPayloadEncoder<T> payloadEncoder, T value) {
+        boolean useBinary = format == EventLogFormat.V2 && payloadEncoder.hasBinaryEncoding();
+        while (true) {
+            buffer.clear();
+            // Leave room for the CRC so it can never overflow
+            buffer.limit(buffer.capacity() - Event.CRC_SIZE);
+            buffer.position(Event.RECORD_HEADER_SIZE);
+            try {
+                if (useBinary) {
+                    binary.reset(buffer);
+                    payloadEncoder.encodeBinary(value, binary);
+                } else {
+                    json.reset(buffer);
+                    payloadEncoder.encode(value, json);
+                }
+                break;
+            } catch (BufferOverflowException e) {
+                grow();
+            }
+        }
+        payloadLength = buffer.position() - Event.RECORD_HEADER_SIZE;
+
+        Event.PayloadEncoding encoding = useBinary ? Event.PayloadEncoding.BINARY : Event.PayloadEncoding.JSON;
+        buffer.put(16, eventType.getValue());
+        buffer.put(Event.PAYLOAD_ENCODING_OFFSET, encoding.getValue());
+        buffer.put(18, (byte) 0);  // reserved[1]
+        buffer.put(19, (byte) 0);  // reserved[2]
+        buffer.putInt(Event.PAYLOAD_LENGTH_OFFSET, payloadLength);
+    }
+
+    /**
+     * Stamp sequence and timestamp onto the encoded event and append its CRC.
+     *
+     * @return the complete record, positioned at 0 with limit at its end
+     */
+    ByteBuffer seal(long sequenceNum, long timestampNs) {
+        buffer.putLong(0, sequenceNum);
+        buffer.putLong(8, timestampNs);
+
+        int crcOffset = Event.RECORD_HEADER_SIZE + payloadLength;
+        buffer.limit(crcOffset).position(0);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(crcOffset + Event.CRC_SIZE);
+        buffer.putInt(crcOffset, (int) crc.getValue());
+        buffer.position(0);
+        return buffer;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    private void grow() {
+        if (buffer.capacity() >= MAX_CAPACITY) {
+            throw new IllegalArgumentException("Event payload exceeds " + EventLogRecovery.MAX_PAYLOAD_SIZE + " bytes");
+        }
+        int capacity = (int) Math.min((long) buffer.capacity() * 2, MAX_CAPACITY);
+        buffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
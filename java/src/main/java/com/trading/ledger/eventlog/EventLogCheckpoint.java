@@ -0,0 +1,150 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Sidecar checkpoint ({@code <log>.ckpt}) recording the last known-good record of an event log.
+ *
+ * Lets the writer recover its sequence number on restart by scanning only the records
+ * appended since the last checkpoint instead of the whole log.
+ *
+ * Layout: two 32-byte slots written alternately, so a torn checkpoint write always
+ * leaves the previous slot intact. Each slot (little-endian):
+ * - magic (4 bytes, "CKPT")
+ * - last_sequence (8 bytes)
+ * - last_record_offset (8 bytes, file offset of the record carrying last_sequence)
+ * - end_offset (8 bytes, first byte after that record)
+ * - crc32 (4 bytes, over the preceding 28 bytes)
+ *
+ * The checkpoint is advisory: it is not forced, and recovery re-validates the record it
+ * points at before trusting it.
+ */
+class EventLogCheckpoint implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogCheckpoint.class);
+
+    static final String SUFFIX = ".ckpt";
+
+    private static final int MAGIC = 0x54504B43;  // "CKPT"
+    private static final int SLOT_SIZE = 32;
+
+    record Entry(long lastSequence, long lastRecordOffset, long endOffset) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    // Guards the slot state; not synchronized, as writes may come from virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private long lastWrittenSequence;
+    private int nextSlot;
+
+    EventLogCheckpoint(Path logPath) throws IOException {
+        this.path = pathFor(logPath);
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+    }
+
+    static Path pathFor(Path logPath) {
+        return logPath.resolveSibling(logPath.getFileName() + SUFFIX);
+    }
+
+    /**
+     * Read the valid checkpoint slots, newest first.
+     */
+    static List<Entry> read(Path logPath) {
+        Path checkpointPath = pathFor(logPath);
+        if (!Files.exists(checkpointPath)) {
+            return List.of();
+        }
+        try (FileChannel channel = FileChannel.open(checkpointPath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE * 2).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // keep reading
+            }
+            List<Entry> entries = new ArrayList<>(2);
+            for (int i = 0; i < 2; i++) {
+                Entry entry = decodeSlot(buffer, i * SLOT_SIZE);
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            entries.sort(Comparator.comparingLong(Entry::lastSequence).reversed());
+            return entries;
+        } catch (IOException e) {
+            logger.warn("Failed to read event log checkpoint {}, ignoring it", checkpointPath, e);
+            return List.of();
+        }
+    }
+
+    private static Entry decodeSlot(ByteBuffer buffer, int offset) {
+        if (buffer.position() < offset + SLOT_SIZE) {
+            return null;
+        }
+        if (buffer.getInt(offset) != MAGIC) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), offset, SLOT_SIZE - 4);
+        if ((int) crc.getValue() != buffer.getInt(offset + SLOT_SIZE - 4)) {
+            return null;
+        }
+        return new Entry(buffer.getLong(offset + 4), buffer.getLong(offset + 12), buffer.getLong(offset + 20));
+    }
+
+    /**
+     * Record a new checkpoint. Calls carrying a sequence older than the last one written
+     * are ignored, so concurrent callers cannot move the checkpoint backwards.
+     */
+    void write(long lastSequence, long lastRecordOffset, long endOffset) throws IOException {
+        lock.lock();
+        try {
+            if (lastSequence <= lastWrittenSequence) {
+                return;
+            }
+            slot.clear();
+            slot.putInt(MAGIC);
+            slot.putLong(lastSequence);
+            slot.putLong(lastRecordOffset);
+            slot.putLong(endOffset);
+            crc.reset();
+            crc.update(slot.array(), 0, SLOT_SIZE - 4);
+            slot.putInt((int) crc.getValue());
+            slot.flip();
+
+            long position = (long) nextSlot * SLOT_SIZE;
+            while (slot.hasRemaining()) {
+                position += channel.write(slot, position);
+            }
+            nextSlot ^= 1;
+            lastWrittenSequence = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+            logger.debug("Closed event log checkpoint: {}", path);
+        }
+    }
+}
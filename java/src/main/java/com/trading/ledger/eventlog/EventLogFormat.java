@@ -0,0 +1,37 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * On-disk format of an event log file, recorded as the version in its 16-byte header.
+ *
+ * Both versions share the record framing (24-byte header, payload, CRC32). They differ
+ * in what the payload may be:
+ * - V1: always UTF-8 JSON; reserved header bytes are zero.
+ * - V2: header byte 17 gives the payload encoding per record (see {@link Event.PayloadEncoding}).
+ *   Payloads with a fixed binary layout (TRADE_CREATED, see {@link TradeCreatedPayload})
+ *   are written in binary, anything else as JSON.
+ *
+ * The format is chosen when a file is created; reopening a file keeps its format.
+ */
+public enum EventLogFormat {
+    V1(1),
+    V2(2);
+
+    private final int version;
+
+    EventLogFormat(int version) {
+        this.version = version;
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public static EventLogFormat fromVersion(int version) {
+        for (EventLogFormat format : values()) {
+            if (format.version == version) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported event log version: " + version);
+    }
+}
@@ -0,0 +1,214 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Sparse sequence → file offset index ({@code <log>.idx}) maintained by the writers.
+ *
+ * An entry is appended for the first record of the file and then whenever
+ * {@code intervalEvents} records or {@code intervalBytes} bytes have been written since
+ * the previous entry, so a reader can binary-search the entries and scan at most one
+ * interval to reach any sequence number.
+ *
+ * Layout (little-endian): 16-byte header (magic "TIDX", version, reserved) followed by
+ * 16-byte entries (sequence 8, record offset 8) in increasing sequence order.
+ *
+ * Like the checkpoint the index is advisory and never forced: on open the writer drops
+ * torn entries and entries pointing past the recovered end of the log, and readers
+ * verify the record at an entry's offset before using it.
+ */
+final class EventLogIndex implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogIndex.class);
+
+    static final String SUFFIX = ".idx";
+    static final int MAGIC = 0x58444954;  // "TIDX"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 16;
+
+    record Entry(long sequence, long offset) {
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int intervalEvents;
+    private final long intervalBytes;
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Guarded by the writer's lock
+    private long size;
+    private long lastIndexedSequence = -1;
+    private long lastIndexedOffset = -1;
+
+    private EventLogIndex(Path path, FileChannel channel, int intervalEvents, long intervalBytes) {
+        this.path = path;
+        this.channel = channel;
+        this.intervalEvents = intervalEvents;
+        this.intervalBytes = intervalBytes;
+    }
+
+    static Path pathFor(Path logPath) {
+        return logPath.resolveSibling(logPath.getFileName() + SUFFIX);
+    }
+
+    static boolean isEnabled(EventLogOptions options) {
+        return options.getIndexIntervalEvents() > 0 || options.getIndexIntervalBytes() > 0;
+    }
+
+    /**
+     * Open (or create) the index of a log whose intact data ends at {@code logEndOffset},
+     * discarding entries that no longer point into the log.
+     */
+    static EventLogIndex open(Path logPath, EventLogOptions options, long logEndOffset) throws IOException {
+        Path path = pathFor(logPath);
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+        EventLogIndex index = new EventLogIndex(path, channel,
+                options.getIndexIntervalEvents(), options.getIndexIntervalBytes());
+        try {
+            index.load(logEndOffset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return index;
+    }
+
+    private void load(long logEndOffset) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE || !hasValidHeader()) {
+            if (fileSize > 0) {
+                logger.warn("Discarding event log index {} with invalid header", path);
+            }
+            channel.truncate(0);
+            writeHeader();
+            size = HEADER_SIZE;
+            return;
+        }
+
+        // Drop a torn last entry and entries past the end of the (possibly truncated) log
+        long entries = (fileSize - HEADER_SIZE) / ENTRY_SIZE;
+        while (entries > 0) {
+            readEntry(entries - 1);
+            if (entry.getLong(8) < logEndOffset) {
+                lastIndexedSequence = entry.getLong(0);
+                lastIndexedOffset = entry.getLong(8);
+                break;
+            }
+            entries--;
+        }
+        size = HEADER_SIZE + entries * ENTRY_SIZE;
+        if (size < fileSize) {
+            logger.info("Truncating event log index {} from {} to {} entries",
+                    path, (fileSize - HEADER_SIZE) / ENTRY_SIZE, entries);
+            channel.truncate(size);
+        }
+    }
+
+    private boolean hasValidHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        EventLogRecovery.readFully(channel, header, 0);
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(0);  // reserved
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private void readEntry(long i) throws IOException {
+        entry.clear();
+        EventLogRecovery.readFully(channel, entry, HEADER_SIZE + i * ENTRY_SIZE);
+    }
+
+    /**
+     * Called by the writer (under its lock) for every appended record.
+     */
+    void onAppend(long sequence, long recordOffset) throws IOException {
+        boolean due = lastIndexedSequence < 0
+                || (intervalEvents > 0 && sequence - lastIndexedSequence >= intervalEvents)
+                || (intervalBytes > 0 && recordOffset - lastIndexedOffset >= intervalBytes);
+        if (!due) {
+            return;
+        }
+        entry.clear();
+        entry.putLong(sequence);
+        entry.putLong(recordOffset);
+        entry.flip();
+        long position = size;
+        while (entry.hasRemaining()) {
+            position += channel.write(entry, position);
+        }
+        size = position;
+        lastIndexedSequence = sequence;
+        lastIndexedOffset = recordOffset;
+    }
+
+    /**
+     * Binary-search the index of {@code logPath} for the last entry with a sequence
+     * number at or below {@code sequence}. Empty if there is no index or no such entry.
+     */
+    static Optional<Entry> floor(Path logPath, long sequence) throws IOException {
+        Path path = pathFor(logPath);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE + ENTRY_SIZE) {
+                return Optional.empty();
+            }
+            long entries = (fileSize - HEADER_SIZE) / ENTRY_SIZE;
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + entries * ENTRY_SIZE);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                return Optional.empty();
+            }
+
+            long low = 0;
+            long high = entries - 1;
+            long found = -1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                if (map.getLong((int) (HEADER_SIZE + mid * ENTRY_SIZE)) <= sequence) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (found < 0) {
+                return Optional.empty();
+            }
+            int position = (int) (HEADER_SIZE + found * ENTRY_SIZE);
+            return Optional.of(new Entry(map.getLong(position), map.getLong(position + 8)));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+        }
+    }
+}
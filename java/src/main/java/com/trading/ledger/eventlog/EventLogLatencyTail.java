@@ -0,0 +1,178 @@
+package com.trading.ledger.eventlog;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Follows a live event log from another process and measures, per TRADE_CREATED event:
+ * - ingest to append: record timestamp minus the trade's timestamp_ns (request arrival)
+ * - append to consume: this process's clock when the record is read minus the record timestamp
+ *
+ * Both timestamps are epoch nanoseconds ({@link EpochNanoClock}), so the deltas are valid
+ * across processes on one host. Append to consume includes the poll interval and, for the
+ * file writer, the time until the record is flushed to the page cache.
+ *
+ * Usage: java -cp trading-ledger.jar com.trading.ledger.eventlog.EventLogLatencyTail
+ *            &lt;event-log-path&gt; [report-interval-seconds] [duration-seconds]
+ *
+ * Records already in the log when the tail starts are skipped. Not thread-safe, except
+ * {@link #stop()}: the histograms are only touched by the thread polling them.
+ */
+public class EventLogLatencyTail implements AutoCloseable {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long SHUTDOWN_WAIT_MILLIS = 5_000;
+
+    private final EventLogReader reader;
+    // Nanoseconds; auto-resizing, so no delta is too large to record
+    private final Histogram ingestToAppend = new Histogram(SIGNIFICANT_DIGITS);
+    private final Histogram appendToConsume = new Histogram(SIGNIFICANT_DIGITS);
+    // Deltas below zero (clocks disagreeing across processes), recorded as zero
+    private long negativeDeltas;
+    private volatile boolean stopped;
+
+    public EventLogLatencyTail(Path logPath) throws IOException {
+        this.reader = new EventLogReader(logPath);
+    }
+
+    /**
+     * Move past every record currently in the log without measuring it.
+     *
+     * @return number of records skipped
+     */
+    public long skipExisting() throws IOException {
+        long skipped = 0;
+        while (reader.nextRecord() != null) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Measure every record appended since the last call.
+     *
+     * @return number of records read
+     */
+    public int poll() throws IOException {
+        int read = 0;
+        EventRecord record;
+        while ((record = reader.nextRecord()) != null) {
+            long consumedAt = EpochNanoClock.nowNanos();
+            long appendedAt = record.getTimestampNs();
+            recordDelta(appendToConsume, consumedAt - appendedAt);
+            if (record.getEventType() == Event.EventType.TRADE_CREATED) {
+                Long receivedAt = TradeCreatedPayload.decode(record).getTimestampNs();
+                if (receivedAt != null) {
+                    recordDelta(ingestToAppend, appendedAt - receivedAt);
+                }
+            }
+            read++;
+        }
+        return read;
+    }
+
+    /**
+     * Poll until {@code durationNanos} has passed or {@link #stop()} is called, printing a
+     * report every {@code reportIntervalNanos} and a final one after a last poll.
+     */
+    public void follow(long reportIntervalNanos, long durationNanos, PrintStream out) throws IOException {
+        long start = System.nanoTime();
+        long nextReport = start + reportIntervalNanos;
+        while (!stopped && System.nanoTime() - start < durationNanos) {
+            if (poll() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            if (System.nanoTime() - nextReport >= 0) {
+                out.println(report());
+                nextReport += reportIntervalNanos;
+            }
+        }
+        poll();
+        out.println(report());
+    }
+
+    /**
+     * Make {@link #follow} return after its current poll. Safe to call from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    private void recordDelta(Histogram histogram, long deltaNanos) {
+        if (deltaNanos < 0) {
+            negativeDeltas++;
+            deltaNanos = 0;
+        }
+        histogram.recordValue(deltaNanos);
+    }
+
+    public Histogram getIngestToAppend() {
+        return ingestToAppend;
+    }
+
+    public Histogram getAppendToConsume() {
+        return appendToConsume;
+    }
+
+    public long getNegativeDeltas() {
+        return negativeDeltas;
+    }
+
+    public String report() {
+        return format("ingest->append ", ingestToAppend) + System.lineSeparator()
+                + format("append->consume", appendToConsume)
+                + (negativeDeltas > 0 ? System.lineSeparator() + "negative deltas (clock skew): " + negativeDeltas : "");
+    }
+
+    private static String format(String label, Histogram histogram) {
+        return String.format("%s count=%d p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", label,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50.0) / 1e3,
+                histogram.getValueAtPercentile(99.0) / 1e3,
+                histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: EventLogLatencyTail <event-log-path> [report-interval-seconds] [duration-seconds]");
+            System.exit(1);
+        }
+        Path logPath = Paths.get(args[0]);
+        long reportIntervalNanos = TimeUnit.SECONDS.toNanos(args.length > 1 ? Long.parseLong(args[1]) : 5);
+        long durationNanos = args.length > 2 ? TimeUnit.SECONDS.toNanos(Long.parseLong(args[2])) : Long.MAX_VALUE;
+
+        while (!Files.exists(logPath)) {
+            System.out.println("Waiting for " + logPath + "...");
+            Thread.sleep(1_000);
+        }
+        try (EventLogLatencyTail tail = new EventLogLatencyTail(logPath)) {
+            System.out.println("=== Event Log Latency Tail ===");
+            System.out.println("Log: " + logPath + " (skipped " + tail.skipExisting() + " existing records)");
+            // On Ctrl-C, stop the loop and wait for it to print the final report itself
+            Thread follower = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                tail.stop();
+                try {
+                    follower.join(SHUTDOWN_WAIT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            tail.follow(reportIntervalNanos, durationNanos, System.out);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Manifest ({@code <log>.manifest}) listing the segments of a segmented event log in order.
+ *
+ * Plain text so operators and other readers (e.g. the C++ tailer) can follow segments
+ * without scanning the directory. One line per segment:
+ * {@code <file name> <first sequence> <last sequence> <created at ms> <sealed at ms>}.
+ * The last line is the active segment; its last sequence and sealed-at are 0 until it
+ * is rolled. The file is replaced atomically (write temp file, force, rename).
+ */
+final class EventLogManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogManifest.class);
+
+    static final String SUFFIX = ".manifest";
+
+    private static final String HEADER = "# segment first_sequence last_sequence created_at_ms sealed_at_ms";
+
+    /**
+     * @param fileName       segment file name, relative to the log directory
+     * @param firstSequence  sequence of the first record in the segment
+     * @param lastSequence   sequence of the last record (0 while the segment is active)
+     * @param createdAtMillis when the segment was created
+     * @param sealedAtMillis when the segment was rolled (0 while active)
+     */
+    record Segment(String fileName, long firstSequence, long lastSequence,
+                   long createdAtMillis, long sealedAtMillis) {
+
+        boolean isSealed() {
+            return sealedAtMillis > 0;
+        }
+
+        Segment seal(long lastSequence, long sealedAtMillis) {
+            return new Segment(fileName, firstSequence, lastSequence, createdAtMillis, sealedAtMillis);
+        }
+    }
+
+    private EventLogManifest() {
+    }
+
+    static Path pathFor(Path logPath) {
+        return logPath.resolveSibling(SegmentNames.stem(logPath) + SUFFIX);
+    }
+
+    static Optional<List<Segment>> read(Path manifestPath) throws IOException {
+        if (!Files.exists(manifestPath)) {
+            return Optional.empty();
+        }
+        List<Segment> segments = new ArrayList<>();
+        for (String line : Files.readAllLines(manifestPath, StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 5) {
+                throw new IOException("Malformed event log manifest line in " + manifestPath + ": " + line);
+            }
+            segments.add(new Segment(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[4])));
+        }
+        return Optional.of(segments);
+    }
+
+    static void write(Path manifestPath, List<Segment> segments) throws IOException {
+        StringBuilder text = new StringBuilder(HEADER).append('\n');
+        for (Segment segment : segments) {
+            text.append(segment.fileName()).append(' ')
+                    .append(segment.firstSequence()).append(' ')
+                    .append(segment.lastSequence()).append(' ')
+                    .append(segment.createdAtMillis()).append(' ')
+                    .append(segment.sealedAtMillis()).append('\n');
+        }
+
+        Path temp = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, manifestPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        logger.debug("Wrote event log manifest {} ({} segments)", manifestPath, segments.size());
+    }
+
+    /**
+     * Segment file naming: {@code <stem>-<first sequence, 20 digits><extension>}, e.g.
+     * {@code event_log-00000000000000000001.bin}, so names sort in sequence order.
+     */
+    static final class SegmentNames {
+
+        private SegmentNames() {
+        }
+
+        static String stem(Path logPath) {
+            String name = logPath.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            return dot > 0 ? name.substring(0, dot) : name;
+        }
+
+        static String extension(Path logPath) {
+            String name = logPath.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            return dot > 0 ? name.substring(dot) : "";
+        }
+
+        static String segmentName(Path logPath, long firstSequence) {
+            return String.format("%s-%020d%s", stem(logPath), firstSequence, extension(logPath));
+        }
+
+        /**
+         * First sequence encoded in a segment file name, or -1 if the name is not a segment of this log.
+         */
+        static long firstSequenceOf(Path logPath, String fileName) {
+            String prefix = stem(logPath) + "-";
+            String suffix = extension(logPath);
+            if (!fileName.startsWith(prefix) || !fileName.endsWith(suffix)
+                    || fileName.length() != prefix.length() + 20 + suffix.length()) {
+                return -1;
+            }
+            String digits = fileName.substring(prefix.length(), prefix.length() + 20);
+            for (int i = 0; i < digits.length(); i++) {
+                if (!Character.isDigit(digits.charAt(i))) {
+                    return -1;
+                }
+            }
+            return Long.parseLong(digits);
+        }
+    }
+}
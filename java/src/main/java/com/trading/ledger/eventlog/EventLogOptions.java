@@ -0,0 +1,110 @@
+package com.trading.ledger.eventlog;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning knobs for the event log writers, bound from {@code eventlog.*} in EventLogConfig.
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString
+public class EventLogOptions {
+
+    /** Format of newly created log files; existing files keep the format in their header */
+    @Builder.Default
+    private final EventLogFormat format = EventLogFormat.V1;
+
+    /** How appends are made durable (see {@link DurabilityMode}) */
+    @Builder.Default
+    private final DurabilityMode durability = DurabilityMode.NONE;
+
+    /** GROUP_COMMIT only: max events coalesced into one write + force */
+    @Builder.Default
+    private final int groupCommitMaxBatchSize = 256;
+
+    /** GROUP_COMMIT only: how long the flusher waits for a batch to fill (0 = don't wait) */
+    @Builder.Default
+    private final long groupCommitMaxLingerMicros = 0;
+
+    /** Write the recovery checkpoint every N events (bounds the scan on restart) */
+    @Builder.Default
+    private final int checkpointInterval = 4096;
+
+    /**
+     * On open, also truncate at an invalid record that is not a torn tail, discarding
+     * everything after it. Off: such a log fails to open (see EventLogRecovery).
+     */
+    @Builder.Default
+    private final boolean recoveryRepair = false;
+
+    /** Mapped writer only: bytes mapped (and preallocated) at a time */
+    @Builder.Default
+    private final long mappedRegionSize = 64L * 1024 * 1024;
+
+    /** Add a sparse index entry at least every N events (0 = no event-count trigger) */
+    @Builder.Default
+    private final int indexIntervalEvents = 1024;
+
+    /** Add a sparse index entry at least every N bytes of log (0 = no size trigger); both 0 = no index */
+    @Builder.Default
+    private final long indexIntervalBytes = 256 * 1024;
+
+    /**
+     * Sequence number preceding the first record of the file; a segment continues the
+     * sequence of the one before it. Only used when the file has no records yet.
+     */
+    @Builder.Default
+    private final long baseSequence = 0;
+
+    /** Roll to a new segment once the active one reaches this size (0 = single file, no rolling) */
+    @Builder.Default
+    private final long segmentMaxBytes = 0;
+
+    /** Roll to a new segment once the active one is this old and not empty (zero = no time-based rolling) */
+    @Builder.Default
+    private final Duration segmentMaxAge = Duration.ZERO;
+
+    /** Keep at most this many segments, including the active one (0 = no limit) */
+    @Builder.Default
+    private final int retentionMaxSegments = 0;
+
+    /** Remove sealed segments whose last record was written longer ago than this (zero = no limit) */
+    @Builder.Default
+    private final Duration retentionMaxAge = Duration.ZERO;
+
+    /** What happens to segments that fall out of retention */
+    @Builder.Default
+    private final RetentionAction retentionAction = RetentionAction.DELETE;
+
+    /** ARCHIVE only: directory expired segments are moved to */
+    private final Path archiveDirectory;
+
+    /** Async publishing only: max events queued for the writer thread */
+    @Builder.Default
+    private final int asyncQueueCapacity = 65536;
+
+    /** Async publishing only: max events the writer thread takes off the queue at a time */
+    @Builder.Default
+    private final int asyncBatchSize = 256;
+
+    /** Async publishing only: what happens when the queue is full */
+    @Builder.Default
+    private final OverflowPolicy asyncOverflowPolicy = OverflowPolicy.BLOCK;
+
+    /** Async publishing, BLOCK only: how long to wait for queue space before failing */
+    @Builder.Default
+    private final Duration asyncBlockTimeout = Duration.ofSeconds(1);
+
+    public boolean isSegmented() {
+        return segmentMaxBytes > 0 || !segmentMaxAge.isZero();
+    }
+
+    public static EventLogOptions defaults() {
+        return builder().build();
+    }
+}
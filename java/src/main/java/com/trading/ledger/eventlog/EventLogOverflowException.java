@@ -0,0 +1,12 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * Thrown when the async event log queue is full and the overflow policy does not
+ * allow waiting (or waiting timed out). The event was not accepted.
+ */
+public class EventLogOverflowException extends RuntimeException {
+
+    public EventLogOverflowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,299 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential reader for v1 and v2 event logs, with O(log n) seek by sequence number.
+ *
+ * Records can be consumed without copying through {@link #nextRecord()},
+ * {@link #forEach(Consumer)} or {@link #iterator()}, which all hand out a reused
+ * {@link EventRecord} whose payload is a view onto the mapping; {@link #next()} and
+ * {@link #events()} copy each record into an {@link Event}. Every record's CRC32 is
+ * verified before it is returned. Binary (v2) payloads are exposed as-is by
+ * {@link EventRecord#payload()} and decoded by e.g. {@link TradeCreatedPayload#decode}.
+ *
+ * The file is read through read-only memory-mapped windows (logs can exceed the 2 GB
+ * limit of a single MappedByteBuffer); a window is remapped when the next record does not
+ * fit in it, which also picks up data appended by a live writer.
+ *
+ * {@link #seek(long)} binary-searches the writer's sparse {@link EventLogIndex} for the
+ * closest preceding entry, verifies the record it points at, and walks record headers
+ * from there; without a usable index it walks from the start of the log.
+ *
+ * End of data is the end of the file, an incomplete record, or a zero sequence number
+ * (the preallocated tail of the mapped writer). A complete record with a bad CRC is
+ * reported as an IOException. Not thread-safe.
+ */
+public class EventLogReader implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogReader.class);
+
+    static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final Path logPath;
+    private final FileChannel channel;
+    private final long windowSize;
+    private final CRC32 crc = new CRC32();
+
+    private final EventRecord record = new EventRecord();
+
+    private MappedByteBuffer window;
+    // Read-only view of the window handed out as record payloads
+    private ByteBuffer windowView;
+    private long windowStart;
+    private long fileSize;
+    private long position = FileEventLogWriter.HEADER_SIZE;
+    private long lastSequence;
+
+    public EventLogReader(Path logPath) throws IOException {
+        this(logPath, DEFAULT_WINDOW_SIZE);
+    }
+
+    EventLogReader(Path logPath, long windowSize) throws IOException {
+        this.logPath = logPath;
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(logPath, StandardOpenOption.READ);
+        try {
+            EventLogRecovery.readFileHeader(channel, logPath);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.fileSize = channel.size();
+    }
+
+    /**
+     * Position the reader so that the next event returned is the first one with a
+     * sequence number &gt;= {@code sequence}.
+     *
+     * @return true if such an event is already in the log
+     */
+    public boolean seek(long sequence) throws IOException {
+        long start = FileEventLogWriter.HEADER_SIZE;
+        long previous = 0;
+        Optional<EventLogIndex.Entry> entry = EventLogIndex.floor(logPath, sequence);
+        if (entry.isPresent() && sequenceAt(entry.get().offset()) == entry.get().sequence()) {
+            start = entry.get().offset();
+            previous = entry.get().sequence() - 1;
+        } else if (entry.isPresent()) {
+            logger.warn("Ignoring stale index entry {} for {}", entry.get(), logPath);
+        }
+
+        position = start;
+        lastSequence = previous;
+        while (true) {
+            long seq = sequenceAt(position);
+            if (seq <= 0) {
+                return false;
+            }
+            if (seq >= sequence) {
+                return true;
+            }
+            position += recordSize(position);
+            lastSequence = seq;
+        }
+    }
+
+    /**
+     * Read the next record without copying it.
+     *
+     * @return the reader's shared {@link EventRecord}, repointed at the record, or null at
+     * the current end of data (call again to follow a live log)
+     */
+    public EventRecord nextRecord() throws IOException {
+        long seq = sequenceAt(position);
+        if (seq <= 0) {
+            return null;
+        }
+        int recordSize = recordSize(position);
+        if (!ensureMapped(position, recordSize)) {
+            return null;
+        }
+
+        int base = (int) (position - windowStart);
+        int crcOffset = base + recordSize - Event.CRC_SIZE;
+        ByteBuffer view = windowView;
+        view.limit(crcOffset).position(base);
+        crc.reset();
+        crc.update(view);
+        if ((int) crc.getValue() != window.getInt(crcOffset)) {
+            throw new IOException("CRC mismatch in " + logPath + " at offset " + position + " (seq " + seq + ")");
+        }
+        if (seq <= lastSequence) {
+            throw new IOException("Out-of-order sequence " + seq + " after " + lastSequence
+                    + " in " + logPath + " at offset " + position);
+        }
+
+        record.set(seq, window.getLong(base + 8), Event.EventType.fromValue(window.get(base + 16)),
+                Event.PayloadEncoding.fromValue(window.get(base + Event.PAYLOAD_ENCODING_OFFSET)), position,
+                view, base + Event.RECORD_HEADER_SIZE, recordSize - Event.RECORD_HEADER_SIZE - Event.CRC_SIZE);
+        position += recordSize;
+        lastSequence = seq;
+        return record;
+    }
+
+    /**
+     * Read the next event, copying its payload.
+     *
+     * @return the event, or null at the current end of data (call again to follow a live log)
+     */
+    public Event next() throws IOException {
+        EventRecord next = nextRecord();
+        return next != null ? next.toEvent() : null;
+    }
+
+    /**
+     * Pass every record up to the current end of data to {@code handler}, without copying.
+     * The record is only valid during the call.
+     *
+     * @return number of records read
+     */
+    public long forEach(Consumer<EventRecord> handler) throws IOException {
+        long count = 0;
+        EventRecord next;
+        while ((next = nextRecord()) != null) {
+            handler.accept(next);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Pull iterator over the records up to the end of data. Each returned record is the
+     * reader's shared instance and is repointed by the following hasNext()/next() call.
+     * I/O and corruption errors surface as UncheckedIOException.
+     */
+    public Iterator<EventRecord> iterator() {
+        return new Iterator<>() {
+            private EventRecord pending;
+
+            @Override
+            public boolean hasNext() {
+                if (pending == null) {
+                    try {
+                        pending = nextRecord();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return pending != null;
+            }
+
+            @Override
+            public EventRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                EventRecord next = pending;
+                pending = null;
+                return next;
+            }
+        };
+    }
+
+    /**
+     * Sequential stream of the events up to the end of data (each one copied, so they
+     * can be collected). Errors surface as UncheckedIOException.
+     */
+    public Stream<Event> events() {
+        Iterator<EventRecord> records = iterator();
+        Iterator<Event> events = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public Event next() {
+                return records.next().toEvent();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(events,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * File offset of the next record to be read.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Sequence number of the last record read or skipped (0 at the start of the log).
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Sequence number of the record at {@code offset}, or 0 if no complete header is there.
+     */
+    private long sequenceAt(long offset) throws IOException {
+        if (!ensureMapped(offset, Event.RECORD_HEADER_SIZE)) {
+            return 0;
+        }
+        long seq = window.getLong((int) (offset - windowStart));
+        // Pairs with the mapped writer's release store of the sequence: the rest of the record is read after it
+        VarHandle.acquireFence();
+        return seq;
+    }
+
+    // Requires the header at offset to be mapped (sequenceAt returned > 0)
+    private int recordSize(long offset) throws IOException {
+        int payloadLength = window.getInt((int) (offset - windowStart) + Event.PAYLOAD_LENGTH_OFFSET);
+        if (payloadLength < 0 || payloadLength > EventLogRecovery.MAX_PAYLOAD_SIZE) {
+            throw new IOException("Invalid payload length " + payloadLength + " in " + logPath + " at offset " + offset);
+        }
+        return Event.RECORD_HEADER_SIZE + payloadLength + Event.CRC_SIZE;
+    }
+
+    /**
+     * Make [offset, offset + length) addressable in the current window, remapping (and
+     * re-reading the file size) if needed. False if the file does not contain it yet.
+     */
+    private boolean ensureMapped(long offset, int length) throws IOException {
+        if (window != null && offset >= windowStart && offset + length <= windowStart + window.capacity()) {
+            return true;
+        }
+        if (offset + length > fileSize) {
+            fileSize = channel.size();
+            if (offset + length > fileSize) {
+                return false;
+            }
+        }
+        long size = Math.min(Math.max(windowSize, length), fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowView = window.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = offset;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        windowView = null;
+        channel.close();
+    }
+}
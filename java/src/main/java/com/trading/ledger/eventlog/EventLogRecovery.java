@@ -0,0 +1,306 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Startup recovery for an existing event log.
+ *
+ * Finds the last intact record (and therefore the last sequence number) and the offset
+ * where the next record must be written. Scanning starts at the sidecar checkpoint when
+ * one is present and still matches the log, so on a large log only the records appended
+ * since the last checkpoint are read; without a usable checkpoint the whole log is scanned.
+ *
+ * A record is intact when its header fits in the file, its payload length is sane, its
+ * CRC32 matches and its sequence number is greater than the previous record's. Anything
+ * after the last intact record is reported for the caller; {@link #recoverAndTruncate}
+ * cuts it off only when it is a torn write or preallocated zeros.
+ */
+final class EventLogRecovery {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogRecovery.class);
+
+    /** Upper bound on a single payload; anything larger is treated as corruption */
+    static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * @param lastSequence     sequence of the last intact record (0 if the log has none)
+     * @param lastRecordOffset file offset of that record (-1 if none)
+     * @param endOffset        first byte after the last intact record
+     * @param fileSize         size of the file before any truncation
+     * @param recordsScanned   intact records read during recovery
+     * @param fromCheckpoint   whether the scan started from the sidecar checkpoint
+     * @param format           format version from the file header
+     */
+    record Result(long lastSequence, long lastRecordOffset, long endOffset, long fileSize,
+                  long recordsScanned, boolean fromCheckpoint, EventLogFormat format) {
+
+        boolean hasTornTail() {
+            return endOffset < fileSize;
+        }
+    }
+
+    private EventLogRecovery() {
+    }
+
+    static Result recover(FileChannel channel, Path logPath) throws IOException {
+        long fileSize = channel.size();
+        EventLogFormat format = EventLogFormat.fromVersion(readFileHeader(channel, logPath));
+
+        Optional<EventLogCheckpoint.Entry> checkpoint = EventLogCheckpoint.read(logPath).stream()
+                .filter(entry -> isValidCheckpoint(channel, fileSize, entry))
+                .findFirst();
+
+        long startOffset = checkpoint.map(EventLogCheckpoint.Entry::endOffset).orElse((long) FileEventLogWriter.HEADER_SIZE);
+        long lastSequence = checkpoint.map(EventLogCheckpoint.Entry::lastSequence).orElse(0L);
+        long lastRecordOffset = checkpoint.map(EventLogCheckpoint.Entry::lastRecordOffset).orElse(-1L);
+
+        RecordScanner scanner = new RecordScanner(channel, startOffset, fileSize);
+        long scanned = 0;
+        while (scanner.next(lastSequence)) {
+            lastSequence = scanner.sequence;
+            lastRecordOffset = scanner.recordOffset;
+            scanned++;
+        }
+
+        Result result = new Result(lastSequence, lastRecordOffset, scanner.offset, fileSize,
+                scanned, checkpoint.isPresent(), format);
+        logger.info("Recovered event log {}: lastSequence={}, endOffset={}, scanned {} records from {}",
+                logPath, lastSequence, result.endOffset(), scanned,
+                checkpoint.isPresent() ? "checkpoint" : "start of log");
+        return result;
+    }
+
+    /**
+     * Recover and cut off a torn tail, leaving the file ending at the last intact record.
+     * The channel must be open for reading and writing (not in append mode).
+     *
+     * Only a torn tail is cut: an invalid record that runs to the end of the file or is
+     * followed by nothing but zeros (what a crash mid-append or preallocation leaves). An
+     * invalid record with more data after it means corruption, or a log in a layout this
+     * writer does not read; truncating there would silently drop every record after it, so
+     * this fails instead unless {@code repair} is set.
+     *
+     * @throws IOException if the log has an invalid record that is not a torn tail and
+     *                     {@code repair} is false
+     */
+    static Result recoverAndTruncate(FileChannel channel, Path logPath, boolean repair) throws IOException {
+        Result result = recover(channel, logPath);
+        if (!result.hasTornTail()) {
+            return result;
+        }
+        long discarded = result.fileSize() - result.endOffset();
+        if (isTornTail(channel, result)) {
+            logger.warn("Truncating {} bytes of torn data at the end of {} (offset {})",
+                    discarded, logPath, result.endOffset());
+        } else if (repair) {
+            logger.error("Repair: truncating {} at the invalid record at offset {} (after sequence {}), "
+                    + "discarding {} bytes that follow it", logPath, result.endOffset(), result.lastSequence(), discarded);
+        } else {
+            String reason = isLegacyRecord(channel, result)
+                    ? "the record is in the pre-v1 layout (CRC over a zeroed slot plus 4 padding bytes); "
+                    + "this log was written by an older writer and must be converted or moved aside"
+                    : "the record is corrupt and is followed by more data, so this is not a torn tail";
+            throw new IOException(String.format("Invalid event log record in %s at offset %d (after sequence %d, "
+                            + "%d bytes from there to the end of the file): %s. Not truncating; set "
+                            + "eventlog.recovery.repair=true to discard everything from that offset",
+                    logPath, result.endOffset(), result.lastSequence(), discarded, reason));
+        }
+        channel.truncate(result.endOffset());
+        channel.force(true);
+        return result;
+    }
+
+    /**
+     * Whether the data after the last intact record is a torn write: a partial header, a
+     * record whose declared size reaches the end of the file, or a record followed only by
+     * zeros. A declared payload length beyond {@link #MAX_PAYLOAD_SIZE} is a damaged header,
+     * not a torn one, since a record header is always written whole ahead of its payload.
+     */
+    static boolean isTornTail(FileChannel channel, Result result) throws IOException {
+        long offset = result.endOffset();
+        long fileSize = result.fileSize();
+        if (fileSize - offset < Event.RECORD_HEADER_SIZE) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(Event.RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, offset);
+        int payloadLength = header.getInt(Event.PAYLOAD_LENGTH_OFFSET);
+        if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE) {
+            return false;
+        }
+        long recordEnd = offset + Event.RECORD_HEADER_SIZE + payloadLength + Event.CRC_SIZE;
+        return recordEnd >= fileSize || isZeros(channel, recordEnd, fileSize);
+    }
+
+    /**
+     * Whether the record at the end offset checks out in the layout the original writer
+     * used: CRC32 over header, payload and 4 zero bytes, stored after the payload and
+     * followed by 4 zero bytes.
+     */
+    private static boolean isLegacyRecord(FileChannel channel, Result result) throws IOException {
+        long offset = result.endOffset();
+        ByteBuffer header = ByteBuffer.allocate(Event.RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, offset);
+        int payloadLength = header.getInt(Event.PAYLOAD_LENGTH_OFFSET);
+        int legacySize = Event.RECORD_HEADER_SIZE + payloadLength + 2 * Event.CRC_SIZE;
+        if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE || offset + legacySize > result.fileSize()) {
+            return false;
+        }
+        ByteBuffer record = ByteBuffer.allocate(legacySize).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, record, offset);
+        int crcOffset = Event.RECORD_HEADER_SIZE + payloadLength;
+        int storedCrc = record.getInt(crcOffset);
+        if (record.getInt(crcOffset + Event.CRC_SIZE) != 0) {
+            return false;
+        }
+        record.putInt(crcOffset, 0);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, crcOffset + Event.CRC_SIZE);
+        return (int) crc.getValue() == storedCrc;
+    }
+
+    private static boolean isZeros(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, to - from));
+        for (long position = from; position < to; position += buffer.limit()) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+            readFully(channel, buffer, position);
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validate the 16-byte file header; returns the format version (1 up to
+     * {@link FileEventLogWriter#VERSION}).
+     */
+    static int readFileHeader(FileChannel channel, Path logPath) throws IOException {
+        if (channel.size() < FileEventLogWriter.HEADER_SIZE) {
+            throw new IOException("Event log too small to contain a header: " + logPath);
+        }
+        ByteBuffer header = ByteBuffer.allocate(FileEventLogWriter.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header, 0);
+        int magic = header.getInt(0);
+        int version = header.getInt(4);
+        if (magic != FileEventLogWriter.MAGIC || version < 1 || version > FileEventLogWriter.VERSION) {
+            throw new IOException(String.format("Invalid event log header in %s: magic=0x%x, version=%d",
+                    logPath, magic, version));
+        }
+        return version;
+    }
+
+    private static boolean isValidCheckpoint(FileChannel channel, long fileSize, EventLogCheckpoint.Entry entry) {
+        if (entry.lastRecordOffset() < FileEventLogWriter.HEADER_SIZE || entry.endOffset() > fileSize) {
+            return false;
+        }
+        try {
+            RecordScanner scanner = new RecordScanner(channel, entry.lastRecordOffset(), entry.endOffset());
+            return scanner.next(entry.lastSequence() - 1)
+                    && scanner.sequence == entry.lastSequence()
+                    && scanner.offset == entry.endOffset();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of event log at offset " + position);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Forward record walker over [offset, limit) using large positional reads.
+     */
+    private static final class RecordScanner {
+
+        private final FileChannel channel;
+        private final long limit;
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long bufferStart;
+
+        long offset;
+        long recordOffset;
+        long sequence;
+
+        RecordScanner(FileChannel channel, long offset, long limit) {
+            this.channel = channel;
+            this.offset = offset;
+            this.limit = limit;
+            this.bufferStart = offset;
+            this.buffer.limit(0);
+        }
+
+        /**
+         * Advance over the next intact record. Returns false (leaving offset at the
+         * start of the bad record) at end of data or on the first invalid record.
+         */
+        boolean next(long previousSequence) throws IOException {
+            if (offset + Event.RECORD_HEADER_SIZE + Event.CRC_SIZE > limit) {
+                return false;
+            }
+            if (!ensure(Event.RECORD_HEADER_SIZE)) {
+                return false;
+            }
+            int base = (int) (offset - bufferStart);
+            long seq = buffer.getLong(base);
+            int payloadLength = buffer.getInt(base + Event.PAYLOAD_LENGTH_OFFSET);
+            if (seq <= previousSequence || payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE) {
+                return false;
+            }
+            int recordSize = Event.RECORD_HEADER_SIZE + payloadLength + Event.CRC_SIZE;
+            if (offset + recordSize > limit || !ensure(recordSize)) {
+                return false;
+            }
+            base = (int) (offset - bufferStart);
+            crc.reset();
+            crc.update(buffer.array(), base, recordSize - Event.CRC_SIZE);
+            if ((int) crc.getValue() != buffer.getInt(base + recordSize - Event.CRC_SIZE)) {
+                return false;
+            }
+            recordOffset = offset;
+            sequence = seq;
+            offset += recordSize;
+            return true;
+        }
+
+        /**
+         * Make sure [offset, offset + length) is in the buffer, refilling it from the channel.
+         */
+        private boolean ensure(int length) throws IOException {
+            if (offset >= bufferStart && offset + length <= bufferStart + buffer.limit()) {
+                return true;
+            }
+            if (buffer.capacity() < length) {
+                buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), limit - offset));
+            bufferStart = offset;
+            while (buffer.hasRemaining() && channel.read(buffer, bufferStart + buffer.position()) >= 0) {
+                // keep reading until the window is full or EOF
+            }
+            buffer.limit(buffer.position());
+            return length <= buffer.limit();
+        }
+    }
+}
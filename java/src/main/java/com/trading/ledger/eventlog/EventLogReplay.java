@@ -0,0 +1,53 @@
+package com.trading.ledger.eventlog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Replay of an event log as a whole, whether it is a single file or a segmented log with a
+ * manifest, for rebuilding in-memory state from it.
+ */
+public final class EventLogReplay {
+
+    private EventLogReplay() {
+    }
+
+    /**
+     * Pass every record with a sequence number &gt;= {@code fromSequence}, up to the current
+     * end of the log, to {@code handler} in sequence order. Segments are read in manifest
+     * order and those ending before {@code fromSequence} are skipped; segments removed by
+     * retention are simply missing. A log that does not exist yet has no records.
+     *
+     * @return number of records passed to the handler
+     */
+    public static long replay(Path logPath, long fromSequence, Consumer<EventRecord> handler) throws IOException {
+        Optional<List<EventLogManifest.Segment>> segments = EventLogManifest.read(EventLogManifest.pathFor(logPath));
+        if (segments.isEmpty()) {
+            return Files.exists(logPath) ? replayFile(logPath, fromSequence, handler) : 0;
+        }
+        long count = 0;
+        for (EventLogManifest.Segment segment : segments.get()) {
+            if (segment.isSealed() && segment.lastSequence() < fromSequence) {
+                continue;
+            }
+            Path segmentPath = logPath.resolveSibling(segment.fileName());
+            if (Files.exists(segmentPath)) {
+                count += replayFile(segmentPath, fromSequence, handler);
+            }
+        }
+        return count;
+    }
+
+    private static long replayFile(Path path, long fromSequence, Consumer<EventRecord> handler) throws IOException {
+        try (EventLogReader reader = new EventLogReader(path)) {
+            if (fromSequence > 1) {
+                reader.seek(fromSequence);
+            }
+            return reader.forEach(handler);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.trading.ledger.eventlog;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Append-only writer for the binary event log.
+ *
+ * Implementations assign monotonically increasing sequence numbers and write records
+ * in the layout described in {@link Event} (format v1 or v2, see {@link EventLogFormat}),
+ * so any of them can be read by the C++ EventLogReader. Selected via
+ * {@code eventlog.writer} in EventLogConfig.
+ */
+public interface EventLogWriter extends AutoCloseable {
+
+    /**
+     * Append an event, assigning it the next sequence number.
+     */
+    void append(Event.EventType eventType, Object payload) throws IOException;
+
+    /**
+     * Append an event whose payload is written by {@code payloadEncoder} straight into a
+     * reusable per-thread buffer. Produces the same record as the {@code Object} overload
+     * for an equivalent payload map, without allocating per event.
+     */
+    <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value) throws IOException;
+
+    /**
+     * Append a batch of events of one type, in list order. Writers override this to make
+     * the whole batch durable at once (e.g. one fsync) instead of once per event.
+     */
+    default <T> void appendAll(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, List<? extends T> values)
+            throws IOException {
+        for (T value : values) {
+            append(eventType, payloadEncoder, value);
+        }
+    }
+
+    /**
+     * Sequence number of the last appended (or recovered) event, 0 if none.
+     */
+    long getCurrentSequence();
+
+    /**
+     * Bytes of log data written so far (file header included), i.e. the end of the last record.
+     */
+    long getSize();
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,29 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * Writes the payload of an event for a given value straight into the record buffer.
+ *
+ * Implementations are expected to be stateless singletons, so appending through
+ * {@link EventLogWriter#append(Event.EventType, EventPayloadEncoder, Object)} allocates
+ * nothing per event. Fields must be written in the same order Jackson would emit them
+ * for the equivalent payload map, so the bytes match the {@code Object} payload path.
+ *
+ * Encoders may also provide a fixed-layout binary form, used instead of JSON when the
+ * log is written in {@link EventLogFormat#V2}.
+ */
+@FunctionalInterface
+public interface EventPayloadEncoder<T> {
+
+    void encode(T value, JsonPayloadWriter out);
+
+    default boolean hasBinaryEncoding() {
+        return false;
+    }
+
+    /**
+     * Write the v2 binary payload; only called when {@link #hasBinaryEncoding()} is true.
+     */
+    default void encodeBinary(T value, BinaryPayloadWriter out) {
+        throw new UnsupportedOperationException("No binary encoding for " + getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,107 @@
+package com.trading.ledger.eventlog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Zero-copy view of the current record of an {@link EventLogReader}.
+ *
+ * The reader reuses a single instance and repoints it at each record, and
+ * {@link #payload()} is a read-only window onto the mapped log rather than a copy, so a
+ * record must not be kept beyond the callback (or the next iterator call) that produced
+ * it. Use {@link #toEvent()} to keep one.
+ */
+public final class EventRecord {
+
+    private ByteBuffer view;
+    private int payloadStart;
+    private int payloadLength;
+    private long sequenceNum;
+    private long timestampNs;
+    private Event.EventType eventType;
+    private Event.PayloadEncoding payloadEncoding;
+    private long offset;
+
+    EventRecord() {
+    }
+
+    void set(long sequenceNum, long timestampNs, Event.EventType eventType, Event.PayloadEncoding payloadEncoding,
+             long offset, ByteBuffer view, int payloadStart, int payloadLength) {
+        this.sequenceNum = sequenceNum;
+        this.timestampNs = timestampNs;
+        this.eventType = eventType;
+        this.payloadEncoding = payloadEncoding;
+        this.offset = offset;
+        this.view = view;
+        this.payloadStart = payloadStart;
+        this.payloadLength = payloadLength;
+    }
+
+    public long getSequenceNum() {
+        return sequenceNum;
+    }
+
+    public long getTimestampNs() {
+        return timestampNs;
+    }
+
+    public Event.EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * JSON for every v1 record; BINARY for v2 records with a fixed-layout payload.
+     */
+    public Event.PayloadEncoding getPayloadEncoding() {
+        return payloadEncoding;
+    }
+
+    /**
+     * File offset of the record.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getPayloadLength() {
+        return payloadLength;
+    }
+
+    /**
+     * The raw payload bytes (UTF-8 JSON or binary, see {@link #getPayloadEncoding()}), positioned at its first byte with the limit at its end
+     * (each call resets position and limit).
+     * Read-only and shared with the reader; valid only until the next record is read.
+     */
+    public ByteBuffer payload() {
+        view.limit(payloadStart + payloadLength).position(payloadStart);
+        return view;
+    }
+
+    /**
+     * Decode the payload into a JSON String (copies). Binary payloads are transcoded to
+     * the JSON a v1 writer would have stored for the same event.
+     */
+    public String payloadAsString() {
+        if (payloadEncoding == Event.PayloadEncoding.BINARY) {
+            return switch (eventType) {
+                case TRADE_CREATED -> TradeCreatedPayload.toJson(TradeCreatedPayload.decodeBinary(payload()));
+            };
+        }
+        byte[] bytes = new byte[payloadLength];
+        view.get(payloadStart, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy this record into an immutable {@link Event}.
+     */
+    public Event toEvent() {
+        return new Event(sequenceNum, timestampNs, eventType, payloadAsString());
+    }
+
+    @Override
+    public String toString() {
+        return "EventRecord(seq=" + sequenceNum + ", type=" + eventType + ", offset=" + offset
+                + ", encoding=" + payloadEncoding + ", payloadLength=" + getPayloadLength() + ")";
+    }
+}
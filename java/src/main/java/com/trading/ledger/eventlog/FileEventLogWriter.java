@@ -7,25 +7,65 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class FileEventLogWriter implements AutoCloseable {
+/**
+ * Event log writer that appends records with FileChannel writes.
+ *
+ * New files are written in the configured {@link EventLogFormat}; an existing file keeps
+ * the format recorded in its header, so a log never mixes header versions.
+ *
+ * The writer is fail-stop: after a write or force fails, part of a record may be in the
+ * file, so every later append fails too (in GROUP_COMMIT mode via the flusher). Reopening
+ * the log recovers it up to the last intact record.
+ */
+public class FileEventLogWriter implements EventLogWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(FileEventLogWriter.class);
 
-    private static final int MAGIC = 0x54524144;  // "TRAD"
-    private static final int VERSION = 1;
-    private static final int HEADER_SIZE = 16;
+    static final int MAGIC = 0x54524144;  // "TRAD"
+    /** Newest format version this writer can produce and readers accept */
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
 
     private final FileChannel channel;
     private final AtomicLong sequenceCounter;
     private final Path logPath;
+    private final DurabilityMode durability;
+    private final GroupCommitFlusher flusher;
+    private final EventLogCheckpoint checkpoint;
+    private final int checkpointInterval;
+    private final EventLogIndex index;
+    private final EventLogFormat format;
+
+    // A lock rather than synchronized: a virtual thread blocked in a monitor pins its carrier thread
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Guarded by appendLock: file offset of the last record and of the next one
+    // (nextOffset is also read without the lock by getSize())
+    private long lastRecordOffset = -1;
+    private volatile long nextOffset;
+    // Guarded by appendLock: first write/force failure outside group commit
+    private IOException failure;
 
     public FileEventLogWriter(Path logPath) throws IOException {
+        this(logPath, EventLogOptions.defaults());
+    }
+
+    public FileEventLogWriter(Path logPath, EventLogOptions options) throws IOException {
         this.logPath = logPath;
-        this.sequenceCounter = new AtomicLong(0);
+        this.durability = options.getDurability();
+        this.checkpointInterval = options.getCheckpointInterval();
+        this.sequenceCounter = new AtomicLong(options.getBaseSequence());
+
+        // Recover the sequence (and cut a torn tail) before reopening for append
+        boolean existing = Files.exists(logPath) && Files.size(logPath) > 0;
+        this.format = existing ? recover(options.getFormat(), options.isRecoveryRepair()) : options.getFormat();
 
         // Open file in append mode, create if doesn't exist
         this.channel = FileChannel.open(logPath,
@@ -34,51 +74,336 @@ public class FileEventLogWriter implements AutoCloseable {
                 StandardOpenOption.CREATE);
 
         // Write header if file is new
-        if (channel.size() == 0) {
+        if (!existing) {
+            Files.deleteIfExists(EventLogCheckpoint.pathFor(logPath));
             writeHeader();
+            nextOffset = HEADER_SIZE;
             logger.info("Created new event log at: {}", logPath);
         } else {
-            logger.info("Opened existing event log at: {}", logPath);
+            logger.info("Opened existing event log at: {} (next sequence {})",
+                    logPath, sequenceCounter.get() + 1);
+        }
+        this.checkpoint = new EventLogCheckpoint(logPath);
+        if (!existing) {
+            Files.deleteIfExists(EventLogIndex.pathFor(logPath));
+        }
+        this.index = EventLogIndex.isEnabled(options) ? EventLogIndex.open(logPath, options, nextOffset) : null;
+
+        if (durability == DurabilityMode.GROUP_COMMIT) {
+            this.flusher = new GroupCommitFlusher(channel, "eventlog-group-commit",
+                    options.getGroupCommitMaxBatchSize(), options.getGroupCommitMaxLingerMicros());
+            logger.info("Group commit enabled: maxBatchSize={}, maxLingerMicros={}",
+                    options.getGroupCommitMaxBatchSize(), options.getGroupCommitMaxLingerMicros());
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Restore the sequence counter from the existing log and cut off a torn tail record,
+     * so the next append continues the sequence right after the last intact record. Other
+     * corruption fails the open unless {@code repair} is set.
+     *
+     * @return the format of the existing log
+     */
+    private EventLogFormat recover(EventLogFormat configured, boolean repair) throws IOException {
+        EventLogRecovery.Result result;
+        try (FileChannel recoveryChannel = FileChannel.open(logPath,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            result = EventLogRecovery.recoverAndTruncate(recoveryChannel, logPath, repair);
+        }
+        sequenceCounter.set(Math.max(result.lastSequence(), sequenceCounter.get()));
+        lastRecordOffset = result.lastRecordOffset();
+        nextOffset = result.endOffset();
+        warnOnFormatMismatch(logPath, result.format(), configured);
+        return result.format();
+    }
+
+    static void warnOnFormatMismatch(Path logPath, EventLogFormat existing, EventLogFormat configured) {
+        if (existing != configured) {
+            logger.warn("Event log {} is in format {}, not the configured {}; appending in {} "
+                    + "(the configured format applies to new files)", logPath, existing, configured, existing);
         }
     }
 
     private void writeHeader() throws IOException {
+        channel.write(fileHeader(format));
+        logger.debug("Wrote event log header: magic=0x{}, version={}",
+                Integer.toHexString(MAGIC), format.version());
+    }
+
+    /**
+     * The 16-byte file header: magic, version, reserved.
+     */
+    static ByteBuffer fileHeader(EventLogFormat format) {
         ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
         header.order(ByteOrder.LITTLE_ENDIAN);
 
         header.putInt(MAGIC);
-        header.putInt(VERSION);
+        header.putInt(format.version());
         header.putLong(0);  // reserved
 
         header.flip();
-        channel.write(header);
-        logger.debug("Wrote event log header: magic=0x{}, version={}",
-                Integer.toHexString(MAGIC), VERSION);
+        return header;
+    }
+
+    @Override
+    public void append(Event.EventType eventType, Object payload) throws IOException {
+        append(eventType, Event.JACKSON_PAYLOAD, payload);
+    }
+
+    /**
+     * Append an event to the log.
+     *
+     * The payload is encoded into the calling thread's buffer before taking the lock;
+     * only sequence assignment, CRC and the write happen under it.
+     *
+     * In GROUP_COMMIT mode the record is handed to the flusher and this call blocks
+     * until the batch containing it has been forced; the lock is only held while the
+     * sequence number is assigned and the record enqueued, so concurrent callers
+     * share a single fsync.
+     */
+    @Override
+    public <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value)
+            throws IOException {
+        EventEncoder encoder = EventEncoder.local();
+        encoder.encode(format, eventType, payloadEncoder, value);
+
+        if (flusher != null) {
+            CompletableFuture<Void> durable;
+            long seqNum;
+            long recordOffset;
+            long endOffset;
+            appendLock.lock();
+            try {
+                seqNum = sequenceCounter.incrementAndGet();
+                ByteBuffer record = encoder.seal(seqNum, EpochNanoClock.nowNanos());
+                int recordLength = record.remaining();
+                durable = flusher.enqueue(record);
+                recordOffset = advance(recordLength);
+                endOffset = nextOffset;
+                updateIndex(seqNum, recordOffset);
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                GroupCommitFlusher.awaitDurable(durable);
+            } catch (IOException e) {
+                // The flusher may still hold our buffer; don't reuse it
+                EventEncoder.discardLocal();
+                throw e;
+            }
+            maybeCheckpoint(seqNum, recordOffset, endOffset);
+            return;
+        }
+
+        appendLock.lock();
+        try {
+            checkNotFailed();
+            long seqNum = sequenceCounter.incrementAndGet();
+            ByteBuffer record = encoder.seal(seqNum, EpochNanoClock.nowNanos());
+            int bytesWritten = 0;
+            try {
+                while (record.hasRemaining()) {
+                    bytesWritten += channel.write(record);
+                }
+                if (durability == DurabilityMode.FSYNC) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            long recordOffset = advance(bytesWritten);
+            updateIndex(seqNum, recordOffset);
+            maybeCheckpoint(seqNum, recordOffset, nextOffset);
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Appended event: seq={}, type={}, size={} bytes",
+                        seqNum, eventType, bytesWritten);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Append a batch under a single lock hold. With FSYNC the file is forced once for the
+     * whole batch. With GROUP_COMMIT every record is copied into its own buffer (the flusher
+     * owns it until it is written) and the whole batch is enqueued before waiting once, on
+     * the last record: the flusher writes in queue order and fails everything behind a
+     * failed write, so the batch is durable exactly when its last record is.
+     */
+    @Override
+    public <T> void appendAll(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder,
+                              List<? extends T> values) throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+        if (flusher != null) {
+            appendAllGroupCommit(eventType, payloadEncoder, values);
+            return;
+        }
+        EventEncoder encoder = EventEncoder.local();
+        appendLock.lock();
+        try {
+            checkNotFailed();
+            try {
+                for (T value : values) {
+                    encoder.encode(format, eventType, payloadEncoder, value);
+                    long seqNum = sequenceCounter.incrementAndGet();
+                    ByteBuffer record = encoder.seal(seqNum, EpochNanoClock.nowNanos());
+                    int bytesWritten = 0;
+                    while (record.hasRemaining()) {
+                        bytesWritten += channel.write(record);
+                    }
+                    long recordOffset = advance(bytesWritten);
+                    updateIndex(seqNum, recordOffset);
+                    maybeCheckpoint(seqNum, recordOffset, nextOffset);
+                }
+                if (durability == DurabilityMode.FSYNC) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw fail(e);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private <T> void appendAllGroupCommit(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder,
+                                          List<? extends T> values) throws IOException {
+        EventEncoder encoder = EventEncoder.local();
+        CompletableFuture<Void> lastDurable = null;
+        long checkpointSeq = -1;
+        long checkpointOffset = 0;
+        long checkpointEnd = 0;
+        appendLock.lock();
+        try {
+            for (T value : values) {
+                encoder.encode(format, eventType, payloadEncoder, value);
+                long seqNum = sequenceCounter.incrementAndGet();
+                ByteBuffer sealed = encoder.seal(seqNum, EpochNanoClock.nowNanos());
+                int recordLength = sealed.remaining();
+                ByteBuffer record = ByteBuffer.allocate(recordLength).put(sealed).flip();
+                lastDurable = flusher.enqueue(record);
+                long recordOffset = advance(recordLength);
+                updateIndex(seqNum, recordOffset);
+                if (checkpointInterval > 0 && seqNum % checkpointInterval == 0) {
+                    checkpointSeq = seqNum;
+                    checkpointOffset = recordOffset;
+                    checkpointEnd = nextOffset;
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        GroupCommitFlusher.awaitDurable(lastDurable);
+        if (checkpointSeq > 0) {
+            writeCheckpoint(checkpointSeq, checkpointOffset, checkpointEnd);
+        }
     }
 
-    public synchronized void append(Event.EventType eventType, Object payload) throws IOException {
-        long seqNum = sequenceCounter.incrementAndGet();
-        long timestampNs = System.nanoTime();
+    // Caller holds the lock
+    private void checkNotFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Event log failed after an earlier write error", failure);
+        }
+    }
 
-        Event event = new Event(seqNum, timestampNs, eventType, payload);
-        byte[] eventBytes = event.serialize();
+    // Caller holds the lock
+    private IOException fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+            logger.error("Write to event log {} failed; failing all further appends until it is reopened", logPath, e);
+        }
+        return e;
+    }
 
-        ByteBuffer buffer = ByteBuffer.wrap(eventBytes);
-        int bytesWritten = channel.write(buffer);
+    // Caller holds the lock
+    private long advance(int recordLength) {
+        long recordOffset = nextOffset;
+        lastRecordOffset = recordOffset;
+        nextOffset += recordLength;
+        return recordOffset;
+    }
 
-        logger.debug("Appended event: seq={}, type={}, size={} bytes",
-                seqNum, eventType, bytesWritten);
+    // Caller holds the lock
+    private void updateIndex(long seqNum, long recordOffset) {
+        if (index == null) {
+            return;
+        }
+        try {
+            index.onAppend(seqNum, recordOffset);
+        } catch (IOException e) {
+            // Like the checkpoint, the index is an optimisation; readers fall back to scanning
+            logger.warn("Failed to update event log index at seq={}", seqNum, e);
+        }
     }
 
+    private void maybeCheckpoint(long seqNum, long recordOffset, long endOffset) {
+        if (checkpointInterval > 0 && seqNum % checkpointInterval == 0) {
+            writeCheckpoint(seqNum, recordOffset, endOffset);
+        }
+    }
+
+    private void writeCheckpoint(long seqNum, long recordOffset, long endOffset) {
+        try {
+            checkpoint.write(seqNum, recordOffset, endOffset);
+        } catch (IOException e) {
+            // The checkpoint only shortens recovery; the log itself is unaffected
+            logger.warn("Failed to write event log checkpoint at seq={}", seqNum, e);
+        }
+    }
+
+    @Override
     public long getCurrentSequence() {
         return sequenceCounter.get();
     }
 
+    @Override
+    public long getSize() {
+        return nextOffset;
+    }
+
+    public EventLogFormat getFormat() {
+        return format;
+    }
+
+    public DurabilityMode getDurability() {
+        return durability;
+    }
+
+    /**
+     * Number of fsyncs issued by the group commit flusher (0 in other modes).
+     */
+    public long getGroupCommitBatches() {
+        return flusher != null ? flusher.getBatchesFlushed() : 0;
+    }
+
     @Override
     public void close() throws IOException {
-        if (channel != null && channel.isOpen()) {
+        appendLock.lock();
+        try {
+            if (channel == null || !channel.isOpen()) {
+                return;
+            }
+            // Records are enqueued under this lock, so none can arrive behind the flusher's last drain
+            if (flusher != null) {
+                flusher.shutdown();
+            }
+            // The checkpoint must not point past records that never reached the file
+            if (lastRecordOffset >= 0 && failure == null && (flusher == null || flusher.getFailure() == null)) {
+                writeCheckpoint(sequenceCounter.get(), lastRecordOffset, nextOffset);
+            }
+            checkpoint.close();
+            if (index != null) {
+                index.close();
+            }
             channel.close();
             logger.info("Closed event log: {}", logPath);
+        } finally {
+            appendLock.unlock();
         }
     }
 }
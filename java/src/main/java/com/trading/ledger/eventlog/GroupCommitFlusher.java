@@ -0,0 +1,221 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single flusher thread implementing group commit for {@link FileEventLogWriter}.
+ *
+ * Callers enqueue already-serialized records (in sequence order) and block until
+ * the batch containing their record has been written and forced. The flusher
+ * drains up to maxBatchSize records, optionally lingering up to maxLinger for
+ * more to arrive, then issues one gathering write and one force() for the batch.
+ *
+ * With maxLinger = 0 batching is purely opportunistic: records that arrive while
+ * the previous batch is being forced form the next batch.
+ *
+ * A failed write or force leaves an unknown number of bytes of the batch in the file, so
+ * nothing may be written behind it: the first IOException fails that batch, everything
+ * still queued and every later enqueue. The log is then unusable until it is reopened,
+ * when recovery cuts it back to the last intact record; no record acknowledged as durable
+ * lies beyond that point.
+ */
+class GroupCommitFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitFlusher.class);
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final FileChannel channel;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final LinkedBlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    // First write/force failure; once set, nothing more is written
+    private volatile IOException failure;
+    private volatile long batchesFlushed;
+    private volatile long recordsFlushed;
+
+    GroupCommitFlusher(FileChannel channel, String name, int maxBatchSize, long maxLingerMicros) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.channel = channel;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, maxLingerMicros));
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Enqueue a serialized record. Must be called in sequence order (i.e. while the
+     * writer holds the lock used to assign sequence numbers).
+     */
+    CompletableFuture<Void> enqueue(ByteBuffer record) throws IOException {
+        checkAccepting();
+        PendingWrite pending = new PendingWrite(record);
+        queue.add(pending);
+        return pending.durable;
+    }
+
+    private void checkAccepting() throws IOException {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new IOException("Event log failed after an earlier write error", failed);
+        }
+        if (!running) {
+            throw new IOException("Event log is closed");
+        }
+    }
+
+    IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Block until the record behind the given future has been forced to disk.
+     */
+    static void awaitDurable(CompletableFuture<Void> durable) throws IOException {
+        try {
+            durable.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for group commit");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IOException("Group commit failed", e.getCause());
+        }
+    }
+
+    long getBatchesFlushed() {
+        return batchesFlushed;
+    }
+
+    long getRecordsFlushed() {
+        return recordsFlushed;
+    }
+
+    /**
+     * Stop accepting records, flush everything already queued and stop the thread.
+     * Callers should stop enqueueing first; anything that still slips in behind the
+     * flusher's last drain is failed rather than left waiting.
+     */
+    void shutdown() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued(new IOException("Event log is closed"));
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                if (failure != null) {
+                    failAll(batch, failure);
+                } else {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                // Keep draining; shutdown() is the only way to stop this thread
+                Thread.interrupted();
+            } finally {
+                batch.clear();
+            }
+        }
+        logger.debug("Group commit flusher stopped after {} batches / {} records",
+                batchesFlushed, recordsFlushed);
+    }
+
+    private void collect(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxLingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long bytes = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = batch.get(i).record;
+            bytes += buffers[i].remaining();
+        }
+
+        try {
+            long written = 0;
+            while (written < bytes) {
+                written += channel.write(buffers);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            logger.error("Group commit of {} records failed; failing all further appends", batch.size(), e);
+            failure = e;
+            failAll(batch, e);
+            failQueued(e);
+            return;
+        }
+
+        batchesFlushed++;
+        recordsFlushed += batch.size();
+        for (PendingWrite pending : batch) {
+            pending.durable.complete(null);
+        }
+    }
+
+    private static void failAll(List<PendingWrite> batch, IOException cause) {
+        for (PendingWrite pending : batch) {
+            pending.durable.completeExceptionally(cause);
+        }
+    }
+
+    private void failQueued(IOException cause) {
+        PendingWrite pending;
+        while ((pending = queue.poll()) != null) {
+            pending.durable.completeExceptionally(cause);
+        }
+    }
+
+    private record PendingWrite(ByteBuffer record, CompletableFuture<Void> durable) {
+        PendingWrite(ByteBuffer record) {
+            this(record, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.trading.ledger.eventlog;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal streaming JSON writer that encodes a flat object directly into a ByteBuffer as UTF-8.
+ *
+ * Output matches Jackson's default ObjectMapper for the same values: strings use the
+ * same escapes (short forms for \b \t \n \f \r, upper-case \\u00XX for other control
+ * characters, no escaping of non-ASCII), BigDecimals are written as toString() would.
+ * Decimals in plain notation with up to 18 digits (every price and quantity) are written
+ * digit by digit from their unscaled long, without toString(). The scale-0 BigDecimal used
+ * to read that long does not escape; with C2 it is scalar-replaced, and
+ * EventSerializationBenchmark measures no allocation beyond the trade itself. Anything
+ * else (exponent notation, wider values) goes through toString(), which allocates.
+ *
+ * Throws BufferOverflowException when the payload does not fit; {@link EventEncoder}
+ * grows its buffer and encodes again.
+ */
+public final class JsonPayloadWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] digits = new byte[20];
+    private ByteBuffer buffer;
+    private boolean firstField;
+
+    JsonPayloadWriter() {
+    }
+
+    void reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.firstField = true;
+    }
+
+    public JsonPayloadWriter beginObject() {
+        buffer.put((byte) '{');
+        firstField = true;
+        return this;
+    }
+
+    public JsonPayloadWriter endObject() {
+        buffer.put((byte) '}');
+        return this;
+    }
+
+    public JsonPayloadWriter field(String name, CharSequence value) {
+        name(name);
+        if (value == null) {
+            buffer.put(NULL);
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonPayloadWriter field(String name, long value) {
+        name(name);
+        number(value);
+        return this;
+    }
+
+    public JsonPayloadWriter field(String name, BigDecimal value) {
+        name(name);
+        if (value == null) {
+            buffer.put(NULL);
+        } else {
+            decimal(value);
+        }
+        return this;
+    }
+
+    public JsonPayloadWriter nullField(String name) {
+        name(name);
+        buffer.put(NULL);
+        return this;
+    }
+
+    /**
+     * Write an already-encoded JSON value as is.
+     */
+    JsonPayloadWriter rawValue(byte[] json) {
+        buffer.put(json);
+        return this;
+    }
+
+    private void name(String name) {
+        if (!firstField) {
+            buffer.put((byte) ',');
+        }
+        firstField = false;
+        string(name);
+        buffer.put((byte) ':');
+    }
+
+    private void string(CharSequence value) {
+        ByteBuffer out = buffer;
+        out.put((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    out.put((byte) c);
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Same as String.getBytes(UTF_8): pairs become 4 bytes, lone surrogates '?'
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    out.put((byte) (0xF0 | (cp >> 18)));
+                    out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    out.put((byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    out.put((byte) '?');
+                }
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private void escape(char c) {
+        buffer.put((byte) '\\');
+        switch (c) {
+            case '"' -> buffer.put((byte) '"');
+            case '\\' -> buffer.put((byte) '\\');
+            case '\b' -> buffer.put((byte) 'b');
+            case '\t' -> buffer.put((byte) 't');
+            case '\f' -> buffer.put((byte) 'f');
+            case '\n' -> buffer.put((byte) 'n');
+            case '\r' -> buffer.put((byte) 'r');
+            default -> {
+                buffer.put((byte) 'u');
+                buffer.put((byte) '0');
+                buffer.put((byte) '0');
+                buffer.put(HEX[c >> 4]);
+                buffer.put(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private void decimal(BigDecimal value) {
+        int scale = value.scale();
+        int precision = value.precision();
+        // toString() switches to exponent notation for negative scales and below 1E-6
+        if (scale < 0 || scale - precision > 5 || precision > 18) {
+            ascii(value.toString());
+            return;
+        }
+        // A compact scale-0 BigDecimal returns its long directly, unlike unscaledValue()'s BigInteger
+        long unscaled = value.scaleByPowerOfTen(scale).longValue();
+        if (unscaled < 0) {
+            buffer.put((byte) '-');
+            unscaled = -unscaled;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + (unscaled % 10));
+            unscaled /= 10;
+        } while (unscaled != 0);
+        // Digits still to write when the decimal point goes in; none if all are fractional
+        int pointBefore = scale;
+        if (count <= scale) {
+            buffer.put((byte) '0');
+            buffer.put((byte) '.');
+            for (int i = count; i < scale; i++) {
+                buffer.put((byte) '0');
+            }
+            pointBefore = -1;
+        }
+        while (count > 0) {
+            if (count == pointBefore) {
+                buffer.put((byte) '.');
+            }
+            buffer.put(digits[--count]);
+        }
+    }
+
+    private void ascii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    private void number(long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(LONG_MIN);
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Explicit unmapping of {@link MappedByteBuffer}s.
+ *
+ * Java 21 has no public unmap (the FFM API that adds one is still a preview), and a
+ * mapping left to the GC keeps its address range, and on some platforms the file, held
+ * for an unbounded time. sun.misc.Unsafe.invokeCleaner (module jdk.unsupported) releases
+ * it at once. The buffer must not be touched afterwards: any access crashes the JVM.
+ */
+final class MappedBuffers {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedBuffers.class);
+
+    // Null if Unsafe.invokeCleaner is not accessible; mappings are then left to the GC
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private MappedBuffers() {
+    }
+
+    static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            logger.warn("Failed to unmap buffer; leaving it to the GC", e);
+        }
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Cannot unmap buffers explicitly; mappings will be released by the GC", e);
+            return null;
+        }
+    }
+}
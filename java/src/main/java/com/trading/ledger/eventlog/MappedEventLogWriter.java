@@ -0,0 +1,245 @@
+package com.trading.ledger.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Event log writer that appends through a memory mapping instead of write() calls.
+ *
+ * The file is grown in fixed-size regions: each region is mapped READ_WRITE past the
+ * current end of data (which extends the file with zeros) and records are copied into
+ * it directly, so an append is a memory copy with no syscall. When a record does not
+ * fit in what is left of the region, the next region is mapped starting at the current
+ * end of data.
+ *
+ * The on-disk layout is exactly the one written by {@link FileEventLogWriter}, in either format.
+ * Readers must treat a zero sequence number as end of data, since the unwritten part of
+ * the current region is zero-filled; the C++ EventLogReader does, and it sees new records
+ * through its own shared mapping without a page-cache copy. On close the file is
+ * truncated back to the end of data; after a crash the zero tail is cut off by recovery.
+ *
+ * Because a reader may look at a record while it is being copied in, the sequence number
+ * is written last: the rest of the record first, then the 8-byte sequence with a release
+ * store, so a reader that sees a non-zero sequence (and then issues an acquire) sees the
+ * whole record. When the record starts on an 8-byte boundary this is an atomic
+ * VarHandle.setRelease; otherwise a release fence followed by a single unaligned 8-byte
+ * store, which x86-64 and AArch64 perform atomically unless it straddles a cache line.
+ * A torn sequence in that last case fails the record's CRC rather than being accepted.
+ *
+ * Regions are unmapped explicitly when the next one is mapped and on close.
+ *
+ * Durability: NONE leaves flushing to the kernel, FSYNC forces the written range of the
+ * mapping after each event. GROUP_COMMIT is not supported (there is no write to batch).
+ */
+public class MappedEventLogWriter implements EventLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedEventLogWriter.class);
+
+    private static final VarHandle SEQUENCE =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path logPath;
+    private final FileChannel channel;
+    private final DurabilityMode durability;
+    private final long regionSize;
+    private final EventLogCheckpoint checkpoint;
+    private final int checkpointInterval;
+    private final EventLogIndex index;
+    private final EventLogFormat format;
+
+    // A lock rather than synchronized: a virtual thread blocked in a monitor pins its carrier thread
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // Guarded by appendLock
+    private MappedByteBuffer region;
+    private long regionStart;
+    private volatile long sequence;
+    private long lastRecordOffset = -1;
+    private volatile long nextOffset;
+
+    public MappedEventLogWriter(Path logPath, EventLogOptions options) throws IOException {
+        if (options.getDurability() == DurabilityMode.GROUP_COMMIT) {
+            throw new IllegalArgumentException("Mapped event log writer does not support group commit");
+        }
+        if (options.getMappedRegionSize() < FileEventLogWriter.HEADER_SIZE) {
+            throw new IllegalArgumentException("Mapped region size too small: " + options.getMappedRegionSize());
+        }
+        this.logPath = logPath;
+        this.durability = options.getDurability();
+        this.regionSize = options.getMappedRegionSize();
+        this.checkpointInterval = options.getCheckpointInterval();
+
+        boolean existing = Files.exists(logPath) && Files.size(logPath) > 0;
+        this.channel = FileChannel.open(logPath,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE);
+
+        if (existing) {
+            EventLogRecovery.Result result = EventLogRecovery.recoverAndTruncate(channel, logPath, options.isRecoveryRepair());
+            sequence = Math.max(result.lastSequence(), options.getBaseSequence());
+            lastRecordOffset = result.lastRecordOffset();
+            nextOffset = result.endOffset();
+            format = result.format();
+            FileEventLogWriter.warnOnFormatMismatch(logPath, format, options.getFormat());
+            logger.info("Opened existing event log at: {} (next sequence {}, mapped)", logPath, sequence + 1);
+        } else {
+            Files.deleteIfExists(EventLogCheckpoint.pathFor(logPath));
+            format = options.getFormat();
+            channel.write(FileEventLogWriter.fileHeader(format), 0);
+            sequence = options.getBaseSequence();
+            nextOffset = FileEventLogWriter.HEADER_SIZE;
+            logger.info("Created new event log at: {} (mapped)", logPath);
+        }
+        this.checkpoint = new EventLogCheckpoint(logPath);
+        if (!existing) {
+            Files.deleteIfExists(EventLogIndex.pathFor(logPath));
+        }
+        this.index = EventLogIndex.isEnabled(options) ? EventLogIndex.open(logPath, options, nextOffset) : null;
+
+        mapRegion(regionSize);
+        logger.info("Mapped event log region: start={}, size={} bytes", regionStart, regionSize);
+    }
+
+    @Override
+    public void append(Event.EventType eventType, Object payload) throws IOException {
+        append(eventType, Event.JACKSON_PAYLOAD, payload);
+    }
+
+    @Override
+    public <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value)
+            throws IOException {
+        EventEncoder encoder = EventEncoder.local();
+        encoder.encode(format, eventType, payloadEncoder, value);
+
+        appendLock.lock();
+        try {
+            if (region == null) {
+                throw new IOException("Event log is closed");
+            }
+            long seqNum = sequence + 1;
+            ByteBuffer record = encoder.seal(seqNum, EpochNanoClock.nowNanos());
+            int recordLength = record.remaining();
+
+            if (recordLength > region.remaining()) {
+                mapRegion(Math.max(regionSize, recordLength));
+            }
+
+            int position = region.position();
+            region.put(position + Long.BYTES, record, record.position() + Long.BYTES, recordLength - Long.BYTES);
+            publishSequence(position, seqNum);
+            region.position(position + recordLength);
+            if (durability == DurabilityMode.FSYNC) {
+                region.force(position, recordLength);
+            }
+
+            sequence = seqNum;
+            lastRecordOffset = nextOffset;
+            nextOffset += recordLength;
+            if (index != null) {
+                try {
+                    index.onAppend(seqNum, lastRecordOffset);
+                } catch (IOException e) {
+                    logger.warn("Failed to update event log index at seq={}", seqNum, e);
+                }
+            }
+            if (checkpointInterval > 0 && seqNum % checkpointInterval == 0) {
+                writeCheckpoint();
+            }
+
+            if (logger.isDebugEnabled()) {
+                logger.debug("Appended event: seq={}, type={}, size={} bytes (mapped)",
+                        seqNum, eventType, recordLength);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Make the record at {@code position} visible to readers; everything after its
+     * sequence number must already be in the region.
+     */
+    private void publishSequence(int position, long seqNum) {
+        if (region.alignmentOffset(position, Long.BYTES) == 0) {
+            SEQUENCE.setRelease(region, position, seqNum);
+        } else {
+            VarHandle.releaseFence();
+            region.putLong(position, seqNum);
+        }
+    }
+
+    /**
+     * Map the next region starting at the current end of data and unmap the previous one;
+     * its pages stay in the page cache and remain valid for readers.
+     */
+    private void mapRegion(long size) throws IOException {
+        MappedByteBuffer next = channel.map(FileChannel.MapMode.READ_WRITE, nextOffset, size);
+        next.order(ByteOrder.LITTLE_ENDIAN);
+        MappedBuffers.unmap(region);
+        region = next;
+        regionStart = nextOffset;
+    }
+
+    private void writeCheckpoint() {
+        try {
+            checkpoint.write(sequence, lastRecordOffset, nextOffset);
+        } catch (IOException e) {
+            logger.warn("Failed to write event log checkpoint at seq={}", sequence, e);
+        }
+    }
+
+    @Override
+    public long getCurrentSequence() {
+        return sequence;
+    }
+
+    public EventLogFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public long getSize() {
+        return nextOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (region == null) {
+                return;
+            }
+            if (durability == DurabilityMode.FSYNC) {
+                region.force();
+            }
+            MappedBuffers.unmap(region);
+            region = null;
+            if (lastRecordOffset >= 0) {
+                writeCheckpoint();
+            }
+            checkpoint.close();
+            if (index != null) {
+                index.close();
+            }
+
+            // Drop the unwritten, zero-filled part of the last region
+            channel.truncate(nextOffset);
+            channel.close();
+            logger.info("Closed event log: {} (mapped, {} bytes)", logPath, nextOffset);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * What {@link AsyncEventLogWriter} does when its queue is full.
+ */
+public enum OverflowPolicy {
+    /** Wait for the writer thread to free space, failing after the configured timeout */
+    BLOCK,
+
+    /** Fail immediately with {@link EventLogOverflowException} */
+    FAIL,
+
+    /** Append on the calling thread instead, bypassing the queue (nothing is dropped) */
+    SPILL
+}
@@ -0,0 +1,12 @@
+package com.trading.ledger.eventlog;
+
+/**
+ * What the segmented event log does with a sealed segment that falls out of retention.
+ */
+public enum RetentionAction {
+    /** Delete the segment file */
+    DELETE,
+
+    /** Move the segment file to the archive directory (e.g. for a backup job to pick up) */
+    ARCHIVE
+}
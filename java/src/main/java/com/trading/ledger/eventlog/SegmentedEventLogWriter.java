@@ -0,0 +1,411 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.eventlog.EventLogManifest.Segment;
+import com.trading.ledger.eventlog.EventLogManifest.SegmentNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Event log split into numbered segment files, rolled by size and/or age.
+ *
+ * Each segment is a complete v1 log (16-byte TRAD header + records) written by a
+ * per-segment {@link FileEventLogWriter} or {@link MappedEventLogWriter}, and named
+ * after its first sequence number (see {@link SegmentNames}). Sequence numbers continue
+ * across segments. The {@link EventLogManifest} next to the segments lists their ranges;
+ * the last entry is the active segment.
+ *
+ * After the active segment reaches {@code segmentMaxBytes} or {@code segmentMaxAge} a new
+ * segment is opened, the manifest is rewritten with the old one sealed and the new one
+ * active, the old one is closed, and the retention policy (max segments / max age)
+ * deletes or archives the oldest sealed segments. If the new segment cannot be opened or
+ * listed, appends stay on the old one. Appends share
+ * a read lock and rolling takes the write lock, so a roll waits for in-flight appends
+ * (including ones waiting on group commit) and no record straddles two segments.
+ *
+ * An existing single-file log at the configured path is adopted as the first segment.
+ */
+public class SegmentedEventLogWriter implements EventLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedEventLogWriter.class);
+
+    /**
+     * Opens the writer for one segment file, e.g. {@code FileEventLogWriter::new}.
+     */
+    @FunctionalInterface
+    public interface SegmentOpener {
+        EventLogWriter open(Path segmentPath, EventLogOptions options) throws IOException;
+    }
+
+    private final Path logPath;
+    private final Path directory;
+    private final Path manifestPath;
+    private final EventLogOptions options;
+    private final SegmentOpener opener;
+    private final Clock clock;
+    private final ReentrantReadWriteLock rollLock = new ReentrantReadWriteLock();
+
+    // Guarded by rollLock (modified under the write lock)
+    private final List<Segment> segments;
+    private volatile EventLogWriter active;
+    private volatile long activeCreatedAtMillis;
+    private volatile boolean closed;
+
+    public SegmentedEventLogWriter(Path logPath, EventLogOptions options, SegmentOpener opener) throws IOException {
+        this(logPath, options, opener, Clock.systemUTC());
+    }
+
+    SegmentedEventLogWriter(Path logPath, EventLogOptions options, SegmentOpener opener, Clock clock)
+            throws IOException {
+        if (options.getRetentionAction() == RetentionAction.ARCHIVE && options.getArchiveDirectory() == null) {
+            throw new IllegalArgumentException("Retention action ARCHIVE requires an archive directory");
+        }
+        this.logPath = logPath.toAbsolutePath();
+        this.directory = this.logPath.getParent();
+        this.manifestPath = EventLogManifest.pathFor(this.logPath);
+        this.options = options;
+        this.opener = opener;
+        this.clock = clock;
+
+        this.segments = new ArrayList<>(loadSegments());
+        if (segments.isEmpty()) {
+            segments.add(new Segment(SegmentNames.segmentName(this.logPath, 1), 1, 0, clock.millis(), 0));
+        }
+        List<Segment> expired = expireSegments(segments, clock.millis());
+        EventLogManifest.write(manifestPath, segments);
+        disposeSegments(expired);
+
+        Segment activeSegment = activeSegment();
+        this.active = openSegment(activeSegment);
+        this.activeCreatedAtMillis = activeSegment.createdAtMillis();
+        logger.info("Opened segmented event log {}: {} segments, active {} (next sequence {})",
+                this.logPath, segments.size(), activeSegment.fileName(), active.getCurrentSequence() + 1);
+    }
+
+    @Override
+    public void append(Event.EventType eventType, Object payload) throws IOException {
+        append(eventType, Event.JACKSON_PAYLOAD, payload);
+    }
+
+    @Override
+    public <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value)
+            throws IOException {
+        EventLogWriter writer;
+        rollLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IOException("Event log is closed");
+            }
+            writer = active;
+            writer.append(eventType, payloadEncoder, value);
+        } finally {
+            rollLock.readLock().unlock();
+        }
+
+        if (shouldRoll(writer)) {
+            rollIfNeeded(writer);
+        }
+    }
+
+    private boolean shouldRoll(EventLogWriter writer) {
+        long size = writer.getSize();
+        if (options.getSegmentMaxBytes() > 0 && size >= options.getSegmentMaxBytes()) {
+            return true;
+        }
+        return !options.getSegmentMaxAge().isZero()
+                && size > FileEventLogWriter.HEADER_SIZE
+                && clock.millis() - activeCreatedAtMillis >= options.getSegmentMaxAge().toMillis();
+    }
+
+    private void rollIfNeeded(EventLogWriter writer) {
+        List<Segment> expired;
+        rollLock.writeLock().lock();
+        try {
+            // Another thread may have rolled (or closed) while we waited for the lock
+            if (closed || active != writer || !shouldRoll(writer)) {
+                return;
+            }
+            expired = roll();
+        } finally {
+            rollLock.writeLock().unlock();
+        }
+        // File deletes/moves happen outside the lock; the manifest already excludes them
+        disposeSegments(expired);
+    }
+
+    /**
+     * Switch to a new segment. The new segment is opened and listed in the manifest before
+     * the previous one is closed, so a failure in either step leaves the previous segment
+     * active (and the manifest unchanged); appends carry on there and the roll is retried
+     * on a later append. Caller holds the write lock.
+     */
+    private List<Segment> roll() {
+        EventLogWriter previous = active;
+        long lastSequence = previous.getCurrentSequence();
+        long now = clock.millis();
+        Segment next = new Segment(SegmentNames.segmentName(logPath, lastSequence + 1), lastSequence + 1, 0, now, 0);
+
+        EventLogWriter nextWriter;
+        try {
+            nextWriter = openSegment(next);
+        } catch (IOException e) {
+            logger.warn("Failed to open event log segment {}; still writing {}", next.fileName(),
+                    activeSegment().fileName(), e);
+            discardSegmentFiles(next);
+            return List.of();
+        }
+
+        List<Segment> updated = new ArrayList<>(segments);
+        Segment sealed = updated.get(updated.size() - 1).seal(lastSequence, now);
+        updated.set(updated.size() - 1, sealed);
+        updated.add(next);
+        List<Segment> expired = expireSegments(updated, now);
+        try {
+            EventLogManifest.write(manifestPath, updated);
+        } catch (IOException e) {
+            logger.warn("Failed to list event log segment {} in {}; still writing {}", next.fileName(),
+                    manifestPath, sealed.fileName(), e);
+            closeQuietly(nextWriter, next);
+            discardSegmentFiles(next);
+            return List.of();
+        }
+
+        segments.clear();
+        segments.addAll(updated);
+        active = nextWriter;
+        activeCreatedAtMillis = now;
+        closeQuietly(previous, sealed);
+
+        // A sealed segment never needs recovery again
+        try {
+            Files.deleteIfExists(EventLogCheckpoint.pathFor(directory.resolve(sealed.fileName())));
+        } catch (IOException e) {
+            logger.warn("Failed to delete checkpoint of sealed event log segment {}", sealed.fileName(), e);
+        }
+        logger.info("Rolled event log segment {} (sequences {}-{}, {} bytes), now writing {}",
+                sealed.fileName(), sealed.firstSequence(), sealed.lastSequence(), previous.getSize(),
+                next.fileName());
+        return expired;
+    }
+
+    private void closeQuietly(EventLogWriter writer, Segment segment) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // Every append to it has already returned, so there is nothing left to lose here
+            logger.warn("Failed to close event log segment {}", segment.fileName(), e);
+        }
+    }
+
+    /**
+     * Remove whatever a failed roll left behind for a segment that never made it into the manifest.
+     */
+    private void discardSegmentFiles(Segment segment) {
+        Path segmentPath = directory.resolve(segment.fileName());
+        try {
+            Files.deleteIfExists(EventLogCheckpoint.pathFor(segmentPath));
+            Files.deleteIfExists(EventLogIndex.pathFor(segmentPath));
+            Files.deleteIfExists(segmentPath);
+        } catch (IOException e) {
+            logger.warn("Failed to remove unused event log segment {}", segmentPath, e);
+        }
+    }
+
+    /**
+     * Remove segments that fall out of retention from the list, oldest first. The active
+     * (last) segment is never expired.
+     */
+    private List<Segment> expireSegments(List<Segment> segments, long now) {
+        List<Segment> expired = new ArrayList<>();
+        int maxSegments = options.getRetentionMaxSegments();
+        long maxAgeMillis = options.getRetentionMaxAge().toMillis();
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            boolean overCount = maxSegments > 0 && segments.size() > maxSegments;
+            boolean overAge = maxAgeMillis > 0 && oldest.isSealed() && now - oldest.sealedAtMillis() >= maxAgeMillis;
+            if (!overCount && !overAge) {
+                break;
+            }
+            expired.add(segments.remove(0));
+        }
+        return expired;
+    }
+
+    private void disposeSegments(List<Segment> expired) {
+        for (Segment segment : expired) {
+            Path segmentPath = directory.resolve(segment.fileName());
+            try {
+                Files.deleteIfExists(EventLogCheckpoint.pathFor(segmentPath));
+                Path indexPath = EventLogIndex.pathFor(segmentPath);
+                if (options.getRetentionAction() == RetentionAction.ARCHIVE) {
+                    Path archiveDirectory = options.getArchiveDirectory();
+                    Files.createDirectories(archiveDirectory);
+                    Files.move(segmentPath, archiveDirectory.resolve(segment.fileName()),
+                            StandardCopyOption.REPLACE_EXISTING);
+                    if (Files.exists(indexPath)) {
+                        Files.move(indexPath, archiveDirectory.resolve(indexPath.getFileName()),
+                                StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    logger.info("Archived event log segment {} (sequences {}-{}) to {}",
+                            segment.fileName(), segment.firstSequence(), segment.lastSequence(), archiveDirectory);
+                } else {
+                    Files.deleteIfExists(segmentPath);
+                    Files.deleteIfExists(indexPath);
+                    logger.info("Deleted event log segment {} (sequences {}-{})",
+                            segment.fileName(), segment.firstSequence(), segment.lastSequence());
+                }
+            } catch (IOException e) {
+                // Already dropped from the manifest; a leftover file is harmless
+                logger.warn("Failed to {} expired event log segment {}",
+                        options.getRetentionAction().name().toLowerCase(), segmentPath, e);
+            }
+        }
+    }
+
+    private EventLogWriter openSegment(Segment segment) throws IOException {
+        return opener.open(directory.resolve(segment.fileName()),
+                options.toBuilder().baseSequence(segment.firstSequence() - 1).build());
+    }
+
+    private Segment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    private List<Segment> loadSegments() throws IOException {
+        Optional<List<Segment>> manifest = EventLogManifest.read(manifestPath);
+        if (manifest.isPresent()) {
+            if (Files.exists(logPath)) {
+                logger.warn("Ignoring single-file event log {}: segments are listed in {}", logPath, manifestPath);
+            }
+            return manifest.get();
+        }
+
+        List<Segment> rebuilt = rebuildFromDirectory();
+        if (rebuilt.isEmpty()) {
+            adoptSingleFile().ifPresent(rebuilt::add);
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Reconstruct the manifest from the segment files on disk (manifest lost or never written).
+     */
+    private List<Segment> rebuildFromDirectory() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> SegmentNames.firstSequenceOf(logPath, path.getFileName().toString()) >= 0)
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+        List<Segment> rebuilt = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            String fileName = path.getFileName().toString();
+            long firstSequence = SegmentNames.firstSequenceOf(logPath, fileName);
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (i < files.size() - 1) {
+                long lastSequence;
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    lastSequence = Math.max(EventLogRecovery.recover(channel, path).lastSequence(), firstSequence - 1);
+                }
+                rebuilt.add(new Segment(fileName, firstSequence, lastSequence, modified, modified));
+            } else {
+                rebuilt.add(new Segment(fileName, firstSequence, 0, modified, 0));
+            }
+        }
+        if (!rebuilt.isEmpty()) {
+            logger.warn("Rebuilt missing event log manifest {} from {} segment files", manifestPath, rebuilt.size());
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Turn a pre-existing single-file log into the first (active) segment.
+     */
+    private Optional<Segment> adoptSingleFile() throws IOException {
+        if (!Files.exists(logPath) || Files.size(logPath) == 0) {
+            return Optional.empty();
+        }
+        long firstSequence = 1;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            if (EventLogRecovery.recover(channel, logPath).lastSequence() > 0) {
+                ByteBuffer sequence = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                EventLogRecovery.readFully(channel, sequence, FileEventLogWriter.HEADER_SIZE);
+                firstSequence = sequence.getLong(0);
+            }
+        }
+        String fileName = SegmentNames.segmentName(logPath, firstSequence);
+        Path segmentPath = directory.resolve(fileName);
+        Files.move(logPath, segmentPath);
+        Path checkpoint = EventLogCheckpoint.pathFor(logPath);
+        if (Files.exists(checkpoint)) {
+            Files.move(checkpoint, EventLogCheckpoint.pathFor(segmentPath), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path index = EventLogIndex.pathFor(logPath);
+        if (Files.exists(index)) {
+            Files.move(index, EventLogIndex.pathFor(segmentPath), StandardCopyOption.REPLACE_EXISTING);
+        }
+        logger.info("Adopted single-file event log {} as segment {}", logPath, fileName);
+        return Optional.of(new Segment(fileName, firstSequence, 0, clock.millis(), 0));
+    }
+
+    @Override
+    public long getCurrentSequence() {
+        return active.getCurrentSequence();
+    }
+
+    /**
+     * Size of the active segment.
+     */
+    @Override
+    public long getSize() {
+        return active.getSize();
+    }
+
+    /**
+     * Snapshot of the manifest entries, oldest first; the last one is the active segment.
+     */
+    List<Segment> getSegments() {
+        rollLock.readLock().lock();
+        try {
+            return List.copyOf(segments);
+        } finally {
+            rollLock.readLock().unlock();
+        }
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void close() throws IOException {
+        rollLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            active.close();
+            logger.info("Closed segmented event log {}", logPath);
+        } finally {
+            rollLock.writeLock().unlock();
+        }
+    }
+}
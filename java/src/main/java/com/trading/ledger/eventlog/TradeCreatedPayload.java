@@ -0,0 +1,171 @@
+package com.trading.ledger.eventlog;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Trade;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TRADE_CREATED payload, written field by field into the event log buffer.
+ *
+ * JSON (v1): field order is the iteration order of the HashMap TradeService used to build
+ * (symbol, side, trade_id, account_id, quantity, price, timestamp_ns), so records are
+ * byte-identical to those produced by Jackson from that map.
+ *
+ * Binary (v2), little-endian, ~60 bytes for typical ids and symbols:
+ * - trade_id (16 bytes, UUID in RFC 4122 byte order)
+ * - account_id (u16 length + UTF-8)
+ * - symbol (u16 length + UTF-8)
+ * - quantity (int64 unscaled value + int8 scale)
+ * - price (int64 unscaled value + int8 scale)
+ * - side (1 byte: 0 = BUY, 1 = SELL)
+ * - timestamp_ns (int64, Long.MIN_VALUE = null)
+ *
+ * The binary form needs a UUID trade id and decimals of at most 18 digits (the schema
+ * allows NUMERIC(18,8)); anything else fails the append with IllegalArgumentException.
+ * Trade ids decode in lower case.
+ */
+public final class TradeCreatedPayload implements EventPayloadEncoder<Trade> {
+
+    public static final TradeCreatedPayload INSTANCE = new TradeCreatedPayload();
+
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private TradeCreatedPayload() {
+    }
+
+    @Override
+    public void encode(Trade trade, JsonPayloadWriter out) {
+        out.beginObject()
+                .field("symbol", trade.getSymbol())
+                .field("side", trade.getSide().name())
+                .field("trade_id", trade.getTradeId())
+                .field("account_id", trade.getAccountId())
+                .field("quantity", trade.getQuantity())
+                .field("price", trade.getPrice());
+        if (trade.getTimestampNs() != null) {
+            out.field("timestamp_ns", trade.getTimestampNs().longValue());
+        } else {
+            out.nullField("timestamp_ns");
+        }
+        out.endObject();
+    }
+
+    @Override
+    public boolean hasBinaryEncoding() {
+        return true;
+    }
+
+    @Override
+    public void encodeBinary(Trade trade, BinaryPayloadWriter out) {
+        out.putUuid(trade.getTradeId())
+                .putString(trade.getAccountId())
+                .putString(trade.getSymbol())
+                .putDecimal(trade.getQuantity())
+                .putDecimal(trade.getPrice())
+                .putByte(trade.getSide().ordinal())
+                .putLong(trade.getTimestampNs() != null ? trade.getTimestampNs() : NULL_TIMESTAMP);
+    }
+
+    /**
+     * Decode the trade carried by a TRADE_CREATED record, in either encoding.
+     */
+    public static Trade decode(EventRecord record) {
+        if (record.getEventType() != Event.EventType.TRADE_CREATED) {
+            throw new IllegalArgumentException("Not a TRADE_CREATED record: " + record);
+        }
+        return record.getPayloadEncoding() == Event.PayloadEncoding.BINARY
+                ? decodeBinary(record.payload())
+                : decodeJson(record.payload());
+    }
+
+    /**
+     * Decode a binary payload; the buffer is consumed from its position to its limit.
+     */
+    static Trade decodeBinary(ByteBuffer payload) {
+        ByteBuffer in = payload.order(ByteOrder.LITTLE_ENDIAN);
+        String tradeId = readUuid(in);
+        String accountId = readString(in);
+        String symbol = readString(in);
+        BigDecimal quantity = readDecimal(in);
+        BigDecimal price = readDecimal(in);
+        Trade.Side side = Trade.Side.values()[in.get()];
+        long timestampNs = in.getLong();
+        return new Trade(tradeId, accountId, symbol, quantity, price, side,
+                timestampNs != NULL_TIMESTAMP ? timestampNs : null);
+    }
+
+    static Trade decodeJson(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        try {
+            JsonNode node = objectMapper.readTree(bytes);
+            JsonNode timestamp = node.get("timestamp_ns");
+            return new Trade(
+                    node.get("trade_id").asText(),
+                    node.get("account_id").asText(),
+                    node.get("symbol").asText(),
+                    node.get("quantity").decimalValue(),
+                    node.get("price").decimalValue(),
+                    Trade.Side.valueOf(node.get("side").asText()),
+                    timestamp == null || timestamp.isNull() ? null : timestamp.longValue());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed TRADE_CREATED payload", e);
+        }
+    }
+
+    /**
+     * The v1 JSON payload for a trade, exactly as a v1 writer would have stored it.
+     */
+    static String toJson(Trade trade) {
+        JsonPayloadWriter json = new JsonPayloadWriter();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        while (true) {
+            json.reset(buffer);
+            try {
+                INSTANCE.encode(trade, json);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static String readUuid(ByteBuffer in) {
+        char[] chars = new char[36];
+        int c = 0;
+        for (int i = 0; i < 16; i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                chars[c++] = '-';
+            }
+            int b = in.get() & 0xFF;
+            chars[c++] = HEX[b >>> 4];
+            chars[c++] = HEX[b & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        long unscaled = in.getLong();
+        return BigDecimal.valueOf(unscaled, in.get());
+    }
+}
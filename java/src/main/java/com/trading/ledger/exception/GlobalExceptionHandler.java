@@ -1,5 +1,7 @@
 package com.trading.ledger.exception;
 
+import com.trading.ledger.eventlog.EventLogOverflowException;
+import com.trading.ledger.jdbc.JdbcConcurrencyLimitException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -52,8 +54,27 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(EventLogOverflowException.class)
+    public ResponseEntity<Map<String, Object>> handleEventLogOverflow(EventLogOverflowException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", Instant.now().toString());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+
+        logger.warn("Rejected request, event log backlog full: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
+        // Arrives wrapped by the transaction manager or MyBatis, depending on the caller
+        JdbcConcurrencyLimitException limited = findCause(ex, JdbcConcurrencyLimitException.class);
+        if (limited != null) {
+            return handleJdbcConcurrencyLimit(limited);
+        }
+
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", Instant.now().toString());
         response.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -64,4 +85,25 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
+
+    private ResponseEntity<Map<String, Object>> handleJdbcConcurrencyLimit(JdbcConcurrencyLimitException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", Instant.now().toString());
+        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+
+        logger.warn("Rejected request, no database connection available: {}", ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+    }
+
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
 }
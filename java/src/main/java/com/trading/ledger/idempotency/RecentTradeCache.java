@@ -0,0 +1,81 @@
+package com.trading.ledger.idempotency;
+
+import com.trading.ledger.domain.Trade;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded LRU map of recently created or looked-up trades, keyed by lower-case trade id.
+ *
+ * Split into independently locked stripes (each an access-ordered LinkedHashMap holding
+ * maxSize / stripes entries) so concurrent requests rarely contend; eviction is LRU per
+ * stripe, which approximates a global LRU for uniformly hashed ids.
+ */
+public final class RecentTradeCache {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public RecentTradeCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        int perStripe = Math.max(1, (maxSize + STRIPES - 1) / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public Trade get(String tradeId) {
+        String key = key(tradeId);
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    public void put(Trade trade) {
+        String key = key(trade.getTradeId());
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, trade);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String key(String tradeId) {
+        return tradeId.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Trade> {
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Trade> eldest) {
+            return size() > capacity;
+        }
+    }
+}
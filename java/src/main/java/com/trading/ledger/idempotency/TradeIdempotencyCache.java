@@ -0,0 +1,191 @@
+package com.trading.ledger.idempotency;
+
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.mapper.TradeMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Idempotency fast path in front of the trades.trade_id lookup
+ * (trades.idempotency.fast-path.enabled).
+ *
+ * - {@link #getRecent}: a bounded cache of recently created/seen trades answers retries
+ *   without a query.
+ * - {@link #mightExist}: a Bloom filter over all trade ids, warmed from the trades table
+ *   at startup, lets TradeService skip the lookup for ids it has definitely never seen.
+ *
+ * Neither is authoritative. Trades inserted by another instance, or committed while the
+ * filter was still warming, are unknown here; the unique constraint on trades.trade_id
+ * catches them and TradeService resolves the duplicate with a read. Until warm-up
+ * finishes, {@link #mightExist} answers true (always look up).
+ *
+ * Disabled, every method is a no-op and {@link #mightExist} is always true.
+ */
+@Component
+public class TradeIdempotencyCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeIdempotencyCache.class);
+
+    private static final int WARM_UP_PAGE_SIZE = 10_000;
+
+    private final TradeMapper tradeMapper;
+    private final boolean enabled;
+    private final TradeIdBloomFilter bloomFilter;
+    private final RecentTradeCache recentTrades;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter bloomNegatives;
+    private final Counter bloomFalsePositives;
+    private final Counter insertConflicts;
+
+    private volatile boolean warm;
+
+    public TradeIdempotencyCache(TradeMapper tradeMapper, MeterRegistry meterRegistry,
+                                 @Value("${trades.idempotency.fast-path.enabled:false}") boolean enabled,
+                                 @Value("${trades.idempotency.fast-path.bloom.expected-insertions:10000000}") long expectedInsertions,
+                                 @Value("${trades.idempotency.fast-path.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${trades.idempotency.fast-path.cache.max-size:100000}") int cacheMaxSize) {
+        this.tradeMapper = tradeMapper;
+        this.enabled = enabled;
+        this.bloomFilter = enabled ? new TradeIdBloomFilter(expectedInsertions, falsePositiveRate) : null;
+        this.recentTrades = enabled ? new RecentTradeCache(cacheMaxSize) : null;
+
+        this.cacheHits = Counter.builder("trades.idempotency.cache")
+                .tag("result", "hit")
+                .description("Trade lookups answered from the recent-trade cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("trades.idempotency.cache")
+                .tag("result", "miss")
+                .description("Trade lookups not found in the recent-trade cache")
+                .register(meterRegistry);
+        this.bloomNegatives = Counter.builder("trades.idempotency.bloom")
+                .tag("result", "negative")
+                .description("Lookups skipped because the Bloom filter had never seen the id")
+                .register(meterRegistry);
+        this.bloomFalsePositives = Counter.builder("trades.idempotency.bloom")
+                .tag("result", "false_positive")
+                .description("Lookups the Bloom filter asked for that found no trade")
+                .register(meterRegistry);
+        this.insertConflicts = Counter.builder("trades.idempotency.insert_conflicts")
+                .description("Inserts rejected by the trade_id unique constraint and resolved by a read")
+                .register(meterRegistry);
+        if (enabled) {
+            Gauge.builder("trades.idempotency.cache.size", recentTrades, RecentTradeCache::size)
+                    .description("Trades held in the recent-trade cache")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Load every existing trade id into the Bloom filter, in id order, on a background
+     * thread so startup is not held up by a large table.
+     */
+    @PostConstruct
+    public void startWarmUp() {
+        if (!enabled) {
+            return;
+        }
+        logger.info("Idempotency fast path enabled: bloom bits={}, hashes={}",
+                bloomFilter.getBitCount(), bloomFilter.getHashCount());
+        Thread thread = new Thread(this::warmUp, "trade-id-bloom-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Blocking warm-up; {@link #startWarmUp} runs this on a background thread.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        long loaded = 0;
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Trade> page = tradeMapper.findTradeIdsAfter(afterId, WARM_UP_PAGE_SIZE);
+                for (Trade trade : page) {
+                    bloomFilter.put(trade.getTradeId());
+                }
+                loaded += page.size();
+                if (page.size() < WARM_UP_PAGE_SIZE) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+            }
+            warm = true;
+            logger.info("Warmed trade id Bloom filter with {} ids in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.error("Failed to warm trade id Bloom filter after {} ids; every request will look up its trade id",
+                    loaded, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * A trade recently created or read with this id, or null.
+     */
+    public Trade getRecent(String tradeId) {
+        if (!enabled) {
+            return null;
+        }
+        Trade trade = recentTrades.get(tradeId);
+        (trade != null ? cacheHits : cacheMisses).increment();
+        return trade;
+    }
+
+    /**
+     * False only if no trade with this id can exist (as far as this instance knows).
+     */
+    public boolean mightExist(String tradeId) {
+        if (!enabled || !warm) {
+            return true;
+        }
+        if (bloomFilter.mightContain(tradeId)) {
+            return true;
+        }
+        bloomNegatives.increment();
+        return false;
+    }
+
+    /**
+     * The lookup {@link #mightExist} asked for found nothing.
+     */
+    public void recordFalsePositive() {
+        if (enabled && warm) {
+            bloomFalsePositives.increment();
+        }
+    }
+
+    public void recordInsertConflict() {
+        insertConflicts.increment();
+    }
+
+    /**
+     * Remember a trade known to be in the database (committed, or just read). Retries are
+     * answered from the cached trade, so it is kept only if it carries the stored id and
+     * created_at; otherwise just the Bloom filter learns its id.
+     */
+    public void remember(Trade trade) {
+        if (!enabled) {
+            return;
+        }
+        bloomFilter.put(trade.getTradeId());
+        if (trade.getId() != null && trade.getCreatedAt() != null) {
+            recentTrades.put(trade);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.trading.ledger.jdbc;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many threads can hold or wait for a JDBC connection.
+ *
+ * On virtual threads nothing limits how many requests run at once, so a burst can park
+ * thousands of threads inside the connection pool, each until the pool's
+ * connection-timeout, and then fail them together. Here at most maxConcurrent callers hold
+ * a connection (a permit is taken in getConnection and returned when the connection is
+ * closed), at most maxWaiting more wait up to acquireTimeout for one, and anything beyond
+ * that is rejected at once with {@link JdbcConcurrencyLimitException}.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrent, int maxWaiting, long acquireTimeoutMs) {
+        super(target);
+        if (maxConcurrent <= 0 || maxWaiting < 0) {
+            throw new IllegalArgumentException("Invalid JDBC concurrency limits: maxConcurrent=" + maxConcurrent
+                    + ", maxWaiting=" + maxWaiting);
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        // Approximate: the queue length can change between the check and the wait
+        if (permits.getQueueLength() >= maxWaiting) {
+            throw reject("JDBC concurrency limit reached: " + maxConcurrent + " in use, "
+                    + maxWaiting + " waiting");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw reject("Timed out after " + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)
+                        + " ms waiting for one of " + maxConcurrent + " JDBC connections");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a JDBC connection", e);
+        }
+    }
+
+    private JdbcConcurrencyLimitException reject(String message) {
+        rejected.incrementAndGet();
+        return new JdbcConcurrencyLimitException(message);
+    }
+
+    /**
+     * Returns the permit on the first close(); everything else goes to the pooled connection.
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.limiter.active", this, ConcurrencyLimitedDataSource::getActive)
+                .description("Connections held through the JDBC concurrency limiter")
+                .register(registry);
+        Gauge.builder("jdbc.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a JDBC connection permit")
+                .register(registry);
+        FunctionCounter.builder("jdbc.limiter.rejected", rejected, AtomicLong::get)
+                .description("Connection requests rejected by the JDBC concurrency limiter")
+                .register(registry);
+    }
+
+    /**
+     * Closes the pool behind this wrapper on context shutdown.
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable target) {
+            target.close();
+        }
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
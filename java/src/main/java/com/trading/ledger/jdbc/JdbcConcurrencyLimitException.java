@@ -0,0 +1,14 @@
+package com.trading.ledger.jdbc;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown by {@link ConcurrencyLimitedDataSource} when no connection permit is available
+ * within its limits. No connection was taken; the request can be retried.
+ */
+public class JdbcConcurrencyLimitException extends SQLTransientConnectionException {
+
+    public JdbcConcurrencyLimitException(String message) {
+        super(message);
+    }
+}
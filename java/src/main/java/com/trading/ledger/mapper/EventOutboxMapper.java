@@ -0,0 +1,29 @@
+package com.trading.ledger.mapper;
+
+import com.trading.ledger.domain.OutboxEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface EventOutboxMapper {
+
+    void insert(@Param("eventType") byte eventType,
+                @Param("tradeId") String tradeId,
+                @Param("createdAtMs") long createdAtMs);
+
+    /**
+     * One row per trade id, multi-row.
+     */
+    void insertAll(@Param("eventType") byte eventType,
+                   @Param("tradeIds") List<String> tradeIds,
+                   @Param("createdAtMs") long createdAtMs);
+
+    /**
+     * Oldest outbox events first, each joined with its trade.
+     */
+    List<OutboxEvent> findBatch(@Param("limit") int limit);
+
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
@@ -1,11 +1,13 @@
 package com.trading.ledger.mapper;
 
 import com.trading.ledger.domain.LedgerEntry;
-import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.dto.LedgerViolation;
+import com.trading.ledger.dto.PageCursor;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Mapper
@@ -13,13 +15,34 @@ public interface LedgerEntryMapper {
 
     BigDecimal sumEntriesByTradeId(@Param("tradeId") String tradeId);
 
+    /**
+     * Trade ids among the given ones whose entries do not balance to zero.
+     */
+    List<String> findUnbalancedTradeIds(@Param("tradeIds") List<String> tradeIds);
+
+    /**
+     * Trades created in [from, to) whose entries are not exactly one balanced pair,
+     * found with a single grouped join over the range.
+     */
+    List<LedgerViolation> findInvariantViolations(@Param("from") Instant from, @Param("to") Instant to);
+
     void insertAll(@Param("entries") List<LedgerEntry> entries);
 
     List<LedgerEntry> findByTradeId(@Param("tradeId") String tradeId);
 
+    /**
+     * Page of an account's entries, newest first, by offset. The cost grows with the offset;
+     * prefer {@link #findPageByAccountId}.
+     */
     List<LedgerEntry> findByAccountId(@Param("accountId") String accountId,
                                        @Param("limit") int limit,
                                        @Param("offset") int offset);
 
-    List<PositionResponse> calculatePositionsByAccountId(@Param("accountId") String accountId);
+    /**
+     * Page of an account's entries in (created_at, id) descending order, starting after the
+     * cursor, or from the newest entry if it is null.
+     */
+    List<LedgerEntry> findPageByAccountId(@Param("accountId") String accountId,
+                                          @Param("after") PageCursor after,
+                                          @Param("limit") int limit);
 }
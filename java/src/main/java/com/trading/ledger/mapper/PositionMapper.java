@@ -0,0 +1,51 @@
+package com.trading.ledger.mapper;
+
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.dto.PositionResponse;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface PositionMapper {
+
+    /**
+     * Add the given changes to their (account_id, symbol) rows, creating missing rows, with
+     * one INSERT ... ON CONFLICT DO UPDATE. Keys must be distinct within the call.
+     */
+    void upsertAll(@Param("deltas") List<Position> deltas);
+
+    /**
+     * Open (non-zero) positions of an account, read from the positions table.
+     */
+    List<PositionResponse> findByAccountId(@Param("accountId") String accountId);
+
+    /**
+     * Next page of position rows (including closed ones) in (account_id, symbol) order,
+     * after the given key; pass nulls for the first page.
+     */
+    List<Position> findPage(@Param("afterAccountId") String afterAccountId,
+                            @Param("afterSymbol") String afterSymbol,
+                            @Param("limit") int limit);
+
+    /**
+     * Open positions of an account aggregated from all of its trades (the pre-table query,
+     * kept for consistency checks).
+     */
+    List<PositionResponse> calculateFromTrades(@Param("accountId") String accountId);
+
+    /**
+     * Keep concurrent trades from upserting positions until the rebuild commits.
+     */
+    void lockForRebuild();
+
+    void deleteAll();
+
+    /**
+     * Recompute every position from the trades table with one INSERT ... SELECT.
+     *
+     * @return number of position rows written
+     */
+    int rebuildFromTrades();
+}
@@ -1,9 +1,12 @@
 package com.trading.ledger.mapper;
 
 import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.PageCursor;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +15,59 @@ public interface TradeMapper {
 
     Optional<Trade> findByTradeId(@Param("tradeId") String tradeId);
 
+    /**
+     * Trades with any of the given ids (one query for a whole batch).
+     */
+    List<Trade> findByTradeIds(@Param("tradeIds") List<String> tradeIds);
+
+    /**
+     * Next page of (id, trade_id) pairs in id order; only id and tradeId are populated.
+     */
+    List<Trade> findTradeIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    long countCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Sets the trade's id and createdAt from the inserted row.
+     */
     void insert(Trade trade);
 
+    /**
+     * Insert unless a trade with the same trade_id exists (committed, or committed by a
+     * concurrent transaction this one waited for).
+     *
+     * Like {@link #insert}, sets id and createdAt when a row is inserted.
+     *
+     * @return 1 if inserted, 0 if the trade_id was taken
+     */
+    int insertIfAbsent(Trade trade);
+
+    /**
+     * Multi-row {@link #insertIfAbsent}: inserts the trades whose trade_id is not taken.
+     *
+     * @return the inserted rows, with only id, tradeId and createdAt populated
+     */
+    List<Trade> insertAllIfAbsent(@Param("trades") List<Trade> trades);
+
+    /**
+     * Page of an account's trades, newest first, by offset. The cost grows with the offset;
+     * prefer {@link #findPageByAccountId}.
+     */
     List<Trade> findByAccountId(@Param("accountId") String accountId,
                                   @Param("limit") int limit,
                                   @Param("offset") int offset);
+
+    /**
+     * Page of an account's trades in (created_at, id) descending order, starting after the
+     * cursor, or from the newest trade if it is null.
+     */
+    List<Trade> findPageByAccountId(@Param("accountId") String accountId,
+                                    @Param("after") PageCursor after,
+                                    @Param("limit") int limit);
+
+    /**
+     * All trades of an account, newest first, read lazily in fetch-size batches. Must be
+     * consumed and closed inside the transaction that opened it.
+     */
+    Cursor<Trade> streamByAccountId(@Param("accountId") String accountId);
 }
@@ -0,0 +1,100 @@
+package com.trading.ledger.position;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * One account's net quantity and cost basis per symbol, as fixed-point longs with
+ * {@link PositionEngine#SCALE} decimals in parallel arrays sorted by symbol.
+ *
+ * Not thread-safe; PositionEngine guards each instance with its stripe's lock.
+ */
+final class AccountPositions {
+
+    private String[] symbols = new String[4];
+    private long[] quantities = new long[4];
+    private long[] notionals = new long[4];
+    private int size;
+    // Set when a sum no longer fits in a long; the account is then served from the database
+    private boolean overflowed;
+
+    /**
+     * Add a signed quantity and notional to the symbol's position, unless the account has
+     * overflowed. An overflow marks the account and leaves its positions unchanged.
+     *
+     * @return false if the account is (now) overflowed
+     */
+    boolean add(String symbol, BigDecimal quantity, BigDecimal notional) {
+        if (overflowed) {
+            return false;
+        }
+        try {
+            add(symbol, toUnits(quantity), toUnits(notional));
+            return true;
+        } catch (ArithmeticException e) {
+            overflowed = true;
+            return false;
+        }
+    }
+
+    static long toUnits(BigDecimal value) {
+        return value.setScale(PositionEngine.SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Add a signed quantity and notional, already in units, to the symbol's position.
+     *
+     * @throws ArithmeticException if either sum overflows (nothing is changed)
+     */
+    void add(String symbol, long quantity, long notional) {
+        int index = Arrays.binarySearch(symbols, 0, size, symbol);
+        if (index < 0) {
+            index = insert(-index - 1, symbol);
+        }
+        long newQuantity = Math.addExact(quantities[index], quantity);
+        long newNotional = Math.addExact(notionals[index], notional);
+        quantities[index] = newQuantity;
+        notionals[index] = newNotional;
+    }
+
+    private int insert(int index, String symbol) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+            notionals = Arrays.copyOf(notionals, size * 2);
+        }
+        System.arraycopy(symbols, index, symbols, index + 1, size - index);
+        System.arraycopy(quantities, index, quantities, index + 1, size - index);
+        System.arraycopy(notionals, index, notionals, index + 1, size - index);
+        symbols[index] = symbol;
+        quantities[index] = 0;
+        notionals[index] = 0;
+        size++;
+        return index;
+    }
+
+    int size() {
+        return size;
+    }
+
+    String symbol(int index) {
+        return symbols[index];
+    }
+
+    long quantity(int index) {
+        return quantities[index];
+    }
+
+    long notional(int index) {
+        return notionals[index];
+    }
+
+    boolean isOverflowed() {
+        return overflowed;
+    }
+
+    void markOverflowed() {
+        overflowed = true;
+    }
+}
@@ -0,0 +1,351 @@
+package com.trading.ledger.position;
+
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.PositionConsistencyReport;
+import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.mapper.PositionMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process positions for serving burst reads without a query (positions.engine.enabled).
+ *
+ * Each account's net quantity and cost basis (signed notional) per symbol are held as
+ * longs scaled to {@link #SCALE} decimals. Accounts are spread over a power-of-two
+ * number of stripes by hash, each with its own read-write lock, so readers and writers
+ * of accounts in different stripes never contend and readers of the same stripe only
+ * wait for a writer's in-place update.
+ *
+ * The engine is rebuilt at startup, before the application takes traffic, from the
+ * positions table, by replaying TRADE_CREATED events from the event log, or from the
+ * latest {@link PositionSnapshotter} snapshot plus the events logged after it
+ * (positions.engine.rebuild-from), and then follows trades as they commit (PositionService
+ * applies them after commit). It only sees trades committed by this instance, so it
+ * is meant for a single writer. The event log is only as complete as its publish mode
+ * makes it: async and outbox publishing may not have written the latest trades yet.
+ *
+ * Cost basis is kept to 1e-8 per trade (the scale of positions.avg_price). An account
+ * whose quantity or notional no longer fits in a long is dropped from the engine and
+ * served from the database.
+ */
+@Component
+public class PositionEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionEngine.class);
+
+    public static final int SCALE = 8;
+
+    private static final int REBUILD_PAGE_SIZE = 10_000;
+    // Average prices are rounded to SCALE here but not by the trade aggregate
+    private static final BigDecimal AVERAGE_PRICE_TOLERANCE = BigDecimal.ONE.movePointLeft(SCALE);
+
+    /**
+     * Where {@link #rebuild()} reads positions from.
+     */
+    public enum RebuildSource {
+        DATABASE,
+        EVENT_LOG,
+        SNAPSHOT
+    }
+
+    private static final class Stripe {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        Map<String, AccountPositions> accounts = new HashMap<>();
+    }
+
+    private final PositionMapper positionMapper;
+    private final PositionSnapshotter snapshotter;
+    private final boolean enabled;
+    private final RebuildSource rebuildSource;
+    private final Path eventLogPath;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    private volatile boolean ready;
+
+    public PositionEngine(PositionMapper positionMapper, PositionSnapshotter snapshotter, MeterRegistry meterRegistry,
+                          @Value("${positions.engine.enabled:false}") boolean enabled,
+                          @Value("${positions.engine.stripes:256}") int stripeCount,
+                          @Value("${positions.engine.rebuild-from:database}") RebuildSource rebuildSource,
+                          @Value("${eventlog.file-path}") String eventLogPath) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Position engine stripes must be a power of two: " + stripeCount);
+        }
+        this.positionMapper = positionMapper;
+        this.snapshotter = snapshotter;
+        this.enabled = enabled;
+        this.rebuildSource = rebuildSource;
+        this.eventLogPath = Paths.get(eventLogPath);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeCount - 1;
+
+        if (enabled) {
+            Gauge.builder("positions.engine.accounts", this, PositionEngine::getAccountCount)
+                    .description("Accounts held by the in-memory position engine")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Rebuild before the web server starts, so no request reads a partial engine.
+     */
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replace the engine's state with a fresh load from the configured source.
+     *
+     * Trades that commit while this runs may be missed or counted twice, so it must only
+     * run while no trades are being written (e.g. at startup).
+     *
+     * @return number of positions loaded
+     */
+    public long rebuild() {
+        long start = System.nanoTime();
+        ready = false;
+        List<Map<String, AccountPositions>> fresh = new ArrayList<>(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            fresh.add(new HashMap<>());
+        }
+
+        long loaded = switch (rebuildSource) {
+            case DATABASE -> loadFromDatabase(fresh);
+            case EVENT_LOG -> loadFromEventLog(fresh);
+            case SNAPSHOT -> loadFromSnapshot(fresh);
+        };
+
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            stripe.lock.writeLock().lock();
+            try {
+                stripe.accounts = fresh.get(i);
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+        logger.info("Rebuilt position engine from {}: {} positions in {} ms ({} accounts, {} stripes)",
+                rebuildSource.name().toLowerCase(Locale.ROOT), loaded, (System.nanoTime() - start) / 1_000_000, getAccountCount(), stripes.length);
+        return loaded;
+    }
+
+    private long loadFromDatabase(List<Map<String, AccountPositions>> target) {
+        long loaded = 0;
+        String afterAccountId = null;
+        String afterSymbol = null;
+        while (true) {
+            List<Position> page = positionMapper.findPage(afterAccountId, afterSymbol, REBUILD_PAGE_SIZE);
+            for (Position position : page) {
+                add(target.get(stripeOf(position.getAccountId())), position.getAccountId(), position.getSymbol(),
+                        position.getQuantity(), position.getNotional());
+            }
+            loaded += page.size();
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                return loaded;
+            }
+            Position last = page.get(page.size() - 1);
+            afterAccountId = last.getAccountId();
+            afterSymbol = last.getSymbol();
+        }
+    }
+
+    /**
+     * Replay every event from the start of the log. Redelivered trades (outbox publishing
+     * is at-least-once) are skipped within the snapshot dedupe window. If the log does not
+     * start at sequence 1 or has a gap (e.g. retention removed its head), it no longer
+     * holds every trade, so fall back to the positions table.
+     */
+    private long loadFromEventLog(List<Map<String, AccountPositions>> target) {
+        PositionSnapshot replayed;
+        try {
+            replayed = snapshotter.replayFromStart();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay event log " + eventLogPath, e);
+        } catch (IllegalStateException e) {
+            logger.warn("Cannot rebuild position engine from the event log, loading the positions table: {}",
+                    e.getMessage());
+            return loadFromDatabase(target);
+        }
+        return load(replayed, target);
+    }
+
+    /**
+     * Load the latest snapshot and replay the events after it. If the event log no longer
+     * reaches back to the snapshot, fall back to the positions table.
+     */
+    private long loadFromSnapshot(List<Map<String, AccountPositions>> target) {
+        PositionSnapshot snapshot;
+        try {
+            snapshot = snapshotter.loadForStartup();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load position snapshot", e);
+        } catch (IllegalStateException e) {
+            logger.warn("Cannot rebuild position engine from snapshot, loading the positions table: {}",
+                    e.getMessage());
+            return loadFromDatabase(target);
+        }
+        return load(snapshot, target);
+    }
+
+    private long load(PositionSnapshot snapshot, List<Map<String, AccountPositions>> target) {
+        long loaded = 0;
+        for (Map.Entry<String, AccountPositions> account : snapshot.getAccounts().entrySet()) {
+            target.get(stripeOf(account.getKey())).put(account.getKey(), account.getValue());
+            loaded += account.getValue().size();
+        }
+        return loaded;
+    }
+
+    /**
+     * Apply committed trades. Each trade takes its account's stripe lock on its own.
+     */
+    public void apply(List<Trade> trades) {
+        for (Trade trade : trades) {
+            Position delta = Position.delta(trade);
+            Stripe stripe = stripes[stripeOf(delta.getAccountId())];
+            stripe.lock.writeLock().lock();
+            try {
+                add(stripe.accounts, delta.getAccountId(), delta.getSymbol(), delta.getQuantity(), delta.getNotional());
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static void add(Map<String, AccountPositions> accounts, String accountId, String symbol,
+                            BigDecimal quantity, BigDecimal notional) {
+        AccountPositions positions = accounts.computeIfAbsent(accountId, id -> new AccountPositions());
+        boolean wasOverflowed = positions.isOverflowed();
+        if (!positions.add(symbol, quantity, notional) && !wasOverflowed) {
+            logger.warn("Positions of account {} exceed the engine's range, serving them from the database", accountId);
+        }
+    }
+
+    /**
+     * Open (non-zero) positions of an account ordered by symbol, or empty if the engine
+     * cannot answer (disabled, not rebuilt yet, or the account overflowed) and the caller
+     * must read the database.
+     */
+    public Optional<List<PositionResponse>> getPositions(String accountId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Stripe stripe = stripes[stripeOf(accountId)];
+        stripe.lock.readLock().lock();
+        try {
+            AccountPositions positions = stripe.accounts.get(accountId);
+            if (positions == null) {
+                return Optional.of(List.of());
+            }
+            if (positions.isOverflowed()) {
+                return Optional.empty();
+            }
+            List<PositionResponse> open = new ArrayList<>(positions.size());
+            for (int i = 0; i < positions.size(); i++) {
+                long quantity = positions.quantity(i);
+                if (quantity != 0) {
+                    open.add(new PositionResponse(accountId, positions.symbol(i), BigDecimal.valueOf(quantity, SCALE),
+                            BigDecimal.valueOf(positions.notional(i), SCALE)
+                                    .divide(BigDecimal.valueOf(quantity, SCALE), SCALE, RoundingMode.HALF_EVEN)));
+                }
+            }
+            return Optional.of(open);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compare the engine's view of an account with its positions aggregated from the
+     * trades table. Trades committing during the check can show up as transient
+     * mismatches.
+     */
+    public PositionConsistencyReport checkConsistency(String accountId) {
+        Optional<List<PositionResponse>> engine = getPositions(accountId);
+        List<PositionResponse> database = positionMapper.calculateFromTrades(accountId);
+        Map<String, PositionResponse> engineBySymbol = new TreeMap<>();
+        engine.orElse(List.of()).forEach(position -> engineBySymbol.put(position.getSymbol(), position));
+        Map<String, PositionResponse> databaseBySymbol = new TreeMap<>();
+        database.forEach(position -> databaseBySymbol.put(position.getSymbol(), position));
+
+        List<String> mismatched = new ArrayList<>();
+        Set<String> symbols = new HashSet<>(engineBySymbol.keySet());
+        symbols.addAll(databaseBySymbol.keySet());
+        for (String symbol : symbols) {
+            if (!matches(engineBySymbol.get(symbol), databaseBySymbol.get(symbol))) {
+                mismatched.add(symbol);
+            }
+        }
+        mismatched.sort(null);
+        if (engine.isPresent() && !mismatched.isEmpty()) {
+            logger.warn("Position engine disagrees with trades for account {} on {}", accountId, mismatched);
+        }
+        return new PositionConsistencyReport(accountId, engine.isPresent(), engine.orElse(List.of()), database,
+                mismatched);
+    }
+
+    private static boolean matches(PositionResponse engine, PositionResponse database) {
+        if (engine == null || database == null) {
+            return false;
+        }
+        return engine.getQuantity().compareTo(database.getQuantity()) == 0
+                && engine.getAveragePrice().subtract(database.getAveragePrice()).abs()
+                .compareTo(AVERAGE_PRICE_TOLERANCE) <= 0;
+    }
+
+    private int stripeOf(String accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & stripeMask;
+    }
+
+    public int getAccountCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                count += stripe.accounts.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,33 @@
+package com.trading.ledger.position;
+
+import com.trading.ledger.service.PositionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Operator command to recompute all positions from the trades table (repair or
+ * post-restore), exposed as {@code POST /actuator/positions} rather than on the public
+ * API: it rewrites the whole table and, off PostgreSQL, needs trade intake paused.
+ * Not exposed over HTTP unless added to management.endpoints.web.exposure.include,
+ * ideally together with a separate management.server.port.
+ */
+@Component
+@Endpoint(id = "positions")
+@RequiredArgsConstructor
+@Slf4j
+public class PositionRebuildEndpoint {
+
+    private final PositionService positionService;
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        log.info("Position rebuild requested via actuator");
+        int rebuilt = positionService.rebuildPositions();
+        return Map.of("positions", rebuilt);
+    }
+}
@@ -0,0 +1,191 @@
+package com.trading.ledger.position;
+
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogReplay;
+import com.trading.ledger.eventlog.EventRecord;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Position state derived from the event log up to and including {@link #getLastSequence()}:
+ * per-account, per-symbol quantity and notional as scaled longs, plus the ids of the most
+ * recent trades so that a TRADE_CREATED delivered again after the snapshot (outbox
+ * publishing is at-least-once) is not counted twice.
+ *
+ * File format (big-endian, CRC32 of everything before it at the end):
+ * <pre>
+ * magic "PSNP" | version u16 | last sequence i64 | created at ms i64
+ * recent trade id count i32 | { trade id (UTF) }
+ * account count i32 | { account id (UTF) | overflowed u8 | symbol count i32 |
+ *                       { symbol (UTF) | quantity i64 | notional i64 } }
+ * crc32 i32
+ * </pre>
+ *
+ * Not thread-safe.
+ */
+final class PositionSnapshot {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final short VERSION = 1;
+
+    private final Map<String, AccountPositions> accounts;
+    private final LinkedHashMap<String, Boolean> recentTradeIds;
+    private final int recentTradeIdLimit;
+    private long lastSequence;
+    private long createdAtMillis;
+
+    private PositionSnapshot(Map<String, AccountPositions> accounts, int recentTradeIdLimit, long lastSequence,
+                             long createdAtMillis) {
+        this.accounts = accounts;
+        this.recentTradeIdLimit = recentTradeIdLimit;
+        this.recentTradeIds = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > PositionSnapshot.this.recentTradeIdLimit;
+            }
+        };
+        this.lastSequence = lastSequence;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    /**
+     * State before the first event of the log.
+     */
+    static PositionSnapshot empty(int recentTradeIdLimit) {
+        return new PositionSnapshot(new HashMap<>(), recentTradeIdLimit, 0, 0);
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    Map<String, AccountPositions> getAccounts() {
+        return accounts;
+    }
+
+    /**
+     * Apply every event after {@link #getLastSequence()} up to the current end of the log.
+     *
+     * @return number of events read
+     * @throws IllegalStateException if the log no longer has the first event after the
+     *                               snapshot (e.g. removed by retention)
+     */
+    long catchUp(Path eventLogPath) throws IOException {
+        long from = lastSequence + 1;
+        return EventLogReplay.replay(eventLogPath, from, record -> {
+            if (record.getSequenceNum() != lastSequence + 1) {
+                throw new IllegalStateException("Event log " + eventLogPath + " continues at sequence "
+                        + record.getSequenceNum() + ", expected " + (lastSequence + 1));
+            }
+            apply(record);
+        });
+    }
+
+    void apply(EventRecord record) {
+        lastSequence = record.getSequenceNum();
+        if (record.getEventType() != Event.EventType.TRADE_CREATED) {
+            return;
+        }
+        Trade trade = TradeCreatedPayload.decode(record);
+        if (recentTradeIds.put(trade.getTradeId().toLowerCase(Locale.ROOT), Boolean.TRUE) != null) {
+            return;
+        }
+        Position delta = Position.delta(trade);
+        accounts.computeIfAbsent(delta.getAccountId(), id -> new AccountPositions())
+                .add(delta.getSymbol(), delta.getQuantity(), delta.getNotional());
+    }
+
+    void writeTo(OutputStream stream, long createdAtMillis) throws IOException {
+        this.createdAtMillis = createdAtMillis;
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(stream, 64 * 1024), new CRC32());
+        DataOutputStream out = new DataOutputStream(checked);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(lastSequence);
+        out.writeLong(createdAtMillis);
+        out.writeInt(recentTradeIds.size());
+        for (String tradeId : recentTradeIds.keySet()) {
+            out.writeUTF(tradeId);
+        }
+        out.writeInt(accounts.size());
+        for (Map.Entry<String, AccountPositions> account : accounts.entrySet()) {
+            AccountPositions positions = account.getValue();
+            out.writeUTF(account.getKey());
+            out.writeBoolean(positions.isOverflowed());
+            out.writeInt(positions.size());
+            for (int i = 0; i < positions.size(); i++) {
+                out.writeUTF(positions.symbol(i));
+                out.writeLong(positions.quantity(i));
+                out.writeLong(positions.notional(i));
+            }
+        }
+        out.flush();
+        new DataOutputStream(stream).writeInt((int) checked.getChecksum().getValue());
+        stream.flush();
+    }
+
+    static PositionSnapshot readFrom(InputStream stream, int recentTradeIdLimit) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(stream, 64 * 1024);
+        CheckedInputStream checked = new CheckedInputStream(buffered, new CRC32());
+        DataInputStream in = new DataInputStream(checked);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a position snapshot");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported position snapshot version " + version);
+        }
+        PositionSnapshot snapshot = new PositionSnapshot(new HashMap<>(), recentTradeIdLimit, in.readLong(),
+                in.readLong());
+        int tradeIds = in.readInt();
+        for (int i = 0; i < tradeIds; i++) {
+            snapshot.recentTradeIds.put(in.readUTF(), Boolean.TRUE);
+        }
+        int accountCount = in.readInt();
+        for (int a = 0; a < accountCount; a++) {
+            String accountId = in.readUTF();
+            AccountPositions positions = new AccountPositions();
+            if (in.readBoolean()) {
+                positions.markOverflowed();
+            }
+            int symbols = in.readInt();
+            for (int s = 0; s < symbols; s++) {
+                positions.add(in.readUTF(), in.readLong(), in.readLong());
+            }
+            snapshot.accounts.put(accountId, positions);
+        }
+        int expected = (int) checked.getChecksum().getValue();
+        if (new DataInputStream(buffered).readInt() != expected) {
+            throw new IOException("Position snapshot checksum mismatch");
+        }
+        return snapshot;
+    }
+
+    static PositionSnapshot read(Path path, int recentTradeIdLimit) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return readFrom(in, recentTradeIdLimit);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.trading.ledger.position;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Periodic binary snapshots of position state, for a warm start that replays only the
+ * event log written since the last snapshot (positions.snapshot.enabled).
+ *
+ * The snapshotter keeps its own {@link PositionSnapshot}, derived from the event log
+ * alone, so every snapshot is exactly the state after the sequence it is tagged with.
+ * Every interval-seconds a background thread applies the events appended since the
+ * previous snapshot and, if there were any, writes
+ * {@code positions-<last sequence, 20 digits>.snapshot} to a temp file, forces it and
+ * renames it into place; only the newest {@code retain} snapshots are kept. Request
+ * threads never wait for it. A final snapshot is written on shutdown.
+ *
+ * The cost of a snapshot, and of {@link #loadForStartup()}, is the number of positions
+ * plus the events since the previous snapshot, independent of the length of the history.
+ * With sync publishing the log can hold events of trades whose transaction later failed;
+ * outbox publishing only logs committed trades.
+ */
+@Component
+public class PositionSnapshotter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionSnapshotter.class);
+
+    private static final String PREFIX = "positions-";
+    private static final String SUFFIX = ".snapshot";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long intervalNanos;
+    private final int retain;
+    private final int recentTradeIdLimit;
+    private final Path eventLogPath;
+    private final Counter failuresCounter;
+    private final Thread thread;
+
+    private volatile boolean running;
+    private PositionSnapshot state;
+    private long lastWrittenSequence = -1;
+    private volatile long lastWrittenAtMillis;
+
+    public PositionSnapshotter(MeterRegistry meterRegistry,
+                               @Value("${positions.snapshot.enabled:false}") boolean enabled,
+                               @Value("${positions.snapshot.dir:./data/snapshots}") String directory,
+                               @Value("${positions.snapshot.interval-seconds:300}") long intervalSeconds,
+                               @Value("${positions.snapshot.retain:2}") int retain,
+                               @Value("${positions.snapshot.dedupe-window:10000}") int recentTradeIdLimit,
+                               @Value("${eventlog.file-path}") String eventLogPath) {
+        if (retain <= 0 || intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Snapshot retain and interval must be positive: "
+                    + retain + ", " + intervalSeconds);
+        }
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        this.retain = retain;
+        this.recentTradeIdLimit = recentTradeIdLimit;
+        this.eventLogPath = Paths.get(eventLogPath);
+        this.thread = new Thread(this::run, "position-snapshotter");
+        this.thread.setDaemon(true);
+
+        this.failuresCounter = Counter.builder("positions.snapshot.failures")
+                .description("Position snapshots that could not be taken")
+                .register(meterRegistry);
+        if (enabled) {
+            Gauge.builder("positions.snapshot.age.seconds", this, PositionSnapshotter::getAgeSeconds)
+                    .description("Seconds since the last position snapshot was written")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        thread.start();
+        logger.info("Position snapshots enabled: dir={}, intervalSeconds={}, retain={}",
+                directory, TimeUnit.NANOSECONDS.toSeconds(intervalNanos), retain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+        snapshotQuietly();
+    }
+
+    private void run() {
+        while (running) {
+            snapshotQuietly();
+            LockSupport.parkNanos(this, intervalNanos);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            failuresCounter.increment();
+            logger.error("Failed to take position snapshot", e);
+        }
+    }
+
+    /**
+     * Bring the snapshot state up to the end of the event log and write it if it moved.
+     *
+     * @return the sequence of the newest snapshot on disk afterwards (0 if none)
+     */
+    public synchronized long snapshot() throws IOException {
+        if (state == null) {
+            state = loadLatest().orElseGet(() -> PositionSnapshot.empty(recentTradeIdLimit));
+            lastWrittenSequence = state.getLastSequence();
+        }
+        state.catchUp(eventLogPath);
+        if (state.getLastSequence() == lastWrittenSequence) {
+            return lastWrittenSequence;
+        }
+        long start = System.nanoTime();
+        Path path = write(state);
+        lastWrittenSequence = state.getLastSequence();
+        lastWrittenAtMillis = state.getCreatedAtMillis();
+        logger.info("Wrote position snapshot {} ({} accounts) in {} ms", path.getFileName(),
+                state.getAccounts().size(), (System.nanoTime() - start) / 1_000_000);
+        prune();
+        return lastWrittenSequence;
+    }
+
+    /**
+     * The newest readable snapshot caught up with the event log, or state replayed from
+     * the start of the log if there is no snapshot. Startup work is bounded by the
+     * snapshot interval rather than by the history.
+     *
+     * @throws IllegalStateException if the event log no longer continues where the
+     *                               snapshot ends
+     */
+    synchronized PositionSnapshot loadForStartup() throws IOException {
+        PositionSnapshot snapshot = loadLatest().orElseGet(() -> PositionSnapshot.empty(recentTradeIdLimit));
+        long from = snapshot.getLastSequence();
+        long replayed = snapshot.catchUp(eventLogPath);
+        logger.info("Loaded position snapshot at sequence {} and replayed {} events after it", from, replayed);
+        return snapshot;
+    }
+
+    /**
+     * State replayed from the first event of the log, ignoring any snapshot. Redelivered
+     * trades are skipped within the same dedupe window as snapshots use.
+     *
+     * @throws IllegalStateException if the log does not start at sequence 1 or has a gap
+     */
+    PositionSnapshot replayFromStart() throws IOException {
+        PositionSnapshot replayed = PositionSnapshot.empty(recentTradeIdLimit);
+        replayed.catchUp(eventLogPath);
+        return replayed;
+    }
+
+    /**
+     * The newest snapshot that reads back intact; corrupt ones are skipped.
+     */
+    Optional<PositionSnapshot> loadLatest() throws IOException {
+        for (Path path : listSnapshots()) {
+            try {
+                return Optional.of(PositionSnapshot.read(path, recentTradeIdLimit));
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable position snapshot {}: {}", path, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Path write(PositionSnapshot snapshot) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.getLastSequence(), SUFFIX));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            snapshot.writeTo(Channels.newOutputStream(channel), System.currentTimeMillis());
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return path;
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        for (Path old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    /**
+     * Snapshot files, newest first.
+     */
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            files.forEach(snapshots::add);
+        }
+        snapshots.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        return snapshots;
+    }
+
+    private double getAgeSeconds() {
+        long writtenAt = lastWrittenAtMillis;
+        return writtenAt == 0 ? 0 : (System.currentTimeMillis() - writtenAt) / 1000.0;
+    }
+}
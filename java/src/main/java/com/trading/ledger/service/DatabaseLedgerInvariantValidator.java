@@ -0,0 +1,47 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.LedgerEntry;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Re-reads the balances of the affected trades from ledger_entries: one SUM query for a
+ * single trade, one grouped query for a batch. Costs a round trip on every write.
+ */
+public class DatabaseLedgerInvariantValidator implements LedgerInvariantValidator {
+
+    private final LedgerEntryMapper ledgerEntryMapper;
+
+    public DatabaseLedgerInvariantValidator(LedgerEntryMapper ledgerEntryMapper) {
+        this.ledgerEntryMapper = ledgerEntryMapper;
+    }
+
+    @Override
+    public void validate(List<LedgerEntry> entries) {
+        LinkedHashSet<String> tradeIds = new LinkedHashSet<>();
+        for (LedgerEntry entry : entries) {
+            tradeIds.add(entry.getTradeId());
+        }
+        validateTrades(List.copyOf(tradeIds));
+    }
+
+    void validateTrades(List<String> tradeIds) {
+        if (tradeIds.isEmpty()) {
+            return;
+        }
+        if (tradeIds.size() == 1) {
+            BigDecimal sum = ledgerEntryMapper.sumEntriesByTradeId(tradeIds.get(0));
+            if (sum.compareTo(BigDecimal.ZERO) != 0) {
+                throw new IllegalStateException("Double-entry accounting invariant violated: sum = " + sum);
+            }
+            return;
+        }
+        List<String> unbalanced = ledgerEntryMapper.findUnbalancedTradeIds(tradeIds);
+        if (!unbalanced.isEmpty()) {
+            throw new IllegalStateException("Double-entry accounting invariant violated for trades " + unbalanced);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies the invariant on the entries as built, before they reach the database.
+ *
+ * LedgerService constructs both legs of every trade itself, so this catches any bug in
+ * that construction at no I/O cost. It cannot see what the database actually stored;
+ * {@link LedgerVerifier} covers that offline.
+ */
+public class InMemoryLedgerInvariantValidator implements LedgerInvariantValidator {
+
+    @Override
+    public void validate(List<LedgerEntry> entries) {
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        for (LedgerEntry entry : entries) {
+            BigDecimal signed = entry.getEntryType() == LedgerEntry.EntryType.DEBIT
+                    ? entry.getAmount()
+                    : entry.getAmount().negate();
+            balances.merge(entry.getTradeId(), signed, BigDecimal::add);
+        }
+        for (Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+            if (balance.getValue().signum() != 0) {
+                throw new IllegalStateException("Double-entry accounting invariant violated for trade "
+                        + balance.getKey() + ": sum = " + balance.getValue());
+            }
+        }
+    }
+}
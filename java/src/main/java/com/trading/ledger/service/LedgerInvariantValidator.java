@@ -0,0 +1,28 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.LedgerEntry;
+
+import java.util.List;
+
+/**
+ * Checks the double-entry invariant (each trade's DEBIT and CREDIT entries balance to
+ * zero) for entries LedgerService has just inserted, inside the same transaction.
+ *
+ * Implementations throw IllegalStateException on a violation, which rolls the trade back.
+ * Selected with ledger.invariant.validator; see {@link com.trading.ledger.config.LedgerConfig}.
+ */
+public interface LedgerInvariantValidator {
+
+    /**
+     * in-memory: sum the entries being inserted, no database access
+     * database: re-read the sums from ledger_entries (one aggregate query per call)
+     * sampled: in-memory for every trade, plus the database check for every Nth trade
+     */
+    enum Mode {
+        IN_MEMORY,
+        DATABASE,
+        SAMPLED
+    }
+
+    void validate(List<LedgerEntry> entries);
+}
@@ -3,13 +3,17 @@ package com.trading.ledger.service;
 import com.trading.ledger.domain.LedgerEntry;
 import com.trading.ledger.domain.Trade;
 import com.trading.ledger.mapper.LedgerEntryMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class LedgerService {
@@ -17,9 +21,16 @@ public class LedgerService {
     private static final Logger logger = LoggerFactory.getLogger(LedgerService.class);
 
     private final LedgerEntryMapper ledgerEntryMapper;
+    private final LedgerInvariantValidator invariantValidator;
+    private final Timer ledgerTimer;
+    private final Timer invariantTimer;
 
-    public LedgerService(LedgerEntryMapper ledgerEntryMapper) {
+    public LedgerService(LedgerEntryMapper ledgerEntryMapper, LedgerInvariantValidator invariantValidator,
+                         MeterRegistry meterRegistry) {
         this.ledgerEntryMapper = ledgerEntryMapper;
+        this.invariantValidator = invariantValidator;
+        this.ledgerTimer = TradeService.stageTimer(meterRegistry, "ledger");
+        this.invariantTimer = TradeService.stageTimer(meterRegistry, "invariant");
     }
 
     /**
@@ -30,10 +41,58 @@ public class LedgerService {
      *   - DEBIT:  +$15,000 (cash decreases)
      *   - CREDIT: -$15,000 (stock increases)
      *   - SUM: $15,000 + (-$15,000) = 0
+     *
+     * The invariant is checked by the configured {@link LedgerInvariantValidator}
+     * (in-memory by default, so a trade costs no extra query).
      */
     @Transactional
     public List<LedgerEntry> generateEntries(Trade trade) {
         logger.debug("Generating ledger entries for trade: {}", trade.getTradeId());
+        List<LedgerEntry> entries = buildEntries(trade);
+
+        long start = System.nanoTime();
+        ledgerEntryMapper.insertAll(entries);
+        long inserted = System.nanoTime();
+        ledgerTimer.record(inserted - start, TimeUnit.NANOSECONDS);
+        checkInvariant(entries);
+        invariantTimer.record(System.nanoTime() - inserted, TimeUnit.NANOSECONDS);
+
+        logger.info("Generated 2 ledger entries for trade {}", trade.getTradeId());
+        return entries;
+    }
+
+    /**
+     * Generate the entries for a batch of trades with one multi-row insert, checking the
+     * invariant for the whole batch in one validator call.
+     */
+    @Transactional
+    public List<LedgerEntry> generateEntries(List<Trade> trades) {
+        List<LedgerEntry> entries = new ArrayList<>(trades.size() * 2);
+        for (Trade trade : trades) {
+            entries.addAll(buildEntries(trade));
+        }
+
+        long start = System.nanoTime();
+        ledgerEntryMapper.insertAll(entries);
+        long inserted = System.nanoTime();
+        ledgerTimer.record(inserted - start, TimeUnit.NANOSECONDS);
+        checkInvariant(entries);
+        invariantTimer.record(System.nanoTime() - inserted, TimeUnit.NANOSECONDS);
+
+        logger.info("Generated {} ledger entries for {} trades", entries.size(), trades.size());
+        return entries;
+    }
+
+    private void checkInvariant(List<LedgerEntry> entries) {
+        try {
+            invariantValidator.validate(entries);
+        } catch (IllegalStateException e) {
+            logger.error("Double-entry invariant violated: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private List<LedgerEntry> buildEntries(Trade trade) {
         BigDecimal amount = trade.getQuantity().multiply(trade.getPrice());
 
         // Create DEBIT entry
@@ -54,15 +113,6 @@ public class LedgerService {
                 trade.getTimestampNs()
         );
 
-        ledgerEntryMapper.insertAll(List.of(debitEntry, creditEntry));
-
-        BigDecimal sum = ledgerEntryMapper.sumEntriesByTradeId(trade.getTradeId());
-        if (sum.compareTo(BigDecimal.ZERO) != 0) {
-            logger.error("Double-entry invariant violated for trade {}: sum = {}", trade.getTradeId(), sum);
-            throw new IllegalStateException("Double-entry accounting invariant violated: sum = " + sum);
-        }
-
-        logger.info("Generated 2 ledger entries for trade {}, balance: {}", trade.getTradeId(), sum);
         return List.of(debitEntry, creditEntry);
     }
 }
@@ -0,0 +1,177 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.OutboxEvent;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+import com.trading.ledger.mapper.EventOutboxMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background relay from the event_outbox table to the event log (eventlog.publish.mode=outbox).
+ *
+ * TradeService only inserts an outbox row inside the trade transaction, so the log never
+ * sees a rolled-back trade and no disk I/O happens while DB locks are held. This relay
+ * reads committed rows in id order in batches of up to batch-size (joined with their
+ * trades), appends them with a single {@link EventLogWriter#appendAll} call and then
+ * deletes exactly those ids in one statement. While a full batch comes back it loops
+ * immediately; otherwise it sleeps for poll-interval-ms.
+ *
+ * If the delete fails, the relay remembers the appended ids and retries the delete before
+ * reading the next batch, so a running relay never appends a row twice. Delivery is still
+ * at-least-once: if the process dies between the append and the delete, the batch is
+ * appended again on restart, so consumers must dedupe TRADE_CREATED by trade_id.
+ * Rows are ordered by id, i.e. by insert rather than commit order.
+ *
+ * A row whose event_type the relay cannot encode is logged, counted
+ * (eventlog.outbox.unsupported) and deleted with the batch, so it cannot stall the relay;
+ * the trade it refers to stays in the trades table.
+ */
+@Component
+@ConditionalOnProperty(name = "eventlog.publish.mode", havingValue = "outbox")
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final EventOutboxMapper outboxMapper;
+    private final EventLogWriter eventLogWriter;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private final Counter relayedCounter;
+    private final Counter failuresCounter;
+    private final Counter unsupportedCounter;
+    private final Thread thread;
+
+    // Ids of the last batch if it was appended but its delete failed; relay thread only
+    private List<Long> appendedNotDeleted = List.of();
+
+    private volatile boolean running;
+    // created_at_ms of the oldest row seen by the last poll (0 = outbox was empty)
+    private volatile long oldestPendingMillis;
+
+    public OutboxRelay(EventOutboxMapper outboxMapper, EventLogWriter eventLogWriter, MeterRegistry meterRegistry,
+                       @Value("${eventlog.publish.outbox.batch-size:1000}") int batchSize,
+                       @Value("${eventlog.publish.outbox.poll-interval-ms:10}") long pollIntervalMs) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Outbox batch size must be positive: " + batchSize);
+        }
+        this.outboxMapper = outboxMapper;
+        this.eventLogWriter = eventLogWriter;
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+        this.thread = new Thread(this::run, "eventlog-outbox-relay");
+        this.thread.setDaemon(true);
+
+        this.relayedCounter = Counter.builder("eventlog.outbox.relayed")
+                .description("Outbox events appended to the event log")
+                .register(meterRegistry);
+        this.failuresCounter = Counter.builder("eventlog.outbox.failures")
+                .description("Outbox relay batches that failed and will be retried")
+                .register(meterRegistry);
+        this.unsupportedCounter = Counter.builder("eventlog.outbox.unsupported")
+                .description("Outbox rows dropped because their event type cannot be relayed")
+                .register(meterRegistry);
+        TimeGauge.builder("eventlog.outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::getLagMillis)
+                .description("Age of the oldest event waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info("Outbox relay started: batchSize={}, pollIntervalMs={}",
+                batchSize, TimeUnit.NANOSECONDS.toMillis(pollIntervalNanos));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+        logger.info("Outbox relay stopped after relaying {} events", (long) relayedCounter.count());
+    }
+
+    private void run() {
+        while (running) {
+            int relayed;
+            try {
+                relayed = relayBatch();
+            } catch (Exception e) {
+                failuresCounter.increment();
+                logger.error("Outbox relay batch failed, retrying", e);
+                relayed = 0;
+            }
+            if (relayed < batchSize && running) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Relay one batch of committed outbox rows to the event log.
+     *
+     * @return number of outbox rows handled
+     */
+    int relayBatch() throws Exception {
+        if (!appendedNotDeleted.isEmpty()) {
+            outboxMapper.deleteByIds(appendedNotDeleted);
+            appendedNotDeleted = List.of();
+        }
+
+        List<OutboxEvent> batch = outboxMapper.findBatch(batchSize);
+        if (batch.isEmpty()) {
+            oldestPendingMillis = 0;
+            return 0;
+        }
+        oldestPendingMillis = batch.get(0).getCreatedAtMs();
+
+        List<Trade> trades = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ids.add(event.getId());
+            if (event.getEventType() != Event.EventType.TRADE_CREATED.getValue()) {
+                unsupportedCounter.increment();
+                logger.error("Dropping outbox id {}: unsupported event type {} (trade {})",
+                        event.getId(), event.getEventType(), event.getTrade().getTradeId());
+                continue;
+            }
+            trades.add(event.getTrade());
+        }
+        if (!trades.isEmpty()) {
+            eventLogWriter.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trades);
+            relayedCounter.increment(trades.size());
+        }
+        appendedNotDeleted = ids;
+        outboxMapper.deleteByIds(ids);
+        appendedNotDeleted = List.of();
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Relayed {} outbox events (ids {}-{})", trades.size(), ids.get(0), ids.get(ids.size() - 1));
+        }
+        return batch.size();
+    }
+
+    /**
+     * How long the oldest event seen in the outbox has been waiting, in milliseconds.
+     */
+    public long getLagMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+}
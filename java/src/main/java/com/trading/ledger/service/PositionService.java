@@ -1,26 +1,98 @@
 package com.trading.ledger.service;
 
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.domain.Trade;
 import com.trading.ledger.dto.PositionResponse;
-import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.position.PositionEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Positions are kept in the positions table, updated by every trade in its own
+ * transaction, so reading an account's positions is one indexed lookup instead of a
+ * GROUP BY over all of its trades. Committed trades are also applied to the in-memory
+ * {@link PositionEngine} when it is enabled.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PositionService {
 
-    private final LedgerEntryMapper ledgerEntryMapper;
+    // Rows are upserted in key order so concurrent batches lock them in the same order
+    private static final Comparator<Position> KEY_ORDER =
+            Comparator.comparing(Position::getAccountId).thenComparing(Position::getSymbol);
+
+    private final PositionMapper positionMapper;
+    private final PositionEngine positionEngine;
 
     @Transactional(readOnly = true)
     public List<PositionResponse> calculatePositions(String accountId) {
         log.debug("Calculating positions for account: {}", accountId);
-        List<PositionResponse> positions = ledgerEntryMapper.calculatePositionsByAccountId(accountId);
+        List<PositionResponse> positions = positionMapper.findByAccountId(accountId);
         log.debug("Found {} positions for account {}", positions.size(), accountId);
         return positions;
     }
+
+    /**
+     * Apply new trades to their positions with one upsert. Trades on the same account and
+     * symbol are summed first, since a row can only be updated once per statement.
+     */
+    @Transactional
+    public void applyTrades(List<Trade> trades) {
+        Map<Position, Position> deltas = new TreeMap<>(KEY_ORDER);
+        for (Trade trade : trades) {
+            Position delta = Position.delta(trade);
+            deltas.merge(delta, delta, Position::add);
+        }
+        positionMapper.upsertAll(new ArrayList<>(deltas.values()));
+        log.debug("Applied {} trades to {} positions", trades.size(), deltas.size());
+        applyToEngineAfterCommit(trades);
+    }
+
+    /**
+     * The in-memory engine only ever sees committed trades.
+     */
+    private void applyToEngineAfterCommit(List<Trade> trades) {
+        if (!positionEngine.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            positionEngine.apply(trades);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                positionEngine.apply(trades);
+            }
+        });
+    }
+
+    /**
+     * Recompute the whole positions table from trades in one transaction, e.g. after a
+     * restore or to repair drift. On PostgreSQL concurrent trades wait for the rebuild to
+     * commit; elsewhere it must run with trade intake paused.
+     *
+     * @return number of positions written
+     */
+    @Transactional
+    public int rebuildPositions() {
+        long start = System.nanoTime();
+        positionMapper.lockForRebuild();
+        positionMapper.deleteAll();
+        int rebuilt = positionMapper.rebuildFromTrades();
+        log.info("Rebuilt {} positions from trades in {} ms", rebuilt, (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
 }
@@ -0,0 +1,45 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.LedgerEntry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory check for every trade, plus the database check for every Nth trade, so the
+ * stored data keeps being spot-checked at 1/N of the round trips.
+ */
+public class SampledLedgerInvariantValidator implements LedgerInvariantValidator {
+
+    private final InMemoryLedgerInvariantValidator inMemory = new InMemoryLedgerInvariantValidator();
+    private final DatabaseLedgerInvariantValidator database;
+    private final int sampleEvery;
+    private final AtomicLong trades = new AtomicLong();
+
+    public SampledLedgerInvariantValidator(DatabaseLedgerInvariantValidator database, int sampleEvery) {
+        if (sampleEvery <= 0) {
+            throw new IllegalArgumentException("Sample interval must be positive: " + sampleEvery);
+        }
+        this.database = database;
+        this.sampleEvery = sampleEvery;
+    }
+
+    @Override
+    public void validate(List<LedgerEntry> entries) {
+        inMemory.validate(entries);
+
+        LinkedHashSet<String> tradeIds = new LinkedHashSet<>();
+        for (LedgerEntry entry : entries) {
+            tradeIds.add(entry.getTradeId());
+        }
+        List<String> sampled = new ArrayList<>();
+        for (String tradeId : tradeIds) {
+            if (trades.incrementAndGet() % sampleEvery == 0) {
+                sampled.add(tradeId);
+            }
+        }
+        database.validateTrades(sampled);
+    }
+}
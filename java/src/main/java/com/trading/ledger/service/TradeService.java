@@ -1,41 +1,91 @@
 package com.trading.ledger.service;
 
+import com.trading.ledger.config.EventLogConfig.PublishMode;
 import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.BatchTradeResponse;
+import com.trading.ledger.dto.BatchTradeResult;
 import com.trading.ledger.dto.CreateTradeRequest;
 import com.trading.ledger.dto.TradeResponse;
+import com.trading.ledger.eventlog.AsyncEventLogWriter;
+import com.trading.ledger.eventlog.EpochNanoClock;
 import com.trading.ledger.eventlog.Event;
-import com.trading.ledger.eventlog.FileEventLogWriter;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
 import com.trading.ledger.exception.ConflictException;
+import com.trading.ledger.idempotency.TradeIdempotencyCache;
+import com.trading.ledger.mapper.EventOutboxMapper;
 import com.trading.ledger.mapper.TradeMapper;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Service
 public class TradeService {
 
     private static final Logger logger = LoggerFactory.getLogger(TradeService.class);
 
+    static final String STAGE_TIMER = "trades.write.stage";
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
     private final TradeMapper tradeMapper;
     private final LedgerService ledgerService;
-    private final FileEventLogWriter eventLogWriter;
+    private final PositionService positionService;
+    private final EventLogWriter eventLogWriter;
+    private final EventOutboxMapper outboxMapper;
+    private final PublishMode publishMode;
+    private final Validator validator;
+    private final TradeIdempotencyCache idempotencyCache;
+    private final IdempotencyMode idempotencyMode;
     private final Counter tradesCreatedCounter;
     private final Counter tradesIdempotentCounter;
     private final Counter tradesConflictCounter;
+    private final Timer lookupTimer;
+    private final Timer insertTimer;
+    private final Timer positionsTimer;
+    private final Timer eventLogTimer;
 
-    public TradeService(TradeMapper tradeMapper, LedgerService ledgerService,
-                        FileEventLogWriter eventLogWriter, MeterRegistry meterRegistry) {
+    public TradeService(TradeMapper tradeMapper, LedgerService ledgerService, PositionService positionService,
+                        EventLogWriter eventLogWriter, EventOutboxMapper outboxMapper, MeterRegistry meterRegistry,
+                        @Value("${eventlog.publish.mode:sync}") PublishMode publishMode, Validator validator,
+                        TradeIdempotencyCache idempotencyCache,
+                        @Value("${trades.idempotency.mode:read-first}") IdempotencyMode idempotencyMode) {
         this.tradeMapper = tradeMapper;
         this.ledgerService = ledgerService;
+        this.positionService = positionService;
         this.eventLogWriter = eventLogWriter;
+        this.outboxMapper = outboxMapper;
+        this.publishMode = publishMode;
+        this.validator = validator;
+        this.idempotencyCache = idempotencyCache;
+        this.idempotencyMode = idempotencyMode;
+        if (publishMode == PublishMode.ASYNC && !(eventLogWriter instanceof AsyncEventLogWriter)) {
+            throw new IllegalArgumentException("Async publishing needs an AsyncEventLogWriter");
+        }
 
         // Micrometer counters for trade metrics
         this.tradesCreatedCounter = Counter.builder("trades.created")
@@ -49,6 +99,41 @@ public class TradeService {
         this.tradesConflictCounter = Counter.builder("trades.conflict")
                 .description("Total number of conflicting trade requests")
                 .register(meterRegistry);
+
+        // Per-stage latency of createTrade; histograms and SLOs come from management.metrics.distribution
+        this.lookupTimer = stageTimer(meterRegistry, "lookup");
+        this.insertTimer = stageTimer(meterRegistry, "insert");
+        this.positionsTimer = stageTimer(meterRegistry, "positions");
+        this.eventLogTimer = stageTimer(meterRegistry, "event_log");
+    }
+
+    /**
+     * One stage of writing a trade; LedgerService adds the ledger and invariant stages.
+     * A batch records one sample per stage for the whole batch. Timers are registered
+     * once so recording is a single call on the hot path.
+     */
+    static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .tag("stage", stage)
+                .description("Time spent in one stage of creating a trade")
+                .register(meterRegistry);
+    }
+
+    private static long lap(Timer timer, long startNanos) {
+        long now = System.nanoTime();
+        timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * How createTrade detects an existing trade_id.
+     *
+     * read-first: look the id up, insert if absent (the fast path can skip the lookup)
+     * insert-first: INSERT ... ON CONFLICT DO NOTHING, read only if nothing was inserted
+     */
+    public enum IdempotencyMode {
+        READ_FIRST,
+        INSERT_FIRST
     }
 
     /**
@@ -58,49 +143,277 @@ public class TradeService {
      * - First request: Create trade + ledger entries → 201 Created
      * - Retry (same payload): Return existing trade → 200 OK
      * - Retry (different payload): Throw ConflictException → 409 Conflict
+     *
+     * With the idempotency fast path enabled, a retry of a recently seen trade is answered
+     * from {@link TradeIdempotencyCache} and the lookup is skipped for ids its Bloom filter
+     * has never seen. The trade_id unique constraint stays the final guard: an insert that
+     * loses to a concurrent (or unseen) one fails with DuplicateKeyException, which the
+     * caller resolves with {@link #resolveDuplicate}.
+     *
+     * In insert-first mode a new trade costs a single statement before the ledger entries,
+     * and concurrent duplicates never surface as constraint violations: the losing insert
+     * waits for the winner's commit, inserts nothing, and reads the winner back.
      */
     @Transactional
     public TradeResponse createTrade(CreateTradeRequest request) {
+        return createTrade(request, EpochNanoClock.nowNanos());
+    }
+
+    /**
+     * @param receivedAtNs when the request arrived, epoch nanoseconds; stored as the trade's
+     *                     timestamp_ns so event consumers can measure ingest-to-append latency
+     */
+    @Transactional
+    public TradeResponse createTrade(CreateTradeRequest request, long receivedAtNs) {
         String tradeId = request.getTradeId();
         logger.debug("Processing trade creation request for tradeId: {}", tradeId);
 
-        Optional<Trade> existing = tradeMapper.findByTradeId(tradeId);
-        if (existing.isPresent()) {
-            Trade existingTrade = existing.get();
-            logger.debug("Trade {} already exists, checking payload match", tradeId);
-
-            if (payloadMatches(existingTrade, request)) {
-                logger.info("Trade {} already exists with same payload, returning existing (idempotent)", tradeId);
-                tradesIdempotentCounter.increment();
-                throw new IdempotentTradeException(convertToResponse(existingTrade));
-            } else {
-                logger.warn("Trade {} already exists with different payload, rejecting", tradeId);
-                tradesConflictCounter.increment();
-                throw new ConflictException("Trade " + tradeId + " already exists with different payload");
-            }
+        Trade recent = idempotencyCache.getRecent(tradeId);
+        if (recent != null) {
+            throw existingTradeOutcome(recent, request);
         }
 
-        logger.debug("Creating new trade: {}", tradeId);
-        Trade trade = new Trade(
-                tradeId,
-                request.getAccountId(),
-                request.getSymbol(),
-                request.getQuantity(),
-                request.getPrice(),
-                Trade.Side.valueOf(request.getSide()),
-                System.nanoTime()
-        );
+        Trade trade;
+        long stageStart = System.nanoTime();
+        if (idempotencyMode == IdempotencyMode.INSERT_FIRST) {
+            trade = newTrade(request, receivedAtNs);
+            int inserted = tradeMapper.insertIfAbsent(trade);
+            stageStart = lap(insertTimer, stageStart);
+            if (inserted == 0) {
+                Trade existing = tradeMapper.findByTradeId(tradeId).orElseThrow(() ->
+                        new IllegalStateException("Trade " + tradeId + " conflicted on insert but cannot be read"));
+                lap(lookupTimer, stageStart);
+                idempotencyCache.remember(existing);
+                throw existingTradeOutcome(existing, request);
+            }
+        } else {
+            if (idempotencyCache.mightExist(tradeId)) {
+                Optional<Trade> existing = tradeMapper.findByTradeId(tradeId);
+                stageStart = lap(lookupTimer, stageStart);
+                if (existing.isPresent()) {
+                    idempotencyCache.remember(existing.get());
+                    throw existingTradeOutcome(existing.get(), request);
+                }
+                idempotencyCache.recordFalsePositive();
+            }
 
-        tradeMapper.insert(trade);
+            logger.debug("Creating new trade: {}", tradeId);
+            trade = newTrade(request, receivedAtNs);
+            tradeMapper.insert(trade);
+            lap(insertTimer, stageStart);
+        }
         logger.info("Trade {} created successfully", tradeId);
 
         ledgerService.generateEntries(trade);
+        stageStart = System.nanoTime();
+        positionService.applyTrades(List.of(trade));
+        stageStart = lap(positionsTimer, stageStart);
         writeTradeCreatedEvent(trade);
+        lap(eventLogTimer, stageStart);
+        rememberAfterCommit(List.of(trade));
         tradesCreatedCounter.increment();
 
         return convertToResponse(trade);
     }
 
+    /**
+     * Outcome of a createTrade whose insert hit the trade_id unique constraint (its
+     * transaction has rolled back): the winning trade is read back and the request is
+     * answered like any retry.
+     *
+     * @return IdempotentTradeException or ConflictException, for the caller to throw
+     */
+    @Transactional(readOnly = true)
+    public RuntimeException resolveDuplicate(CreateTradeRequest request, DuplicateKeyException cause) {
+        idempotencyCache.recordInsertConflict();
+        Optional<Trade> existing = tradeMapper.findByTradeId(request.getTradeId());
+        if (existing.isEmpty()) {
+            return cause;
+        }
+        logger.info("Trade {} was inserted concurrently, resolving as a retry", request.getTradeId());
+        idempotencyCache.remember(existing.get());
+        return existingTradeOutcome(existing.get(), request);
+    }
+
+    /**
+     * Create a batch of trades in one transaction, with the same per-trade idempotency
+     * rules as {@link #createTrade} but reported per item instead of thrown.
+     *
+     * The whole batch costs one idempotency lookup (trade_id IN (...)), one multi-row
+     * insert into trades, one multi-row insert of ledger entries plus one invariant check,
+     * one position upsert, and one event log append (or one outbox insert). Invalid,
+     * conflicting and idempotent items do not affect the others; a repeated trade id
+     * within the batch is treated like a retry of its first occurrence. A trade id inserted
+     * by a concurrent request between the lookup and the insert is reported per item, as
+     * IDEMPOTENT or CONFLICT against the stored trade. Any other database error rolls back
+     * the whole batch.
+     *
+     * @return one result per request, in request order
+     */
+    @Transactional
+    public BatchTradeResponse createTrades(List<CreateTradeRequest> requests) {
+        return createTrades(requests, EpochNanoClock.nowNanos());
+    }
+
+    /**
+     * @param receivedAtNs when the batch arrived, epoch nanoseconds (see {@link #createTrade(CreateTradeRequest, long)})
+     */
+    @Transactional
+    public BatchTradeResponse createTrades(List<CreateTradeRequest> requests, long receivedAtNs) {
+        BatchTradeResult[] results = new BatchTradeResult[requests.size()];
+
+        List<String> lookupIds = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateTradeRequest request = requests.get(i);
+            List<String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = BatchTradeResult.failed(i, request != null ? request.getTradeId() : null,
+                        BatchTradeResult.Status.INVALID, errors);
+            } else {
+                lookupIds.add(request.getTradeId());
+            }
+        }
+
+        // Trade ids are UUIDs: compare them case-insensitively, as the database does
+        Map<String, Trade> known = new HashMap<>();
+        Map<String, String> queryIds = new LinkedHashMap<>();
+        for (String tradeId : lookupIds) {
+            String key = tradeId.toLowerCase(Locale.ROOT);
+            if (known.containsKey(key) || queryIds.containsKey(key)) {
+                continue;
+            }
+            Trade recent = idempotencyCache.getRecent(tradeId);
+            if (recent != null) {
+                known.put(key, recent);
+            } else if (idempotencyCache.mightExist(tradeId)) {
+                queryIds.put(key, tradeId);
+            }
+        }
+        if (!queryIds.isEmpty()) {
+            long lookupStart = System.nanoTime();
+            List<Trade> found = tradeMapper.findByTradeIds(List.copyOf(queryIds.values()));
+            lap(lookupTimer, lookupStart);
+            for (Trade existing : found) {
+                known.put(existing.getTradeId().toLowerCase(Locale.ROOT), existing);
+                idempotencyCache.remember(existing);
+            }
+            for (int i = found.size(); i < queryIds.size(); i++) {
+                idempotencyCache.recordFalsePositive();
+            }
+        }
+
+        // New trades, keyed like known; results are filled in once the insert has settled who won
+        Map<String, Trade> created = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateTradeRequest request = requests.get(i);
+            String key = request.getTradeId().toLowerCase(Locale.ROOT);
+            if (!known.containsKey(key)) {
+                Trade trade = newTrade(request, receivedAtNs);
+                known.put(key, trade);
+                created.put(key, trade);
+            }
+        }
+
+        List<Trade> inserted = List.of();
+        if (!created.isEmpty()) {
+            long insertStart = System.nanoTime();
+            inserted = insertNewTrades(created, known);
+            lap(insertTimer, insertStart);
+        }
+
+        int idempotent = 0;
+        int conflicts = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            CreateTradeRequest request = requests.get(i);
+            String key = request.getTradeId().toLowerCase(Locale.ROOT);
+            Trade trade = known.get(key);
+            // The first occurrence of an id this batch inserted; later ones are retries of it
+            if (created.remove(key) == trade) {
+                results[i] = BatchTradeResult.of(i, trade.getTradeId(), BatchTradeResult.Status.CREATED,
+                        convertToResponse(trade));
+            } else if (payloadMatches(trade, request)) {
+                idempotent++;
+                results[i] = BatchTradeResult.of(i, request.getTradeId(), BatchTradeResult.Status.IDEMPOTENT,
+                        convertToResponse(trade));
+            } else {
+                conflicts++;
+                results[i] = BatchTradeResult.failed(i, request.getTradeId(), BatchTradeResult.Status.CONFLICT,
+                        List.of("Trade " + request.getTradeId() + " already exists with different payload"));
+            }
+        }
+
+        if (!inserted.isEmpty()) {
+            ledgerService.generateEntries(inserted);
+            long stageStart = System.nanoTime();
+            positionService.applyTrades(inserted);
+            stageStart = lap(positionsTimer, stageStart);
+            writeTradeCreatedEvents(inserted);
+            lap(eventLogTimer, stageStart);
+            rememberAfterCommit(inserted);
+        }
+        tradesCreatedCounter.increment(inserted.size());
+        tradesIdempotentCounter.increment(idempotent);
+        tradesConflictCounter.increment(conflicts);
+
+        BatchTradeResponse response = BatchTradeResponse.from(List.of(results));
+        logger.info("Processed trade batch of {}: created={}, idempotent={}, conflict={}, invalid={}",
+                requests.size(), response.getCreated(), response.getIdempotent(), response.getConflict(),
+                response.getInvalid());
+        return response;
+    }
+
+    /**
+     * Insert the batch's new trades, skipping any whose trade_id another request or node
+     * inserted since the lookup (or that the Bloom filter let us skip looking up). Those
+     * are read back into {@code known}, so the batch reports them as retries instead of
+     * failing on the unique constraint.
+     *
+     * @return the trades actually inserted, with id and createdAt set, in trade_id order
+     */
+    private List<Trade> insertNewTrades(Map<String, Trade> created, Map<String, Trade> known) {
+        // trade_id order, so overlapping batches lock rows in the same order
+        List<Trade> ordered = new ArrayList<>(created.values());
+        ordered.sort(Comparator.comparing((Trade trade) -> trade.getTradeId().toLowerCase(Locale.ROOT)));
+
+        Map<String, Trade> rows = new HashMap<>();
+        for (Trade row : tradeMapper.insertAllIfAbsent(ordered)) {
+            rows.put(row.getTradeId().toLowerCase(Locale.ROOT), row);
+        }
+
+        List<Trade> inserted = new ArrayList<>(rows.size());
+        List<String> lost = new ArrayList<>();
+        for (Trade trade : ordered) {
+            Trade row = rows.get(trade.getTradeId().toLowerCase(Locale.ROOT));
+            if (row != null) {
+                trade.setId(row.getId());
+                trade.setCreatedAt(row.getCreatedAt());
+                inserted.add(trade);
+            } else {
+                idempotencyCache.recordInsertConflict();
+                lost.add(trade.getTradeId());
+            }
+        }
+        if (!lost.isEmpty()) {
+            logger.info("{} trades of a batch were inserted concurrently, resolving them as retries", lost.size());
+            for (Trade existing : tradeMapper.findByTradeIds(lost)) {
+                known.put(existing.getTradeId().toLowerCase(Locale.ROOT), existing);
+                idempotencyCache.remember(existing);
+            }
+            for (String tradeId : lost) {
+                if (known.get(tradeId.toLowerCase(Locale.ROOT)) == created.get(tradeId.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalStateException("Trade " + tradeId + " conflicted on insert but cannot be read");
+                }
+            }
+        }
+        return inserted;
+    }
+
     public static class IdempotentTradeException extends RuntimeException {
         private final TradeResponse existingTrade;
 
@@ -114,18 +427,70 @@ public class TradeService {
         }
     }
 
+    private RuntimeException existingTradeOutcome(Trade existingTrade, CreateTradeRequest request) {
+        String tradeId = request.getTradeId();
+        logger.debug("Trade {} already exists, checking payload match", tradeId);
+
+        if (payloadMatches(existingTrade, request)) {
+            logger.info("Trade {} already exists with same payload, returning existing (idempotent)", tradeId);
+            tradesIdempotentCounter.increment();
+            return new IdempotentTradeException(convertToResponse(existingTrade));
+        } else {
+            logger.warn("Trade {} already exists with different payload, rejecting", tradeId);
+            tradesConflictCounter.increment();
+            return new ConflictException("Trade " + tradeId + " already exists with different payload");
+        }
+    }
+
+    /**
+     * Cache new trades only once they are committed, so a retry is never answered from a
+     * trade that rolled back.
+     */
+    private void rememberAfterCommit(List<Trade> trades) {
+        if (!idempotencyCache.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trades.forEach(idempotencyCache::remember);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                trades.forEach(idempotencyCache::remember);
+            }
+        });
+    }
+
     private void writeTradeCreatedEvent(Trade trade) {
+        switch (publishMode) {
+            case OUTBOX -> outboxMapper.insert(Event.EventType.TRADE_CREATED.getValue(), trade.getTradeId(),
+                    System.currentTimeMillis());
+            case ASYNC -> publishAfterCommit((AsyncEventLogWriter) eventLogWriter, trade);
+            case SYNC -> appendNow(trade);
+        }
+    }
+
+    private void writeTradeCreatedEvents(List<Trade> trades) {
+        switch (publishMode) {
+            case OUTBOX -> outboxMapper.insertAll(Event.EventType.TRADE_CREATED.getValue(),
+                    trades.stream().map(Trade::getTradeId).toList(), System.currentTimeMillis());
+            case ASYNC -> trades.forEach(trade -> publishAfterCommit((AsyncEventLogWriter) eventLogWriter, trade));
+            case SYNC -> {
+                try {
+                    eventLogWriter.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trades);
+                    logger.debug("Wrote {} TRADE_CREATED events", trades.size());
+                } catch (IOException e) {
+                    logger.error("Failed to write event log for a batch of {} trades", trades.size(), e);
+                    throw new RuntimeException("Failed to write event log", e);
+                }
+            }
+        }
+    }
+
+    private void appendNow(Trade trade) {
         try {
-            Map<String, Object> eventPayload = new HashMap<>();
-            eventPayload.put("trade_id", trade.getTradeId());
-            eventPayload.put("account_id", trade.getAccountId());
-            eventPayload.put("symbol", trade.getSymbol());
-            eventPayload.put("quantity", trade.getQuantity());
-            eventPayload.put("price", trade.getPrice());
-            eventPayload.put("side", trade.getSide().name());
-            eventPayload.put("timestamp_ns", trade.getTimestampNs());
-
-            eventLogWriter.append(Event.EventType.TRADE_CREATED, eventPayload);
+            eventLogWriter.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
             logger.debug("Wrote TRADE_CREATED event for trade {}", trade.getTradeId());
         } catch (IOException e) {
             logger.error("Failed to write event log for trade {}", trade.getTradeId(), e);
@@ -133,6 +498,69 @@ public class TradeService {
         }
     }
 
+    /**
+     * Async mode: claim a queue slot now, so a full queue blocks or fails the request
+     * before the trade commits, and hand the event over only once it has committed.
+     */
+    private void publishAfterCommit(AsyncEventLogWriter asyncWriter, Trade trade) {
+        AsyncEventLogWriter.Reservation reservation = asyncWriter.reserve();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(reservation, trade);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(reservation, trade);
+                } else {
+                    reservation.cancel();
+                }
+            }
+        });
+    }
+
+    private void publish(AsyncEventLogWriter.Reservation reservation, Trade trade) {
+        try {
+            reservation.publish(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        } catch (IOException e) {
+            // Only reachable once the trade is committed, so the request cannot fail anymore
+            logger.error("Failed to publish TRADE_CREATED event for committed trade {}", trade.getTradeId(), e);
+        }
+    }
+
+    private Trade newTrade(CreateTradeRequest request, long receivedAtNs) {
+        return new Trade(
+                request.getTradeId(),
+                request.getAccountId(),
+                request.getSymbol(),
+                request.getQuantity(),
+                request.getPrice(),
+                Trade.Side.valueOf(request.getSide()),
+                receivedAtNs
+        );
+    }
+
+    /**
+     * Bean validation of one batch item, plus the UUID format the trades table needs
+     * (a malformed id would otherwise fail the whole batch's lookup query).
+     */
+    private List<String> validate(CreateTradeRequest request) {
+        if (request == null) {
+            return List.of("Trade is required");
+        }
+        List<String> errors = new ArrayList<>();
+        Set<ConstraintViolation<CreateTradeRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<CreateTradeRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (request.getTradeId() != null && !UUID_PATTERN.matcher(request.getTradeId()).matches()) {
+            errors.add("tradeId: Trade ID must be a UUID");
+        }
+        errors.sort(null);
+        return errors;
+    }
+
     private boolean payloadMatches(Trade existing, CreateTradeRequest request) {
         return existing.getAccountId().equals(request.getAccountId())
                 && existing.getSymbol().equals(request.getSymbol())
@@ -0,0 +1,10 @@
+-- Transactional outbox: events recorded in the same transaction as the trade, relayed
+-- to the binary event log after commit by OutboxRelay (eventlog.publish.mode=outbox).
+-- Rows reference the trade instead of copying it; the relay reads and deletes them in id order.
+CREATE TABLE event_outbox (
+    id              BIGSERIAL PRIMARY KEY,
+    event_type      SMALLINT NOT NULL,
+    trade_id        UUID NOT NULL,
+    created_at_ms   BIGINT NOT NULL,
+    CONSTRAINT fk_outbox_trade FOREIGN KEY (trade_id) REFERENCES trades(trade_id) ON DELETE CASCADE
+);
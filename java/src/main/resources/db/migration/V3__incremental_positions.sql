@@ -0,0 +1,22 @@
+-- Positions are maintained incrementally: every trade upserts its (account_id, symbol) row
+-- in the trade transaction (see PositionMapper.upsertAll). notional is the signed sum of
+-- quantity * price, so avg_price = notional / quantity can be recomputed exactly on each
+-- update. quantity is widened because it is a running sum of NUMERIC(18,8) trade quantities.
+ALTER TABLE positions ALTER COLUMN quantity SET DATA TYPE NUMERIC(38,8);
+ALTER TABLE positions ADD COLUMN notional NUMERIC(38,16) NOT NULL DEFAULT 0;
+
+-- Backfill from existing trades (same statement as PositionMapper.rebuildFromTrades)
+DELETE FROM positions;
+INSERT INTO positions (account_id, symbol, quantity, notional, avg_price, updated_at)
+SELECT account_id,
+       symbol,
+       SUM(CASE WHEN side = 'BUY' THEN quantity ELSE -quantity END),
+       SUM(CASE WHEN side = 'BUY' THEN quantity * price ELSE -quantity * price END),
+       CASE
+           WHEN SUM(CASE WHEN side = 'BUY' THEN quantity ELSE -quantity END) != 0
+           THEN SUM(CASE WHEN side = 'BUY' THEN quantity * price ELSE -quantity * price END) /
+                SUM(CASE WHEN side = 'BUY' THEN quantity ELSE -quantity END)
+       END,
+       CURRENT_TIMESTAMP
+FROM trades
+GROUP BY account_id, symbol;
@@ -0,0 +1,10 @@
+-- Account history is paged newest first by (created_at, id) keyset (see TradeMapper and
+-- LedgerEntryMapper.findPageByAccountId). These indexes serve both the WHERE and the
+-- ORDER BY, so any page is one index range scan of `limit` rows regardless of depth;
+-- id breaks ties between rows created in the same transaction.
+CREATE INDEX idx_trades_account_created_id ON trades(account_id, created_at DESC, id DESC);
+CREATE INDEX idx_ledger_account_created_id ON ledger_entries(account_id, created_at DESC, id DESC);
+
+-- Covered by the leading account_id column of the composite indexes
+DROP INDEX idx_trades_account_id;
+DROP INDEX idx_ledger_account_id;
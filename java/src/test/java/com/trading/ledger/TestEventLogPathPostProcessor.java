@@ -0,0 +1,32 @@
+package com.trading.ledger;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Gives every test application context its own event log in a fresh temp directory.
+ * Cached contexts stay open side by side, and two writers on one file would overwrite
+ * each other's records. A path a test sets itself (@DynamicPropertySource) still wins.
+ */
+public class TestEventLogPathPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("trading-ledger-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("testEventLogPath",
+                Map.of("eventlog.file-path", directory.resolve("event_log.bin").toString())));
+    }
+}
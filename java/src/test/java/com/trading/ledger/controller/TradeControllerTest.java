@@ -1,28 +1,37 @@
 package com.trading.ledger.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.dto.BatchCreateTradeRequest;
+import com.trading.ledger.dto.BatchTradeResponse;
+import com.trading.ledger.dto.BatchTradeResult;
 import com.trading.ledger.dto.CreateTradeRequest;
 import com.trading.ledger.dto.TradeResponse;
 import com.trading.ledger.service.TradeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TradeController.class)
+@Import(SimpleMeterRegistry.class)
 @ActiveProfiles("test")
 class TradeControllerTest {
 
@@ -59,7 +68,7 @@ class TradeControllerTest {
                 Instant.now()
         );
 
-        when(tradeService.createTrade(any(CreateTradeRequest.class)))
+        when(tradeService.createTrade(any(CreateTradeRequest.class), anyLong()))
                 .thenReturn(mockResponse);
 
         // When/Then
@@ -246,7 +255,7 @@ class TradeControllerTest {
                 Instant.now()
         );
 
-        when(tradeService.createTrade(any(CreateTradeRequest.class)))
+        when(tradeService.createTrade(any(CreateTradeRequest.class), anyLong()))
                 .thenReturn(mockResponse);
 
         // When/Then
@@ -282,7 +291,7 @@ class TradeControllerTest {
                 Instant.now()
         );
 
-        when(tradeService.createTrade(any(CreateTradeRequest.class)))
+        when(tradeService.createTrade(any(CreateTradeRequest.class), anyLong()))
                 .thenReturn(mockResponse);
 
         // When/Then
@@ -293,4 +302,47 @@ class TradeControllerTest {
                 .andExpect(jsonPath("$.quantity").value(0.12345678))
                 .andExpect(jsonPath("$.price").value(45000.12345678));
     }
+
+    @Test
+    void testCreateTrades_ValidBatch_Returns200WithPerItemResults() throws Exception {
+        // Given
+        String tradeId = UUID.randomUUID().toString();
+        CreateTradeRequest item = new CreateTradeRequest(tradeId, "acc1", "AAPL",
+                BigDecimal.valueOf(100), BigDecimal.valueOf(150.00), "BUY");
+        BatchTradeResponse mockResponse = BatchTradeResponse.from(List.of(
+                BatchTradeResult.of(0, tradeId, BatchTradeResult.Status.CREATED, null),
+                BatchTradeResult.failed(1, "bad", BatchTradeResult.Status.INVALID,
+                        List.of("tradeId: Trade ID must be a UUID"))));
+        when(tradeService.createTrades(any(), anyLong())).thenReturn(mockResponse);
+
+        // When/Then
+        mockMvc.perform(post("/api/v1/trades/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCreateTradeRequest(List.of(item, item)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("tradeId: Trade ID must be a UUID"));
+    }
+
+    @Test
+    void testCreateTrades_EmptyOrOversizedBatch_Returns400() throws Exception {
+        CreateTradeRequest item = new CreateTradeRequest(UUID.randomUUID().toString(), "acc1", "AAPL",
+                BigDecimal.valueOf(100), BigDecimal.valueOf(150.00), "BUY");
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCreateTradeRequest(List.of()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.trades").exists());
+
+        mockMvc.perform(post("/api/v1/trades/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCreateTradeRequest(
+                                Collections.nCopies(BatchCreateTradeRequest.MAX_BATCH_SIZE + 1, item)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.trades").exists());
+    }
 }
@@ -0,0 +1,239 @@
+package com.trading.ledger.eventlog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AsyncEventLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GatedWriter gated;
+    private AsyncEventLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (gated != null) {
+            gated.open();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void testAppend_WritesAllEventsInOrder() throws IOException {
+        // Given
+        Path logPath = tempDir.resolve("test_event_log.bin");
+        writer = new AsyncEventLogWriter(new FileEventLogWriter(logPath),
+                EventLogOptions.builder().asyncQueueCapacity(64).asyncBatchSize(16).build());
+
+        // When - more events than fit in the queue at once
+        for (int i = 1; i <= 1000; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("n", i));
+        }
+        writer.close();
+
+        // Then - close drained everything, in append order
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            List<String> payloads = reader.events().map(Event::getPayload).toList();
+            assertThat(payloads).hasSize(1000);
+            assertThat(payloads.get(0)).isEqualTo("{\"n\":1}");
+            assertThat(payloads.get(999)).isEqualTo("{\"n\":1000}");
+        }
+        assertThat(writer.getCurrentSequence()).isEqualTo(1000);
+        assertThat(writer.getWrittenCount()).isEqualTo(1000);
+        assertThat(writer.getQueueDepth()).isZero();
+        writer = null;
+    }
+
+    @Test
+    void testDrain_AppendsRunsOfSameTypeAndEncoderTogether() throws Exception {
+        // Given - the writer thread is stuck on the first event while the rest queue up
+        writer = gatedWriter(OverflowPolicy.FAIL, 16);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 0));
+        while (!gated.waiting) {
+            Thread.onSpinWait();
+        }
+        EventPayloadEncoder<Object> other = (value, out) -> Event.JACKSON_PAYLOAD.encode(value, out);
+        for (int i = 1; i <= 3; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("n", i));
+        }
+        writer.reserve().publish(Event.EventType.TRADE_CREATED, other, Map.of("n", 4));
+        writer.reserve().publish(Event.EventType.TRADE_CREATED, other, Map.of("n", 5));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 6));
+
+        // When
+        gated.open();
+        writer.close();
+
+        // Then - one appendAll per run, the lone trailing event appended on its own
+        assertThat(gated.appendAllSizes).containsExactly(3, 2);
+        assertThat(gated.appendedOn).hasSize(7);
+        assertThat(writer.getWrittenCount()).isEqualTo(7);
+        writer = null;
+    }
+
+    @Test
+    void testReserve_FailPolicyRejectsWhenFull() throws IOException {
+        // Given - the writer thread is stuck, two slots
+        writer = gatedWriter(OverflowPolicy.FAIL, 2);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 1));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 2));
+
+        // When/Then
+        assertThatThrownBy(() -> writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 3)))
+                .isInstanceOf(EventLogOverflowException.class);
+        assertThat(writer.getRejectedCount()).isEqualTo(1);
+        assertThat(writer.getQueueDepth()).isEqualTo(2);
+    }
+
+    @Test
+    void testReserve_BlockPolicyWaitsForSpaceThenTimesOut() throws Exception {
+        // Given
+        writer = gatedWriter(OverflowPolicy.BLOCK, 1);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 1));
+
+        // When/Then - times out while the writer thread is stuck
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> writer.reserve()).isInstanceOf(EventLogOverflowException.class);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        // ... and succeeds once it drains
+        gated.open();
+        writer.reserve().publish(Event.EventType.TRADE_CREATED, Event.JACKSON_PAYLOAD, Map.of("n", 2));
+        writer.close();
+        assertThat(gated.appendedOn).containsOnly("eventlog-async-writer").hasSize(2);
+        writer = null;
+    }
+
+    @Test
+    void testReserve_SpillPolicyAppendsOnCallerThread() throws IOException {
+        // Given
+        writer = gatedWriter(OverflowPolicy.SPILL, 1);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 1));
+
+        // When - queue full
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 2));
+
+        // Then - written synchronously, nothing dropped
+        assertThat(gated.appendedOn).containsExactly(Thread.currentThread().getName());
+        assertThat(writer.getSpilledCount()).isEqualTo(1);
+        gated.open();
+        writer.close();
+        assertThat(gated.appendedOn).hasSize(2);
+        writer = null;
+    }
+
+    @Test
+    void testCancel_ReleasesSlot() throws IOException {
+        // Given
+        writer = gatedWriter(OverflowPolicy.FAIL, 1);
+        AsyncEventLogWriter.Reservation reservation = writer.reserve();
+        assertThatThrownBy(() -> writer.reserve()).isInstanceOf(EventLogOverflowException.class);
+
+        // When
+        reservation.cancel();
+
+        // Then
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 1));
+        assertThatThrownBy(reservation::cancel).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testDrainLag_ReportsAgeOfOldestPendingEvent() throws Exception {
+        // Given
+        writer = gatedWriter(OverflowPolicy.FAIL, 8);
+        assertThat(writer.getDrainLagNanos()).isZero();
+
+        // When
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 1));
+        Thread.sleep(20);
+
+        // Then
+        assertThat(writer.getDrainLagNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        gated.open();
+        writer.close();
+        assertThat(writer.getDrainLagNanos()).isZero();
+        writer = null;
+    }
+
+    private AsyncEventLogWriter gatedWriter(OverflowPolicy policy, int capacity) {
+        gated = new GatedWriter();
+        return new AsyncEventLogWriter(gated, EventLogOptions.builder()
+                .asyncQueueCapacity(capacity)
+                .asyncOverflowPolicy(policy)
+                .asyncBlockTimeout(Duration.ofMillis(50))
+                .build());
+    }
+
+    /**
+     * Delegate whose appends from the async writer thread block until the gate is opened.
+     */
+    private static class GatedWriter implements EventLogWriter {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> appendedOn = new CopyOnWriteArrayList<>();
+        final List<Integer> appendAllSizes = new CopyOnWriteArrayList<>();
+        volatile boolean waiting;
+        private long sequence;
+
+        void open() {
+            gate.countDown();
+        }
+
+        @Override
+        public void append(Event.EventType eventType, Object payload) throws IOException {
+            append(eventType, Event.JACKSON_PAYLOAD, payload);
+        }
+
+        @Override
+        public <T> void append(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder, T value) {
+            if (Thread.currentThread().getName().equals("eventlog-async-writer")) {
+                waiting = true;
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            appendedOn.add(Thread.currentThread().getName());
+            synchronized (this) {
+                sequence++;
+            }
+        }
+
+        @Override
+        public <T> void appendAll(Event.EventType eventType, EventPayloadEncoder<T> payloadEncoder,
+                                  List<? extends T> values) throws IOException {
+            appendAllSizes.add(values.size());
+            EventLogWriter.super.appendAll(eventType, payloadEncoder, values);
+        }
+
+        @Override
+        public synchronized long getCurrentSequence() {
+            return sequence;
+        }
+
+        @Override
+        public long getSize() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
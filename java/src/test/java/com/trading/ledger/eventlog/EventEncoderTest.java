@@ -0,0 +1,182 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventEncoderTest {
+
+    @Test
+    void testTradePayload_ByteIdenticalToJacksonMap() {
+        // Given
+        Trade trade = trade("T-1", "ACC-1", "AAPL", new BigDecimal("100"), new BigDecimal("150.25"));
+
+        // When/Then
+        assertThat(encode(42, 123_456_789L, trade)).isEqualTo(legacy(42, 123_456_789L, trade));
+    }
+
+    @Test
+    void testTradePayload_EscapesAndUnicodeMatchJackson() {
+        // Given - quotes, backslashes, control characters, non-ASCII, a surrogate pair and a lone surrogate
+        Trade trade = trade("T-\"q\"\\\n\t\b\f\r\u0001\u001f", "ACC-é-€", "😀X\ud800",
+                new BigDecimal("1E+3"), new BigDecimal("-0.00000001"));
+
+        // When/Then
+        assertThat(encode(1, 0, trade)).isEqualTo(legacy(1, 0, trade));
+    }
+
+    @Test
+    void testTradePayload_DecimalsMatchToString() {
+        // Given - plain notation written digit by digit, plus the forms left to toString()
+        String[] decimals = {"0", "0.00", "-0.5", "7", "150.25", "-12.50000000", "99999999.99999999",
+                "0.000001", "0.0000001", "-0.00000123", "123456789012345678", "1234567890123456789.5",
+                "1E+3", "0E-9", String.valueOf(Long.MAX_VALUE), "-922337203685477580.8"};
+
+        for (String quantity : decimals) {
+            Trade trade = trade("T-1", "ACC-1", "AAPL", new BigDecimal(quantity), new BigDecimal(quantity).negate());
+
+            // When/Then
+            assertThat(encode(1, 0, trade)).as(quantity).isEqualTo(legacy(1, 0, trade));
+        }
+    }
+
+    @Test
+    void testTradePayload_NegativeAndExtremeTimestamps() {
+        for (long ts : new long[]{0, -1, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Trade trade = trade("T-1", "ACC-1", "AAPL", BigDecimal.ONE, BigDecimal.TEN);
+            trade.setTimestampNs(ts);
+            assertThat(encode(7, ts, trade)).isEqualTo(legacy(7, ts, trade));
+        }
+    }
+
+    @Test
+    void testEncode_GrowsBufferForLargePayload() {
+        // Given
+        EventEncoder encoder = new EventEncoder(64);
+        Trade trade = trade("T-1", "A".repeat(10_000), "AAPL", BigDecimal.ONE, BigDecimal.TEN);
+
+        // When
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        byte[] record = toArray(encoder.seal(3, 9));
+
+        // Then
+        assertThat(encoder.capacity()).isGreaterThan(10_000);
+        assertThat(record).isEqualTo(legacy(3, 9, trade));
+    }
+
+    @Test
+    void testJacksonPayload_MatchesEventSerialize() {
+        // Given
+        Map<String, Object> payload = Map.of("test", "event", "n", 5);
+        EventEncoder encoder = new EventEncoder();
+
+        // When
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, Event.JACKSON_PAYLOAD, payload);
+
+        // Then
+        assertThat(toArray(encoder.seal(5, 6)))
+                .isEqualTo(new Event(5, 6, Event.EventType.TRADE_CREATED, payload).serialize());
+    }
+
+    @Test
+    void testSeal_ReusesBufferAcrossEvents() {
+        // Given
+        EventEncoder encoder = new EventEncoder();
+        Trade first = trade("T-first-with-a-longer-id", "ACC-1", "AAPL", BigDecimal.ONE, BigDecimal.TEN);
+        Trade second = trade("T-2", "ACC-2", "MSFT", BigDecimal.ONE, BigDecimal.TEN);
+
+        // When - a shorter event after a longer one
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, first);
+        encoder.seal(1, 1);
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, second);
+
+        // Then - no bytes of the previous event leak into the record
+        assertThat(toArray(encoder.seal(2, 2))).isEqualTo(legacy(2, 2, second));
+    }
+
+    @Test
+    void testV2_BinaryTradeRecordRoundTrips() {
+        // Given
+        EventEncoder encoder = new EventEncoder();
+        Trade trade = trade("6F1C2F4E-8A4B-4C59-9A8E-2B1D6C3E4F5A", "ACC-é", "AAPL",
+                new BigDecimal("-12.50000000"), new BigDecimal("99999999.99999999"));
+
+        // When
+        encoder.encode(EventLogFormat.V2, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        ByteBuffer record = encoder.seal(1, 2);
+
+        // Then - encoding byte set, fields decode back (trade id in lower case)
+        assertThat(record.get(Event.PAYLOAD_ENCODING_OFFSET)).isEqualTo(Event.PayloadEncoding.BINARY.getValue());
+        int payloadLength = record.getInt(Event.PAYLOAD_LENGTH_OFFSET);
+        Trade decoded = TradeCreatedPayload.decodeBinary(
+                record.duplicate().position(Event.RECORD_HEADER_SIZE).limit(Event.RECORD_HEADER_SIZE + payloadLength).slice());
+        assertThat(decoded.getTradeId()).isEqualTo("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a");
+        assertThat(decoded.getAccountId()).isEqualTo("ACC-é");
+        assertThat(decoded.getQuantity()).isEqualTo(new BigDecimal("-12.50000000"));
+        assertThat(decoded.getPrice()).isEqualTo(new BigDecimal("99999999.99999999"));
+        assertThat(decoded.getSide()).isEqualTo(Trade.Side.SELL);
+        assertThat(decoded.getTimestampNs()).isEqualTo(trade.getTimestampNs());
+    }
+
+    @Test
+    void testV2_RejectsDecimalBeyondInt64() {
+        // Given
+        EventEncoder encoder = new EventEncoder();
+        Trade trade = trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", "ACC-1", "AAPL",
+                new BigDecimal("12345678901234567890"), BigDecimal.TEN);
+
+        // When/Then
+        assertThatThrownBy(() -> encoder.encode(EventLogFormat.V2, Event.EventType.TRADE_CREATED,
+                TradeCreatedPayload.INSTANCE, trade))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testV2_PayloadWithoutBinaryFormStaysJson() {
+        // Given
+        Map<String, Object> payload = Map.of("test", "event");
+        EventEncoder encoder = new EventEncoder();
+
+        // When
+        encoder.encode(EventLogFormat.V2, Event.EventType.TRADE_CREATED, Event.JACKSON_PAYLOAD, payload);
+
+        // Then
+        assertThat(toArray(encoder.seal(5, 6)))
+                .isEqualTo(new Event(5, 6, Event.EventType.TRADE_CREATED, payload).serialize());
+    }
+
+    private static byte[] encode(long seq, long ts, Trade trade) {
+        EventEncoder encoder = new EventEncoder();
+        encoder.encode(EventLogFormat.V1, Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        return toArray(encoder.seal(seq, ts));
+    }
+
+    // The payload map TradeService built before TradeCreatedPayload existed
+    private static byte[] legacy(long seq, long ts, Trade trade) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("trade_id", trade.getTradeId());
+        payload.put("account_id", trade.getAccountId());
+        payload.put("symbol", trade.getSymbol());
+        payload.put("quantity", trade.getQuantity());
+        payload.put("price", trade.getPrice());
+        payload.put("side", trade.getSide().name());
+        payload.put("timestamp_ns", trade.getTimestampNs());
+        return new Event(seq, ts, Event.EventType.TRADE_CREATED, payload).serialize();
+    }
+
+    private static Trade trade(String tradeId, String accountId, String symbol, BigDecimal quantity, BigDecimal price) {
+        return new Trade(tradeId, accountId, symbol, quantity, price, Trade.Side.SELL, 1_700_000_000_000_000_000L);
+    }
+
+    private static byte[] toArray(ByteBuffer record) {
+        byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return bytes;
+    }
+}
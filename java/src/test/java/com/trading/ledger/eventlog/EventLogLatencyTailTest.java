@@ -0,0 +1,149 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventLogLatencyTailTest {
+
+    private static final long INGEST_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @TempDir
+    Path tempDir;
+
+    private EventLogWriter writer;
+    private EventLogLatencyTail tail;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tail != null) {
+            tail.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void testPoll_MeasuresOnlyRecordsAppendedAfterStart() throws IOException {
+        // Given - one record written before the tail starts
+        Path logPath = tempDir.resolve("event_log.bin");
+        writer = new FileEventLogWriter(logPath);
+        appendTrade(EpochNanoClock.nowNanos() - INGEST_DELAY_NANOS);
+        tail = new EventLogLatencyTail(logPath);
+
+        // When
+        long skipped = tail.skipExisting();
+        for (int i = 0; i < 10; i++) {
+            appendTrade(EpochNanoClock.nowNanos() - INGEST_DELAY_NANOS);
+        }
+        int read = tail.poll();
+
+        // Then
+        assertThat(skipped).isEqualTo(1);
+        assertThat(read).isEqualTo(10);
+        assertThat(tail.poll()).isZero();
+        assertThat(tail.getIngestToAppend().getTotalCount()).isEqualTo(10);
+        assertThat(tail.getIngestToAppend().getMinValue())
+                .isGreaterThanOrEqualTo(tail.getIngestToAppend().lowestEquivalentValue(INGEST_DELAY_NANOS));
+        assertThat(tail.getAppendToConsume().getTotalCount()).isEqualTo(10);
+        assertThat(tail.getAppendToConsume().getMaxValue()).isLessThan(TimeUnit.SECONDS.toNanos(10));
+        assertThat(tail.getNegativeDeltas()).isZero();
+        assertThat(tail.report()).contains("ingest->append  count=10 p50=").contains("p99.9=");
+    }
+
+    @Test
+    void testPoll_SkipsIngestLatencyWithoutArrivalTimestamp() throws IOException {
+        // Given
+        Path logPath = tempDir.resolve("event_log_v2.bin");
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().format(EventLogFormat.V2).build());
+        tail = new EventLogLatencyTail(logPath);
+
+        // When
+        appendTrade(null);
+        appendTrade(EpochNanoClock.nowNanos() + TimeUnit.SECONDS.toNanos(1));
+        int read = tail.poll();
+
+        // Then - the second arrival time is after its append: skewed, recorded as zero
+        assertThat(read).isEqualTo(2);
+        assertThat(tail.getAppendToConsume().getTotalCount()).isEqualTo(2);
+        assertThat(tail.getIngestToAppend().getTotalCount()).isEqualTo(1);
+        assertThat(tail.getIngestToAppend().getMaxValue()).isZero();
+        assertThat(tail.getNegativeDeltas()).isEqualTo(1);
+    }
+
+    @Test
+    void testFollow_StopEndsLoopWithFinalReport() throws Exception {
+        // Given - following on its own thread, with no periodic report before the stop
+        Path logPath = tempDir.resolve("event_log.bin");
+        writer = new FileEventLogWriter(logPath);
+        tail = new EventLogLatencyTail(logPath);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Thread follower = new Thread(() -> {
+            try {
+                tail.follow(TimeUnit.HOURS.toNanos(1), Long.MAX_VALUE, new PrintStream(out, true));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        follower.start();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            appendTrade(EpochNanoClock.nowNanos() - INGEST_DELAY_NANOS);
+        }
+        tail.stop();
+        follower.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Then - one report, printed by the follower after its last poll
+        assertThat(follower.isAlive()).isFalse();
+        assertThat(out.toString()).containsOnlyOnce("ingest->append  count=5 ");
+        assertThat(tail.getAppendToConsume().getTotalCount()).isEqualTo(5);
+    }
+
+    @Test
+    void testEpochNanoClock_TracksWallClockWithoutGoingBackwards() {
+        // Given
+        long wallBefore = toEpochNanos(Instant.now());
+
+        // When
+        long previous = EpochNanoClock.nowNanos();
+        long decreases = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long now = EpochNanoClock.nowNanos();
+            if (now < previous) {
+                decreases++;
+            }
+            previous = now;
+        }
+        long wallAfter = toEpochNanos(Instant.now());
+
+        // Then
+        assertThat(decreases).isZero();
+        assertThat(previous).isBetween(wallBefore - TimeUnit.MILLISECONDS.toNanos(50),
+                wallAfter + TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    private void appendTrade(Long receivedAtNs) throws IOException {
+        writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                new Trade(UUID.randomUUID().toString(), "ACC-1", "AAPL", new BigDecimal("100"),
+                        new BigDecimal("150.25"), Trade.Side.BUY, receivedAtNs));
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
@@ -0,0 +1,416 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.domain.Trade;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class EventLogReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logPath;
+    private EventLogWriter writer;
+    private EventLogReader reader;
+
+    @BeforeEach
+    void setUp() {
+        logPath = tempDir.resolve("test_event_log.bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void testNext_ReadsAllEventsInOrder() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 50);
+
+        // When
+        reader = new EventLogReader(logPath);
+
+        // Then
+        for (int i = 1; i <= 50; i++) {
+            Event event = reader.next();
+            assertThat(event.getSequenceNum()).isEqualTo(i);
+            assertThat(event.getEventType()).isEqualTo(Event.EventType.TRADE_CREATED);
+            assertThat(event.getPayload()).isEqualTo("{\"n\":" + i + "}");
+        }
+        assertThat(reader.next()).isNull();
+        assertThat(reader.getPosition()).isEqualTo(Files.size(logPath));
+    }
+
+    @Test
+    void testWriter_MaintainsSparseIndex() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder()
+                .indexIntervalEvents(100)
+                .indexIntervalBytes(0)
+                .build());
+
+        // When
+        appendEvents(1, 1000);
+
+        // Then - one entry for the first record and one every 100 events after it
+        assertThat(Files.size(EventLogIndex.pathFor(logPath)))
+                .isEqualTo(EventLogIndex.HEADER_SIZE + 10L * EventLogIndex.ENTRY_SIZE);
+        assertThat(EventLogIndex.floor(logPath, 555)).hasValueSatisfying(entry ->
+                assertThat(entry.sequence()).isEqualTo(501));
+        assertThat(EventLogIndex.floor(logPath, 0)).isEmpty();
+    }
+
+    @Test
+    void testWriter_IndexesByBytes() throws IOException {
+        // Given - an entry at least every 1 KB
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder()
+                .indexIntervalEvents(0)
+                .indexIntervalBytes(1024)
+                .build());
+
+        // When
+        appendEvents(1, 1000);
+
+        // Then
+        long entries = (Files.size(EventLogIndex.pathFor(logPath)) - EventLogIndex.HEADER_SIZE) / EventLogIndex.ENTRY_SIZE;
+        assertThat(entries).isBetween(Files.size(logPath) / 1024 / 2, Files.size(logPath) / 1024 + 1);
+    }
+
+    @Test
+    void testSeek_UsesIndexAndStreamsFromSequence() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().indexIntervalEvents(64).build());
+        appendEvents(1, 5000);
+        reader = new EventLogReader(logPath);
+
+        // When/Then - forwards and backwards
+        for (long target : new long[]{4321, 1, 64, 65, 5000, 2}) {
+            assertThat(reader.seek(target)).isTrue();
+            assertThat(reader.next().getSequenceNum()).isEqualTo(target);
+        }
+        assertThat(reader.next().getSequenceNum()).isEqualTo(3);
+    }
+
+    @Test
+    void testSeek_WithoutIndexScansFromStart() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder()
+                .indexIntervalEvents(0)
+                .indexIntervalBytes(0)
+                .build());
+        appendEvents(1, 300);
+        assertThat(EventLogIndex.pathFor(logPath)).doesNotExist();
+        reader = new EventLogReader(logPath);
+
+        // When/Then
+        assertThat(reader.seek(250)).isTrue();
+        assertThat(reader.next().getSequenceNum()).isEqualTo(250);
+    }
+
+    @Test
+    void testSeek_PastEndThenFollowsLiveWriter() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 10);
+        reader = new EventLogReader(logPath);
+
+        // When
+        boolean found = reader.seek(12);
+        appendEvents(11, 2);
+
+        // Then - positioned at the end, new records become visible
+        assertThat(found).isFalse();
+        assertThat(reader.next().getSequenceNum()).isEqualTo(11);
+        assertThat(reader.next().getSequenceNum()).isEqualTo(12);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void testReopen_DropsIndexEntriesPastTruncatedTail() throws IOException {
+        // Given - index entries for every event, then the tail of the log is lost
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().indexIntervalEvents(1).build());
+        appendEvents(1, 3);
+        long firstTwo = writer.getSize() - recordSize(3);
+        writer.close();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(firstTwo + 10);
+        }
+
+        // When
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().indexIntervalEvents(1).build());
+        appendEvents(3, 1);
+
+        // Then - the stale entry for the lost record was replaced by the new one
+        assertThat(Files.size(EventLogIndex.pathFor(logPath)))
+                .isEqualTo(EventLogIndex.HEADER_SIZE + 3L * EventLogIndex.ENTRY_SIZE);
+        reader = new EventLogReader(logPath);
+        assertThat(reader.seek(3)).isTrue();
+        assertThat(reader.next().getPayload()).isEqualTo("{\"n\":3}");
+    }
+
+    @Test
+    void testNext_SmallWindowRemapsAcrossRecords() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 100);
+
+        // When
+        reader = new EventLogReader(logPath, 100);
+
+        // Then
+        long count = 0;
+        while (reader.next() != null) {
+            count++;
+        }
+        assertThat(count).isEqualTo(100);
+    }
+
+    @Test
+    void testNext_StopsAtMappedWriterZeroTail() throws IOException {
+        // Given - the mapped writer keeps a preallocated, zero-filled region open
+        writer = new MappedEventLogWriter(logPath, EventLogOptions.builder().mappedRegionSize(1 << 16).build());
+        appendEvents(1, 5);
+
+        // When
+        reader = new EventLogReader(logPath);
+
+        // Then
+        for (int i = 1; i <= 5; i++) {
+            assertThat(reader.next().getSequenceNum()).isEqualTo(i);
+        }
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void testNext_BadCrcFails() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 2);
+        writer.close();
+        writer = null;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), FileEventLogWriter.HEADER_SIZE + Event.RECORD_HEADER_SIZE + 1);
+        }
+
+        // When/Then
+        reader = new EventLogReader(logPath);
+        assertThatThrownBy(() -> reader.next())
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("CRC");
+    }
+
+    @Test
+    void testForEach_ExposesPayloadWithoutCopy() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 20);
+        reader = new EventLogReader(logPath);
+        List<Long> sequences = new ArrayList<>();
+
+        // When
+        long count = reader.forEach(record -> {
+            ByteBuffer payload = record.payload();
+            assertThat(payload.isReadOnly()).isTrue();
+            assertThat(payload.isDirect()).isTrue();
+            assertThat(payload.remaining()).isEqualTo(record.getPayloadLength());
+            assertThat(StandardCharsets.UTF_8.decode(payload).toString())
+                    .isEqualTo("{\"n\":" + record.getSequenceNum() + "}");
+            // payload() hands the same bytes out again after they were consumed
+            assertThat(record.payloadAsString()).isEqualTo(StandardCharsets.UTF_8.decode(record.payload()).toString());
+            sequences.add(record.getSequenceNum());
+        });
+
+        // Then
+        assertThat(count).isEqualTo(20);
+        assertThat(sequences).containsExactlyElementsOf(LongStream.rangeClosed(1, 20).boxed().toList());
+        assertThat(reader.forEach(record -> fail("no more records"))).isZero();
+    }
+
+    @Test
+    void testIterator_PullsRecordsAfterSeek() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 10);
+        reader = new EventLogReader(logPath);
+        reader.seek(8);
+
+        // When
+        Iterator<EventRecord> records = reader.iterator();
+
+        // Then
+        assertThat(records.hasNext()).isTrue();
+        assertThat(records.hasNext()).isTrue();
+        assertThat(records.next().getSequenceNum()).isEqualTo(8);
+        assertThat(records.next().getSequenceNum()).isEqualTo(9);
+        assertThat(records.next().getSequenceNum()).isEqualTo(10);
+        assertThat(records.hasNext()).isFalse();
+        assertThatThrownBy(records::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void testEvents_StreamsCopiedEvents() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 10);
+        reader = new EventLogReader(logPath);
+
+        // When
+        List<Event> events = reader.events().filter(e -> e.getSequenceNum() % 2 == 0).toList();
+
+        // Then - events stay valid after the reader has moved on
+        assertThat(events).extracting(Event::getSequenceNum).containsExactly(2L, 4L, 6L, 8L, 10L);
+        assertThat(events.get(0).getPayload()).isEqualTo("{\"n\":2}");
+    }
+
+    @Test
+    void testIterator_CorruptionSurfacesUnchecked() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        appendEvents(1, 1);
+        writer.close();
+        writer = null;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), FileEventLogWriter.HEADER_SIZE + Event.RECORD_HEADER_SIZE + 1);
+        }
+        reader = new EventLogReader(logPath);
+
+        // When/Then
+        assertThatThrownBy(() -> reader.events().count()).isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void testV2_BinaryTradesDecodeAndTranscodeToV1Json() throws IOException {
+        // Given - the same trades written in both formats
+        Path v1Path = tempDir.resolve("v1.bin");
+        List<Trade> trades = List.of(
+                trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", Trade.Side.BUY, 1_700_000_000_000_000_000L),
+                trade("00000000-0000-0000-0000-0000000000ff", Trade.Side.SELL, null));
+        try (FileEventLogWriter v1 = new FileEventLogWriter(v1Path)) {
+            for (Trade trade : trades) {
+                v1.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+            }
+        }
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().format(EventLogFormat.V2).build());
+        for (Trade trade : trades) {
+            writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, trade);
+        }
+        // Arbitrary payloads have no binary form and stay JSON within a v2 log
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("n", 3));
+
+        // When
+        reader = new EventLogReader(logPath);
+        List<Trade> decoded = new ArrayList<>();
+        List<String> json = new ArrayList<>();
+        List<Event.PayloadEncoding> encodings = new ArrayList<>();
+        List<Integer> payloadLengths = new ArrayList<>();
+        reader.forEach(record -> {
+            encodings.add(record.getPayloadEncoding());
+            payloadLengths.add(record.getPayloadLength());
+            json.add(record.payloadAsString());
+            if (record.getPayloadEncoding() == Event.PayloadEncoding.BINARY) {
+                decoded.add(TradeCreatedPayload.decode(record));
+            }
+        });
+        List<String> v1Json = new ArrayList<>();
+        List<Trade> v1Decoded = new ArrayList<>();
+        try (EventLogReader v1Reader = new EventLogReader(v1Path)) {
+            v1Reader.forEach(record -> {
+                assertThat(record.getPayloadEncoding()).isEqualTo(Event.PayloadEncoding.JSON);
+                v1Json.add(record.payloadAsString());
+                v1Decoded.add(TradeCreatedPayload.decode(record));
+            });
+        }
+
+        // Then
+        assertThat(encodings).containsExactly(Event.PayloadEncoding.BINARY, Event.PayloadEncoding.BINARY,
+                Event.PayloadEncoding.JSON);
+        assertThat(json.subList(0, 2)).isEqualTo(v1Json);
+        assertThat(json.get(2)).isEqualTo("{\"n\":3}");
+        assertThat(decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(trades);
+        assertThat(v1Decoded).usingRecursiveFieldByFieldElementComparator().isEqualTo(trades);
+        // 16 (uuid) + 2+10 (account) + 2+4 (symbol) + 9 + 9 (decimals) + 1 (side) + 8 (timestamp)
+        assertThat(payloadLengths.subList(0, 2)).containsOnly(61);
+        assertThat(v1Json.get(0).length()).isGreaterThan(150);
+    }
+
+    @Test
+    void testV2_ExistingV1LogKeepsItsFormat() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath);
+        writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5a", Trade.Side.BUY, 1L));
+        writer.close();
+
+        // When - reopened with v2 configured
+        FileEventLogWriter reopened = new FileEventLogWriter(logPath,
+                EventLogOptions.builder().format(EventLogFormat.V2).build());
+        writer = reopened;
+        writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                trade("6f1c2f4e-8a4b-4c59-9a8e-2b1d6c3e4f5b", Trade.Side.SELL, 2L));
+
+        // Then - still a v1 log with JSON payloads only
+        assertThat(reopened.getFormat()).isEqualTo(EventLogFormat.V1);
+        reader = new EventLogReader(logPath);
+        List<Event.PayloadEncoding> encodings = new ArrayList<>();
+        assertThat(reader.forEach(record -> encodings.add(record.getPayloadEncoding()))).isEqualTo(2);
+        assertThat(encodings).containsOnly(Event.PayloadEncoding.JSON);
+    }
+
+    @Test
+    void testV2_RejectsTradeIdThatIsNotUuid() throws IOException {
+        // Given
+        writer = new MappedEventLogWriter(logPath, EventLogOptions.builder()
+                .format(EventLogFormat.V2)
+                .mappedRegionSize(64 * 1024)
+                .build());
+
+        // When/Then
+        assertThatThrownBy(() -> writer.append(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                trade("T-1", Trade.Side.BUY, 1L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("UUID");
+        assertThat(writer.getCurrentSequence()).isZero();
+    }
+
+    private static Trade trade(String tradeId, Trade.Side side, Long timestampNs) {
+        return new Trade(tradeId, "ACC-000042", "AAPL", new BigDecimal("100"), new BigDecimal("150.25"),
+                side, timestampNs);
+    }
+
+    private void appendEvents(int first, int count) throws IOException {
+        for (int i = first; i < first + count; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("n", i));
+        }
+    }
+
+    private static int recordSize(int n) {
+        return new Event(n, 0, Event.EventType.TRADE_CREATED, Map.of("n", n)).serialize().length;
+    }
+}
@@ -9,9 +9,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.CRC32;
 
@@ -112,13 +115,13 @@ class FileEventLogWriterTest {
             // Skip header (16 bytes)
             channel.position(16);
 
-            // Read event header (28 bytes)
-            ByteBuffer eventHeader = ByteBuffer.allocate(28);
+            // Read event header (24 bytes)
+            ByteBuffer eventHeader = ByteBuffer.allocate(Event.RECORD_HEADER_SIZE);
             eventHeader.order(ByteOrder.LITTLE_ENDIAN);
             int headerBytesRead = channel.read(eventHeader);
             eventHeader.flip();
 
-            assertThat(headerBytesRead).isEqualTo(28);
+            assertThat(headerBytesRead).isEqualTo(24);
 
             long seqNum = eventHeader.getLong();
             long timestampNs = eventHeader.getLong();
@@ -155,6 +158,12 @@ class FileEventLogWriterTest {
             int crcBytesRead = channel.read(crcBuffer);
             assertThat(crcBytesRead).isEqualTo(4);
 
+            // CRC covers header + payload
+            CRC32 crc = new CRC32();
+            crc.update(eventHeader.array());
+            crc.update(payloadBytes);
+            assertThat(crcBuffer.getInt(0)).isEqualTo((int) crc.getValue());
+
             // File should be fully read
             assertThat(channel.position()).isEqualTo(fileSize);
         }
@@ -180,9 +189,8 @@ class FileEventLogWriterTest {
         long secondSize = logPath.toFile().length();
         assertThat(secondSize).isGreaterThan(firstSize);
 
-        // Sequence should continue from 1 (but our in-memory counter resets)
-        // In production, we'd need to read the log to recover the sequence
-        assertThat(writer.getCurrentSequence()).isEqualTo(1);
+        // Sequence continues from the last record in the existing log
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
     }
 
     @Test
@@ -218,4 +226,301 @@ class FileEventLogWriterTest {
         // Then - all events should be written
         assertThat(writer.getCurrentSequence()).isEqualTo(numThreads * eventsPerThread);
     }
+
+    @Test
+    void testFsyncMode_AppendsAndForces() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder()
+                .durability(DurabilityMode.FSYNC)
+                .build());
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("test", "fsync");
+
+        // When
+        writer.append(Event.EventType.TRADE_CREATED, payload);
+        writer.append(Event.EventType.TRADE_CREATED, payload);
+
+        // Then
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
+        assertThat(writer.getGroupCommitBatches()).isZero();
+        assertThat(logPath.toFile().length()).isGreaterThan(16);
+    }
+
+    @Test
+    void testGroupCommit_ConcurrentAppendsAreDurableAndOrdered() throws Exception {
+        // Given
+        writer = new FileEventLogWriter(logPath, groupCommit(64, 100));
+        int numThreads = 8;
+        int eventsPerThread = 50;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("test", "group-commit");
+        int recordSize = new Event(1, 0, Event.EventType.TRADE_CREATED, payload).serialize().length;
+
+        // When - multiple threads append simultaneously
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        writer.append(Event.EventType.TRADE_CREATED, payload);
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then - every append returned only after its batch was written
+        int total = numThreads * eventsPerThread;
+        assertThat(writer.getCurrentSequence()).isEqualTo(total);
+        assertThat(logPath.toFile().length()).isEqualTo(16L + (long) total * recordSize);
+
+        // Batches share fsyncs across callers
+        assertThat(writer.getGroupCommitBatches()).isBetween(1L, (long) total);
+
+        // Records are laid out in sequence order
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            ByteBuffer seq = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < total; i++) {
+                seq.clear();
+                channel.read(seq, 16L + (long) i * recordSize);
+                assertThat(seq.getLong(0)).isEqualTo(i + 1);
+            }
+        }
+    }
+
+    @Test
+    void testGroupCommit_AppendAllEnqueuesBatchTogether() throws IOException {
+        // Given - the linger lets the flusher collect everything enqueued in one lock hold
+        writer = new FileEventLogWriter(logPath, groupCommit(1024, 200_000));
+        int total = 200;
+        List<Map<String, Object>> payloads = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            payloads.add(Map.of("test", "batch-" + (1000 + i)));
+        }
+        int recordSize = new Event(1, 0, Event.EventType.TRADE_CREATED, payloads.get(0)).serialize().length;
+
+        // When
+        writer.appendAll(Event.EventType.TRADE_CREATED, Event.JACKSON_PAYLOAD, payloads);
+
+        // Then - one fsync for the whole batch, records contiguous and in sequence order
+        assertThat(writer.getCurrentSequence()).isEqualTo(total);
+        assertThat(writer.getGroupCommitBatches()).isEqualTo(1);
+        assertThat(logPath.toFile().length()).isEqualTo(16L + (long) total * recordSize);
+        writer.close();
+
+        writer = new FileEventLogWriter(logPath, groupCommit(1024, 0));
+        assertThat(writer.getCurrentSequence()).isEqualTo(total);
+    }
+
+    @Test
+    void testGroupCommit_AppendAfterCloseFails() throws IOException {
+        // Given
+        writer = new FileEventLogWriter(logPath, groupCommit(16, 0));
+        writer.close();
+
+        // When/Then
+        assertThatThrownBy(() -> writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "closed")))
+                .isInstanceOf(IOException.class);
+        writer = null;
+    }
+
+    @Test
+    void testReopen_TruncatesTornTailRecord() throws IOException {
+        // Given - two events followed by a partially written third record
+        writer = new FileEventLogWriter(logPath);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event2"));
+        writer.close();
+        long intactSize = logPath.toFile().length();
+
+        byte[] torn = new Event(3, 0, Event.EventType.TRADE_CREATED, Map.of("test", "event3")).serialize();
+        appendRaw(java.util.Arrays.copyOf(torn, torn.length - 7));
+
+        // When
+        writer = new FileEventLogWriter(logPath);
+
+        // Then - the torn record is dropped and the sequence resumes after the last intact record
+        assertThat(logPath.toFile().length()).isEqualTo(intactSize);
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
+
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event3"));
+        assertThat(writer.getCurrentSequence()).isEqualTo(3);
+    }
+
+    @Test
+    void testReopen_TruncatesRecordWithBadCrc() throws IOException {
+        // Given - the last record has a flipped payload byte
+        writer = new FileEventLogWriter(logPath);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        writer.close();
+        long intactSize = logPath.toFile().length();
+
+        byte[] corrupt = new Event(2, 0, Event.EventType.TRADE_CREATED, Map.of("test", "event2")).serialize();
+        corrupt[Event.RECORD_HEADER_SIZE + 3] ^= 0x01;
+        appendRaw(corrupt);
+
+        // When
+        writer = new FileEventLogWriter(logPath);
+
+        // Then
+        assertThat(logPath.toFile().length()).isEqualTo(intactSize);
+        assertThat(writer.getCurrentSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void testReopen_CorruptRecordMidFileFailsWithoutTruncating() throws IOException {
+        // Given - five records; a payload byte of the third is flipped
+        long thirdRecordOffset = writeFiveEventsAndCorruptThird();
+        long size = logPath.toFile().length();
+
+        // When/Then - the valid records after it are not silently dropped
+        assertThatThrownBy(() -> new FileEventLogWriter(logPath))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("at offset " + thirdRecordOffset)
+                .hasMessageContaining("after sequence 2")
+                .hasMessageContaining("eventlog.recovery.repair=true");
+        assertThat(logPath.toFile().length()).isEqualTo(size);
+    }
+
+    @Test
+    void testReopen_RepairTruncatesAtCorruptRecord() throws IOException {
+        // Given
+        long thirdRecordOffset = writeFiveEventsAndCorruptThird();
+
+        // When
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().recoveryRepair(true).build());
+
+        // Then
+        assertThat(logPath.toFile().length()).isEqualTo(thirdRecordOffset);
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
+    }
+
+    @Test
+    void testReopen_TruncatesBadRecordFollowedOnlyByZeros() throws IOException {
+        // Given - a torn last record, then preallocated zeros
+        writer = new FileEventLogWriter(logPath);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        writer.close();
+        long intactSize = logPath.toFile().length();
+        byte[] corrupt = new Event(2, 0, Event.EventType.TRADE_CREATED, Map.of("test", "event2")).serialize();
+        corrupt[Event.RECORD_HEADER_SIZE + 3] ^= 0x01;
+        appendRaw(corrupt);
+        appendRaw(new byte[4096]);
+
+        // When
+        writer = new FileEventLogWriter(logPath);
+
+        // Then
+        assertThat(logPath.toFile().length()).isEqualTo(intactSize);
+        assertThat(writer.getCurrentSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void testReopen_LogInOriginalRecordLayoutFailsWithClearError() throws IOException {
+        // Given - records as the original writer laid them out: CRC over a zeroed slot, then 4 zero bytes
+        writer = new FileEventLogWriter(logPath);
+        writer.close();
+        writer = null;
+        for (int seq = 1; seq <= 3; seq++) {
+            byte[] record = new Event(seq, 0, Event.EventType.TRADE_CREATED, Map.of("test", seq)).serialize();
+            ByteBuffer legacy = ByteBuffer.allocate(record.length + Event.CRC_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            legacy.put(record, 0, record.length - Event.CRC_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(legacy.array(), 0, record.length);
+            legacy.putInt((int) crc.getValue());
+            appendRaw(legacy.array());
+        }
+        long size = logPath.toFile().length();
+
+        // When/Then
+        assertThatThrownBy(() -> new FileEventLogWriter(logPath))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("older writer");
+        assertThat(logPath.toFile().length()).isEqualTo(size);
+    }
+
+    private long writeFiveEventsAndCorruptThird() throws IOException {
+        writer = new FileEventLogWriter(logPath);
+        long thirdRecordOffset = 0;
+        for (int i = 1; i <= 5; i++) {
+            if (i == 3) {
+                thirdRecordOffset = writer.getSize();
+            }
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event" + i));
+        }
+        writer.close();
+        writer = null;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer oneByte = ByteBuffer.allocate(1);
+            long position = thirdRecordOffset + Event.RECORD_HEADER_SIZE + 3;
+            channel.read(oneByte, position);
+            oneByte.put(0, (byte) (oneByte.get(0) ^ 0x01)).rewind();
+            channel.write(oneByte, position);
+        }
+        // The checkpoint written on close would let recovery start past the damage
+        Files.deleteIfExists(EventLogCheckpoint.pathFor(logPath));
+        return thirdRecordOffset;
+    }
+
+    @Test
+    void testRecovery_ScansOnlyRecordsAfterCheckpoint() throws IOException {
+        // Given - 100 events with a checkpoint every 32 (last one at seq 96)
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().checkpointInterval(32).build());
+        for (int i = 0; i < 100; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("test", i));
+        }
+        // Simulate a crash: drop the writer without close() so no final checkpoint is written
+        writer = null;
+
+        // When
+        EventLogRecovery.Result result;
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            result = EventLogRecovery.recover(channel, logPath);
+        }
+
+        // Then - only the 4 records after the checkpoint are scanned
+        assertThat(result.fromCheckpoint()).isTrue();
+        assertThat(result.recordsScanned()).isEqualTo(4);
+        assertThat(result.lastSequence()).isEqualTo(100);
+        assertThat(result.endOffset()).isEqualTo(logPath.toFile().length());
+    }
+
+    @Test
+    void testRecovery_IgnoresStaleCheckpoint() throws IOException {
+        // Given - the newest checkpoint points past the end of a log that was truncated externally
+        writer = new FileEventLogWriter(logPath, EventLogOptions.builder().checkpointInterval(1).build());
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        long firstEnd = logPath.toFile().length();
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event2"));
+        writer.close();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE)) {
+            channel.truncate(firstEnd);
+        }
+
+        // When
+        writer = new FileEventLogWriter(logPath);
+
+        // Then - falls back to the older checkpoint slot and recovers the surviving record
+        assertThat(writer.getCurrentSequence()).isEqualTo(1);
+    }
+
+    private static EventLogOptions groupCommit(int maxBatchSize, long maxLingerMicros) {
+        return EventLogOptions.builder()
+                .durability(DurabilityMode.GROUP_COMMIT)
+                .groupCommitMaxBatchSize(maxBatchSize)
+                .groupCommitMaxLingerMicros(maxLingerMicros)
+                .build();
+    }
+
+    private void appendRaw(byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(bytes));
+        }
+    }
 }
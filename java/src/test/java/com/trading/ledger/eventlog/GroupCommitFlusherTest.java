@@ -0,0 +1,87 @@
+package com.trading.ledger.eventlog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+class GroupCommitFlusherTest {
+
+    private final FileChannel channel = mock(FileChannel.class);
+    private GroupCommitFlusher flusher;
+
+    @AfterEach
+    void tearDown() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+    }
+
+    @Test
+    void testFlush_FailureFailsQueuedAndLaterRecords() throws Exception {
+        // Given - the first force blocks until a second record is queued behind it, then fails
+        CountDownLatch forcing = new CountDownLatch(1);
+        CountDownLatch secondQueued = new CountDownLatch(1);
+        when(channel.write(any(ByteBuffer[].class))).thenAnswer(invocation -> consume(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            forcing.countDown();
+            secondQueued.await(5, TimeUnit.SECONDS);
+            throw new IOException("disk full");
+        }).when(channel).force(anyBoolean());
+        flusher = new GroupCommitFlusher(channel, "test-group-commit", 1, 0);
+
+        // When
+        CompletableFuture<Void> first = flusher.enqueue(record());
+        assertThat(forcing.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> second = flusher.enqueue(record());
+        secondQueued.countDown();
+
+        // Then - neither is acknowledged, the second is never written, and the flusher stays failed
+        assertThatThrownBy(() -> GroupCommitFlusher.awaitDurable(first)).hasMessage("disk full");
+        assertThatThrownBy(() -> GroupCommitFlusher.awaitDurable(second)).hasMessage("disk full");
+        assertThatThrownBy(() -> flusher.enqueue(record()))
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("disk full");
+        verify(channel, times(1)).write(any(ByteBuffer[].class));
+    }
+
+    @Test
+    void testShutdown_FlushesQueuedAndRejectsLaterRecords() throws Exception {
+        // Given
+        when(channel.write(any(ByteBuffer[].class))).thenAnswer(invocation -> consume(invocation.getArgument(0)));
+        flusher = new GroupCommitFlusher(channel, "test-group-commit", 16, 0);
+        CompletableFuture<Void> queued = flusher.enqueue(record());
+
+        // When
+        flusher.shutdown();
+
+        // Then
+        GroupCommitFlusher.awaitDurable(queued);
+        assertThatThrownBy(() -> flusher.enqueue(record()))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Event log is closed");
+    }
+
+    private static ByteBuffer record() {
+        return ByteBuffer.wrap(new byte[32]);
+    }
+
+    private static long consume(ByteBuffer[] buffers) {
+        long written = 0;
+        for (ByteBuffer buffer : buffers) {
+            written += buffer.remaining();
+            buffer.position(buffer.limit());
+        }
+        return written;
+    }
+}
@@ -0,0 +1,238 @@
+package com.trading.ledger.eventlog;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MappedEventLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logPath;
+    private EventLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        logPath = tempDir.resolve("test_event_log.bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void testAppend_PreallocatesRegionAndTruncatesOnClose() throws IOException {
+        // Given
+        writer = new MappedEventLogWriter(logPath, mapped(4096));
+
+        // When
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+
+        // Then - the file covers the whole mapped region until close
+        assertThat(Files.size(logPath)).isEqualTo(16L + 4096);
+
+        writer.close();
+        writer = null;
+        int recordSize = new Event(1, 0, Event.EventType.TRADE_CREATED, Map.of("test", "event1")).serialize().length;
+        assertThat(Files.size(logPath)).isEqualTo(16L + recordSize);
+    }
+
+    @Test
+    void testAppend_WritesSameLayoutAsFileWriter() throws IOException {
+        // Given - the same events written through both writers
+        Path filePath = tempDir.resolve("file_event_log.bin");
+        try (FileEventLogWriter fileWriter = new FileEventLogWriter(filePath)) {
+            for (int i = 0; i < 3; i++) {
+                fileWriter.append(Event.EventType.TRADE_CREATED, Map.of("test", i));
+            }
+        }
+
+        // When
+        writer = new MappedEventLogWriter(logPath, mapped(4096));
+        for (int i = 0; i < 3; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("test", i));
+        }
+        writer.close();
+        writer = null;
+
+        // Then - identical bytes apart from the per-record timestamp and CRC
+        byte[] expected = Files.readAllBytes(filePath);
+        byte[] actual = Files.readAllBytes(logPath);
+        assertThat(actual).hasSameSizeAs(expected);
+        assertThat(Arrays.copyOf(actual, 16)).isEqualTo(Arrays.copyOf(expected, 16));
+
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            EventLogRecovery.Result result = EventLogRecovery.recover(channel, logPath);
+            assertThat(result.lastSequence()).isEqualTo(3);
+            assertThat(result.hasTornTail()).isFalse();
+        }
+    }
+
+    @Test
+    void testAppend_RemapsWhenRegionFills() throws IOException {
+        // Given - a region that holds only a couple of records
+        writer = new MappedEventLogWriter(logPath, mapped(128));
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("test", i));
+        }
+        writer.close();
+        writer = null;
+
+        // Then - records are contiguous across regions, in sequence order
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            EventLogRecovery.Result result = EventLogRecovery.recover(channel, logPath);
+            assertThat(result.lastSequence()).isEqualTo(50);
+            assertThat(result.endOffset()).isEqualTo(channel.size());
+
+            ByteBuffer header = ByteBuffer.allocate(Event.RECORD_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long position = 16;
+            for (int i = 1; i <= 50; i++) {
+                header.clear();
+                channel.read(header, position);
+                assertThat(header.getLong(0)).isEqualTo(i);
+                position += Event.RECORD_HEADER_SIZE + header.getInt(Event.PAYLOAD_LENGTH_OFFSET) + Event.CRC_SIZE;
+            }
+        }
+    }
+
+    @Test
+    void testAppend_RecordLargerThanRegion() throws IOException {
+        // Given
+        writer = new MappedEventLogWriter(logPath, mapped(64));
+
+        // When
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "x".repeat(500)));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "small"));
+
+        // Then
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
+    }
+
+    @Test
+    void testReopen_AfterCrashCutsZeroTail() throws IOException {
+        // Given - appends followed by a crash (no close, so the zero-filled region remains)
+        writer = new MappedEventLogWriter(logPath, mapped(1 << 20));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event2"));
+        writer = null;
+        assertThat(Files.size(logPath)).isGreaterThan(1 << 20);
+
+        // When
+        writer = new MappedEventLogWriter(logPath, mapped(1 << 20));
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event3"));
+        writer.close();
+        writer = null;
+
+        // Then - the sequence continues and the log ends at the last record
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            EventLogRecovery.Result result = EventLogRecovery.recover(channel, logPath);
+            assertThat(result.lastSequence()).isEqualTo(3);
+            assertThat(result.endOffset()).isEqualTo(channel.size());
+        }
+    }
+
+    @Test
+    void testReopen_ContinuesLogWrittenByFileWriter() throws IOException {
+        // Given
+        try (FileEventLogWriter fileWriter = new FileEventLogWriter(logPath)) {
+            fileWriter.append(Event.EventType.TRADE_CREATED, Map.of("test", "event1"));
+        }
+
+        // When
+        writer = new MappedEventLogWriter(logPath, EventLogOptions.builder()
+                .durability(DurabilityMode.FSYNC)
+                .mappedRegionSize(4096)
+                .build());
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "event2"));
+
+        // Then
+        assertThat(writer.getCurrentSequence()).isEqualTo(2);
+    }
+
+    @Test
+    void testAppend_ConcurrentReaderSeesOnlyCompleteRecords() throws Exception {
+        // Given - a reader following the log while it is written, across many region rolls;
+        // payload sizes vary so records start both on and off 8-byte boundaries
+        int events = 20_000;
+        writer = new MappedEventLogWriter(logPath, mapped(4096));
+        EventLogWriter appender = writer;
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        Thread writerThread = new Thread(() -> {
+            try {
+                for (int i = 0; i < events; i++) {
+                    appender.append(Event.EventType.TRADE_CREATED, Map.of("test", "x".repeat(i % 13)));
+                }
+            } catch (Throwable e) {
+                writerFailure.set(e);
+            }
+        });
+
+        // When
+        long read = 0;
+        try (EventLogReader reader = new EventLogReader(logPath)) {
+            writerThread.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (read < events && System.nanoTime() < deadline) {
+                EventRecord record = reader.nextRecord();
+                if (record == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // Then - every record is complete (CRC checked by the reader) and in order
+                assertThat(record.getSequenceNum()).isEqualTo(read + 1);
+                read++;
+            }
+        }
+        writerThread.join();
+
+        assertThat(writerFailure.get()).isNull();
+        assertThat(read).isEqualTo(events);
+    }
+
+    @Test
+    void testGroupCommit_NotSupported() {
+        assertThatThrownBy(() -> new MappedEventLogWriter(logPath, EventLogOptions.builder()
+                .durability(DurabilityMode.GROUP_COMMIT)
+                .build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testAppend_AfterCloseFails() throws IOException {
+        // Given
+        writer = new MappedEventLogWriter(logPath, mapped(4096));
+        writer.close();
+
+        // When/Then
+        assertThatThrownBy(() -> writer.append(Event.EventType.TRADE_CREATED, Map.of("test", "closed")))
+                .isInstanceOf(IOException.class);
+        writer = null;
+    }
+
+    private static EventLogOptions mapped(long regionSize) {
+        return EventLogOptions.builder()
+                .mappedRegionSize(regionSize)
+                .build();
+    }
+}
@@ -0,0 +1,357 @@
+package com.trading.ledger.eventlog;
+
+import com.trading.ledger.eventlog.EventLogManifest.Segment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SegmentedEventLogWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path logPath;
+    private SegmentedEventLogWriter writer;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        logPath = tempDir.resolve("event_log.bin");
+        clock = new MutableClock();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void testRollsBySize_SequencesContinueAcrossSegments() throws IOException {
+        // Given - segments of ~5 records
+        writer = open(bySize(5));
+
+        // When
+        appendEvents(23);
+
+        // Then - every segment is a complete log holding a contiguous range
+        List<Segment> segments = writer.getSegments();
+        assertThat(segments).hasSizeGreaterThan(3);
+        long expectedFirst = 1;
+        for (Segment segment : segments) {
+            assertThat(segment.firstSequence()).isEqualTo(expectedFirst);
+            Path path = tempDir.resolve(segment.fileName());
+            assertThat(firstSequenceInFile(path)).isEqualTo(segment.firstSequence());
+            if (segment.isSealed()) {
+                assertThat(recover(path).lastSequence()).isEqualTo(segment.lastSequence());
+                assertThat(EventLogCheckpoint.pathFor(path)).doesNotExist();
+                expectedFirst = segment.lastSequence() + 1;
+            }
+        }
+        assertThat(segments.get(segments.size() - 1).isSealed()).isFalse();
+        assertThat(writer.getCurrentSequence()).isEqualTo(23);
+        assertThat(logPath).doesNotExist();
+    }
+
+    @Test
+    void testReopen_ContinuesActiveSegmentFromManifest() throws IOException {
+        // Given
+        writer = open(bySize(5));
+        appendEvents(12);
+        List<Segment> before = writer.getSegments();
+        writer.close();
+
+        // When
+        writer = open(bySize(5));
+        appendEvents(1);
+
+        // Then
+        assertThat(writer.getCurrentSequence()).isEqualTo(13);
+        assertThat(writer.getSegments().get(0)).isEqualTo(before.get(0));
+        assertThat(EventLogManifest.read(EventLogManifest.pathFor(logPath))).isPresent();
+    }
+
+    @Test
+    void testRollsByAge_OnlyWhenSegmentHasRecords() throws IOException {
+        // Given
+        writer = open(EventLogOptions.builder().segmentMaxAge(Duration.ofMinutes(10)).build());
+        appendEvents(2);
+
+        // When - time passes, then the next append triggers the roll
+        clock.advance(Duration.ofMinutes(11));
+        appendEvents(1);
+
+        // Then
+        List<Segment> segments = writer.getSegments();
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(0).lastSequence()).isEqualTo(3);
+        assertThat(segments.get(1).firstSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void testRetention_MaxSegmentsDeletesOldest() throws IOException {
+        // Given
+        writer = open(bySize(5).toBuilder().retentionMaxSegments(2).build());
+
+        // When
+        appendEvents(30);
+
+        // Then - only the newest sealed segment and the active one remain on disk
+        List<Segment> segments = writer.getSegments();
+        assertThat(segments).hasSize(2);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.map(p -> p.getFileName().toString()).filter(n -> n.endsWith(".bin")))
+                    .containsExactlyInAnyOrder(segments.get(0).fileName(), segments.get(1).fileName());
+        }
+        assertThat(writer.getCurrentSequence()).isEqualTo(30);
+    }
+
+    @Test
+    void testRetention_MaxAgeArchivesSealedSegments() throws IOException {
+        // Given
+        Path archive = tempDir.resolve("archive");
+        writer = open(bySize(5).toBuilder()
+                .retentionMaxAge(Duration.ofHours(1))
+                .retentionAction(RetentionAction.ARCHIVE)
+                .archiveDirectory(archive)
+                .build());
+        appendEvents(12);
+        List<Segment> old = writer.getSegments().subList(0, writer.getSegments().size() - 1);
+
+        // When - the sealed segments age out and the next roll applies retention
+        clock.advance(Duration.ofHours(2));
+        appendEvents(5);
+
+        // Then
+        for (Segment segment : old) {
+            assertThat(archive.resolve(segment.fileName())).exists();
+            assertThat(tempDir.resolve(segment.fileName())).doesNotExist();
+        }
+        assertThat(writer.getSegments()).noneMatch(old::contains);
+    }
+
+    @Test
+    void testAdoptsExistingSingleFileLog() throws IOException {
+        // Given - a log written before segmenting was enabled
+        try (FileEventLogWriter single = new FileEventLogWriter(logPath)) {
+            for (int i = 0; i < 3; i++) {
+                single.append(Event.EventType.TRADE_CREATED, Map.of("test", i));
+            }
+        }
+
+        // When
+        writer = open(bySize(5));
+        appendEvents(1);
+
+        // Then
+        assertThat(logPath).doesNotExist();
+        assertThat(writer.getSegments().get(0).fileName()).isEqualTo("event_log-00000000000000000001.bin");
+        assertThat(writer.getCurrentSequence()).isEqualTo(4);
+    }
+
+    @Test
+    void testRebuildsMissingManifest() throws IOException {
+        // Given
+        writer = open(bySize(5));
+        appendEvents(12);
+        List<Segment> before = writer.getSegments();
+        writer.close();
+        Files.delete(EventLogManifest.pathFor(logPath));
+
+        // When
+        writer = open(bySize(5));
+
+        // Then
+        List<Segment> rebuilt = writer.getSegments();
+        assertThat(rebuilt).extracting(Segment::fileName)
+                .containsExactlyElementsOf(before.stream().map(Segment::fileName).toList());
+        assertThat(rebuilt).extracting(Segment::lastSequence)
+                .containsExactlyElementsOf(before.stream().map(Segment::lastSequence).toList());
+        assertThat(writer.getCurrentSequence()).isEqualTo(12);
+    }
+
+    @Test
+    void testGroupCommit_ConcurrentAppendsAcrossRolls() throws Exception {
+        // Given
+        writer = open(bySize(20).toBuilder()
+                .durability(DurabilityMode.GROUP_COMMIT)
+                .groupCommitMaxBatchSize(16)
+                .build());
+        int numThreads = 8;
+        int eventsPerThread = 40;
+
+        // When
+        Thread[] threads = new Thread[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < eventsPerThread; j++) {
+                        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", j));
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then - no gaps or duplicates across segments
+        int total = numThreads * eventsPerThread;
+        assertThat(writer.getCurrentSequence()).isEqualTo(total);
+        List<Segment> segments = writer.getSegments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            assertThat(segments.get(i + 1).firstSequence()).isEqualTo(segments.get(i).lastSequence() + 1);
+        }
+    }
+
+    @Test
+    void testRoll_OpenFailureKeepsAppendingToPreviousSegment() throws IOException {
+        // Given - opening any segment after the first fails until the disk "recovers"
+        AtomicBoolean failOpen = new AtomicBoolean(true);
+        writer = new SegmentedEventLogWriter(logPath, bySize(5), (path, options) -> {
+            if (failOpen.get() && options.getBaseSequence() > 0) {
+                Files.createFile(path);
+                throw new IOException("No space left on device");
+            }
+            return new FileEventLogWriter(path, options);
+        }, clock);
+
+        // When
+        appendEvents(8);
+
+        // Then - still one segment, holding everything, and nothing half-created next to it
+        assertRollFailedCleanly(8);
+
+        // When/Then - the roll goes through once the new segment can be opened
+        failOpen.set(false);
+        appendEvents(1);
+        assertRolledAfter(9);
+    }
+
+    @Test
+    void testRoll_ManifestFailureKeepsAppendingToPreviousSegment() throws IOException {
+        // Given - a directory in the way of the manifest's temp file makes every rewrite fail
+        writer = open(bySize(5));
+        Path manifestTemp = tempDir.resolve(EventLogManifest.pathFor(logPath).getFileName() + ".tmp");
+        Files.createDirectory(manifestTemp);
+
+        // When
+        appendEvents(8);
+
+        // Then
+        assertRollFailedCleanly(8);
+
+        // When/Then
+        Files.delete(manifestTemp);
+        appendEvents(1);
+        assertRolledAfter(9);
+    }
+
+    private void assertRollFailedCleanly(long expectedSequence) throws IOException {
+        List<Segment> segments = writer.getSegments();
+        assertThat(segments).hasSize(1);
+        assertThat(segments.get(0).isSealed()).isFalse();
+        assertThat(writer.getCurrentSequence()).isEqualTo(expectedSequence);
+        assertThat(EventLogManifest.read(EventLogManifest.pathFor(logPath)).orElseThrow()).isEqualTo(segments);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .filteredOn(name -> name.startsWith("event_log-") && !name.startsWith(segments.get(0).fileName()))
+                    .isEmpty();
+        }
+    }
+
+    private void assertRolledAfter(long lastSequence) throws IOException {
+        List<Segment> segments = writer.getSegments();
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(0).lastSequence()).isEqualTo(lastSequence);
+        assertThat(recover(tempDir.resolve(segments.get(0).fileName())).lastSequence()).isEqualTo(lastSequence);
+        assertThat(segments.get(1).firstSequence()).isEqualTo(lastSequence + 1);
+        writer.append(Event.EventType.TRADE_CREATED, Map.of("test", 0));
+        assertThat(firstSequenceInFile(tempDir.resolve(segments.get(1).fileName()))).isEqualTo(lastSequence + 1);
+    }
+
+    @Test
+    void testArchiveWithoutDirectoryRejected() {
+        assertThatThrownBy(() -> open(bySize(5).toBuilder().retentionAction(RetentionAction.ARCHIVE).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SegmentedEventLogWriter open(EventLogOptions options) throws IOException {
+        return new SegmentedEventLogWriter(logPath, options, FileEventLogWriter::new, clock);
+    }
+
+    private static EventLogOptions bySize(int records) {
+        int recordSize = new Event(1, 0, Event.EventType.TRADE_CREATED, Map.of("test", 0)).serialize().length;
+        return EventLogOptions.builder()
+                .segmentMaxBytes(FileEventLogWriter.HEADER_SIZE + (long) records * recordSize)
+                .build();
+    }
+
+    private void appendEvents(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            writer.append(Event.EventType.TRADE_CREATED, Map.of("test", i % 10));
+        }
+    }
+
+    private static long firstSequenceInFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            assertThat(EventLogRecovery.readFileHeader(channel, path)).isEqualTo(EventLogFormat.V1.version());
+            ByteBuffer sequence = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            EventLogRecovery.readFully(channel, sequence, FileEventLogWriter.HEADER_SIZE);
+            return sequence.getLong(0);
+        }
+    }
+
+    private static EventLogRecovery.Result recover(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return EventLogRecovery.recover(channel, path);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
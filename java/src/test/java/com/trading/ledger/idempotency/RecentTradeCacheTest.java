@@ -0,0 +1,55 @@
+package com.trading.ledger.idempotency;
+
+import com.trading.ledger.domain.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentTradeCacheTest {
+
+    @Test
+    void testGet_CaseInsensitiveLookup() {
+        // Given
+        RecentTradeCache cache = new RecentTradeCache(100);
+        Trade trade = trade(UUID.randomUUID().toString());
+        cache.put(trade);
+
+        // When/Then
+        assertThat(cache.get(trade.getTradeId().toUpperCase())).isSameAs(trade);
+        assertThat(cache.get(UUID.randomUUID().toString())).isNull();
+    }
+
+    @Test
+    void testPut_StaysBoundedAndKeepsRecentlyUsed() {
+        // Given
+        RecentTradeCache cache = new RecentTradeCache(1_600);
+        Trade hot = trade(UUID.randomUUID().toString());
+        cache.put(hot);
+
+        // When - many more trades than fit, touching the hot one as we go
+        List<Trade> trades = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Trade trade = trade(UUID.randomUUID().toString());
+            trades.add(trade);
+            cache.put(trade);
+            if (i % 50 == 0) {
+                cache.get(hot.getTradeId());
+            }
+        }
+
+        // Then
+        assertThat(cache.size()).isLessThanOrEqualTo(1_600);
+        assertThat(cache.get(hot.getTradeId())).isSameAs(hot);
+        assertThat(cache.get(trades.get(0).getTradeId())).isNull();
+        assertThat(cache.get(trades.get(trades.size() - 1).getTradeId())).isNotNull();
+    }
+
+    private static Trade trade(String tradeId) {
+        return new Trade(tradeId, "acc1", "AAPL", BigDecimal.ONE, BigDecimal.TEN, Trade.Side.BUY, 1L);
+    }
+}
@@ -0,0 +1,56 @@
+package com.trading.ledger.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TradeIdBloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegativesAndCaseInsensitive() {
+        // Given
+        TradeIdBloomFilter filter = new TradeIdBloomFilter(10_000, 0.01);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = UUID.randomUUID().toString();
+            ids.add(id);
+            filter.put(id);
+        }
+
+        // When/Then
+        assertThat(ids).allMatch(filter::mightContain);
+        assertThat(filter.mightContain(ids.get(0).toUpperCase())).isTrue();
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateNearTarget() {
+        // Given - filled to its expected size
+        TradeIdBloomFilter filter = new TradeIdBloomFilter(50_000, 0.01);
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        // When
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(filter.getHashCount()).isEqualTo(7);
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidSizing() {
+        assertThatThrownBy(() -> new TradeIdBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TradeIdBloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,198 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.controller.LedgerController;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.PageCursor;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.TradeService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "logging.level.com.trading.ledger.mapper=INFO",
+        "logging.level.com.trading.ledger.service=WARN",
+        "logging.level.com.trading.ledger.controller=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AccountHistoryPaginationIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountHistoryPaginationIntegrationTest.class);
+
+    private static final int DEEP_TRADES = Integer.getInteger("benchmark.pagination.trades", 20_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private LedgerEntryMapper ledgerEntryMapper;
+
+    @Test
+    void testGetTrades_CursorPagesVisitEveryTradeOnce() throws Exception {
+        // Given - two batches; trades of a batch share created_at
+        String account = "page-acct-" + UUID.randomUUID();
+        tradeService.createTrades(newTrades(account, 12));
+        tradeService.createTrades(newTrades(account, 12));
+        List<String> expected = tradeMapper.findByAccountId(account, 100, 0).stream()
+                .map(Trade::getTradeId)
+                .toList();
+
+        // When
+        List<String> paged = pageThrough(cursor -> get("/api/v1/trades")
+                .param("accountId", account)
+                .param("limit", "5")
+                .param("cursor", cursor), "tradeId");
+
+        // Then
+        assertThat(expected).hasSize(24).doesNotHaveDuplicates();
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testGetLedgerEntries_CursorPagesVisitEveryEntryOnce() throws Exception {
+        // Given
+        String account = "page-acct-" + UUID.randomUUID();
+        tradeService.createTrades(newTrades(account, 10));
+        tradeService.createTrades(newTrades(account, 5));
+        List<String> expected = ledgerEntryMapper.findByAccountId(account, 100, 0).stream()
+                .map(entry -> entry.getId().toString())
+                .toList();
+
+        // When
+        List<String> paged = pageThrough(cursor -> get("/api/v1/ledger/entries")
+                .param("accountId", account)
+                .param("limit", "7")
+                .param("cursor", cursor), "id");
+
+        // Then
+        assertThat(expected).hasSize(30).doesNotHaveDuplicates();
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testGetTrades_RejectsMalformedCursorAndCursorWithOffset() throws Exception {
+        String cursor = new PageCursor(Instant.now(), 1).encode();
+
+        mockMvc.perform(get("/api/v1/trades").param("accountId", "acc").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/trades").param("accountId", "acc").param("cursor", cursor).param("offset", "20"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/ledger/entries").param("accountId", "acc").param("cursor", "AAAA"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/trades").param("accountId", "acc").param("cursor", cursor))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * The last page of an account with DEEP_TRADES trades by offset and by cursor. Run with
+     * -Dbenchmark.pagination.trades=1000000 for a larger account. -Pbenchmarks only.
+     */
+    @Test
+    @Tag("benchmark")
+    void testDeepPage_CursorMatchesOffsetWithoutScanningSkippedRows() throws Exception {
+        // Given
+        String account = "deep-acct-" + UUID.randomUUID();
+        List<Trade> chunk = new ArrayList<>(1_000);
+        for (int i = 0; i < DEEP_TRADES; i++) {
+            chunk.add(new Trade(UUID.randomUUID().toString(), account, "AAPL", BigDecimal.ONE, BigDecimal.TEN,
+                    Trade.Side.BUY, System.nanoTime()));
+            if (chunk.size() == 1_000 || i == DEEP_TRADES - 1) {
+                tradeMapper.insertAllIfAbsent(chunk);
+                chunk.clear();
+            }
+        }
+        int offset = DEEP_TRADES - 20;
+        Trade previous = tradeMapper.findByAccountId(account, 1, offset - 1).get(0);
+        PageCursor cursor = new PageCursor(previous.getCreatedAt(), previous.getId());
+
+        // When - H2 caches query results until a table changes, so every call follows a write
+        long[] byOffset = time(20, () -> tradeMapper.findByAccountId(account, 20, offset));
+        long[] byCursor = time(200, () -> tradeMapper.findPageByAccountId(account, cursor, 20));
+        long[] firstPage = time(200, () -> tradeMapper.findPageByAccountId(account, null, 20));
+
+        // Then
+        assertThat(tradeMapper.findPageByAccountId(account, cursor, 20))
+                .extracting(Trade::getTradeId)
+                .containsExactlyElementsOf(tradeMapper.findByAccountId(account, 20, offset).stream()
+                        .map(Trade::getTradeId)
+                        .toList());
+        logger.info("Last page of {} trades: offset p50 {} us, cursor p50 {} us (first page p50 {} us)",
+                DEEP_TRADES, byOffset[byOffset.length / 2] / 1_000, byCursor[byCursor.length / 2] / 1_000,
+                firstPage[firstPage.length / 2] / 1_000);
+    }
+
+    private interface RequestForCursor {
+        MockHttpServletRequestBuilder build(String cursor);
+    }
+
+    private List<String> pageThrough(RequestForCursor request, String idField) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = mockMvc.perform(request.build(cursor))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            for (JsonNode item : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                ids.add(item.get(idField).asText());
+            }
+            cursor = result.getResponse().getHeader(LedgerController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private long[] time(int iterations, Supplier<?> call) {
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            tradeMapper.insertAllIfAbsent(List.of(new Trade(UUID.randomUUID().toString(), "page-noise", "AAPL",
+                    BigDecimal.ONE, BigDecimal.TEN, Trade.Side.BUY, System.nanoTime())));
+            long start = System.nanoTime();
+            call.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static List<CreateTradeRequest> newTrades(String account, int count) {
+        List<CreateTradeRequest> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trades.add(new CreateTradeRequest(UUID.randomUUID().toString(), account, "AAPL",
+                    BigDecimal.valueOf(1 + i), new BigDecimal("101.25"), i % 3 == 0 ? "SELL" : "BUY"));
+        }
+        return trades;
+    }
+}
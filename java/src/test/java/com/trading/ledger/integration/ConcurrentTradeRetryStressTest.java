@@ -0,0 +1,118 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Many threads replaying the same trade ids at once, some with a conflicting payload.
+ * Every request must resolve to 201 (exactly one per id), 200 or 409 - never a 500 from
+ * the trade_id unique constraint - and each trade must be stored once with one balanced
+ * pair of ledger entries. Subclasses pick the idempotency mode.
+ */
+@AutoConfigureMockMvc
+abstract class ConcurrentTradeRetryStressTest {
+
+    private static final int THREADS = 16;
+    private static final int TRADE_IDS = 50;
+    private static final int REPLAYS_PER_THREAD = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private LedgerEntryMapper ledgerEntryMapper;
+
+    @Autowired
+    private PositionMapper positionMapper;
+
+    @Test
+    void testConcurrentReplays_ResolveDeterministically() throws Exception {
+        // Given
+        String account = "stress-acct-" + UUID.randomUUID();
+        // Open the position up front: H2's MERGE fails one of two transactions inserting the
+        // same new row (PostgreSQL's ON CONFLICT does not), and this test is about trade ids
+        positionMapper.upsertAll(List.of(new Position(account, "AAPL", BigDecimal.ZERO, BigDecimal.ZERO)));
+        List<String> tradeIds = new ArrayList<>();
+        for (int i = 0; i < TRADE_IDS; i++) {
+            tradeIds.add(UUID.randomUUID().toString());
+        }
+        Map<String, AtomicInteger> createdPerId = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // When - every thread submits every id, the last thread with a different quantity
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String quantity = t == THREADS - 1 ? "999" : "100";
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int r = 0; r < REPLAYS_PER_THREAD; r++) {
+                    for (String tradeId : tradeIds) {
+                        int status = submit(new CreateTradeRequest(tradeId, account, "AAPL",
+                                new BigDecimal(quantity), new BigDecimal("150.25"), "BUY"));
+                        statusCounts.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                        if (status == 201) {
+                            createdPerId.computeIfAbsent(tradeId, id -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(statusCounts.keySet()).isSubsetOf(200, 201, 409);
+        assertThat(createdPerId).hasSize(TRADE_IDS);
+        assertThat(createdPerId.values()).allMatch(count -> count.get() == 1);
+        assertThat(tradeMapper.findByAccountId(account, 1_000, 0)).hasSize(TRADE_IDS);
+        assertThat(ledgerEntryMapper.findByAccountId(account, 1_000, 0)).hasSize(2 * TRADE_IDS);
+        assertThat(statusCounts.values().stream().mapToInt(AtomicInteger::get).sum())
+                .isEqualTo(THREADS * REPLAYS_PER_THREAD * TRADE_IDS);
+    }
+
+    private int submit(CreateTradeRequest request) throws Exception {
+        return mockMvc.perform(post("/api/v1/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+}
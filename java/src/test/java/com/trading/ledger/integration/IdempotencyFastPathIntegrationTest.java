@@ -0,0 +1,121 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.TradeResponse;
+import com.trading.ledger.idempotency.TradeIdempotencyCache;
+import com.trading.ledger.mapper.TradeMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "trades.idempotency.fast-path.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyFastPathIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private TradeIdempotencyCache idempotencyCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void awaitWarmUp() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!idempotencyCache.isWarm()) {
+            assertThat(System.currentTimeMillis()).as("Bloom filter warmed in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testRetry_AnsweredFromCache() throws Exception {
+        // Given
+        CreateTradeRequest request = request(UUID.randomUUID().toString(), "100");
+        post(request).andExpect(status().isCreated());
+        double hitsBefore = meterRegistry.counter("trades.idempotency.cache", "result", "hit").count();
+
+        // When/Then
+        post(request).andExpect(status().isOk()).andExpect(jsonPath("$.tradeId").value(request.getTradeId()));
+        assertThat(meterRegistry.counter("trades.idempotency.cache", "result", "hit").count())
+                .isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void testRetry_CachedResponseMatchesStoredTrade() throws Exception {
+        // Given
+        CreateTradeRequest request = request(UUID.randomUUID().toString(), "100");
+        String created = post(request).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        double hitsBefore = meterRegistry.counter("trades.idempotency.cache", "result", "hit").count();
+
+        // When - a retry answered from the cache
+        String cached = post(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        // Then - it is the response a lookup would build from the row, created_at included
+        assertThat(meterRegistry.counter("trades.idempotency.cache", "result", "hit").count())
+                .isEqualTo(hitsBefore + 1);
+        TradeResponse uncached = TradeResponse.from(tradeMapper.findByTradeId(request.getTradeId()).orElseThrow());
+        assertThat(uncached.getCreatedAt()).isNotNull();
+        assertThat(objectMapper.readValue(cached, TradeResponse.class))
+                .usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(uncached);
+        assertThat(created).isEqualTo(cached);
+    }
+
+    @Test
+    void testTradeUnknownToFilter_UniqueConstraintResolvesTo200Or409() throws Exception {
+        // Given - a trade written behind the cache's back, e.g. by another instance
+        String tradeId = UUID.randomUUID().toString();
+        tradeMapper.insert(new Trade(tradeId, "fastpath-acct", "AAPL", new BigDecimal("100"),
+                new BigDecimal("150.5"), Trade.Side.BUY, System.nanoTime()));
+        double conflictsBefore = meterRegistry.counter("trades.idempotency.insert_conflicts").count();
+
+        // When/Then - the lookup is skipped, the insert hits the constraint, and it resolves like a retry
+        post(request(tradeId, "100")).andExpect(status().isOk());
+        assertThat(meterRegistry.counter("trades.idempotency.insert_conflicts").count())
+                .isEqualTo(conflictsBefore + 1);
+
+        // ... and the row is now known, so a conflicting retry is answered without an insert
+        post(request(tradeId, "200")).andExpect(status().isConflict());
+        assertThat(meterRegistry.counter("trades.idempotency.insert_conflicts").count())
+                .isEqualTo(conflictsBefore + 1);
+    }
+
+    private ResultActions post(CreateTradeRequest request) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/trades")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private static CreateTradeRequest request(String tradeId, String quantity) {
+        return new CreateTradeRequest(tradeId, "fastpath-acct", "AAPL", new BigDecimal(quantity),
+                new BigDecimal("150.5"), "BUY");
+    }
+}
@@ -0,0 +1,12 @@
+package com.trading.ledger.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "trades.idempotency.mode=insert-first",
+        "logging.level.com.trading.ledger=WARN"
+})
+@ActiveProfiles("test")
+class InsertFirstConcurrentRetryStressTest extends ConcurrentTradeRetryStressTest {
+}
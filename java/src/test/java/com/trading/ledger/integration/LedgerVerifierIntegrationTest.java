@@ -0,0 +1,81 @@
+package com.trading.ledger.integration;
+
+import com.trading.ledger.domain.LedgerEntry;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.LedgerVerificationReport;
+import com.trading.ledger.dto.LedgerViolation;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.service.LedgerVerifier;
+import com.trading.ledger.service.TradeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LedgerVerifierIntegrationTest {
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private LedgerEntryMapper ledgerEntryMapper;
+
+    @Autowired
+    private LedgerVerifier ledgerVerifier;
+
+    @Test
+    void testVerify_ReportsOnlyCorruptedTrades() {
+        // Given - three trades, then one of them gets a stray extra entry
+        Instant from = Instant.now().minus(Duration.ofHours(1));
+        List<String> tradeIds = List.of(createTrade(), createTrade(), createTrade());
+        String corrupted = tradeIds.get(1);
+        ledgerEntryMapper.insertAll(List.of(new LedgerEntry(corrupted, "verify-acct",
+                LedgerEntry.EntryType.DEBIT, new BigDecimal("5"), System.nanoTime())));
+        Instant to = Instant.now().plus(Duration.ofHours(1));
+
+        // When
+        LedgerVerificationReport report = ledgerVerifier.verify(from, to);
+
+        // Then
+        assertThat(report.getTradesChecked()).isGreaterThanOrEqualTo(3);
+        assertThat(report.isBalanced()).isFalse();
+        LedgerViolation violation = report.getViolations().stream()
+                .filter(v -> v.getTradeId().equals(corrupted))
+                .findFirst()
+                .orElseThrow();
+        assertThat(violation.getEntryCount()).isEqualTo(3);
+        assertThat(violation.getBalance()).isEqualByComparingTo("5");
+        assertThat(report.getViolations()).extracting(LedgerViolation::getTradeId)
+                .doesNotContain(tradeIds.get(0), tradeIds.get(2));
+    }
+
+    @Test
+    void testVerify_EmptyRangeChecksNothing() {
+        // Given
+        Instant from = Instant.parse("2000-01-01T00:00:00Z");
+
+        // When
+        LedgerVerificationReport report = ledgerVerifier.verify(from, from.plusSeconds(60));
+
+        // Then
+        assertThat(report.getTradesChecked()).isZero();
+        assertThat(report.isBalanced()).isTrue();
+    }
+
+    private String createTrade() {
+        String tradeId = UUID.randomUUID().toString();
+        tradeService.createTrade(new CreateTradeRequest(tradeId, "verify-acct", "AAPL",
+                new BigDecimal("10"), new BigDecimal("101.5"), "BUY"));
+        return tradeId;
+    }
+}
@@ -0,0 +1,100 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.LoadGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.com.trading.ledger.mapper=INFO",
+        "logging.level.com.trading.ledger.service=WARN",
+        "logging.level.com.trading.ledger.controller=WARN"
+})
+@ActiveProfiles("test")
+class LoadGeneratorIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testRun_SendsAtTargetRateAndWritesCsvAndJson() throws Exception {
+        // Given
+        LoadGenerator.Options options = options(LoadGenerator.Mode.BLOCKING, HttpClient.Version.HTTP_1_1);
+
+        // When
+        LoadGenerator.Result result = new LoadGenerator(options).run();
+        Path csv = tempDir.resolve("results.csv");
+        Path json = tempDir.resolve("results.json");
+        LoadGenerator.writeResult(result, csv);
+        LoadGenerator.writeResult(result, json);
+
+        // Then - every scheduled request is sent once and measured once
+        assertAllCompleted(result);
+        assertThat(result.total().p50()).isPositive();
+        assertThat(result.total().max()).isGreaterThanOrEqualTo(result.total().p9999());
+        assertThat(result.total().targetRatePerSecond()).isEqualTo(100);
+        assertThat(result.intervals()).isNotEmpty();
+
+        List<String> lines = Files.readAllLines(csv);
+        assertThat(lines.get(0)).startsWith("interval,elapsed_s,sent,completed,errors,target_rate_per_s");
+        assertThat(lines).hasSize(result.intervals().size() + 2);
+        assertThat(lines.get(lines.size() - 1)).startsWith("total,");
+
+        JsonNode root = new ObjectMapper().readTree(json.toFile());
+        assertThat(root.path("options").path("mode").asText()).isEqualTo("blocking");
+        assertThat(root.path("total").path("completed").asLong()).isEqualTo(200);
+        assertThat(root.path("intervals")).hasSize(result.intervals().size());
+    }
+
+    @Test
+    void testRun_AsyncModeOverHttp2() throws Exception {
+        // Given - Tomcat here speaks HTTP/1.1 only, so the client falls back after the upgrade attempt
+        LoadGenerator.Options options = options(LoadGenerator.Mode.ASYNC, HttpClient.Version.HTTP_2);
+
+        // When
+        LoadGenerator.Result result = new LoadGenerator(options).run();
+
+        // Then
+        assertAllCompleted(result);
+    }
+
+    @Test
+    void testRun_VirtualThreadMode() throws Exception {
+        // Given
+        LoadGenerator.Options options = options(LoadGenerator.Mode.VIRTUAL, HttpClient.Version.HTTP_1_1);
+
+        // When
+        LoadGenerator.Result result = new LoadGenerator(options).run();
+
+        // Then
+        assertAllCompleted(result);
+    }
+
+    private LoadGenerator.Options options(LoadGenerator.Mode mode, HttpClient.Version httpVersion) {
+        return new LoadGenerator.Options(100, 2, mode, 8, 64, 2, httpVersion,
+                URI.create("http://localhost:" + port + "/api/v1/trades"), 1, null);
+    }
+
+    private static void assertAllCompleted(LoadGenerator.Result result) {
+        assertThat(result.total().sent()).isEqualTo(200);
+        assertThat(result.total().completed()).isEqualTo(200);
+        assertThat(result.total().errors()).isZero();
+        assertThat(result.total().sendRatePerSecond()).isGreaterThan(50);
+        assertThat(result.total().clientCpuPercent()).isGreaterThanOrEqualTo(0);
+    }
+}
@@ -0,0 +1,132 @@
+package com.trading.ledger.integration;
+
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogReader;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+import com.trading.ledger.mapper.EventOutboxMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.OutboxRelay;
+import com.trading.ledger.service.TradeService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "logging.level.com.trading.ledger.mapper.EventOutboxMapper=INFO")
+@ActiveProfiles("test")
+class OutboxRelayIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayIntegrationTest.class);
+
+    private static final Path LOG_PATH;
+
+    static {
+        try {
+            LOG_PATH = Files.createTempDirectory("outbox-relay-test").resolve("event_log.bin");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void eventLogProperties(DynamicPropertyRegistry registry) {
+        registry.add("eventlog.file-path", LOG_PATH::toString);
+        registry.add("eventlog.publish.mode", () -> "outbox");
+    }
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private EventOutboxMapper outboxMapper;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private EventLogWriter eventLogWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testRelay_AppendsCommittedTradesAndDrainsOutbox() throws Exception {
+        // Given
+        List<String> tradeIds = IntStream.range(0, 20).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        // When
+        for (String tradeId : tradeIds) {
+            tradeService.createTrade(new CreateTradeRequest(tradeId, "outbox-acct", "AAPL",
+                    new BigDecimal("10"), new BigDecimal("100.5"), "BUY"));
+        }
+        awaitOutboxDrained(5_000);
+
+        // Then
+        assertThat(readTradeIdsFromLog()).containsAll(tradeIds);
+        assertThat(outboxRelay.getLagMillis()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void testRelay_CatchesUpBacklog() throws Exception {
+        // Given - a backlog committed in one transaction, so the relay sees it all at once
+        int backlog = 20_000;
+        long sequenceBefore = eventLogWriter.getCurrentSequence();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < backlog; i++) {
+                Trade trade = new Trade(UUID.randomUUID().toString(), "backlog-acct", "MSFT",
+                        BigDecimal.ONE, BigDecimal.TEN, Trade.Side.SELL, System.nanoTime());
+                tradeMapper.insert(trade);
+                outboxMapper.insert(Event.EventType.TRADE_CREATED.getValue(), trade.getTradeId(), System.currentTimeMillis());
+            }
+        });
+
+        // When
+        long start = System.nanoTime();
+        awaitOutboxDrained(30_000);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Then
+        assertThat(eventLogWriter.getCurrentSequence() - sequenceBefore).isGreaterThanOrEqualTo(backlog);
+        logger.info("Outbox relay drained {} events in {} s ({} events/s)",
+                backlog, String.format("%.2f", seconds), String.format("%.0f", backlog / seconds));
+    }
+
+    private void awaitOutboxDrained(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!outboxMapper.findBatch(1).isEmpty()) {
+            assertThat(System.currentTimeMillis()).as("outbox drained in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private Set<String> readTradeIdsFromLog() throws IOException {
+        Set<String> tradeIds = new HashSet<>();
+        try (EventLogReader reader = new EventLogReader(LOG_PATH)) {
+            reader.forEach(record -> tradeIds.add(TradeCreatedPayload.decode(record).getTradeId()));
+        }
+        return tradeIds;
+    }
+}
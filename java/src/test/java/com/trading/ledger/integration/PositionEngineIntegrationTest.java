@@ -0,0 +1,105 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.dto.BatchCreateTradeRequest;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.PositionConsistencyReport;
+import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.position.PositionEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "positions.engine.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PositionEngineIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PositionEngine positionEngine;
+
+    @Test
+    void testEngine_FollowsSingleAndBatchTradesAndMatchesTrades() throws Exception {
+        // Given
+        String accountId = "engine-acct-" + UUID.randomUUID();
+        assertThat(positionEngine.isReady()).isTrue();
+
+        // When - single trades and a batch
+        createTrade(accountId, "AAPL", "100", "150.00", "BUY");
+        createTrade(accountId, "AAPL", "40", "160.00", "SELL");
+        mockMvc.perform(post("/api/v1/trades/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCreateTradeRequest(List.of(
+                                request(accountId, "AAPL", "10", "155.00", "BUY"),
+                                request(accountId, "MSFT", "3", "301.25", "BUY"))))))
+                .andExpect(status().isOk());
+
+        // Then - served from the engine, and consistent with the trades table
+        List<PositionResponse> served = positionEngine.getPositions(accountId).orElseThrow();
+        assertThat(served).extracting(PositionResponse::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(served.get(0).getQuantity()).isEqualByComparingTo("70");
+        assertThat(served.get(0).getAveragePrice()).isEqualByComparingTo("145");
+
+        String json = mockMvc.perform(get("/api/v1/positions/" + accountId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<PositionResponse> response = objectMapper.readValue(json,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, PositionResponse.class));
+        assertThat(response).usingRecursiveFieldByFieldElementComparator().isEqualTo(served);
+
+        String reportJson = mockMvc.perform(get("/api/v1/positions/" + accountId + "/consistency"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        PositionConsistencyReport report = objectMapper.readValue(reportJson, PositionConsistencyReport.class);
+        assertThat(report.getMismatchedSymbols()).isEmpty();
+        assertThat(report.isEngineAvailable()).isTrue();
+    }
+
+    @Test
+    void testEngine_RebuildFromDatabaseKeepsPositions() throws Exception {
+        // Given
+        String accountId = "engine-rebuild-" + UUID.randomUUID();
+        createTrade(accountId, "TSLA", "12.5", "201.10", "BUY");
+        List<PositionResponse> before = positionEngine.getPositions(accountId).orElseThrow();
+
+        // When
+        positionEngine.rebuild();
+
+        // Then
+        assertThat(positionEngine.getPositions(accountId).orElseThrow())
+                .usingRecursiveFieldByFieldElementComparator().isEqualTo(before);
+        assertThat(positionEngine.checkConsistency(accountId).isConsistent()).isTrue();
+    }
+
+    private void createTrade(String accountId, String symbol, String quantity, String price, String side)
+            throws Exception {
+        mockMvc.perform(post("/api/v1/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(accountId, symbol, quantity, price, side))))
+                .andExpect(status().isCreated());
+    }
+
+    private CreateTradeRequest request(String accountId, String symbol, String quantity, String price, String side) {
+        return new CreateTradeRequest(UUID.randomUUID().toString(), accountId, symbol,
+                new BigDecimal(quantity), new BigDecimal(price), side);
+    }
+}
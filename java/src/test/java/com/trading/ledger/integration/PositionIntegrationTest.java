@@ -3,6 +3,7 @@ package com.trading.ledger.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trading.ledger.dto.CreateTradeRequest;
 import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.mapper.PositionMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +34,9 @@ class PositionIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PositionMapper positionMapper;
+
     private static final String ACCOUNT_ID = "test-account-" + UUID.randomUUID();
 
     @BeforeEach
@@ -135,6 +139,30 @@ class PositionIntegrationTest {
                 .containsExactlyInAnyOrder("AAPL", "GOOGL", "MSFT");
     }
 
+    @Test
+    void testIncrementalPositions_MatchTradeAggregateAndRebuild() throws Exception {
+        String accountId = "incremental-" + UUID.randomUUID();
+
+        // BUY 100@150, SELL 40@160, BUY 10@155 -> 70 shares, notional 15000 - 6400 + 1550 = 10150
+        createTrade(accountId, "AAPL", "100", "150.00", "BUY");
+        createTrade(accountId, "AAPL", "40", "160.00", "SELL");
+        createTrade(accountId, "AAPL", "10", "155.00", "BUY");
+        createTrade(accountId, "MSFT", "5", "300.00", "BUY");
+
+        List<PositionResponse> incremental = positionMapper.findByAccountId(accountId);
+        assertThat(incremental).extracting("symbol").containsExactly("AAPL", "MSFT");
+        assertThat(incremental.get(0).getQuantity()).isEqualByComparingTo("70");
+        assertThat(incremental.get(0).getAveragePrice()).isEqualByComparingTo("145.00000000");
+        assertThat(positionMapper.calculateFromTrades(accountId).get(0).getAveragePrice())
+                .isEqualByComparingTo("145");
+
+        // The rebuild command (an actuator operation) recomputes the same rows from trades
+        mockMvc.perform(post("/actuator/positions"))
+                .andExpect(status().isOk());
+        List<PositionResponse> rebuilt = positionMapper.findByAccountId(accountId);
+        assertThat(rebuilt).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+    }
+
     private void createTrade(String accountId, String symbol, String quantity, String price, String side) throws Exception {
         CreateTradeRequest request = new CreateTradeRequest();
         request.setTradeId(UUID.randomUUID().toString());
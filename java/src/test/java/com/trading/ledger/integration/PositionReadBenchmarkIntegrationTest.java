@@ -0,0 +1,120 @@
+package com.trading.ledger.integration;
+
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.PositionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of what GET /positions runs for one account with many trades: the positions
+ * table lookup against the GROUP BY over the account's trades it replaced. Tagged
+ * "benchmark", so it only runs with -Pbenchmarks; the trade count defaults to 100K, run
+ * with -Dbenchmark.positions.trades=1000000 for the 1M-trade figure. Table and aggregate
+ * agreeing is checked in the regular suite by PositionIntegrationTest.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.trading.ledger.mapper=INFO")
+@ActiveProfiles("test")
+class PositionReadBenchmarkIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PositionReadBenchmarkIntegrationTest.class);
+
+    private static final int TRADES = Integer.getInteger("benchmark.positions.trades", 100_000);
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "META", "TSLA", "JPM"};
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private PositionMapper positionMapper;
+
+    @Autowired
+    private PositionService positionService;
+
+    @Test
+    void testGetPositions_TableLookupAgainstTradeAggregate() throws Exception {
+        // Given - one account with TRADES trades, positions rebuilt from them in bulk
+        String accountId = "bench-acct-" + UUID.randomUUID();
+        long start = System.nanoTime();
+        List<Trade> chunk = new ArrayList<>(1_000);
+        for (int i = 0; i < TRADES; i++) {
+            chunk.add(new Trade(UUID.randomUUID().toString(), accountId, SYMBOLS[i % SYMBOLS.length],
+                    BigDecimal.valueOf(1 + i % 100), BigDecimal.valueOf(100 + i % 50, 2),
+                    i % 3 == 0 ? Trade.Side.SELL : Trade.Side.BUY, System.nanoTime()));
+            if (chunk.size() == 1_000 || i == TRADES - 1) {
+                tradeMapper.insertAllIfAbsent(chunk);
+                chunk.clear();
+            }
+        }
+        logger.info("Inserted {} trades in {} ms", TRADES, (System.nanoTime() - start) / 1_000_000);
+        positionService.rebuildPositions();
+
+        // When - H2 caches query results until a table changes, so every call follows a write
+        long[] table = time(200, this::touchTables, () -> positionService.calculatePositions(accountId));
+        long[] aggregate = time(20, this::touchTables, () -> positionMapper.calculateFromTrades(accountId));
+
+        // Then
+        List<PositionResponse> fromTable = positionMapper.findByAccountId(accountId);
+        List<PositionResponse> fromTrades = positionMapper.calculateFromTrades(accountId);
+        assertThat(fromTable).hasSize(SYMBOLS.length);
+        for (int i = 0; i < fromTable.size(); i++) {
+            assertThat(fromTable.get(i).getSymbol()).isEqualTo(fromTrades.get(i).getSymbol());
+            assertThat(fromTable.get(i).getQuantity()).isEqualByComparingTo(fromTrades.get(i).getQuantity());
+        }
+        logger.info("Positions of an account with {} trades: table lookup p50 {} us / max {} us, "
+                        + "trade aggregate p50 {} us / max {} us",
+                TRADES, micros(table, 50), micros(table, 100),
+                micros(aggregate, 50), micros(aggregate, 100));
+    }
+
+    /**
+     * One trade and one position change on another account.
+     */
+    private void touchTables() {
+        Trade noise = new Trade(UUID.randomUUID().toString(), "bench-noise", "AAPL",
+                BigDecimal.ONE, BigDecimal.TEN, Trade.Side.BUY, System.nanoTime());
+        tradeMapper.insertAllIfAbsent(List.of(noise));
+        positionService.applyTrades(List.of(noise));
+    }
+
+    private interface Call {
+        void run() throws Exception;
+    }
+
+    private static long[] time(int iterations, Runnable before, Call call) throws Exception {
+        for (int i = 0; i < Math.min(iterations, 50); i++) {
+            before.run();
+            call.run();
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            before.run();
+            long start = System.nanoTime();
+            call.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long micros(long[] sortedNanos, int percentile) {
+        int index = Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100);
+        return sortedNanos[index] / 1_000;
+    }
+}
@@ -0,0 +1,215 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.mapper.PositionMapper;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POST /api/v1/trades over real HTTP at increasing concurrency, once with Tomcat on its
+ * platform thread pool and once with spring.threads.virtual.enabled. Each level sends
+ * REQUESTS_PER_LEVEL trades from that many closed-loop clients. The load runs are tagged
+ * "benchmark" and only run with -Pbenchmarks (-Dbenchmark.threads.requests=20000 for
+ * steadier numbers); the regular suite checks each mode's executor with a few requests.
+ */
+class ThreadModeLoadComparisonTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModeLoadComparisonTest.class);
+
+    private static final int REQUESTS_PER_LEVEL = Integer.getInteger("benchmark.threads.requests", 500);
+    private static final int[] CONCURRENCY = {8, 64, 256};
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.threads.virtual.enabled=false",
+            "logging.level.com.trading.ledger.mapper=INFO",
+            "logging.level.com.trading.ledger.service=WARN",
+            "logging.level.com.trading.ledger.controller=WARN"
+    })
+    @ActiveProfiles("test")
+    class PlatformThreads extends LoadRun {
+        @Test
+        void testCreateTrade_ServedByPlatformThreadPool() throws Exception {
+            smoke(false);
+        }
+
+        @Test
+        @Tag("benchmark")
+        void testCreateTrade_UnderIncreasingConcurrency() throws Exception {
+            run(false);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+            "spring.threads.virtual.enabled=true",
+            "logging.level.com.trading.ledger.mapper=INFO",
+            "logging.level.com.trading.ledger.service=WARN",
+            "logging.level.com.trading.ledger.controller=WARN"
+    })
+    @ActiveProfiles("test")
+    class VirtualThreads extends LoadRun {
+        @Test
+        void testCreateTrade_ServedByVirtualThreads() throws Exception {
+            smoke(true);
+        }
+
+        @Test
+        @Tag("benchmark")
+        void testCreateTrade_UnderIncreasingConcurrency() throws Exception {
+            run(true);
+        }
+    }
+
+    abstract static class LoadRun {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private ServletWebServerApplicationContext context;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private PositionMapper positionMapper;
+
+        void smoke(boolean virtual) throws Exception {
+            // Given
+            assertExecutor(virtual);
+
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                // When
+                Result result = level(client, uri(), 4, 20, virtual ? "virtual-smoke" : "platform-smoke");
+
+                // Then
+                assertAccepted(result, 20);
+            }
+        }
+
+        void run(boolean virtual) throws Exception {
+            // Given
+            assertExecutor(virtual);
+            URI uri = uri();
+            String mode = virtual ? "virtual" : "platform";
+
+            try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+                level(client, uri, 8, 200, mode + "-warmup");
+
+                for (int concurrency : CONCURRENCY) {
+                    // When
+                    Result result = level(client, uri, concurrency, REQUESTS_PER_LEVEL, mode);
+
+                    // Then
+                    assertAccepted(result, REQUESTS_PER_LEVEL);
+                    logger.info("{} threads, {} clients: {} req/s, p50 {} ms, p99 {} ms, max {} ms, {} rejected with 503",
+                            mode, concurrency, String.format("%.0f", result.throughput),
+                            String.format("%.2f", result.percentileMs(0.50)),
+                            String.format("%.2f", result.percentileMs(0.99)),
+                            String.format("%.2f", result.percentileMs(1.0)), result.rejected);
+                }
+            }
+        }
+
+        private void assertExecutor(boolean virtual) {
+            TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+            assertThat(server.getTomcat().getConnector().getProtocolHandler().getExecutor() instanceof VirtualThreadExecutor)
+                    .isEqualTo(virtual);
+        }
+
+        private URI uri() {
+            return URI.create("http://localhost:" + port + "/api/v1/trades");
+        }
+
+        // The only acceptable failure is the limiter's 503
+        private static void assertAccepted(Result result, int requests) {
+            assertThat(result.otherStatuses).isEmpty();
+            assertThat(result.created + result.rejected).isEqualTo(requests);
+            assertThat(result.created).isPositive();
+        }
+
+        private Result level(HttpClient client, URI uri, int concurrency, int requests, String mode) throws Exception {
+            String account = "load-" + mode + "-" + concurrency + "-" + UUID.randomUUID();
+            // Open the position up front: H2's MERGE fails one of two transactions inserting the
+            // same new row (PostgreSQL's ON CONFLICT does not), which is not what this measures
+            positionMapper.upsertAll(List.of(new Position(account, "AAPL", BigDecimal.ZERO, BigDecimal.ZERO)));
+            long[] latencies = new long[requests];
+            AtomicInteger next = new AtomicInteger();
+            AtomicInteger created = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            Map<Integer, Integer> other = new ConcurrentHashMap<>();
+
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>(concurrency);
+                for (int c = 0; c < concurrency; c++) {
+                    futures.add(clients.submit(() -> {
+                        for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                            HttpRequest request = HttpRequest.newBuilder(uri)
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                            new CreateTradeRequest(UUID.randomUUID().toString(), account, "AAPL",
+                                                    BigDecimal.ONE, new BigDecimal("101.25"), "BUY"))))
+                                    .build();
+                            long sent = System.nanoTime();
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latencies[i] = System.nanoTime() - sent;
+                            if (status == 201) {
+                                created.incrementAndGet();
+                            } else if (status == 503) {
+                                rejected.incrementAndGet();
+                            } else {
+                                other.merge(status, 1, Integer::sum);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(created.get(), rejected.get(), other, requests / seconds, latencies);
+        }
+    }
+
+    private record Result(int created, int rejected, Map<Integer, Integer> otherStatuses, double throughput, long[] sortedNanos) {
+        double percentileMs(double p) {
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.dto.BatchCreateTradeRequest;
+import com.trading.ledger.dto.BatchTradeResponse;
+import com.trading.ledger.dto.BatchTradeResult;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.TradeService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "logging.level.com.trading.ledger.mapper=INFO",
+        "logging.level.com.trading.ledger.service=WARN",
+        "logging.level.com.trading.ledger.controller=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TradeBatchIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeBatchIntegrationTest.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private LedgerEntryMapper ledgerEntryMapper;
+
+    @Autowired
+    private EventLogWriter eventLogWriter;
+
+    @Autowired
+    private PositionMapper positionMapper;
+
+    @Test
+    void testBatch_CreatesTradesEntriesAndEventsThenResolvesRetries() throws Exception {
+        // Given
+        String account = "batch-acct-" + UUID.randomUUID();
+        List<CreateTradeRequest> trades = newTrades(account, 50);
+        long sequenceBefore = eventLogWriter.getCurrentSequence();
+
+        // When
+        BatchTradeResponse first = submit(trades);
+
+        // Then
+        assertThat(first.getCreated()).isEqualTo(50);
+        assertThat(tradeMapper.findByAccountId(account, 100, 0)).hasSize(50);
+        assertThat(ledgerEntryMapper.findByAccountId(account, 200, 0)).hasSize(100);
+        assertThat(eventLogWriter.getCurrentSequence() - sequenceBefore).isEqualTo(50);
+
+        // When - the same batch again, one item changed
+        List<CreateTradeRequest> retry = new ArrayList<>(trades);
+        CreateTradeRequest changed = trades.get(7);
+        retry.set(7, new CreateTradeRequest(changed.getTradeId(), account, "AAPL",
+                changed.getQuantity().add(BigDecimal.ONE), changed.getPrice(), changed.getSide()));
+        BatchTradeResponse second = submit(retry);
+
+        // Then - nothing new written
+        assertThat(second.getIdempotent()).isEqualTo(49);
+        assertThat(second.getConflict()).isEqualTo(1);
+        assertThat(second.getResults().get(7).getStatus()).isEqualTo(BatchTradeResult.Status.CONFLICT);
+        assertThat(tradeMapper.findByAccountId(account, 100, 0)).hasSize(50);
+        assertThat(eventLogWriter.getCurrentSequence() - sequenceBefore).isEqualTo(50);
+    }
+
+    @Test
+    void testBatch_ConcurrentOverlappingBatchesResolvePerItem() throws Exception {
+        // Given - every thread submits the same ids in its own order, the last with a different
+        // quantity; with the fast path on, unseen ids skip the lookup and race to the insert
+        int threads = 8;
+        String account = "batch-race-acct-" + UUID.randomUUID();
+        List<CreateTradeRequest> trades = newTrades(account, 40);
+        // Open the positions up front: H2's MERGE fails one of two transactions inserting the
+        // same new row (PostgreSQL's ON CONFLICT does not), and this test is about trade ids
+        positionMapper.upsertAll(List.of(new Position(account, "AAPL", BigDecimal.ZERO, BigDecimal.ZERO),
+                new Position(account, "MSFT", BigDecimal.ZERO, BigDecimal.ZERO)));
+        Map<String, AtomicInteger> createdPerId = new ConcurrentHashMap<>();
+        Map<BatchTradeResult.Status, AtomicInteger> statusCounts = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<CreateTradeRequest> batch = new ArrayList<>();
+            for (CreateTradeRequest trade : trades) {
+                batch.add(t < threads - 1 ? trade : new CreateTradeRequest(trade.getTradeId(), account,
+                        trade.getSymbol(), trade.getQuantity().add(BigDecimal.ONE), trade.getPrice(), trade.getSide()));
+            }
+            Collections.shuffle(batch, new Random(t));
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (BatchTradeResult result : submit(batch).getResults()) {
+                    statusCounts.computeIfAbsent(result.getStatus(), s -> new AtomicInteger()).incrementAndGet();
+                    if (result.getStatus() == BatchTradeResult.Status.CREATED) {
+                        createdPerId.computeIfAbsent(result.getTradeId(), id -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then - every batch succeeded, each id was created by exactly one of them and stored once
+        assertThat(statusCounts.keySet()).isSubsetOf(BatchTradeResult.Status.CREATED,
+                BatchTradeResult.Status.IDEMPOTENT, BatchTradeResult.Status.CONFLICT);
+        assertThat(createdPerId).hasSize(trades.size());
+        assertThat(createdPerId.values()).allMatch(count -> count.get() == 1);
+        assertThat(tradeMapper.findByAccountId(account, 100, 0)).hasSize(trades.size());
+        assertThat(ledgerEntryMapper.findByAccountId(account, 200, 0)).hasSize(2 * trades.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testBatch_ThroughputAgainstSingleTradePath() {
+        // Given
+        int total = 5_000;
+        int batchSize = 500;
+        List<CreateTradeRequest> single = newTrades("single-acct-" + UUID.randomUUID(), total);
+        List<CreateTradeRequest> batched = newTrades("batched-acct-" + UUID.randomUUID(), total);
+        tradeService.createTrades(newTrades("warmup-acct", batchSize));
+
+        // When
+        long start = System.nanoTime();
+        for (CreateTradeRequest request : single) {
+            tradeService.createTrade(request);
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        int created = 0;
+        for (int i = 0; i < total; i += batchSize) {
+            created += tradeService.createTrades(batched.subList(i, i + batchSize)).getCreated();
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+
+        // Then
+        assertThat(created).isEqualTo(total);
+        logger.info("{} trades: single {} trades/s, batches of {} {} trades/s", total,
+                String.format("%.0f", total / singleSeconds), batchSize, String.format("%.0f", total / batchSeconds));
+    }
+
+    private BatchTradeResponse submit(List<CreateTradeRequest> trades) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/trades/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchCreateTradeRequest(trades))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BatchTradeResponse.class);
+    }
+
+    private static List<CreateTradeRequest> newTrades(String account, int count) {
+        List<CreateTradeRequest> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trades.add(new CreateTradeRequest(UUID.randomUUID().toString(), account, i % 2 == 0 ? "AAPL" : "MSFT",
+                    BigDecimal.valueOf(10 + i), new BigDecimal("101.25"), i % 3 == 0 ? "SELL" : "BUY"));
+        }
+        return trades;
+    }
+}
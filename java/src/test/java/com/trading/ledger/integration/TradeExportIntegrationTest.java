@@ -0,0 +1,180 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.CreateTradeRequest;
+import com.trading.ledger.dto.TradeResponse;
+import com.trading.ledger.mapper.TradeMapper;
+import com.trading.ledger.service.TradeExportService;
+import com.trading.ledger.service.TradeService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "logging.level.com.trading.ledger.mapper=INFO",
+        "logging.level.com.trading.ledger.service=WARN",
+        "logging.level.com.trading.ledger.controller=WARN"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TradeExportIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportIntegrationTest.class);
+
+    private static final int EXPORT_TRADES = Integer.getInteger("benchmark.export.trades", 100_000);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeMapper tradeMapper;
+
+    @Autowired
+    private TradeExportService tradeExportService;
+
+    @Test
+    void testExport_StreamsNdjsonInPageOrder() throws Exception {
+        // Given
+        String account = "export-acct-" + UUID.randomUUID();
+        tradeService.createTrades(newTrades(account, 25));
+        List<String> expected = tradeMapper.findPageByAccountId(account, null, 100).stream()
+                .map(Trade::getTradeId)
+                .toList();
+
+        // When
+        String body = export(account, "ndjson", "application/x-ndjson");
+
+        // Then
+        String[] lines = body.split("\n");
+        assertThat(body).endsWith("\n");
+        List<String> exported = new ArrayList<>();
+        for (String line : lines) {
+            exported.add(objectMapper.readValue(line, TradeResponse.class).getTradeId());
+        }
+        assertThat(exported).hasSize(25).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testExport_WritesCsvWithQuotedFields() throws Exception {
+        // Given
+        String account = "export,\"csv\"-" + UUID.randomUUID();
+        tradeService.createTrades(newTrades(account, 2));
+
+        // When
+        String body = export(account, "csv", "text/csv");
+
+        // Then
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("tradeId,accountId,symbol,quantity,price,side,timestampNs,createdAt");
+        assertThat(lines[1]).contains(",\"" + account.replace("\"", "\"\"") + "\",AAPL,");
+        assertThat(lines[1].split(",")).hasSize(9);
+    }
+
+    @Test
+    void testExport_RejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/trades/export").param("accountId", "acc").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Export throughput for one account with EXPORT_TRADES trades (-Pbenchmarks only). Run
+     * with -Dbenchmark.export.trades=10000000 for a large account; heap use stays flat.
+     */
+    @Test
+    @Tag("benchmark")
+    void testExport_Throughput() throws Exception {
+        // Given
+        String account = "export-bench-" + UUID.randomUUID();
+        List<Trade> chunk = new ArrayList<>(1_000);
+        for (int i = 0; i < EXPORT_TRADES; i++) {
+            chunk.add(new Trade(UUID.randomUUID().toString(), account, "AAPL", BigDecimal.valueOf(1 + i % 100),
+                    new BigDecimal("101.25"), i % 3 == 0 ? Trade.Side.SELL : Trade.Side.BUY, System.nanoTime()));
+            if (chunk.size() == 1_000 || i == EXPORT_TRADES - 1) {
+                tradeMapper.insertAllIfAbsent(chunk);
+                chunk.clear();
+            }
+        }
+        // One warm-up export per format
+        for (TradeExportService.Format format : TradeExportService.Format.values()) {
+            tradeExportService.export(account, format, new CountingOutputStream());
+        }
+
+        for (TradeExportService.Format format : TradeExportService.Format.values()) {
+            // When
+            CountingOutputStream out = new CountingOutputStream();
+            long start = System.nanoTime();
+            long rows = tradeExportService.export(account, format, out);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            // Then
+            assertThat(rows).isEqualTo(EXPORT_TRADES);
+            logger.info("Exported {} trades as {}: {} rows/s, {} MB", rows, format,
+                    String.format("%.0f", rows / seconds), out.bytes / (1024 * 1024));
+        }
+    }
+
+    private String export(String account, String format, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/trades/export")
+                        .param("accountId", account)
+                        .param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private static List<CreateTradeRequest> newTrades(String account, int count) {
+        List<CreateTradeRequest> trades = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trades.add(new CreateTradeRequest(UUID.randomUUID().toString(), account, "AAPL",
+                    BigDecimal.valueOf(1 + i), new BigDecimal("101.25"), i % 3 == 0 ? "SELL" : "BUY"));
+        }
+        return trades;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
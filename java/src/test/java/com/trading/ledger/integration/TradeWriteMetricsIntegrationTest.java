@@ -0,0 +1,82 @@
+package com.trading.ledger.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trading.ledger.dto.CreateTradeRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "logging.level.com.trading.ledger.mapper=INFO",
+        "logging.level.com.trading.ledger.service=WARN",
+        "logging.level.com.trading.ledger.controller=WARN"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class TradeWriteMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCreateTrade_RecordsOutcomeAndStageTimersWithHistograms() throws Exception {
+        // Given
+        CreateTradeRequest request = new CreateTradeRequest(UUID.randomUUID().toString(), "metrics-acct", "AAPL",
+                BigDecimal.ONE, new BigDecimal("101.25"), "BUY");
+        CreateTradeRequest conflicting = new CreateTradeRequest(request.getTradeId(), "metrics-acct", "AAPL",
+                BigDecimal.TEN, new BigDecimal("101.25"), "BUY");
+
+        // When - created, idempotent retry, conflicting retry
+        postTrade(request, 201);
+        postTrade(request, 200);
+        postTrade(conflicting, 409);
+
+        // Then
+        mockMvc.perform(get("/actuator/metrics/trades.write"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'outcome')].values[*]",
+                        hasItems("created", "idempotent", "conflict", "error")));
+        mockMvc.perform(get("/actuator/metrics/trades.write.stage"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableTags[?(@.tag == 'stage')].values[*]",
+                        hasItems("lookup", "insert", "ledger", "invariant", "positions", "event_log")));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(scrape)
+                .contains("trades_write_seconds_count{outcome=\"created\"")
+                .contains("trades_write_seconds_bucket{outcome=\"created\",le=\"0.005\"")
+                .contains("trades_write_seconds{outcome=\"conflict\",quantile=\"0.99\"")
+                .contains("trades_write_stage_seconds_bucket{stage=\"insert\",le=\"0.001\"")
+                .contains("trades_write_stage_seconds_count{stage=\"invariant\"");
+    }
+
+    private void postTrade(CreateTradeRequest request, int expectedStatus) throws Exception {
+        mockMvc.perform(post("/api/v1/trades")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,101 @@
+package com.trading.ledger.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void testGetConnection_ReturnsPermitOnFirstCloseOnly() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 0, 10);
+
+        // When
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        // Then
+        assertThat(dataSource.getActive()).isEqualTo(1);
+        verify(connection, times(2)).close();
+        second.close();
+        assertThat(dataSource.getActive()).isZero();
+    }
+
+    @Test
+    void testGetConnection_RejectsBeyondWaitingLimitAndAfterTimeout() throws Exception {
+        // Given - the only permit is taken
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource noWaiting = new ConcurrencyLimitedDataSource(target, 1, 0, 1000);
+        ConcurrencyLimitedDataSource shortWait = new ConcurrencyLimitedDataSource(target, 1, 10, 20);
+        noWaiting.getConnection();
+        shortWait.getConnection();
+
+        // When / Then
+        long start = System.nanoTime();
+        assertThatThrownBy(noWaiting::getConnection).isInstanceOf(JdbcConcurrencyLimitException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+        assertThatThrownBy(shortWait::getConnection).isInstanceOf(JdbcConcurrencyLimitException.class);
+        assertThat(noWaiting.getRejected()).isEqualTo(1);
+        assertThat(shortWait.getRejected()).isEqualTo(1);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void testGetConnection_WaiterGetsReleasedPermit() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 1, 5_000);
+        Connection held = dataSource.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // When
+            CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dataSource.getConnection();
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+            Thread.sleep(50);
+            held.close();
+
+            // Then
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(dataSource.getActive()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testGetConnection_ReturnsPermitWhenPoolFails() throws Exception {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 0, 10);
+
+        // When / Then
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getActive()).isZero();
+    }
+}
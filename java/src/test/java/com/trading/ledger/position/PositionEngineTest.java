@@ -0,0 +1,216 @@
+package com.trading.ledger.position;
+
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.PositionConsistencyReport;
+import com.trading.ledger.dto.PositionResponse;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogOptions;
+import com.trading.ledger.eventlog.FileEventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+import com.trading.ledger.mapper.PositionMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PositionEngineTest {
+
+    @Mock
+    private PositionMapper positionMapper;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testApply_ServesOpenPositionsBySymbol() {
+        // Given
+        PositionEngine engine = rebuiltEngine(PositionEngine.RebuildSource.DATABASE);
+
+        // When - BUY 100@150, SELL 40@160, BUY 10@155 on AAPL; MSFT opened and closed
+        engine.apply(List.of(
+                trade("acc1", "MSFT", "5", "300", Trade.Side.BUY),
+                trade("acc1", "AAPL", "100", "150", Trade.Side.BUY),
+                trade("acc1", "AAPL", "40", "160", Trade.Side.SELL),
+                trade("acc2", "AAPL", "1", "1", Trade.Side.BUY),
+                trade("acc1", "AAPL", "10", "155", Trade.Side.BUY),
+                trade("acc1", "MSFT", "5", "310", Trade.Side.SELL)));
+
+        // Then
+        List<PositionResponse> positions = engine.getPositions("acc1").orElseThrow();
+        assertThat(positions).extracting(PositionResponse::getSymbol).containsExactly("AAPL");
+        assertThat(positions.get(0).getQuantity()).isEqualByComparingTo("70");
+        assertThat(positions.get(0).getAveragePrice()).isEqualByComparingTo("145");
+        assertThat(engine.getPositions("unknown")).contains(List.of());
+        assertThat(engine.getAccountCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testGetPositions_EmptyUntilRebuiltAndForOverflowedAccounts() {
+        // Given
+        PositionEngine engine = engine(PositionEngine.RebuildSource.DATABASE);
+        assertThat(engine.getPositions("acc1")).isEmpty();
+        when(positionMapper.findPage(any(), any(), anyInt())).thenReturn(List.of(
+                new Position("acc1", "AAPL", new BigDecimal("70"), new BigDecimal("10150")),
+                new Position("acc2", "AAPL", new BigDecimal("1"), new BigDecimal("1"))));
+        engine.rebuild();
+
+        // When - acc2's notional no longer fits in a scaled long
+        engine.apply(List.of(trade("acc2", "AAPL", "9000000000", "9000000000", Trade.Side.BUY)));
+
+        // Then
+        assertThat(engine.getPositions("acc1").orElseThrow().get(0).getAveragePrice()).isEqualByComparingTo("145");
+        assertThat(engine.getPositions("acc2")).isEmpty();
+    }
+
+    @Test
+    void testRebuild_ReplaysEventLogOncePerTrade() throws Exception {
+        // Given - one trade relayed twice (at-least-once outbox delivery)
+        Trade buy = trade("acc1", "AAPL", "100", "150", Trade.Side.BUY);
+        Trade sell = trade("acc1", "AAPL", "40", "160", Trade.Side.SELL);
+        try (FileEventLogWriter writer = new FileEventLogWriter(tempDir.resolve("event_log.bin"))) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, List.of(buy, sell, buy));
+        }
+        PositionEngine engine = engine(PositionEngine.RebuildSource.EVENT_LOG);
+
+        // When
+        long loaded = engine.rebuild();
+
+        // Then
+        assertThat(loaded).isEqualTo(1);
+        assertThat(engine.getPositions("acc1").orElseThrow().get(0).getQuantity()).isEqualByComparingTo("60");
+        verifyNoInteractions(positionMapper);
+    }
+
+    @Test
+    void testRebuild_FallsBackToDatabaseWhenLogDoesNotStartAtFirstSequence() throws Exception {
+        // Given - a log whose head was removed, so it starts at sequence 100
+        try (FileEventLogWriter writer = new FileEventLogWriter(tempDir.resolve("event_log.bin"),
+                EventLogOptions.builder().baseSequence(99).build())) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                    List.of(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY)));
+        }
+        when(positionMapper.findPage(any(), any(), anyInt())).thenReturn(List.of(
+                new Position("acc1", "AAPL", new BigDecimal("70"), new BigDecimal("10150"))));
+        PositionEngine engine = engine(PositionEngine.RebuildSource.EVENT_LOG);
+
+        // When
+        engine.rebuild();
+
+        // Then
+        assertThat(engine.getPositions("acc1").orElseThrow().get(0).getQuantity()).isEqualByComparingTo("70");
+    }
+
+    @Test
+    void testRebuild_LoadsSnapshotAndReplaysTail() throws Exception {
+        // Given - a snapshot after the buy, then the sell and a redelivered buy in the log
+        Path logPath = tempDir.resolve("event_log.bin");
+        Trade buy = trade("acc1", "AAPL", "100", "150", Trade.Side.BUY);
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath)) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, List.of(buy));
+        }
+        assertThat(snapshotter().snapshot()).isEqualTo(1);
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath)) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                    List.of(trade("acc1", "AAPL", "40", "160", Trade.Side.SELL), buy));
+        }
+        PositionEngine engine = engine(PositionEngine.RebuildSource.SNAPSHOT);
+
+        // When
+        engine.rebuild();
+
+        // Then
+        List<PositionResponse> positions = engine.getPositions("acc1").orElseThrow();
+        assertThat(positions.get(0).getQuantity()).isEqualByComparingTo("60");
+        assertThat(positions.get(0).getAveragePrice()).isEqualByComparingTo("143.33333333");
+        verifyNoInteractions(positionMapper);
+    }
+
+    @Test
+    void testRebuild_FallsBackToDatabaseWhenLogNoLongerReachesSnapshot() throws Exception {
+        // Given - a snapshot at sequence 1, then a log that starts at sequence 100
+        Path logPath = tempDir.resolve("event_log.bin");
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath)) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                    List.of(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY)));
+        }
+        snapshotter().snapshot();
+        Files.delete(logPath);
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath,
+                EventLogOptions.builder().baseSequence(99).build())) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                    List.of(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY)));
+        }
+        when(positionMapper.findPage(any(), any(), anyInt())).thenReturn(List.of(
+                new Position("acc1", "AAPL", new BigDecimal("70"), new BigDecimal("10150"))));
+        PositionEngine engine = engine(PositionEngine.RebuildSource.SNAPSHOT);
+
+        // When
+        engine.rebuild();
+
+        // Then
+        assertThat(engine.getPositions("acc1").orElseThrow().get(0).getQuantity()).isEqualByComparingTo("70");
+    }
+
+    @Test
+    void testCheckConsistency_ReportsMismatchedSymbols() {
+        // Given
+        PositionEngine engine = rebuiltEngine(PositionEngine.RebuildSource.DATABASE);
+        engine.apply(List.of(
+                trade("acc1", "AAPL", "100", "150", Trade.Side.BUY),
+                trade("acc1", "MSFT", "5", "300", Trade.Side.BUY)));
+        when(positionMapper.calculateFromTrades("acc1")).thenReturn(List.of(
+                new PositionResponse("acc1", "AAPL", new BigDecimal("100"), new BigDecimal("150.000000004")),
+                new PositionResponse("acc1", "MSFT", new BigDecimal("6"), new BigDecimal("300"))));
+
+        // When
+        PositionConsistencyReport report = engine.checkConsistency("acc1");
+
+        // Then - AAPL is within rounding, MSFT is not
+        assertThat(report.isEngineAvailable()).isTrue();
+        assertThat(report.getMismatchedSymbols()).containsExactly("MSFT");
+        assertThat(report.isConsistent()).isFalse();
+    }
+
+    @Test
+    void testConstructor_RejectsStripeCountThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new PositionEngine(positionMapper, snapshotter(), new SimpleMeterRegistry(), true, 100,
+                PositionEngine.RebuildSource.DATABASE, "unused"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private PositionEngine rebuiltEngine(PositionEngine.RebuildSource source) {
+        PositionEngine engine = engine(source);
+        engine.rebuild();
+        return engine;
+    }
+
+    private PositionEngine engine(PositionEngine.RebuildSource source) {
+        return new PositionEngine(positionMapper, snapshotter(), new SimpleMeterRegistry(), true, 16, source,
+                tempDir.resolve("event_log.bin").toString());
+    }
+
+    private PositionSnapshotter snapshotter() {
+        return new PositionSnapshotter(new SimpleMeterRegistry(), true, tempDir.resolve("snapshots").toString(),
+                300, 2, 100, tempDir.resolve("event_log.bin").toString());
+    }
+
+    private Trade trade(String accountId, String symbol, String quantity, String price, Trade.Side side) {
+        return new Trade(UUID.randomUUID().toString(), accountId, symbol,
+                new BigDecimal(quantity), new BigDecimal(price), side, System.nanoTime());
+    }
+}
@@ -0,0 +1,154 @@
+package com.trading.ledger.position;
+
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.FileEventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PositionSnapshotterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSnapshot_RoundTripsPositionsAndRecentTradeIds() throws Exception {
+        // Given
+        append(trade("acc1", "AAPL", "100", "150", Trade.Side.BUY),
+                trade("acc1", "MSFT", "5", "300", Trade.Side.BUY),
+                trade("acc2", "AAPL", "1", "1", Trade.Side.SELL));
+        PositionSnapshot snapshot = PositionSnapshot.empty(100);
+        snapshot.catchUp(logPath());
+
+        // When
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.writeTo(bytes, 42);
+        PositionSnapshot read = PositionSnapshot.readFrom(new ByteArrayInputStream(bytes.toByteArray()), 100);
+
+        // Then
+        assertThat(read.getLastSequence()).isEqualTo(3);
+        assertThat(read.getCreatedAtMillis()).isEqualTo(42);
+        assertThat(read.getAccounts()).containsOnlyKeys("acc1", "acc2");
+        AccountPositions acc1 = read.getAccounts().get("acc1");
+        assertThat(acc1.size()).isEqualTo(2);
+        assertThat(acc1.symbol(0)).isEqualTo("AAPL");
+        assertThat(acc1.quantity(0)).isEqualTo(AccountPositions.toUnits(new BigDecimal("100")));
+        assertThat(acc1.notional(0)).isEqualTo(AccountPositions.toUnits(new BigDecimal("15000")));
+        assertThat(read.getAccounts().get("acc2").quantity(0)).isEqualTo(AccountPositions.toUnits(new BigDecimal("-1")));
+    }
+
+    @Test
+    void testReadFrom_RejectsCorruptedSnapshot() throws Exception {
+        // Given
+        append(trade("acc1", "AAPL", "100", "150", Trade.Side.BUY));
+        PositionSnapshot snapshot = PositionSnapshot.empty(100);
+        snapshot.catchUp(logPath());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.writeTo(bytes, 42);
+        byte[] corrupted = bytes.toByteArray();
+        corrupted[corrupted.length / 2] ^= 0x01;
+
+        // When / Then
+        assertThatThrownBy(() -> PositionSnapshot.readFrom(new ByteArrayInputStream(corrupted), 100))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testLoadForStartup_ReplaysOnlyTailAndSkipsRedeliveredTrades() throws Exception {
+        // Given - a snapshot after the buy, then the buy redelivered and a sell
+        Trade buy = trade("acc1", "AAPL", "100", "150", Trade.Side.BUY);
+        append(buy);
+        PositionSnapshotter snapshotter = snapshotter(2);
+        assertThat(snapshotter.snapshot()).isEqualTo(1);
+        append(buy, trade("acc1", "AAPL", "40", "160", Trade.Side.SELL));
+
+        // When
+        PositionSnapshot loaded = snapshotter(2).loadForStartup();
+
+        // Then
+        assertThat(loaded.getLastSequence()).isEqualTo(3);
+        AccountPositions acc1 = loaded.getAccounts().get("acc1");
+        assertThat(acc1.quantity(0)).isEqualTo(AccountPositions.toUnits(new BigDecimal("60")));
+        assertThat(acc1.notional(0)).isEqualTo(AccountPositions.toUnits(new BigDecimal("8600")));
+    }
+
+    @Test
+    void testSnapshot_WritesOnlyWhenLogMovedAndKeepsNewestRetained() throws Exception {
+        // Given
+        PositionSnapshotter snapshotter = snapshotter(2);
+        append(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY));
+        snapshotter.snapshot();
+
+        // When
+        snapshotter.snapshot();
+        append(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY));
+        snapshotter.snapshot();
+        append(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY));
+        long last = snapshotter.snapshot();
+
+        // Then
+        assertThat(last).isEqualTo(3);
+        assertThat(snapshotFiles()).containsExactly(
+                "positions-00000000000000000002.snapshot", "positions-00000000000000000003.snapshot");
+    }
+
+    @Test
+    void testLoadLatest_FallsBackToOlderSnapshotWhenNewestIsCorrupt() throws Exception {
+        // Given
+        PositionSnapshotter snapshotter = snapshotter(2);
+        append(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY));
+        snapshotter.snapshot();
+        append(trade("acc1", "AAPL", "1", "1", Trade.Side.BUY));
+        snapshotter.snapshot();
+        Path newest = tempDir.resolve("snapshots").resolve("positions-00000000000000000002.snapshot");
+        Files.write(newest, new byte[]{1, 2, 3});
+
+        // When
+        PositionSnapshot loaded = snapshotter(2).loadForStartup();
+
+        // Then - the older snapshot plus the tail give the same state
+        assertThat(loaded.getLastSequence()).isEqualTo(2);
+        assertThat(loaded.getAccounts().get("acc1").quantity(0))
+                .isEqualTo(AccountPositions.toUnits(new BigDecimal("2")));
+    }
+
+    private PositionSnapshotter snapshotter(int retain) {
+        return new PositionSnapshotter(new SimpleMeterRegistry(), true, tempDir.resolve("snapshots").toString(),
+                300, retain, 100, logPath().toString());
+    }
+
+    private List<String> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir.resolve("snapshots"))) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private void append(Trade... trades) throws IOException {
+        try (FileEventLogWriter writer = new FileEventLogWriter(logPath())) {
+            writer.appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE, List.of(trades));
+        }
+    }
+
+    private Path logPath() {
+        return tempDir.resolve("event_log.bin");
+    }
+
+    private Trade trade(String accountId, String symbol, String quantity, String price, Trade.Side side) {
+        return new Trade(UUID.randomUUID().toString(), accountId, symbol,
+                new BigDecimal(quantity), new BigDecimal(price), side, System.nanoTime());
+    }
+}
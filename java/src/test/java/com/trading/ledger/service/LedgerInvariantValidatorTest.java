@@ -0,0 +1,86 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.LedgerEntry;
+import com.trading.ledger.mapper.LedgerEntryMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerInvariantValidatorTest {
+
+    @Mock
+    private LedgerEntryMapper ledgerEntryMapper;
+
+    @Test
+    void testInMemory_BalancedEntriesPass() {
+        // Given
+        List<LedgerEntry> entries = new ArrayList<>();
+        entries.addAll(pair("t1", "150.25"));
+        entries.addAll(pair("t2", "0.00000001"));
+
+        // When/Then
+        assertThatCode(() -> new InMemoryLedgerInvariantValidator().validate(entries)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void testInMemory_UnbalancedTradeThrows() {
+        // Given - the CREDIT leg of t2 is off by one cent
+        List<LedgerEntry> entries = new ArrayList<>(pair("t1", "100"));
+        entries.add(new LedgerEntry("t2", "acc1", LedgerEntry.EntryType.DEBIT, new BigDecimal("50.00"), 1L));
+        entries.add(new LedgerEntry("t2", "acc1", LedgerEntry.EntryType.CREDIT, new BigDecimal("49.99"), 1L));
+
+        // When/Then
+        assertThatThrownBy(() -> new InMemoryLedgerInvariantValidator().validate(entries))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Double-entry accounting invariant violated for trade t2")
+                .hasMessageContaining("sum = 0.01");
+    }
+
+    @Test
+    void testSampled_HitsDatabaseEveryNthTrade() {
+        // Given
+        when(ledgerEntryMapper.sumEntriesByTradeId(anyString())).thenReturn(BigDecimal.ZERO);
+        SampledLedgerInvariantValidator validator =
+                new SampledLedgerInvariantValidator(new DatabaseLedgerInvariantValidator(ledgerEntryMapper), 3);
+
+        // When
+        for (int i = 1; i <= 9; i++) {
+            validator.validate(pair("t" + i, "10"));
+        }
+
+        // Then
+        verify(ledgerEntryMapper).sumEntriesByTradeId("t3");
+        verify(ledgerEntryMapper).sumEntriesByTradeId("t6");
+        verify(ledgerEntryMapper).sumEntriesByTradeId("t9");
+        verifyNoMoreInteractions(ledgerEntryMapper);
+    }
+
+    @Test
+    void testSampled_StillChecksEveryTradeInMemory() {
+        // Given - no database check due for this trade
+        SampledLedgerInvariantValidator validator =
+                new SampledLedgerInvariantValidator(new DatabaseLedgerInvariantValidator(ledgerEntryMapper), 100);
+        List<LedgerEntry> unbalanced = List.of(
+                new LedgerEntry("t1", "acc1", LedgerEntry.EntryType.DEBIT, BigDecimal.TEN, 1L));
+
+        // When/Then
+        assertThatThrownBy(() -> validator.validate(unbalanced)).isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(ledgerEntryMapper);
+    }
+
+    private static List<LedgerEntry> pair(String tradeId, String amount) {
+        return List.of(
+                new LedgerEntry(tradeId, "acc1", LedgerEntry.EntryType.DEBIT, new BigDecimal(amount), 1L),
+                new LedgerEntry(tradeId, "acc1", LedgerEntry.EntryType.CREDIT, new BigDecimal(amount), 1L));
+    }
+}
@@ -3,12 +3,12 @@ package com.trading.ledger.service;
 import com.trading.ledger.domain.LedgerEntry;
 import com.trading.ledger.domain.Trade;
 import com.trading.ledger.mapper.LedgerEntryMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -26,7 +26,6 @@ class LedgerServiceTest {
     @Mock
     private LedgerEntryMapper ledgerEntryMapper;
 
-    @InjectMocks
     private LedgerService ledgerService;
 
     @Captor
@@ -37,6 +36,9 @@ class LedgerServiceTest {
 
     @BeforeEach
     void setUp() {
+        // database mode: the invariant is re-read with sumEntriesByTradeId
+        ledgerService = new LedgerService(ledgerEntryMapper, new DatabaseLedgerInvariantValidator(ledgerEntryMapper),
+                new SimpleMeterRegistry());
         tradeId = UUID.randomUUID().toString();
         sampleTrade = new Trade(
                 tradeId,
@@ -260,4 +262,43 @@ class LedgerServiceTest {
         // Verify they are equal (both positive; query handles negation for balance check)
         assertThat(debitAmount).isEqualByComparingTo(creditAmount);
     }
+
+    @Test
+    void testGenerateEntries_InMemoryValidator_NoAggregateQuery() {
+        // Given
+        ledgerService = new LedgerService(ledgerEntryMapper, new InMemoryLedgerInvariantValidator(), new SimpleMeterRegistry());
+
+        // When
+        List<LedgerEntry> entries = ledgerService.generateEntries(sampleTrade);
+
+        // Then - one statement per trade: the insert
+        assertThat(entries).hasSize(2);
+        verify(ledgerEntryMapper).insertAll(any(List.class));
+        verifyNoMoreInteractions(ledgerEntryMapper);
+    }
+
+    @Test
+    void testGenerateEntries_Batch_OneInsertAndOneCheck() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ledgerService = new LedgerService(ledgerEntryMapper, new DatabaseLedgerInvariantValidator(ledgerEntryMapper),
+                meterRegistry);
+        Trade other = new Trade(UUID.randomUUID().toString(), "acc2", "MSFT", BigDecimal.ONE, BigDecimal.TEN,
+                Trade.Side.SELL, System.nanoTime());
+        when(ledgerEntryMapper.findUnbalancedTradeIds(List.of(tradeId, other.getTradeId()))).thenReturn(List.of());
+
+        // When
+        List<LedgerEntry> entries = ledgerService.generateEntries(List.of(sampleTrade, other));
+
+        // Then
+        assertThat(entries).hasSize(4);
+        verify(ledgerEntryMapper).insertAll(entriesCaptor.capture());
+        assertThat(entriesCaptor.getValue()).extracting(LedgerEntry::getTradeId)
+                .containsExactly(tradeId, tradeId, other.getTradeId(), other.getTradeId());
+        verify(ledgerEntryMapper, never()).sumEntriesByTradeId(any());
+
+        // ... timed like a single trade, one sample for the batch
+        assertThat(meterRegistry.get(TradeService.STAGE_TIMER).tag("stage", "ledger").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(TradeService.STAGE_TIMER).tag("stage", "invariant").timer().count()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,95 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.OutboxEvent;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
+import com.trading.ledger.mapper.EventOutboxMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private EventOutboxMapper outboxMapper;
+
+    @Mock
+    private EventLogWriter eventLogWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Not started: the tests drive relayBatch() themselves
+        relay = new OutboxRelay(outboxMapper, eventLogWriter, meterRegistry, 100, 10);
+    }
+
+    @Test
+    void testRelayBatch_DropsUnsupportedEventTypeAndRelaysTheRest() throws Exception {
+        // Given
+        OutboxEvent first = event(1, Event.EventType.TRADE_CREATED.getValue());
+        OutboxEvent unsupported = event(2, (byte) 99);
+        OutboxEvent third = event(3, Event.EventType.TRADE_CREATED.getValue());
+        when(outboxMapper.findBatch(anyInt())).thenReturn(List.of(first, unsupported, third));
+
+        // When
+        int handled = relay.relayBatch();
+
+        // Then - the bad row is counted and deleted with the batch instead of failing every poll
+        assertThat(handled).isEqualTo(3);
+        verify(eventLogWriter).appendAll(Event.EventType.TRADE_CREATED, TradeCreatedPayload.INSTANCE,
+                List.of(first.getTrade(), third.getTrade()));
+        verify(outboxMapper).deleteByIds(List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.counter("eventlog.outbox.unsupported").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("eventlog.outbox.relayed").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testRelayBatch_FailedDeleteIsRetriedWithoutAppendingAgain() throws Exception {
+        // Given - the batch is appended, then its delete fails
+        OutboxEvent event = event(7, Event.EventType.TRADE_CREATED.getValue());
+        when(outboxMapper.findBatch(anyInt())).thenReturn(List.of(event), List.of());
+        when(outboxMapper.deleteByIds(List.of(7L)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+        assertThatThrownBy(() -> relay.relayBatch()).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // When
+        int handled = relay.relayBatch();
+
+        // Then - the next poll finishes the delete before reading, and nothing is appended twice
+        assertThat(handled).isZero();
+        InOrder inOrder = inOrder(outboxMapper, eventLogWriter);
+        inOrder.verify(outboxMapper).findBatch(anyInt());
+        inOrder.verify(eventLogWriter).appendAll(eq(Event.EventType.TRADE_CREATED), eq(TradeCreatedPayload.INSTANCE), any());
+        inOrder.verify(outboxMapper, times(2)).deleteByIds(List.of(7L));
+        inOrder.verify(outboxMapper).findBatch(anyInt());
+        verifyNoMoreInteractions(eventLogWriter);
+    }
+
+    private static OutboxEvent event(long id, byte eventType) {
+        Trade trade = new Trade(UUID.randomUUID().toString(), "acc1", "AAPL", BigDecimal.TEN,
+                new BigDecimal("150.00"), Trade.Side.BUY, System.nanoTime());
+        return new OutboxEvent(id, eventType, System.currentTimeMillis(), trade);
+    }
+}
@@ -0,0 +1,99 @@
+package com.trading.ledger.service;
+
+import com.trading.ledger.domain.Position;
+import com.trading.ledger.domain.Trade;
+import com.trading.ledger.mapper.PositionMapper;
+import com.trading.ledger.position.PositionEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PositionServiceTest {
+
+    @Mock
+    private PositionMapper positionMapper;
+
+    @Mock
+    private PositionEngine positionEngine;
+
+    @Captor
+    private ArgumentCaptor<List<Position>> deltasCaptor;
+
+    private PositionService positionService;
+
+    @BeforeEach
+    void setUp() {
+        positionService = new PositionService(positionMapper, positionEngine);
+    }
+
+    @Test
+    void testApplyTrades_SumsTradesPerPositionInKeyOrder() {
+        // Given
+        List<Trade> trades = List.of(
+                trade("acc2", "AAPL", "10", "100", Trade.Side.BUY),
+                trade("acc1", "MSFT", "5", "300", Trade.Side.BUY),
+                trade("acc1", "AAPL", "100", "150", Trade.Side.BUY),
+                trade("acc1", "AAPL", "40", "160", Trade.Side.SELL));
+
+        // When
+        positionService.applyTrades(trades);
+
+        // Then - one upsert, one delta per (account, symbol), sorted
+        verify(positionMapper).upsertAll(deltasCaptor.capture());
+        List<Position> deltas = deltasCaptor.getValue();
+        assertThat(deltas).extracting(Position::getAccountId, Position::getSymbol)
+                .containsExactly(tuple("acc1", "AAPL"), tuple("acc1", "MSFT"), tuple("acc2", "AAPL"));
+        assertThat(deltas.get(0).getQuantity()).isEqualByComparingTo("60");
+        assertThat(deltas.get(0).getNotional()).isEqualByComparingTo("8600");
+        assertThat(deltas.get(1).getNotional()).isEqualByComparingTo("1500");
+        verify(positionEngine, never()).apply(any());
+    }
+
+    @Test
+    void testApplyTrades_FeedsEnabledEngine() {
+        // Given - engine enabled, no surrounding transaction (so no commit to wait for)
+        when(positionEngine.isEnabled()).thenReturn(true);
+        List<Trade> trades = List.of(trade("acc1", "AAPL", "10", "100", Trade.Side.BUY));
+
+        // When
+        positionService.applyTrades(trades);
+
+        // Then
+        verify(positionEngine).apply(trades);
+    }
+
+    @Test
+    void testRebuildPositions_LocksThenReplacesTable() {
+        // Given
+        when(positionMapper.rebuildFromTrades()).thenReturn(3);
+
+        // When
+        int rebuilt = positionService.rebuildPositions();
+
+        // Then
+        assertThat(rebuilt).isEqualTo(3);
+        InOrder inOrder = inOrder(positionMapper);
+        inOrder.verify(positionMapper).lockForRebuild();
+        inOrder.verify(positionMapper).deleteAll();
+        inOrder.verify(positionMapper).rebuildFromTrades();
+    }
+
+    private Trade trade(String accountId, String symbol, String quantity, String price, Trade.Side side) {
+        return new Trade(UUID.randomUUID().toString(), accountId, symbol,
+                new BigDecimal(quantity), new BigDecimal(price), side, System.nanoTime());
+    }
+}
@@ -1,26 +1,50 @@
 package com.trading.ledger.service;
 
+import com.trading.ledger.config.EventLogConfig.PublishMode;
 import com.trading.ledger.domain.Trade;
+import com.trading.ledger.dto.BatchTradeResponse;
+import com.trading.ledger.dto.BatchTradeResult;
 import com.trading.ledger.dto.CreateTradeRequest;
 import com.trading.ledger.dto.TradeResponse;
-import com.trading.ledger.eventlog.FileEventLogWriter;
+import com.trading.ledger.eventlog.AsyncEventLogWriter;
+import com.trading.ledger.eventlog.Event;
+import com.trading.ledger.eventlog.EventLogOptions;
+import com.trading.ledger.eventlog.EventLogWriter;
+import com.trading.ledger.eventlog.EventPayloadEncoder;
+import com.trading.ledger.eventlog.OverflowPolicy;
+import com.trading.ledger.eventlog.TradeCreatedPayload;
 import com.trading.ledger.exception.ConflictException;
+import com.trading.ledger.idempotency.TradeIdempotencyCache;
+import com.trading.ledger.mapper.EventOutboxMapper;
 import com.trading.ledger.mapper.TradeMapper;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +57,18 @@ class TradeServiceTest {
     private LedgerService ledgerService;
 
     @Mock
-    private FileEventLogWriter eventLogWriter;
+    private PositionService positionService;
+
+    @Mock
+    private EventLogWriter eventLogWriter;
+
+    @Mock
+    private EventOutboxMapper outboxMapper;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     private MeterRegistry meterRegistry;
+    private TradeIdempotencyCache idempotencyCache;
     private TradeService tradeService;
 
     private CreateTradeRequest validRequest;
@@ -55,9 +88,13 @@ class TradeServiceTest {
 
         // Use SimpleMeterRegistry for testing (real implementation, not a mock)
         meterRegistry = new SimpleMeterRegistry();
+        idempotencyCache = new TradeIdempotencyCache(tradeMapper, meterRegistry, false, 1, 0.01, 1);
+        lenient().when(tradeMapper.findTradeIdsAfter(anyLong(), anyInt())).thenReturn(List.of());
 
         // Manually instantiate the service with mocks
-        tradeService = new TradeService(tradeMapper, ledgerService, eventLogWriter, meterRegistry);
+        tradeService = new TradeService(tradeMapper, ledgerService, positionService, eventLogWriter, outboxMapper, meterRegistry,
+                PublishMode.SYNC, validator, idempotencyCache,
+                TradeService.IdempotencyMode.READ_FIRST);
     }
 
     @Test
@@ -87,6 +124,7 @@ class TradeServiceTest {
         verify(tradeMapper, times(1)).findByTradeId(tradeId);
         verify(tradeMapper, times(1)).insert(any(Trade.class));
         verify(ledgerService, times(1)).generateEntries(any(Trade.class));
+        verify(positionService, times(1)).applyTrades(argThat(trades -> trades.size() == 1));
     }
 
     @Test
@@ -284,4 +322,303 @@ class TradeServiceTest {
         assertThat(result.getQuantity()).isEqualByComparingTo(new BigDecimal("0.12345678"));
         assertThat(result.getPrice()).isEqualByComparingTo(new BigDecimal("45000.12345678"));
     }
+
+    @Test
+    void testCreateTrade_AsyncMode_PublishesOnlyAfterCommit() throws Exception {
+        // Given - async publishing inside an active transaction
+        AsyncEventLogWriter asyncWriter = new AsyncEventLogWriter(eventLogWriter, EventLogOptions.defaults());
+        tradeService = new TradeService(tradeMapper, ledgerService, positionService, asyncWriter, outboxMapper, meterRegistry,
+                PublishMode.ASYNC, validator, idempotencyCache,
+                TradeService.IdempotencyMode.READ_FIRST);
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            tradeService.createTrade(validRequest);
+
+            // Then - nothing queued before commit
+            assertThat(asyncWriter.getQueueDepth()).isZero();
+            verifyNoInteractions(eventLogWriter);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        asyncWriter.close();
+        verify(eventLogWriter).append(eq(Event.EventType.TRADE_CREATED), eq(TradeCreatedPayload.INSTANCE),
+                argThat((Trade trade) -> trade.getTradeId().equals(tradeId)));
+    }
+
+    @Test
+    void testCreateTrade_AsyncMode_RollbackDiscardsEvent() throws Exception {
+        // Given
+        AsyncEventLogWriter asyncWriter = new AsyncEventLogWriter(eventLogWriter, EventLogOptions.builder()
+                .asyncQueueCapacity(1)
+                .asyncOverflowPolicy(OverflowPolicy.FAIL)
+                .build());
+        tradeService = new TradeService(tradeMapper, ledgerService, positionService, asyncWriter, outboxMapper, meterRegistry,
+                PublishMode.ASYNC, validator, idempotencyCache,
+                TradeService.IdempotencyMode.READ_FIRST);
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tradeService.createTrade(validRequest);
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then - nothing written and the slot is free again
+        asyncWriter.reserve().cancel();
+        asyncWriter.close();
+        verify(eventLogWriter, never()).append(any(), any(EventPayloadEncoder.class), any());
+    }
+
+    @Test
+    void testCreateTrade_OutboxMode_InsertsOutboxRowInsteadOfAppending() {
+        // Given
+        tradeService = new TradeService(tradeMapper, ledgerService, positionService, eventLogWriter, outboxMapper, meterRegistry,
+                PublishMode.OUTBOX, validator, idempotencyCache,
+                TradeService.IdempotencyMode.READ_FIRST);
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.empty());
+
+        // When
+        tradeService.createTrade(validRequest);
+
+        // Then - recorded in the transaction, left to the relay
+        verify(outboxMapper).insert(eq(Event.EventType.TRADE_CREATED.getValue()), eq(tradeId), anyLong());
+        verifyNoInteractions(eventLogWriter);
+    }
+
+    @Test
+    void testCreateTrades_MixedBatch_ReportsPerItemStatus() throws Exception {
+        // Given - new, retry of an existing trade, conflict, invalid, and an in-batch duplicate
+        String existingId = UUID.randomUUID().toString();
+        String conflictId = UUID.randomUUID().toString();
+        Trade existingTrade = new Trade(existingId, "acc1", "AAPL", BigDecimal.valueOf(100),
+                BigDecimal.valueOf(150.00), Trade.Side.BUY, 1L);
+        Trade conflictTrade = new Trade(conflictId, "acc1", "AAPL", BigDecimal.valueOf(999),
+                BigDecimal.valueOf(150.00), Trade.Side.BUY, 2L);
+        when(tradeMapper.findByTradeIds(any())).thenReturn(List.of(existingTrade, conflictTrade));
+        insertAllSucceeds();
+
+        List<CreateTradeRequest> requests = Arrays.asList(
+                validRequest,
+                new CreateTradeRequest(existingId, "acc1", "AAPL", BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(150.00), "BUY"),
+                new CreateTradeRequest(conflictId, "acc1", "AAPL", BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(150.00), "BUY"),
+                new CreateTradeRequest("not-a-uuid", "acc1", "aapl", BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(150.00), "BUY"),
+                new CreateTradeRequest(tradeId.toUpperCase(), "acc1", "AAPL", BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(150.00), "BUY"),
+                null);
+
+        // When
+        BatchTradeResponse response = tradeService.createTrades(requests);
+
+        // Then
+        assertThat(response.getResults()).extracting(BatchTradeResult::getStatus).containsExactly(
+                BatchTradeResult.Status.CREATED,
+                BatchTradeResult.Status.IDEMPOTENT,
+                BatchTradeResult.Status.CONFLICT,
+                BatchTradeResult.Status.INVALID,
+                BatchTradeResult.Status.IDEMPOTENT,
+                BatchTradeResult.Status.INVALID);
+        assertThat(response.getResults()).extracting(BatchTradeResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getIdempotent()).isEqualTo(2);
+        assertThat(response.getConflict()).isEqualTo(1);
+        assertThat(response.getInvalid()).isEqualTo(2);
+        assertThat(response.getResults().get(3).getErrors())
+                .containsExactly("symbol: Symbol must contain only uppercase letters and numbers",
+                        "tradeId: Trade ID must be a UUID");
+
+        // ... the lookup skipped the invalid item, and only the new trade was written, once
+        verify(tradeMapper).findByTradeIds(List.of(tradeId, existingId, conflictId));
+        verify(tradeMapper).insertAllIfAbsent(argThat(trades -> trades.size() == 1 && trades.get(0).getTradeId().equals(tradeId)));
+        assertThat(response.getResults().get(0).getTrade().getCreatedAt()).isNotNull();
+        assertThat(response.getResults().get(4).getTrade().getCreatedAt()).isNotNull();
+        verify(ledgerService).generateEntries(argThat((List<Trade> trades) -> trades.size() == 1));
+        verify(positionService).applyTrades(argThat(trades -> trades.size() == 1));
+        verify(eventLogWriter).appendAll(eq(Event.EventType.TRADE_CREATED), eq(TradeCreatedPayload.INSTANCE),
+                argThat((List<Trade> trades) -> trades.size() == 1));
+        verify(tradeMapper, never()).findByTradeId(any());
+        assertThat(meterRegistry.counter("trades.created").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("trades.idempotent").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("trades.conflict").count()).isEqualTo(1.0);
+
+        // ... and each stage was timed once for the whole batch
+        for (String stage : List.of("lookup", "insert", "positions", "event_log")) {
+            assertThat(meterRegistry.get(TradeService.STAGE_TIMER).tag("stage", stage).timer().count())
+                    .as(stage).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testCreateTrades_NothingNew_WritesNothing() {
+        // Given
+        when(tradeMapper.findByTradeIds(any())).thenReturn(List.of(new Trade(tradeId, "acc1", "AAPL",
+                BigDecimal.valueOf(100), BigDecimal.valueOf(150.00), Trade.Side.BUY, 1L)));
+
+        // When
+        BatchTradeResponse response = tradeService.createTrades(List.of(validRequest));
+
+        // Then
+        assertThat(response.getIdempotent()).isEqualTo(1);
+        verify(tradeMapper, never()).insertAllIfAbsent(any());
+        verifyNoInteractions(ledgerService, eventLogWriter);
+    }
+
+    @Test
+    void testCreateTrades_IdInsertedConcurrently_ResolvedPerItem() {
+        // Given - both ids were free at lookup time, but another request inserted them first
+        String conflictId = UUID.randomUUID().toString();
+        Trade winner = new Trade(tradeId, "acc1", "AAPL", BigDecimal.valueOf(100),
+                BigDecimal.valueOf(150.00), Trade.Side.BUY, 1L);
+        Trade conflictingWinner = new Trade(conflictId, "acc1", "AAPL", BigDecimal.valueOf(999),
+                BigDecimal.valueOf(150.00), Trade.Side.BUY, 2L);
+        when(tradeMapper.findByTradeIds(any())).thenReturn(List.of(), List.of(winner, conflictingWinner));
+        when(tradeMapper.insertAllIfAbsent(any())).thenReturn(List.of());
+
+        // When
+        BatchTradeResponse response = tradeService.createTrades(List.of(validRequest,
+                new CreateTradeRequest(conflictId, "acc1", "AAPL", BigDecimal.valueOf(100),
+                        BigDecimal.valueOf(150.00), "BUY")));
+
+        // Then - reported against the stored trades; nothing else is written
+        assertThat(response.getResults()).extracting(BatchTradeResult::getStatus).containsExactly(
+                BatchTradeResult.Status.IDEMPOTENT, BatchTradeResult.Status.CONFLICT);
+        verify(tradeMapper, times(2)).findByTradeIds(argThat(ids -> ids.size() == 2));
+        verifyNoInteractions(ledgerService, positionService, eventLogWriter);
+        assertThat(meterRegistry.counter("trades.created").count()).isZero();
+    }
+
+    @Test
+    void testCreateTrade_FastPath_SkipsLookupForUnseenIdAndAnswersRetryFromCache() {
+        // Given - fast path enabled and warmed from an empty table; the insert returns the stored keys
+        TradeService fastService = serviceWithFastPath();
+        doAnswer(invocation -> {
+            Trade inserted = invocation.getArgument(0);
+            inserted.setId(1L);
+            inserted.setCreatedAt(Instant.now());
+            return 1;
+        }).when(tradeMapper).insert(any(Trade.class));
+
+        // When
+        fastService.createTrade(validRequest);
+
+        // Then - no lookup for an id the filter has never seen
+        verify(tradeMapper, never()).findByTradeId(any());
+        verify(tradeMapper).insert(any(Trade.class));
+
+        // When/Then - the retry is answered from the cache, still without a query
+        TradeService.IdempotentTradeException retry = assertThrows(
+                TradeService.IdempotentTradeException.class, () -> fastService.createTrade(validRequest));
+        assertThat(retry.getExistingTrade().getTradeId()).isEqualTo(tradeId);
+        assertThatThrownBy(() -> fastService.createTrade(new CreateTradeRequest(tradeId, "acc1", "AAPL",
+                BigDecimal.valueOf(101), BigDecimal.valueOf(150.00), "BUY")))
+                .isInstanceOf(ConflictException.class);
+        verify(tradeMapper, never()).findByTradeId(any());
+        assertThat(meterRegistry.counter("trades.idempotency.cache", "result", "hit").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("trades.idempotency.bloom", "result", "negative").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testCreateTrade_FastPath_BloomPositiveWithNoRowFallsThroughToInsert() {
+        // Given - the warm-up saw the id (e.g. since deleted), so the filter says "maybe"
+        Trade seen = new Trade(tradeId, null, null, null, null, null, null);
+        seen.setId(1L);
+        when(tradeMapper.findTradeIdsAfter(0L, 10_000)).thenReturn(List.of(seen));
+        TradeService fastService = serviceWithFastPath();
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.empty());
+
+        // When
+        fastService.createTrade(validRequest);
+
+        // Then
+        verify(tradeMapper).findByTradeId(tradeId);
+        verify(tradeMapper).insert(any(Trade.class));
+        assertThat(meterRegistry.counter("trades.idempotency.bloom", "result", "false_positive").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void testResolveDuplicate_LostInsertRaceResolvesAsRetry() {
+        // Given - the winning trade, same payload
+        Trade winner = new Trade(tradeId, "acc1", "AAPL", BigDecimal.valueOf(100), BigDecimal.valueOf(150.00),
+                Trade.Side.BUY, 1L);
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.of(winner));
+
+        // When
+        RuntimeException outcome = tradeService.resolveDuplicate(validRequest, new DuplicateKeyException("dup"));
+
+        // Then
+        assertThat(outcome).isInstanceOf(TradeService.IdempotentTradeException.class);
+        assertThat(meterRegistry.counter("trades.idempotency.insert_conflicts").count()).isEqualTo(1.0);
+    }
+
+    private TradeService serviceWithFastPath() {
+        if (!idempotencyCache.isEnabled()) {
+            idempotencyCache = new TradeIdempotencyCache(tradeMapper, meterRegistry, true, 1000, 0.01, 100);
+        }
+        idempotencyCache.warmUp();
+        return new TradeService(tradeMapper, ledgerService, positionService, eventLogWriter, outboxMapper, meterRegistry,
+                PublishMode.SYNC, validator, idempotencyCache,
+                TradeService.IdempotencyMode.READ_FIRST);
+    }
+
+    @Test
+    void testCreateTrade_InsertFirst_NewTradeIsOneStatement() {
+        // Given
+        tradeService = insertFirstService();
+        when(tradeMapper.insertIfAbsent(any(Trade.class))).thenReturn(1);
+
+        // When
+        TradeResponse result = tradeService.createTrade(validRequest);
+
+        // Then
+        assertThat(result.getTradeId()).isEqualTo(tradeId);
+        verify(tradeMapper, never()).findByTradeId(any());
+        verify(tradeMapper, never()).insert(any(Trade.class));
+        verify(ledgerService).generateEntries(any(Trade.class));
+    }
+
+    @Test
+    void testCreateTrade_InsertFirst_ExistingTradeReadBackAfterNoOpInsert() {
+        // Given
+        tradeService = insertFirstService();
+        when(tradeMapper.insertIfAbsent(any(Trade.class))).thenReturn(0);
+        when(tradeMapper.findByTradeId(tradeId)).thenReturn(Optional.of(new Trade(tradeId, "acc1", "AAPL",
+                BigDecimal.valueOf(100), BigDecimal.valueOf(150.00), Trade.Side.BUY, 1L)));
+
+        // When/Then
+        assertThrows(TradeService.IdempotentTradeException.class, () -> tradeService.createTrade(validRequest));
+        verifyNoInteractions(ledgerService, eventLogWriter);
+    }
+
+    private TradeService insertFirstService() {
+        return new TradeService(tradeMapper, ledgerService, positionService, eventLogWriter, outboxMapper, meterRegistry,
+                PublishMode.SYNC, validator, idempotencyCache, TradeService.IdempotencyMode.INSERT_FIRST);
+    }
+
+    // The mapper returns each inserted row's generated id and created_at
+    private void insertAllSucceeds() {
+        when(tradeMapper.insertAllIfAbsent(any())).thenAnswer(invocation -> {
+            List<Trade> trades = invocation.getArgument(0);
+            List<Trade> rows = new ArrayList<>();
+            for (Trade trade : trades) {
+                Trade row = new Trade();
+                row.setId((long) rows.size() + 1);
+                row.setTradeId(trade.getTradeId());
+                row.setCreatedAt(Instant.now());
+                rows.add(row);
+            }
+            return rows;
+        });
+    }
 }
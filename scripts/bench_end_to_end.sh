@@ -25,6 +25,9 @@ cleanup() {
     if [[ -n "$CPP_PID" ]]; then
         kill $CPP_PID 2>/dev/null || true
     fi
+    if [[ -n "$TAIL_PID" ]]; then
+        kill $TAIL_PID 2>/dev/null || true
+    fi
     cd "$PROJECT_ROOT"
     docker compose down 2>/dev/null || true
 }
@@ -88,11 +91,19 @@ if [[ ! -f ./event_processor ]]; then
     exit 1
 fi
 
-# Note: In Day 9 MVP, we'll capture latency metrics in future enhancement
-# For now, just run the processor
 ./event_processor ../data/event_log.bin > /tmp/cpp_metrics.txt 2>&1 &
 CPP_PID=$!
 echo "C++ PID: $CPP_PID"
+
+# Event timestamps are epoch nanoseconds, so a separate process can measure latency:
+# ingest->append (request arrival -> event log append) and append->consume
+echo "Starting event log latency tail..."
+cd "$PROJECT_ROOT/java"
+mvn exec:java -Dexec.mainClass=com.trading.ledger.eventlog.EventLogLatencyTail \
+              -Dexec.args="data/event_log.bin 10" \
+              -q > /tmp/latency_tail.txt 2>&1 &
+TAIL_PID=$!
+echo "Latency tail PID: $TAIL_PID"
 sleep 2
 
 # Step 4: Run load generator
@@ -105,7 +116,7 @@ mvn compile -q
 
 # Run LoadGenerator
 mvn exec:java -Dexec.mainClass=com.trading.ledger.LoadGenerator \
-              -Dexec.args="--rate=10000 --duration=60" \
+              -Dexec.args="--rate=10000 --duration=60 --mode=async --max-in-flight=2000" \
               -q
 
 echo ""
@@ -121,22 +132,28 @@ echo "Stopping C++ processor..."
 kill -INT $CPP_PID 2>/dev/null || true
 wait $CPP_PID 2>/dev/null || true
 
+# Stop the latency tail; it prints its final histogram on exit
+kill -INT $TAIL_PID 2>/dev/null || true
+wait $TAIL_PID 2>/dev/null || true
+
 # Display results
 echo ""
 echo "=== C++ Processing Statistics ==="
 tail -20 /tmp/cpp_metrics.txt
 
+echo ""
+echo "=== Event Log Latency (Java tail) ==="
+tail -3 /tmp/latency_tail.txt
+
 echo ""
 echo "=== Benchmark Complete ==="
 echo ""
 echo "Results:"
 echo "  Java logs:  /tmp/java.log"
 echo "  C++ output: /tmp/cpp_metrics.txt"
+echo "  Latency:    /tmp/latency_tail.txt (p50/p99/p99.9/max every 10s)"
 echo ""
-echo "Next steps (Day 9 full implementation):"
-echo "  - Add latency measurement (Java write timestamp -> C++ process timestamp)"
-echo "  - Calculate p50/p90/p99/p999 latencies"
-echo "  - Target: p99 < 200µs on Linux with inotify"
+echo "Target: append->consume p99 < 200µs on Linux with inotify"
 echo ""
 echo "Current verification:"
 echo "  - Check that C++ processed all events (see counts in /tmp/cpp_metrics.txt)"